@@ -0,0 +1,34 @@
+package ru.ac.checkpointmanager.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Настройка логов для замеров: вывод в консоль заменяется appender'ом, который форматирует сообщение
+ * и отбрасывает его. Так замеряется стоимость логирования в коде приложения без стоимости вывода
+ */
+final class BenchmarkLogging {
+
+    private BenchmarkLogging() {
+    }
+
+    static void discardLogs(Level level) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        AppenderBase<ILoggingEvent> discarding = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                event.getFormattedMessage();
+            }
+        };
+        discarding.setContext(context);
+        discarding.start();
+        root.addAppender(discarding);
+        root.setLevel(level);
+    }
+}
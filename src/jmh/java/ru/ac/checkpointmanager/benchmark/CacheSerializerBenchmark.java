@@ -0,0 +1,93 @@
+package ru.ac.checkpointmanager.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.ac.checkpointmanager.configuration.cache.CacheValueCodecs;
+import ru.ac.checkpointmanager.configuration.cache.CompactRedisSerializer;
+import ru.ac.checkpointmanager.dto.PhoneDTO;
+import ru.ac.checkpointmanager.dto.TerritoryDTO;
+import ru.ac.checkpointmanager.dto.user.UserResponseDTO;
+import ru.ac.checkpointmanager.model.enums.PhoneNumberType;
+import ru.ac.checkpointmanager.model.enums.Role;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение сериализации значений кэша: json - как прежний RedisCacheManager, typedJson - как прежний
+ * RedisTemplate с activateDefaultTyping, compact - {@link CompactRedisSerializer}.
+ * Размер записи в байтах печатается при подготовке каждого варианта. Запуск: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CacheSerializerBenchmark {
+
+    @Param({"json", "typedJson", "compact"})
+    public String format;
+
+    @Param({"user", "territories", "phone"})
+    public String value;
+
+    private RedisSerializer<Object> serializer;
+
+    private Object cached;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        objectMapper.activateDefaultTyping(BasicPolymorphicTypeValidator.builder()
+                        .allowIfBaseType(Object.class).allowIfBaseType(Object[].class).build(),
+                ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+        serializer = switch (format) {
+            case "json" -> json;
+            case "typedJson" -> new GenericJackson2JsonRedisSerializer(objectMapper);
+            default -> new CompactRedisSerializer(CacheValueCodecs.all(), json);
+        };
+        cached = switch (value) {
+            case "user" -> new UserResponseDTO(UUID.randomUUID(), "Ivanov Ivan Ivanovich", "+79001234567",
+                    "ivanov@example.com", false, Role.USER, null);
+            case "territories" -> territories();
+            default -> new PhoneDTO(UUID.randomUUID(), "+79001234567", PhoneNumberType.MOBILE, UUID.randomUUID(),
+                    "work phone");
+        };
+        bytes = serializer.serialize(cached);
+        System.out.printf("%n%s %s: %d bytes per entry%n", format, value, bytes.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(cached);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(bytes);
+    }
+
+    private static List<TerritoryDTO> territories() {
+        List<TerritoryDTO> territories = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            territories.add(new TerritoryDTO(UUID.randomUUID(), "Territory " + i, "note", "Moscow",
+                    "Lenina street, " + i));
+        }
+        return territories;
+    }
+}
@@ -0,0 +1,92 @@
+package ru.ac.checkpointmanager.benchmark;
+
+import ch.qos.logback.classic.Level;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.model.enums.Role;
+import ru.ac.checkpointmanager.security.filter.JwtAuthenticationFilter;
+import ru.ac.checkpointmanager.security.jwt.impl.JwtServiceImpl;
+import ru.ac.checkpointmanager.security.jwt.impl.JwtValidatorImpl;
+import ru.ac.checkpointmanager.security.jwt.impl.VerifiedTokenCache;
+import ru.ac.checkpointmanager.security.principal.impl.PrincipalCacheImpl;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность фильтра аутентификации по JWT: повторный токен из кэша проверенных токенов
+ * против проверки подписи на каждом запросе (cached = false, кэш отключен). Пользователь загружается
+ * без базы через кэш пользователей, замеряется работа с токеном и контекстом безопасности.
+ * Логи форматируются и отбрасываются, level - уровень логов: INFO как в работе, DEBUG - с отладочными
+ * сообщениями. Запуск: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtFilterBenchmark {
+
+    @Param({"true", "false"})
+    public boolean cached;
+
+    @Param({"INFO", "DEBUG"})
+    public String level;
+
+    private JwtAuthenticationFilter filter;
+
+    private String authHeader;
+
+    private final FilterChain filterChain = (request, response) -> {
+    };
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.discardLogs(Level.toLevel(level));
+        JwtServiceImpl jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "secretKey",
+                "8790D58F7205C4C250CD67DD6D9B6F8B20D2E928FFAA6D4A2BEB2AD2189B01D1");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 3_600_000L);
+        jwtService.init();
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setFullName("Ivanov Ivan");
+        user.setEmail("ivanov@example.com");
+        user.setIsBlocked(false);
+        user.setRole(Role.USER);
+        authHeader = "Bearer " + jwtService.generateAccessToken(user);
+
+        JwtValidatorImpl jwtValidator = new JwtValidatorImpl(jwtService, new VerifiedTokenCache(cached ? 10_000 : 0));
+        PrincipalCacheImpl principalCache = new PrincipalCacheImpl(username -> user, null, null,
+                Duration.ofSeconds(30), 10_000);
+        filter = new JwtAuthenticationFilter(jwtValidator, principalCache,
+                (request, response, handler, ex) -> {
+                    throw new IllegalStateException("Unexpected filter error", ex);
+                });
+    }
+
+    @Benchmark
+    public Authentication authenticate() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", authHeader);
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,178 @@
+package ru.ac.checkpointmanager.benchmark;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.ac.checkpointmanager.dto.CrossingDTO;
+import ru.ac.checkpointmanager.dto.TerritoryDTO;
+import ru.ac.checkpointmanager.dto.passes.PassResponseDTO;
+import ru.ac.checkpointmanager.dto.user.UserResponseDTO;
+import ru.ac.checkpointmanager.mapper.CrossingMapper;
+import ru.ac.checkpointmanager.mapper.PassMapper;
+import ru.ac.checkpointmanager.mapper.TerritoryMapper;
+import ru.ac.checkpointmanager.mapper.UserMapper;
+import ru.ac.checkpointmanager.model.Crossing;
+import ru.ac.checkpointmanager.model.Territory;
+import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.model.Visitor;
+import ru.ac.checkpointmanager.model.car.Car;
+import ru.ac.checkpointmanager.model.car.CarBrand;
+import ru.ac.checkpointmanager.model.checkpoints.Checkpoint;
+import ru.ac.checkpointmanager.model.enums.Direction;
+import ru.ac.checkpointmanager.model.enums.Role;
+import ru.ac.checkpointmanager.model.passes.Pass;
+import ru.ac.checkpointmanager.model.passes.PassAuto;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.model.passes.PassTimeType;
+import ru.ac.checkpointmanager.model.passes.PassWalk;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение ручных преобразований сущностей в DTO с прежним сопоставлением через ModelMapper.
+ * Пропускная способность - преобразований в секунду, выделение памяти на одно преобразование
+ * выводит профилировщик gc (gc.alloc.rate.norm). Запуск: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MapperBenchmark {
+
+    private ModelMapper modelMapper;
+
+    private PassMapper passMapper;
+
+    private CrossingMapper crossingMapper;
+
+    private UserMapper userMapper;
+
+    private TerritoryMapper territoryMapper;
+
+    private User user;
+
+    private Territory territory;
+
+    private PassAuto passAuto;
+
+    private PassWalk passWalk;
+
+    private Crossing crossing;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        passMapper = new PassMapper(modelMapper);
+        crossingMapper = new CrossingMapper(modelMapper);
+        userMapper = new UserMapper(modelMapper);
+        territoryMapper = new TerritoryMapper(modelMapper);
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setFullName("Ivanov Ivan");
+        user.setMainNumber("+79001234567");
+        user.setEmail("ivanov@example.com");
+        user.setIsBlocked(false);
+        user.setRole(Role.USER);
+
+        territory = new Territory();
+        territory.setId(UUID.randomUUID());
+        territory.setName("Territory");
+        territory.setNote("note");
+        territory.setCity("Moscow");
+        territory.setAddress("Lenina, 1");
+
+        CarBrand brand = new CarBrand();
+        brand.setId(1L);
+        brand.setBrand("Lada");
+        Car car = new Car();
+        car.setId(UUID.randomUUID());
+        car.setLicensePlate("A123BC77");
+        car.setBrand(brand);
+        car.setPhone("+79007654321");
+        passAuto = new PassAuto();
+        fillPass(passAuto, "AUTO");
+        passAuto.setCar(car);
+
+        passWalk = new PassWalk();
+        fillPass(passWalk, "WALK");
+        passWalk.setVisitor(new Visitor(UUID.randomUUID(), "Petrov Petr", "+79001112233", null, "note"));
+
+        Checkpoint checkpoint = new Checkpoint();
+        checkpoint.setId(UUID.randomUUID());
+        crossing = new Crossing(UUID.randomUUID(), passAuto, checkpoint, ZonedDateTime.now(), LocalDateTime.now(),
+                Direction.IN, "key");
+    }
+
+    @Benchmark
+    public PassResponseDTO passAutoModelMapper() {
+        return modelMapper.map(passAuto, PassResponseDTO.class);
+    }
+
+    @Benchmark
+    public PassResponseDTO passAutoMapper() {
+        return passMapper.toPassDTO(passAuto);
+    }
+
+    @Benchmark
+    public PassResponseDTO passWalkModelMapper() {
+        return modelMapper.map(passWalk, PassResponseDTO.class);
+    }
+
+    @Benchmark
+    public PassResponseDTO passWalkMapper() {
+        return passMapper.toPassDTO(passWalk);
+    }
+
+    @Benchmark
+    public CrossingDTO crossingModelMapper() {
+        return modelMapper.map(crossing, CrossingDTO.class);
+    }
+
+    @Benchmark
+    public CrossingDTO crossingMapper() {
+        return crossingMapper.toCrossingDTO(crossing);
+    }
+
+    @Benchmark
+    public UserResponseDTO userModelMapper() {
+        return modelMapper.map(user, UserResponseDTO.class);
+    }
+
+    @Benchmark
+    public UserResponseDTO userMapper() {
+        return userMapper.toUserResponseDTO(user);
+    }
+
+    @Benchmark
+    public TerritoryDTO territoryModelMapper() {
+        return modelMapper.map(territory, TerritoryDTO.class);
+    }
+
+    @Benchmark
+    public TerritoryDTO territoryMapper() {
+        return territoryMapper.toTerritoryDTO(territory);
+    }
+
+    private void fillPass(Pass pass, String dtype) {
+        pass.setId(UUID.randomUUID());
+        pass.setUser(user);
+        pass.setComment("comment");
+        pass.setStatus(PassStatus.ACTIVE);
+        pass.setTimeType(PassTimeType.PERMANENT);
+        pass.setTerritory(territory);
+        pass.setAddedAt(LocalDateTime.now());
+        pass.setStartTime(LocalDateTime.now());
+        pass.setEndTime(LocalDateTime.now().plusDays(1));
+        pass.setDtype(dtype);
+        pass.setFavorite(false);
+        pass.setExpectedDirection(Direction.IN);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.ac.checkpointmanager.benchmark;
+
+import ch.qos.logback.classic.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import ru.ac.checkpointmanager.utils.MethodLog;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость имени метода в сообщении лога: прежний снимок всего стека при каждом вызове
+ * против {@link MethodLog#caller()}, при выключенном (INFO) и включенном (DEBUG) уровне. Запуск: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MethodLogBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(MethodLogBenchmark.class);
+
+    @Param({"INFO", "DEBUG"})
+    public String level;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.discardLogs(Level.toLevel(level));
+    }
+
+    @Benchmark
+    public void stackTrace() {
+        log.debug("Method {} was invoked", stackTraceMethodName());
+    }
+
+    @Benchmark
+    public void caller() {
+        log.debug("Method {} was invoked", MethodLog.caller());
+    }
+
+    /**
+     * Прежняя реализация MethodLog.getMethodName()
+     */
+    private static String stackTraceMethodName() {
+        StackTraceElement[] stackTraceElements = Thread.currentThread().getStackTrace();
+        return stackTraceElements[2].getMethodName();
+    }
+}
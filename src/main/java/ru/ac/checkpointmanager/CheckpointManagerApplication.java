@@ -4,13 +4,18 @@ import com.ulisesbocchio.jasyptspringboot.annotation.EnableEncryptableProperties
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
 
 import java.util.TimeZone;
 
 
 @SpringBootApplication
 @EnableEncryptableProperties
-@EnableCaching
+/*
+ * Кэш проверяется до открытия транзакции: потоки, ждущие загрузку значения другим потоком,
+ * не держат соединения с БД
+ */
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 public class CheckpointManagerApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,15 @@
+package ru.ac.checkpointmanager.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Помечает объект, который получает параметры запроса cursor, size и withTotal
+ * и преобразует их в параметры в CursorRequestParamsResolver
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CursorParam {
+}
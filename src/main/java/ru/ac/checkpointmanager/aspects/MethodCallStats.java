@@ -0,0 +1,81 @@
+package ru.ac.checkpointmanager.aspects;
+
+import ru.ac.checkpointmanager.dto.ServiceCallStatsDTO;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики вызовов одного метода: гистограмма длительности с интервалами по степеням двойки в микросекундах,
+ * число ошибок, суммарное и максимальное время. Запись не выделяет память и не блокирует потоки
+ */
+final class MethodCallStats {
+
+    /**
+     * Интервал 0 - меньше 1 мкс, интервал i - от 2^(i-1) до 2^i мкс, последний - все, что дольше
+     */
+    static final int BUCKETS = 32;
+
+    private final String method;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    MethodCallStats(String method) {
+        this.method = method;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    void record(long nanos, boolean failed) {
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos / 1000));
+        buckets[bucket].increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    ServiceCallStatsDTO toDTO() {
+        long[] counts = new long[BUCKETS];
+        long calls = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            calls += counts[i];
+        }
+        double maxMs = maxNanos.get() / 1_000_000.0;
+        double totalMs = totalNanos.sum() / 1_000_000.0;
+        return new ServiceCallStatsDTO(method, calls, errors.sum(), calls == 0 ? 0 : totalMs / calls,
+                percentile(counts, calls, 0.5, maxMs), percentile(counts, calls, 0.95, maxMs),
+                percentile(counts, calls, 0.99, maxMs), maxMs, totalMs);
+    }
+
+    /**
+     * @return верхняя граница интервала, в который попадает перцентиль, но не больше максимума, мс
+     */
+    private static double percentile(long[] counts, long calls, double quantile, double maxMs) {
+        if (calls == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * calls);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min((1L << i) / 1000.0, maxMs);
+            }
+        }
+        return maxMs;
+    }
+}
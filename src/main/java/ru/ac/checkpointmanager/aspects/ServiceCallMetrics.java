@@ -0,0 +1,53 @@
+package ru.ac.checkpointmanager.aspects;
+
+import org.springframework.stereotype.Component;
+import ru.ac.checkpointmanager.dto.ServiceCallStatsDTO;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Статистика вызовов методов сервисов, которую собирает {@link ServiceCallMetricsAspect}.
+ * Находится вне пакета service, чтобы обращения к ней не перехватывались тем же аспектом
+ */
+@Component
+public class ServiceCallMetrics {
+
+    private final Map<Method, MethodCallStats> statsByMethod = new ConcurrentHashMap<>();
+
+    /**
+     * @return статистика вызовов, отсортированная по суммарному времени, самые нагруженные методы первыми
+     */
+    public List<ServiceCallStatsDTO> getStats() {
+        return statsByMethod.values().stream()
+                .map(MethodCallStats::toDTO)
+                .sorted(Comparator.comparingDouble(ServiceCallStatsDTO::getTotalMs).reversed())
+                .toList();
+    }
+
+    /**
+     * Сбрасывает статистику всех методов
+     */
+    public void reset() {
+        statsByMethod.clear();
+    }
+
+    MethodCallStats stats(Method method) {
+        MethodCallStats stats = statsByMethod.get(method);
+        if (stats != null) {
+            return stats;
+        }
+        return statsByMethod.computeIfAbsent(method, key -> new MethodCallStats(describe(key)));
+    }
+
+    private static String describe(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName() + "("
+                + Arrays.stream(method.getParameterTypes()).map(Class::getSimpleName).collect(Collectors.joining(","))
+                + ")";
+    }
+}
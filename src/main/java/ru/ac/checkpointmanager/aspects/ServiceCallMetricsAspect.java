@@ -0,0 +1,139 @@
+package ru.ac.checkpointmanager.aspects;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.time.temporal.Temporal;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Замеряет вызовы методов сервисов: длительность и ошибки каждого вызова записываются в {@link ServiceCallMetrics}.
+ * <p>
+ * Аргументы вызова в лог попадают только для выборки вызовов: медленные вызовы (дольше slow-threshold) пишутся
+ * с уровнем WARN, доля sample-rate остальных - с уровнем DEBUG. Строка аргументов строится при форматировании
+ * сообщения, то есть только если уровень лога включен. Простые значения выводятся как есть, остальные объекты,
+ * в том числе сущности JPA, - только именем класса, коллекции - размером, чтобы не загружать ленивые связи
+ * <p>
+ * Не публичные методы замеряются в зависимости от свойства include-non-public (вызовы внутри объекта
+ * не перехватываются вне зависимости от модификаторов доступа вследствие использования прокси в Spring AOP)
+ */
+@Component
+@Aspect
+@Slf4j
+@ConditionalOnProperty(name = "logging.aspect.call-service", havingValue = "true")
+public class ServiceCallMetricsAspect {
+
+    private static final int MAX_ARG_LENGTH = 100;
+
+    private final ServiceCallMetrics metrics;
+
+    private final boolean includeNonPublicMethods;
+
+    private final double sampleRate;
+
+    private final long slowThresholdNanos;
+
+    public ServiceCallMetricsAspect(ServiceCallMetrics metrics,
+                                    @Value("${logging.aspect.include-non-public:false}")
+                                    boolean includeNonPublicMethods,
+                                    @Value("${logging.aspect.sample-rate:0.01}") double sampleRate,
+                                    @Value("${logging.aspect.slow-threshold:PT0.5S}") Duration slowThreshold) {
+        this.metrics = metrics;
+        this.includeNonPublicMethods = includeNonPublicMethods;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    /**
+     * Pointcut для перехвата вызова методов из сервисов
+     */
+    @Pointcut("execution(* ru.ac.checkpointmanager.service..*.*(..))")
+    public void callAtServicesMethods() {
+        //body unnecessary
+    }
+
+    /**
+     * Замеряет вызов метода сервиса и записывает его в статистику, выборочно логирует вызов с аргументами
+     *
+     * @param joinPoint точка присоединения аспекта к коду сервиса
+     * @return результат вызова
+     */
+    @Around("callAtServicesMethods()")
+    public Object measureCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        if (!includeNonPublicMethods && !Modifier.isPublic(method.getModifiers())) {
+            return joinPoint.proceed();
+        }
+        MethodCallStats stats = metrics.stats(method);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            stats.record(nanos, failed);
+            if (nanos >= slowThresholdNanos) {
+                log.warn("Slow call {} took {} ms, failed={}, args=[{}]", stats.getMethod(), nanos / 1_000_000,
+                        failed, new CallArgs(joinPoint.getArgs()));
+            } else if (log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                log.debug("Call {} took {} us, failed={}, args=[{}]", stats.getMethod(), nanos / 1000,
+                        failed, new CallArgs(joinPoint.getArgs()));
+            }
+        }
+    }
+
+    /**
+     * Аргументы вызова, строка строится при форматировании сообщения лога
+     */
+    private record CallArgs(Object[] args) {
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < args.length; i++) {
+                if (i > 0) {
+                    builder.append(',');
+                }
+                builder.append(render(args[i]));
+            }
+            return builder.toString();
+        }
+
+        private static String render(Object arg) {
+            if (arg == null) {
+                return "null";
+            }
+            if (arg instanceof CharSequence || arg instanceof Number || arg instanceof Boolean
+                    || arg instanceof Enum<?> || arg instanceof UUID || arg instanceof Temporal) {
+                String value = arg.toString();
+                return value.length() > MAX_ARG_LENGTH ? value.substring(0, MAX_ARG_LENGTH) + "..." : value;
+            }
+            if (!Hibernate.isInitialized(arg)) {
+                return arg.getClass().getSimpleName() + "[not loaded]";
+            }
+            if (arg instanceof Collection<?> collection) {
+                return arg.getClass().getSimpleName() + "[" + collection.size() + "]";
+            }
+            if (arg instanceof Map<?, ?> map) {
+                return arg.getClass().getSimpleName() + "[" + map.size() + "]";
+            }
+            return arg.getClass().getSimpleName();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ru.ac.checkpointmanager.configuration;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.annotation.RequestParamMethodArgumentResolver;
+import ru.ac.checkpointmanager.annotation.CursorParam;
+import ru.ac.checkpointmanager.dto.passes.CursorParams;
+
+public class CursorRequestParamsResolver extends RequestParamMethodArgumentResolver {
+
+    private static final String CURSOR = "cursor";
+
+    private static final String WITH_TOTAL = "withTotal";
+
+    public CursorRequestParamsResolver(boolean useDefaultResolution) {
+        super(useDefaultResolution);
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CursorParam.class);
+    }
+
+    @Override
+    protected Object resolveName(@NonNull String name,
+                                 @NonNull MethodParameter parameter,
+                                 @NonNull NativeWebRequest request) {
+        return new CursorParams(
+                request.getParameter(CURSOR),
+                resolveSize(request),
+                Boolean.parseBoolean(request.getParameter(WITH_TOTAL))
+        );
+    }
+
+    private Integer resolveSize(NativeWebRequest request) {
+        String size = request.getParameter(PagingRequestParamsResolver.SIZE);
+        return size == null ? 20 : Integer.parseInt(size);
+    }
+}
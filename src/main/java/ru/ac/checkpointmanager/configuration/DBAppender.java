@@ -1,7 +1,8 @@
 package ru.ac.checkpointmanager.configuration;
 
 import ch.qos.logback.classic.spi.ILoggingEvent;
-import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import lombok.AccessLevel;
 import lombok.Setter;
 
 import java.sql.Connection;
@@ -9,16 +10,78 @@ import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Асинхронная запись логов в таблицу logs.
+ * <p>
+ * Поток, который пишет лог, только кладет запись в ограниченный кольцевой буфер {@link LogRingBuffer}
+ * и не ждет базу. Фоновый поток забирает записи пачками до batchSize и вставляет их одним JDBC batch
+ * через свое соединение и один PreparedStatement. Пачка отправляется, когда набралось batchSize записей
+ * или прошло flushInterval мс.
+ * <p>
+ * При заполненном буфере запись по overflowPolicy отбрасывается (DROP) или поток ждет место
+ * до blockTimeout мс и после этого отбрасывает запись (BLOCK). Отброшенные записи считаются.
+ * <p>
+ * При потере соединения пачка сохраняется, и фоновый поток переподключается с растущей паузой до
+ * maxReconnectDelay мс, записи тем временем накапливаются в буфере. Пачка вставляется в одной транзакции.
+ * Если соединение живо, а вставка не удалась, пачка повторяется по одной записи в своей транзакции,
+ * отбрасываются и считаются ошибочными только записи, которые не удалось вставить. При остановке
+ * оставшиеся записи дописываются в течение shutdownTimeout мс
+ */
 @Setter
-public class DBAppender extends AppenderBase<ILoggingEvent> {
+public class DBAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    private static final String INSERT = "INSERT INTO logs (time, level, logger, message) VALUES (?, ?, ?, ?)";
+
+    private static final long INITIAL_RECONNECT_DELAY_MILLIS = 500;
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
 
-    private Connection connection;
     private String url;
     private String username;
     private String password;
+    private int bufferSize = 8192;
+    private int batchSize = 500;
+    private long flushInterval = 200;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+    private long blockTimeout = 100;
+    private long maxReconnectDelay = 30_000;
+    private long shutdownTimeout = 5_000;
+
+    @Setter(AccessLevel.NONE)
+    private LogRingBuffer<LogRow> buffer;
+
+    @Setter(AccessLevel.NONE)
+    private Thread writer;
+
+    @Setter(AccessLevel.NONE)
+    private volatile boolean running;
+
+    @Setter(AccessLevel.NONE)
+    private Connection connection;
+
+    @Setter(AccessLevel.NONE)
+    private PreparedStatement statement;
 
+    @Setter(AccessLevel.NONE)
+    private boolean connectionLost;
 
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong blocked = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
 
     @Override
     public void start() {
@@ -26,49 +89,260 @@ public class DBAppender extends AppenderBase<ILoggingEvent> {
             addError("One or more of the database connection parameters is null");
             return;
         }
-
-        try {
-            connection = DriverManager.getConnection(url, username, password);
-        } catch (SQLException e) {
-            addError("Failed to establish database connection", e);
+        if (bufferSize < 1 || batchSize < 1) {
+            addError("bufferSize and batchSize must be positive");
+            return;
         }
+        buffer = new LogRingBuffer<>(bufferSize);
+        running = true;
+        writer = new Thread(this::writeLoop, "db-log-writer");
+        writer.setDaemon(true);
+        writer.start();
         super.start();
     }
 
     @Override
     protected void append(ILoggingEvent eventObject) {
-        if (!isStarted() || connection == null) {
+        if (!running) {
             return;
         }
+        LogRow row = new LogRow(eventObject.getTimeStamp(), eventObject.getLevel().toString(),
+                eventObject.getLoggerName(), eventObject.getFormattedMessage());
+        if (buffer.offer(row)) {
+            if (buffer.size() >= batchSize) {
+                LockSupport.unpark(writer);
+            }
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.BLOCK && offerBlocking(row)) {
+            return;
+        }
+        dropped.incrementAndGet();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(shutdownTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            addWarn("Log writer did not flush in %d ms, %d log records are lost"
+                    .formatted(shutdownTimeout, buffer.size()));
+            writer.interrupt();
+        }
+        if (dropped.get() > 0 || failed.get() > 0) {
+            addWarn("%d log records written, %d dropped on overflow or shutdown, %d failed to insert"
+                    .formatted(written.get(), dropped.get(), failed.get()));
+        }
+        super.stop();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
 
-        Timestamp time = new Timestamp(eventObject.getTimeStamp());
-        String logLevel = eventObject.getLevel().toString();
-        String loggerName = eventObject.getLoggerName();
-        String message = eventObject.getFormattedMessage();
+    public long getDropped() {
+        return dropped.get();
+    }
 
+    public long getBlocked() {
+        return blocked.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    private boolean offerBlocking(LogRow row) {
+        blocked.incrementAndGet();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(blockTimeout);
+        while (running && System.nanoTime() - deadline < 0) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+            if (buffer.offer(row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Цикл фонового потока: пока appender запущен, и после остановки - пока в буфере есть записи
+     */
+    private void writeLoop() {
+        List<LogRow> batch = new ArrayList<>(batchSize);
+        long flushNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+        long reconnectDelay = INITIAL_RECONNECT_DELAY_MILLIS;
         try {
-            PreparedStatement preparedStatement = connection.prepareStatement(
-                    "INSERT INTO logs (time, level, logger, message) VALUES (?, ?, ?, ?)");
+            while (!Thread.currentThread().isInterrupted()) {
+                if (batch.isEmpty()) {
+                    drainTo(batch);
+                }
+                if (batch.isEmpty()) {
+                    if (!running) {
+                        break;
+                    }
+                    LockSupport.parkNanos(this, flushNanos);
+                    continue;
+                }
+                if (write(batch)) {
+                    batch.clear();
+                    reconnectDelay = INITIAL_RECONNECT_DELAY_MILLIS;
+                } else if (!running) {
+                    dropped.addAndGet(batch.size());
+                    batch.clear();
+                    while (buffer.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                    break;
+                } else {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(reconnectDelay));
+                    reconnectDelay = Math.min(reconnectDelay * 2, maxReconnectDelay);
+                }
+            }
+        } finally {
+            closeConnection();
+        }
+    }
 
-            preparedStatement.setTimestamp(1, time);
-            preparedStatement.setString(2, logLevel);
-            preparedStatement.setString(3, loggerName);
-            preparedStatement.setString(4, message);
+    private void drainTo(List<LogRow> batch) {
+        LogRow row;
+        while (batch.size() < batchSize && (row = buffer.poll()) != null) {
+            batch.add(row);
+        }
+    }
 
-            preparedStatement.executeUpdate();
-            preparedStatement.close();
+    /**
+     * @return false, если соединение с базой потеряно и пачку нужно повторить после переподключения
+     */
+    private boolean write(List<LogRow> batch) {
+        try {
+            PreparedStatement insert = statement();
+            for (LogRow row : batch) {
+                bind(insert, row);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            connection.commit();
+            written.addAndGet(batch.size());
+            if (connectionLost) {
+                connectionLost = false;
+                addInfo("Database connection for logs restored");
+            }
+            return true;
         } catch (SQLException e) {
-            addError("Failed to insert log record into the database", e);
+            rollback();
+            if (isConnectionValid()) {
+                addWarn("Failed to insert %d log records in batch, inserting one by one".formatted(batch.size()), e);
+                clearBatch();
+                return writeOneByOne(batch);
+            }
+            onConnectionLost(e);
+            return false;
         }
     }
 
-    @Override
-    public void stop() {
+    /**
+     * Вставляет записи пачки по одной, отбрасывая только те, которые не удалось вставить.
+     * При потере соединения вставленные записи удаляются из пачки, остальные повторяются после переподключения
+     *
+     * @return false, если соединение с базой потеряно
+     */
+    private boolean writeOneByOne(List<LogRow> batch) {
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                bind(statement, batch.get(i));
+                statement.executeUpdate();
+                connection.commit();
+                written.incrementAndGet();
+            } catch (SQLException e) {
+                rollback();
+                if (!isConnectionValid()) {
+                    batch.subList(0, i).clear();
+                    onConnectionLost(e);
+                    return false;
+                }
+                failed.incrementAndGet();
+                addError("Failed to insert log record into the database", e);
+            }
+        }
+        return true;
+    }
+
+    private static void bind(PreparedStatement insert, LogRow row) throws SQLException {
+        insert.setTimestamp(1, new Timestamp(row.time()));
+        insert.setString(2, row.level());
+        insert.setString(3, row.logger());
+        insert.setString(4, row.message());
+    }
+
+    private PreparedStatement statement() throws SQLException {
+        if (statement == null) {
+            connection = DriverManager.getConnection(url, username, password);
+            connection.setAutoCommit(false);
+            statement = connection.prepareStatement(INSERT);
+        }
+        return statement;
+    }
+
+    private void onConnectionLost(SQLException e) {
+        if (!connectionLost) {
+            connectionLost = true;
+            addWarn("Database connection for logs lost, reconnecting", e);
+        }
+        closeConnection();
+    }
+
+    private void rollback() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            // соединение проверяется после отката, потерянное закрывается
+        }
+    }
+
+    private boolean isConnectionValid() {
+        try {
+            return connection != null && connection.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void clearBatch() {
+        if (statement == null) {
+            return;
+        }
+        try {
+            statement.clearBatch();
+        } catch (SQLException e) {
+            closeConnection();
+        }
+    }
+
+    private void closeConnection() {
+        statement = null;
+        if (connection == null) {
+            return;
+        }
         try {
             connection.close();
         } catch (SQLException e) {
             addError("Failed to close database connection", e);
         }
-        super.stop();
+        connection = null;
+    }
+
+    private record LogRow(long time, String level, String logger, String message) {
     }
 }
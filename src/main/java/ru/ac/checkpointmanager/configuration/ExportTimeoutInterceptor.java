@@ -0,0 +1,34 @@
+package ru.ac.checkpointmanager.configuration;
+
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import ru.ac.checkpointmanager.utils.ExportUtils;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Задает время ожидания записи ответа для запросов экспорта, помеченных {@link ExportUtils#EXPORT_ATTRIBUTE}.
+ * <p>
+ * Тело экспорта пишется асинхронно и для большой территории дольше общего времени ожидания асинхронных
+ * запросов. Время ожидания меняется до начала асинхронной обработки только для этого запроса
+ */
+public class ExportTimeoutInterceptor implements CallableProcessingInterceptor {
+
+    private final Duration timeout;
+
+    public ExportTimeoutInterceptor(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(@NonNull NativeWebRequest request, @NonNull Callable<T> task) {
+        if (request instanceof AsyncWebRequest asyncRequest
+                && request.getAttribute(ExportUtils.EXPORT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            asyncRequest.setTimeout(timeout.toMillis());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.ac.checkpointmanager.configuration;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ограниченный кольцевой буфер без блокировок для {@link DBAppender}: много писателей, один читатель.
+ * <p>
+ * Каждая ячейка хранит номер позиции, для которой она свободна или заполнена. Писатель занимает позицию
+ * CAS-ом счетчика tail, записывает элемент и публикует его номером ячейки. Читатель забирает элементы
+ * по порядку позиций и освобождает ячейку для позиции на круг дальше
+ *
+ * @param <E> тип элемента
+ */
+final class LogRingBuffer<E> {
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> elements;
+
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity размер буфера, округляется вверх до степени двойки
+     */
+    LogRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int rounded = 1;
+        while (rounded < capacity) {
+            rounded <<= 1;
+        }
+        this.capacity = rounded;
+        this.mask = this.capacity - 1;
+        this.elements = new AtomicReferenceArray<>(this.capacity);
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Добавляет элемент, может вызываться из любых потоков
+     *
+     * @return false, если буфер заполнен
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Забирает следующий элемент, вызывается только одним потоком-читателем
+     *
+     * @return элемент, null - буфер пуст
+     */
+    E poll() {
+        long position = head.get();
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = elements.get(index);
+        elements.set(index, null);
+        head.set(position + 1);
+        sequences.set(index, position + capacity);
+        return element;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
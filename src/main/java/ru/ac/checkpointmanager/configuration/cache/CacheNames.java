@@ -0,0 +1,21 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+/**
+ * Имена кэшей приложения
+ */
+public final class CacheNames {
+
+    public static final String USER = "user";
+
+    public static final String USER_TERRITORY = "user-territory";
+
+    public static final String PHONE = "phone";
+
+    public static final String EMAIL = "email";
+
+    public static final String REGISTRATION = "registration";
+
+    private CacheNames() {
+        throw new AssertionError("No instances, please");
+    }
+}
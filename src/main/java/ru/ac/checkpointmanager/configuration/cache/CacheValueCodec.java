@@ -0,0 +1,32 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Двоичное представление DTO одного типа для {@link CompactRedisSerializer}.
+ * <p>
+ * При изменении набора или порядка полей версия увеличивается: записи другой версии читаются как промах кэша
+ * и перезаписываются, поэтому экземпляры разных версий приложения при поэтапном обновлении не портят кэш
+ *
+ * @param <T> тип DTO
+ */
+public interface CacheValueCodec<T> {
+
+    /**
+     * @return постоянный идентификатор типа в записи, не меняется и не переиспользуется
+     */
+    int typeId();
+
+    /**
+     * @return версия схемы полей
+     */
+    int version();
+
+    Class<T> type();
+
+    void write(T value, DataOutput out) throws IOException;
+
+    T read(DataInput in) throws IOException;
+}
@@ -0,0 +1,228 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import ru.ac.checkpointmanager.dto.PhoneDTO;
+import ru.ac.checkpointmanager.dto.TerritoryDTO;
+import ru.ac.checkpointmanager.dto.avatar.AvatarDTO;
+import ru.ac.checkpointmanager.dto.user.EmailConfirmationDTO;
+import ru.ac.checkpointmanager.dto.user.RegistrationConfirmationDTO;
+import ru.ac.checkpointmanager.dto.user.UserResponseDTO;
+import ru.ac.checkpointmanager.model.enums.PhoneNumberType;
+import ru.ac.checkpointmanager.model.enums.Role;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Двоичные представления кэшируемых DTO. Поля пишутся по порядку без имен, строки - длиной и байтами UTF-8,
+ * перечисления - по имени, чтобы перестановка констант не меняла смысл записей
+ */
+public final class CacheValueCodecs {
+
+    public static final CacheValueCodec<UserResponseDTO> USER = new Codec<>(10, 1, UserResponseDTO.class) {
+        @Override
+        public void write(UserResponseDTO user, DataOutput out) throws IOException {
+            writeUuid(user.getId(), out);
+            writeString(user.getFullName(), out);
+            writeString(user.getMainNumber(), out);
+            writeString(user.getEmail(), out);
+            writeBoolean(user.getIsBlocked(), out);
+            writeEnum(user.getRole(), out);
+            AvatarDTO avatar = user.getAvatarDTO();
+            out.writeBoolean(avatar != null);
+            if (avatar != null) {
+                writeUuid(avatar.getAvatarId(), out);
+                writeString(avatar.getMediaType(), out);
+            }
+        }
+
+        @Override
+        public UserResponseDTO read(DataInput in) throws IOException {
+            return new UserResponseDTO(readUuid(in), readString(in), readString(in), readString(in),
+                    readBoolean(in), readEnum(Role.class, in),
+                    in.readBoolean() ? new AvatarDTO(readUuid(in), readString(in)) : null);
+        }
+    };
+
+    public static final CacheValueCodec<TerritoryDTO> TERRITORY = new Codec<>(11, 1, TerritoryDTO.class) {
+        @Override
+        public void write(TerritoryDTO territory, DataOutput out) throws IOException {
+            writeUuid(territory.getId(), out);
+            writeString(territory.getName(), out);
+            writeString(territory.getNote(), out);
+            writeString(territory.getCity(), out);
+            writeString(territory.getAddress(), out);
+        }
+
+        @Override
+        public TerritoryDTO read(DataInput in) throws IOException {
+            return new TerritoryDTO(readUuid(in), readString(in), readString(in), readString(in), readString(in));
+        }
+    };
+
+    public static final CacheValueCodec<PhoneDTO> PHONE = new Codec<>(12, 1, PhoneDTO.class) {
+        @Override
+        public void write(PhoneDTO phone, DataOutput out) throws IOException {
+            writeUuid(phone.getId(), out);
+            writeString(phone.getNumber(), out);
+            writeEnum(phone.getType(), out);
+            writeUuid(phone.getUserId(), out);
+            writeString(phone.getNote(), out);
+        }
+
+        @Override
+        public PhoneDTO read(DataInput in) throws IOException {
+            return new PhoneDTO(readUuid(in), readString(in), readEnum(PhoneNumberType.class, in), readUuid(in),
+                    readString(in));
+        }
+    };
+
+    public static final CacheValueCodec<EmailConfirmationDTO> EMAIL_CONFIRMATION =
+            new Codec<>(13, 1, EmailConfirmationDTO.class) {
+                @Override
+                public void write(EmailConfirmationDTO confirmation, DataOutput out) throws IOException {
+                    writeString(confirmation.getPreviousEmail(), out);
+                    writeString(confirmation.getNewEmail(), out);
+                    writeString(confirmation.getVerifiedToken(), out);
+                }
+
+                @Override
+                public EmailConfirmationDTO read(DataInput in) throws IOException {
+                    return new EmailConfirmationDTO(readString(in), readString(in), readString(in));
+                }
+            };
+
+    public static final CacheValueCodec<RegistrationConfirmationDTO> REGISTRATION_CONFIRMATION =
+            new Codec<>(14, 1, RegistrationConfirmationDTO.class) {
+                @Override
+                public void write(RegistrationConfirmationDTO confirmation, DataOutput out) throws IOException {
+                    writeString(confirmation.getFullName(), out);
+                    writeString(confirmation.getEmail(), out);
+                    writeString(confirmation.getPassword(), out);
+                    writeString(confirmation.getVerifiedToken(), out);
+                }
+
+                @Override
+                public RegistrationConfirmationDTO read(DataInput in) throws IOException {
+                    return new RegistrationConfirmationDTO(readString(in), readString(in), readString(in),
+                            readString(in));
+                }
+            };
+
+    private CacheValueCodecs() {
+        throw new AssertionError("No instances, please");
+    }
+
+    public static List<CacheValueCodec<?>> all() {
+        return List.of(USER, TERRITORY, PHONE, EMAIL_CONFIRMATION, REGISTRATION_CONFIRMATION);
+    }
+
+    /**
+     * null пишется как 0, иначе длина + 1 переменным числом байт
+     */
+    static void writeString(String value, DataOutput out) throws IOException {
+        if (value == null) {
+            writeVarInt(0, out);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1, out);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = readVarInt(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeUuid(UUID value, DataOutput out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    static UUID readUuid(DataInput in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+
+    /**
+     * null - 0, false - 1, true - 2
+     */
+    static void writeBoolean(Boolean value, DataOutput out) throws IOException {
+        out.writeByte(value == null ? 0 : value ? 2 : 1);
+    }
+
+    static Boolean readBoolean(DataInput in) throws IOException {
+        byte value = in.readByte();
+        return value == 0 ? null : value == 2;
+    }
+
+    static void writeEnum(Enum<?> value, DataOutput out) throws IOException {
+        writeString(value == null ? null : value.name(), out);
+    }
+
+    static <E extends Enum<E>> E readEnum(Class<E> type, DataInput in) throws IOException {
+        String name = readString(in);
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    static void writeVarInt(int value, DataOutput out) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed variable length integer");
+    }
+
+    private abstract static class Codec<T> implements CacheValueCodec<T> {
+
+        private final int typeId;
+
+        private final int version;
+
+        private final Class<T> type;
+
+        Codec(int typeId, int version, Class<T> type) {
+            this.typeId = typeId;
+            this.version = version;
+            this.type = type;
+        }
+
+        @Override
+        public int typeId() {
+            return typeId;
+        }
+
+        @Override
+        public int version() {
+            return version;
+        }
+
+        @Override
+        public Class<T> type() {
+            return type;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.NonNull;
+import ru.ac.checkpointmanager.utils.ExpiringMap;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Кэш Redis с локальным кэшем на время недоступности Redis, переключение выполняет {@link RedisCircuitBreaker}.
+ * <p>
+ * Локальный кэш ограничен по размеру и времени жизни записей. Ключи, записанные или удаленные локально,
+ * запоминаются и после восстановления Redis удаляются из него: значение в Redis могло устареть.
+ * Если таких ключей больше maxSize, после восстановления очищается весь кэш Redis.
+ * <p>
+ * Для кэшей с replayPuts (подтверждения регистрации и смены почты) локальные записи после восстановления
+ * переносятся в Redis, чтобы ссылка из письма работала на любом экземпляре приложения.
+ * Время жизни локальной записи для них равно времени жизни в Redis, в Redis запись переносится с оставшимся
+ * временем жизни (см. {@link ReplayTtl}), поэтому устаревшая ссылка не оживает и не живет дольше положенного.
+ * Удаление подтверждения во время недоступности Redis после восстановления удаляет его и из Redis,
+ * поэтому ссылку нельзя использовать повторно
+ */
+@Slf4j
+public class CircuitBreakerCache implements Cache {
+
+    private final Cache redisCache;
+
+    private final RedisCircuitBreaker breaker;
+
+    private final long ttlNanos;
+
+    private final int maxSize;
+
+    private final boolean replayPuts;
+
+    private final ExpiringMap<String, Entry> entries;
+
+    /**
+     * Ключи, измененные локально: строковое представление и исходный ключ
+     */
+    private final Map<String, Object> dirtyKeys = new ConcurrentHashMap<>();
+
+    private volatile boolean clearPending;
+
+    public CircuitBreakerCache(Cache redisCache, RedisCircuitBreaker breaker, long ttlNanos, int maxSize,
+                               boolean replayPuts) {
+        this.redisCache = redisCache;
+        this.breaker = breaker;
+        this.ttlNanos = ttlNanos;
+        this.maxSize = maxSize;
+        this.replayPuts = replayPuts;
+        this.entries = new ExpiringMap<>(maxSize, Entry::expiresAt, System::nanoTime);
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return redisCache.getName();
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(@NonNull Object key) {
+        return breaker.execute(() -> redisCache.get(key), () -> getLocal(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, Class<T> type) {
+        return breaker.execute(() -> redisCache.get(key, type), () -> {
+            ValueWrapper value = getLocal(key);
+            Object stored = value == null ? null : value.get();
+            if (stored != null && type != null && !type.isInstance(stored)) {
+                throw new IllegalStateException("Cached value is not of required type [%s]: %s"
+                        .formatted(type.getName(), stored));
+            }
+            return (T) stored;
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        return breaker.execute(() -> redisCache.get(key, valueLoader), () -> {
+            ValueWrapper cached = getLocal(key);
+            if (cached != null) {
+                return (T) cached.get();
+            }
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            putLocal(key, value);
+            return value;
+        });
+    }
+
+    @Override
+    public void put(@NonNull Object key, Object value) {
+        breaker.execute(() -> {
+            redisCache.put(key, value);
+            return null;
+        }, () -> {
+            putLocal(key, value);
+            return null;
+        });
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(@NonNull Object key, Object value) {
+        return breaker.execute(() -> redisCache.putIfAbsent(key, value), () -> {
+            ValueWrapper existing = getLocal(key);
+            if (existing == null) {
+                putLocal(key, value);
+            }
+            return existing;
+        });
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        evictIfPresent(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        return breaker.execute(() -> redisCache.evictIfPresent(key), () -> evictLocal(key));
+    }
+
+    @Override
+    public void clear() {
+        invalidate();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return breaker.execute(redisCache::invalidate, () -> {
+            boolean hadEntries = !entries.isEmpty();
+            entries.clear();
+            dirtyKeys.clear();
+            clearPending = true;
+            return hadEntries;
+        });
+    }
+
+    boolean hasPending() {
+        return clearPending || !dirtyKeys.isEmpty() || !entries.isEmpty();
+    }
+
+    int pendingSize() {
+        return dirtyKeys.size() + (clearPending ? 1 : 0);
+    }
+
+    /**
+     * Переносит локальные изменения в Redis и очищает локальный кэш.
+     * Вызывается выключателем, когда локальный кэш не изменяется
+     */
+    void drain() {
+        if (clearPending) {
+            redisCache.clear();
+            clearPending = false;
+        }
+        long now = System.nanoTime();
+        for (Map.Entry<String, Object> dirty : dirtyKeys.entrySet()) {
+            Entry entry = replayPuts ? entries.get(dirty.getKey()) : null;
+            if (entry == null || remainingTtl(entry, now) == null) {
+                redisCache.evict(dirty.getValue());
+            }
+            dirtyKeys.remove(dirty.getKey());
+        }
+        if (replayPuts) {
+            entries.forEach((key, entry) -> {
+                Duration remaining = remainingTtl(entry, now);
+                if (remaining != null) {
+                    ReplayTtl.put(redisCache, entry.key(), entry.value(), remaining);
+                }
+            });
+        }
+        entries.clear();
+    }
+
+    /**
+     * @return оставшееся время жизни записи, null - меньше миллисекунды, наименьшего срока в Redis
+     */
+    private static Duration remainingTtl(Entry entry, long now) {
+        Duration remaining = Duration.ofNanos(entry.expiresAt() - now);
+        return remaining.toMillis() > 0 ? remaining : null;
+    }
+
+    private ValueWrapper getLocal(Object key) {
+        Entry entry = entries.get(String.valueOf(key));
+        return entry == null ? null : new SimpleValueWrapper(entry.value());
+    }
+
+    private void putLocal(Object key, Object value) {
+        if (value == null) {
+            evictLocal(key);
+            return;
+        }
+        String localKey = String.valueOf(key);
+        int dropped = entries.put(localKey, new Entry(key, value, System.nanoTime() + ttlNanos));
+        if (dropped > 0 && replayPuts) {
+            log.warn("Local cache {} is full, {} entries are dropped", getName(), dropped);
+        }
+        markDirty(localKey, key);
+    }
+
+    private boolean evictLocal(Object key) {
+        String localKey = String.valueOf(key);
+        boolean evicted = entries.remove(localKey) != null;
+        markDirty(localKey, key);
+        return evicted;
+    }
+
+    private void markDirty(String localKey, Object key) {
+        if (clearPending) {
+            return;
+        }
+        if (dirtyKeys.size() >= maxSize && !dirtyKeys.containsKey(localKey)) {
+            log.warn("Too many keys changed in cache {} while Redis is unavailable, it will be cleared", getName());
+            clearPending = true;
+            dirtyKeys.clear();
+            return;
+        }
+        dirtyKeys.put(localKey, key);
+    }
+
+    private record Entry(Object key, Object value, long expiresAt) {
+    }
+}
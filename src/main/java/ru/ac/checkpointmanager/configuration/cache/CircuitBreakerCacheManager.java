@@ -0,0 +1,69 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Менеджер кэшей, который оборачивает кэши Redis в {@link CircuitBreakerCache}.
+ * <p>
+ * Локальные записи кэшей из replayCaches живут столько же, сколько в Redis, и переносятся в Redis после
+ * его восстановления, записи остальных кэшей живут localTtl и после восстановления отбрасываются
+ */
+public class CircuitBreakerCacheManager implements CacheManager {
+
+    private final CacheManager redisCacheManager;
+
+    private final RedisCircuitBreaker breaker;
+
+    private final Map<String, Duration> replayCaches;
+
+    private final Duration localTtl;
+
+    private final int localMaxSize;
+
+    private final Map<String, CircuitBreakerCache> caches = new ConcurrentHashMap<>();
+
+    /**
+     * @param replayCaches имена кэшей, записи которых переносятся в Redis после восстановления,
+     *                     и время жизни их записей
+     */
+    public CircuitBreakerCacheManager(CacheManager redisCacheManager, RedisCircuitBreaker breaker,
+                                      Map<String, Duration> replayCaches, Duration localTtl, int localMaxSize) {
+        this.redisCacheManager = redisCacheManager;
+        this.breaker = breaker;
+        this.replayCaches = Map.copyOf(replayCaches);
+        this.localTtl = localTtl;
+        this.localMaxSize = localMaxSize;
+    }
+
+    @Override
+    public Cache getCache(@NonNull String name) {
+        CircuitBreakerCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache redisCache = redisCacheManager.getCache(name);
+        if (redisCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> {
+            Duration replayTtl = replayCaches.get(name);
+            CircuitBreakerCache created = new CircuitBreakerCache(redisCache, breaker,
+                    (replayTtl == null ? localTtl : replayTtl).toNanos(), localMaxSize, replayTtl != null);
+            breaker.register(created);
+            return created;
+        });
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+}
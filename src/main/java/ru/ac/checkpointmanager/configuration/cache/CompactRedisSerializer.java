@@ -0,0 +1,184 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Компактный двоичный сериализатор значений кэша.
+ * <p>
+ * Запись: маркер формата, версия формата, id типа и версия схемы типа, затем поля DTO из {@link CacheValueCodec}.
+ * Списки одного типа DTO пишутся как id и версия типа элементов, их количество и сами элементы.
+ * Значения других типов пишутся резервным сериализатором JSON после заголовка. Записи без маркера
+ * (JSON, записанный до включения формата) читаются резервным сериализатором.
+ * <p>
+ * Запись с неизвестным типом, другой версией формата или схемы читается как null, то есть как промах кэша,
+ * и перезаписывается актуальным значением
+ */
+@Slf4j
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MAGIC = (byte) 0xC5;
+
+    static final byte FORMAT_VERSION = 1;
+
+    static final int JSON_TYPE = 0;
+
+    static final int LIST_TYPE = 1;
+
+    /**
+     * Маркер, версия формата, id типа и версия схемы типа
+     */
+    static final int HEADER_LENGTH = 1 + 1 + Short.BYTES + Short.BYTES;
+
+    private final RedisSerializer<Object> fallback;
+
+    private final Map<Class<?>, CacheValueCodec<?>> codecsByType = new HashMap<>();
+
+    private final Map<Integer, CacheValueCodec<?>> codecsById = new HashMap<>();
+
+    public CompactRedisSerializer(Collection<CacheValueCodec<?>> codecs, RedisSerializer<Object> fallback) {
+        this.fallback = fallback;
+        for (CacheValueCodec<?> codec : codecs) {
+            if (codec.typeId() <= LIST_TYPE || codecsById.put(codec.typeId(), codec) != null) {
+                throw new IllegalArgumentException("Duplicate or reserved cache codec type id " + codec.typeId());
+            }
+            codecsByType.put(codec.type(), codec);
+        }
+    }
+
+    @Override
+    public byte[] serialize(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            CacheValueCodec<?> codec = codecsByType.get(value.getClass());
+            if (codec != null) {
+                writeHeader(codec, out);
+                write(codec, value, out);
+            } else if (value instanceof List<?> list && (list.isEmpty() || (codec = elementCodec(list)) != null)) {
+                writeHeader(LIST_TYPE, 0, out);
+                if (codec == null) {
+                    writeHeader(JSON_TYPE, 0, out);
+                } else {
+                    writeHeader(codec, out);
+                }
+                CacheValueCodecs.writeVarInt(list.size(), out);
+                for (Object element : list) {
+                    out.writeBoolean(element != null);
+                    if (element != null) {
+                        write(codec, element, out);
+                    }
+                }
+            } else {
+                writeHeader(JSON_TYPE, 0, out);
+                out.write(fallback.serialize(value));
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Could not write compact cache value", e);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            return fallback.deserialize(bytes);
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            in.readByte();
+            if (in.readByte() != FORMAT_VERSION) {
+                return stale("format");
+            }
+            int typeId = in.readShort();
+            int version = in.readShort();
+            if (typeId == JSON_TYPE) {
+                return fallback.deserialize(Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length));
+            }
+            if (typeId == LIST_TYPE) {
+                return readList(in);
+            }
+            CacheValueCodec<?> codec = codecsById.get(typeId);
+            if (codec == null || codec.version() != version) {
+                return stale("type " + typeId + " version " + version);
+            }
+            return codec.read(in);
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Could not read compact cache value", e);
+        }
+    }
+
+    private Object readList(DataInputStream in) throws IOException {
+        int elementTypeId = in.readShort();
+        int elementVersion = in.readShort();
+        int size = CacheValueCodecs.readVarInt(in);
+        CacheValueCodec<?> codec = codecsById.get(elementTypeId);
+        if (size > 0 && (codec == null || codec.version() != elementVersion)) {
+            return stale("list of type " + elementTypeId + " version " + elementVersion);
+        }
+        List<Object> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(in.readBoolean() ? codec.read(in) : null);
+        }
+        return list;
+    }
+
+    /**
+     * @return кодек, если все элементы списка, кроме null, одного типа с кодеком
+     */
+    private CacheValueCodec<?> elementCodec(List<?> list) {
+        CacheValueCodec<?> codec = null;
+        for (Object element : list) {
+            if (element == null) {
+                continue;
+            }
+            CacheValueCodec<?> elementCodec = codecsByType.get(element.getClass());
+            if (elementCodec == null || (codec != null && codec != elementCodec)) {
+                return null;
+            }
+            codec = elementCodec;
+        }
+        return codec;
+    }
+
+    private static void writeHeader(CacheValueCodec<?> codec, DataOutputStream out) throws IOException {
+        writeHeader(codec.typeId(), codec.version(), out);
+    }
+
+    private static void writeHeader(int typeId, int version, DataOutputStream out) throws IOException {
+        out.writeShort(typeId);
+        out.writeShort(version);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void write(CacheValueCodec<T> codec, Object value, DataOutputStream out) throws IOException {
+        codec.write((T) value, out);
+    }
+
+    private static Object stale(String reason) {
+        log.debug("Cached value skipped, unsupported {}", reason);
+        return null;
+    }
+}
@@ -0,0 +1,140 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.NonNull;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Обертка кэша, которая замеряет время загрузки значений при промахе.
+ * <p>
+ * Для @Cacheable загрузкой считается время от промаха до записи значения с тем же ключом в том же потоке:
+ * аннотация читает кэш, вызывает метод и записывает результат. Для {@link #get(Object, Callable)} замеряется
+ * выполнение valueLoader
+ */
+public class MeteredCache implements Cache {
+
+    private final Cache delegate;
+
+    private final ThreadLocal<Miss> lastMiss = new ThreadLocal<>();
+
+    private final AtomicLong loads = new AtomicLong();
+
+    private final AtomicLong loadNanos = new AtomicLong();
+
+    public MeteredCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(@NonNull Object key) {
+        ValueWrapper value = delegate.get(key);
+        onRead(key, value == null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(@NonNull Object key, Class<T> type) {
+        T value = delegate.get(key, type);
+        onRead(key, value == null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        return delegate.get(key, () -> {
+            long start = System.nanoTime();
+            try {
+                return valueLoader.call();
+            } finally {
+                recordLoad(System.nanoTime() - start);
+            }
+        });
+    }
+
+    @Override
+    public void put(@NonNull Object key, Object value) {
+        Miss miss = lastMiss.get();
+        if (miss != null) {
+            lastMiss.remove();
+            if (Objects.equals(miss.key(), key)) {
+                recordLoad(System.nanoTime() - miss.startedAt());
+            }
+        }
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(@NonNull Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    /**
+     * @return количество загрузок значений при промахе с момента запуска
+     */
+    public long getLoads() {
+        return loads.get();
+    }
+
+    /**
+     * @return среднее время загрузки значения при промахе, мс
+     */
+    public double getLoadAvgMillis() {
+        long count = loads.get();
+        return count == 0 ? 0 : loadNanos.get() / 1_000_000.0 / count;
+    }
+
+    private void onRead(Object key, boolean missed) {
+        if (missed) {
+            lastMiss.set(new Miss(key, System.nanoTime()));
+        } else if (lastMiss.get() != null) {
+            lastMiss.remove();
+        }
+    }
+
+    private void recordLoad(long nanos) {
+        loads.incrementAndGet();
+        loadNanos.addAndGet(nanos);
+    }
+
+    private record Miss(Object key, long startedAt) {
+    }
+}
@@ -0,0 +1,268 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.NonNull;
+import ru.ac.checkpointmanager.dto.NearCacheStatsDTO;
+import ru.ac.checkpointmanager.utils.ExpiringMap;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Двухуровневый кэш: ограниченный по размеру и времени жизни кэш в памяти (L1) перед кэшем Redis (L2).
+ * <p>
+ * Чтение идет сначала из L1, промах читается из L2 и кладется в L1. Запись и удаление выполняются в L2,
+ * затем в L1, и рассылаются остальным экземплярам приложения, которые удаляют ключ из своего L1.
+ * Ключи L1 - строковое представление ключа, как в Redis.
+ * <p>
+ * Значение, прочитанное из L2 во время удаления или очистки, не кладется в L1: оно могло устареть.
+ * <p>
+ * Запись L1 может обновиться раньше срока (вероятностное раннее обновление, XFetch): чтение считает запись
+ * промахом с вероятностью, которая растет к концу ее жизни и тем выше, чем дольше значение загружалось.
+ * Горячий ключ так обновляет один из читающих потоков, а не все потоки разом в момент истечения
+ */
+public class NearCache implements Cache {
+
+    private final Cache redisCache;
+
+    private final long ttlNanos;
+
+    /**
+     * Коэффициент раннего обновления, 0 - записи живут до истечения
+     */
+    private final double earlyRefreshBeta;
+
+    /**
+     * Рассылка удаления остальным экземплярам: ключ, null - очистка всего кэша
+     */
+    private final BiConsumer<String, String> invalidationPublisher;
+
+    private final ExpiringMap<String, Entry> entries;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLong l1Hits = new AtomicLong();
+
+    private final AtomicLong l1Nanos = new AtomicLong();
+
+    private final AtomicLong l2Hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong l2Nanos = new AtomicLong();
+
+    private final AtomicLong earlyRefreshes = new AtomicLong();
+
+    public NearCache(Cache redisCache, long ttlNanos, int maxSize, double earlyRefreshBeta,
+                     BiConsumer<String, String> invalidationPublisher) {
+        this.redisCache = redisCache;
+        this.ttlNanos = ttlNanos;
+        this.entries = new ExpiringMap<>(maxSize, Entry::expiresAt, System::nanoTime);
+        this.earlyRefreshBeta = earlyRefreshBeta;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return redisCache.getName();
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(@NonNull Object key) {
+        long start = System.nanoTime();
+        String l1Key = String.valueOf(key);
+        ValueWrapper cached = getLocal(l1Key, start);
+        if (cached != null) {
+            return cached;
+        }
+        long invalidationsBefore = invalidations.get();
+        ValueWrapper value = redisCache.get(key);
+        long duration = System.nanoTime() - start;
+        l2Nanos.addAndGet(duration);
+        if (value == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        l2Hits.incrementAndGet();
+        putLocal(l1Key, value, duration, invalidationsBefore);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, Class<T> type) {
+        ValueWrapper value = get(key);
+        Object stored = value == null ? null : value.get();
+        if (stored != null && type != null && !type.isInstance(stored)) {
+            throw new IllegalStateException("Cached value is not of required type [%s]: %s"
+                    .formatted(type.getName(), stored));
+        }
+        return (T) stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        long invalidationsBefore = invalidations.get();
+        long start = System.nanoTime();
+        T value = redisCache.get(key, valueLoader);
+        if (value != null) {
+            putLocal(String.valueOf(key), new SimpleValueWrapper(value), System.nanoTime() - start,
+                    invalidationsBefore);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(@NonNull Object key, Object value) {
+        redisCache.put(key, value);
+        replaceLocal(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(@NonNull Object key, Object value) {
+        ValueWrapper existing = redisCache.putIfAbsent(key, value);
+        if (existing == null) {
+            replaceLocal(key, value);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        redisCache.evict(key);
+        evictLocal(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        boolean evicted = redisCache.evictIfPresent(key);
+        evictLocal(key);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        clearLocal();
+        invalidationPublisher.accept(getName(), null);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean invalidated = redisCache.invalidate();
+        clearLocal();
+        invalidationPublisher.accept(getName(), null);
+        return invalidated;
+    }
+
+    /**
+     * Удаляет ключ из L1 по сообщению другого экземпляра
+     *
+     * @param key строковое представление ключа, null - очистить весь L1
+     */
+    public void invalidateLocal(String key) {
+        if (key == null) {
+            clearLocal();
+        } else {
+            invalidations.incrementAndGet();
+            entries.remove(key);
+        }
+    }
+
+    public NearCacheStatsDTO getStats() {
+        long l2Reads = l2Hits.get() + misses.get();
+        return new NearCacheStatsDTO(getName(), l1Hits.get(), l2Hits.get(), misses.get(), entries.size(),
+                averageMicros(l1Nanos.get(), l1Hits.get()), averageMicros(l2Nanos.get(), l2Reads),
+                earlyRefreshes.get());
+    }
+
+    private ValueWrapper getLocal(String key, long start) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (refreshEarly(entry, start)) {
+            earlyRefreshes.incrementAndGet();
+            return null;
+        }
+        l1Hits.incrementAndGet();
+        l1Nanos.addAndGet(System.nanoTime() - start);
+        return entry.value();
+    }
+
+    /**
+     * Запись обновляется, если now - delta * beta * ln(random) >= expiresAt, где delta - время загрузки значения.
+     * Сама запись остается в L1, и остальные потоки читают ее, пока этот поток загружает новое значение
+     */
+    private boolean refreshEarly(Entry entry, long now) {
+        if (earlyRefreshBeta <= 0 || entry.loadNanos() == 0) {
+            return false;
+        }
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble();
+        long gap = (long) (-entry.loadNanos() * earlyRefreshBeta * Math.log(random));
+        return now + gap - entry.expiresAt() >= 0;
+    }
+
+    private void putLocal(String key, ValueWrapper value, long loadNanos, long invalidationsBefore) {
+        if (invalidations.get() == invalidationsBefore) {
+            store(key, value, loadNanos);
+            if (invalidations.get() != invalidationsBefore) {
+                entries.remove(key);
+            }
+        }
+    }
+
+    private void store(String key, ValueWrapper value, long loadNanos) {
+        entries.put(key, new Entry(value, System.nanoTime() + ttlNanos, loadNanos));
+    }
+
+    /**
+     * Своя запись кладется в L1, остальные экземпляры удаляют ключ и прочитают новое значение из L2
+     */
+    private void replaceLocal(Object key, Object value) {
+        String l1Key = String.valueOf(key);
+        invalidations.incrementAndGet();
+        if (value == null) {
+            entries.remove(l1Key);
+        } else {
+            store(l1Key, new SimpleValueWrapper(value), 0);
+        }
+        invalidationPublisher.accept(getName(), l1Key);
+    }
+
+    private void evictLocal(Object key) {
+        String l1Key = String.valueOf(key);
+        invalidateLocal(l1Key);
+        invalidationPublisher.accept(getName(), l1Key);
+    }
+
+    private void clearLocal() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    private static double averageMicros(long nanos, long count) {
+        return count == 0 ? 0 : nanos / 1000.0 / count;
+    }
+
+    /**
+     * @param loadNanos время загрузки значения, 0 - своя запись, раннее обновление не нужно
+     */
+    private record Entry(ValueWrapper value, long expiresAt, long loadNanos) {
+    }
+}
@@ -0,0 +1,129 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Менеджер кэшей, который ставит кэш в памяти {@link NearCache} перед кэшами Redis из списка,
+ * остальные кэши отдаются из Redis без изменений. Все кэши оборачиваются в {@link MeteredCache}
+ * для замера времени загрузки значений.
+ * <p>
+ * Удаления и записи рассылаются через канал Redis {@link #INVALIDATION_CHANNEL} сообщениями
+ * "id экземпляра|имя кэша|ключ", пустой ключ - очистка кэша. Свои сообщения экземпляр пропускает.
+ * Если рассылка не удалась или Redis недоступен, на других экземплярах значение устареет не дольше,
+ * чем на время жизни L1
+ */
+@Slf4j
+public class NearCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "near-cache-invalidation";
+
+    private static final String SEPARATOR = "|";
+
+    private final CacheManager redisCacheManager;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    private final Set<String> nearCacheNames;
+
+    private final long ttlNanos;
+
+    private final int maxSize;
+
+    private final double earlyRefreshBeta;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Map<String, MeteredCache> caches = new ConcurrentHashMap<>();
+
+    private final Map<String, NearCache> nearCaches = new ConcurrentHashMap<>();
+
+    public NearCacheManager(CacheManager redisCacheManager, StringRedisTemplate redisTemplate,
+                            RedisCircuitBreaker circuitBreaker, Collection<String> nearCacheNames,
+                            Duration ttl, int maxSize, double earlyRefreshBeta) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.nearCacheNames = Set.copyOf(nearCacheNames);
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    @Override
+    public Cache getCache(@NonNull String name) {
+        MeteredCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache redisCache = redisCacheManager.getCache(name);
+        if (redisCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> {
+            if (!nearCacheNames.contains(name)) {
+                return new MeteredCache(redisCache);
+            }
+            NearCache nearCache = new NearCache(redisCache, ttlNanos, maxSize, earlyRefreshBeta,
+                    this::publish);
+            nearCaches.put(name, nearCache);
+            return new MeteredCache(nearCache);
+        });
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+
+    /**
+     * Получает удаление или запись на другом экземпляре приложения
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 3);
+        if (parts.length < 3) {
+            log.warn("Invalid near cache invalidation message [{}]", body);
+            return;
+        }
+        if (instanceId.equals(parts[0])) {
+            return;
+        }
+        NearCache nearCache = nearCaches.get(parts[1]);
+        if (nearCache != null) {
+            nearCache.invalidateLocal(parts[2].isEmpty() ? null : parts[2]);
+        }
+    }
+
+    /**
+     * Ошибка рассылки не должна доходить до вызывающего кода, кэш Redis уже изменен
+     */
+    private void publish(String cacheName, String key) {
+        if (!circuitBreaker.isClosed()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    instanceId + SEPARATOR + cacheName + SEPARATOR + (key == null ? "" : key));
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish near cache invalidation for {} [{}]: {}", cacheName, key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import ru.ac.checkpointmanager.dto.CircuitBreakerStateDTO;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Автоматический выключатель для кэшей Redis.
+ * <p>
+ * Пока Redis доступен (CLOSED), операции идут в Redis. Операция, не выполненная из-за недоступности Redis,
+ * выполняется в локальном кэше {@link CircuitBreakerCache}. После failureThreshold таких ошибок подряд
+ * выключатель размыкается (OPEN) и все операции идут в локальный кэш без обращения к Redis.
+ * Через openDuration фоновая проверка (HALF_OPEN) проверяет Redis командой PING, переносит в Redis
+ * изменения, накопленные локально, и замыкает выключатель.
+ * <p>
+ * Операции с локальным кэшем выполняются под общей блокировкой на чтение, перенос изменений в Redis -
+ * под блокировкой на запись, поэтому изменение не может попасть в локальный кэш после переноса.
+ * Другие ошибки Redis, например ошибки сериализации, не считаются недоступностью и пробрасываются
+ */
+@Slf4j
+public class RedisCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private final int failureThreshold;
+
+    private final long openNanos;
+
+    private final ReadWriteLock fallbackLock = new ReentrantReadWriteLock();
+
+    private final List<CircuitBreakerCache> caches = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    /**
+     * Увеличивается при каждом переносе локальных изменений в Redis
+     */
+    private final AtomicLong drains = new AtomicLong();
+
+    private volatile State state = State.CLOSED;
+
+    private volatile long openedAtNanos;
+
+    private volatile LocalDateTime openedAt;
+
+    private volatile String lastFailure;
+
+    public RedisCircuitBreaker(RedisConnectionFactory connectionFactory, int failureThreshold, Duration openDuration) {
+        this.connectionFactory = connectionFactory;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * Выполняет операцию в Redis, а если выключатель разомкнут или Redis недоступен - в локальном кэше
+     *
+     * @param redisCall операция с Redis
+     * @param fallback  та же операция с локальным кэшем
+     */
+    public <T> T execute(Supplier<T> redisCall, Supplier<T> fallback) {
+        long drainsBefore = drains.get();
+        if (state == State.CLOSED) {
+            try {
+                T result = redisCall.get();
+                if (consecutiveFailures.get() != 0) {
+                    consecutiveFailures.set(0);
+                }
+                return result;
+            } catch (RedisConnectionFailureException | QueryTimeoutException e) {
+                onFailure(e);
+            }
+        }
+        Lock lock = fallbackLock.readLock();
+        lock.lock();
+        try {
+            if (state != State.CLOSED || drains.get() == drainsBefore) {
+                return fallback.get();
+            }
+        } finally {
+            lock.unlock();
+        }
+        // выключатель замкнулся, пока операция ждала блокировку: локальные изменения уже перенесены в Redis
+        return execute(redisCall, fallback);
+    }
+
+    public boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    public CircuitBreakerStateDTO getState() {
+        int pending = caches.stream().mapToInt(CircuitBreakerCache::pendingSize).sum();
+        return new CircuitBreakerStateDTO(state.name(), consecutiveFailures.get(), openedAt, lastFailure, pending);
+    }
+
+    /**
+     * Проверяет Redis после openDuration разомкнутого состояния, а при замкнутом выключателе переносит
+     * в Redis изменения, сделанные локально из-за единичных ошибок
+     */
+    @Scheduled(fixedDelayString = "${app.cache.circuit-breaker.probe-interval:PT1S}")
+    public void probe() {
+        if (state == State.CLOSED) {
+            if (caches.stream().anyMatch(CircuitBreakerCache::hasPending)) {
+                drain();
+            }
+            return;
+        }
+        if (System.nanoTime() - openedAtNanos < openNanos) {
+            return;
+        }
+        state = State.HALF_OPEN;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.ping();
+        } catch (RuntimeException e) {
+            open(e);
+            return;
+        }
+        drain();
+    }
+
+    void register(CircuitBreakerCache cache) {
+        caches.add(cache);
+    }
+
+    private void drain() {
+        Lock lock = fallbackLock.writeLock();
+        lock.lock();
+        try {
+            for (CircuitBreakerCache cache : caches) {
+                cache.drain();
+            }
+            consecutiveFailures.set(0);
+            drains.incrementAndGet();
+            if (state != State.CLOSED) {
+                state = State.CLOSED;
+                log.info("Redis is available, cache circuit breaker closed");
+            }
+        } catch (RuntimeException e) {
+            open(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onFailure(RuntimeException e) {
+        lastFailure = e.getMessage();
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && state == State.CLOSED) {
+            open(e);
+        }
+    }
+
+    private synchronized void open(RuntimeException e) {
+        lastFailure = e.getMessage();
+        if (state != State.OPEN) {
+            log.warn("Redis is unavailable, cache circuit breaker opened: {}", e.getMessage());
+        }
+        openedAtNanos = System.nanoTime();
+        openedAt = LocalDateTime.now();
+        state = State.OPEN;
+    }
+}
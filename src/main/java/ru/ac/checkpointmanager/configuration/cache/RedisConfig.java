@@ -4,38 +4,60 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.jsontype.PolymorphicTypeValidator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Конфигурация для интеграции с Redis.
  * <p>
  * Этот класс предоставляет конфигурации для работы с Redis,
- * включая настройку шаблона RedisTemplate и менеджера кэша RedisCacheManager.
+ * включая настройку шаблона RedisTemplate и менеджера кэша RedisCacheManager,
+ * перед которым стоит кэш в памяти {@link NearCacheManager}.
  */
 @Configuration
 public class RedisConfig implements CachingConfigurer {
 
+    public static final String COMPACT_SERIALIZER = "compact";
+
+    private static final Duration CONFIRMATION_TTL = Duration.ofHours(1);
+
+    /**
+     * Формат значений: compact - {@link CompactRedisSerializer}, json - {@link GenericJackson2JsonRedisSerializer}
+     */
+    @Value("${app.cache.serializer:compact}")
+    private String serializerFormat;
+
     /**
      * Создаёт и настраивает {@link RedisTemplate} для сериализации и десериализации объектов Redis.
      * <p>
      * Этот метод конфигурирует {@link RedisTemplate} с использованием {@link GenericJackson2JsonRedisSerializer}
      * для сериализации и десериализации объектов. Он также настраивает {@link ObjectMapper} с активацией
      * дефолтной типизации для корректной обработки полиморфных типов данных.
+     * В формате compact кэшируемые DTO пишутся двоично, JSON остается для остальных значений.
      *
      * @param connectionFactory Фабрика соединений с Redis.
      * @return сконфигурированный {@link RedisTemplate}.
@@ -51,7 +73,7 @@ public class RedisConfig implements CachingConfigurer {
                 .allowIfBaseType(Object[].class)
                 .build();
         objectMapper.activateDefaultTyping(ptv, ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+        RedisSerializer<Object> serializer = valueSerializer(new GenericJackson2JsonRedisSerializer(objectMapper));
         template.setKeySerializer(new StringRedisSerializer());
         template.setValueSerializer(serializer);
         template.setHashKeySerializer(new StringRedisSerializer());
@@ -63,38 +85,144 @@ public class RedisConfig implements CachingConfigurer {
     /**
      * Создаёт и конфигурирует {@link RedisCacheManager} для управления кэшем в Redis.
      * <p>
-     * Этот метод настраивает {@link RedisCacheManager} с использованием {@link GenericJackson2JsonRedisSerializer}
-     * для сериализации значений кэша.
+     * Этот метод настраивает {@link RedisCacheManager} с использованием {@link CompactRedisSerializer}
+     * или {@link GenericJackson2JsonRedisSerializer} для сериализации значений кэша.
+     * Очистка кэша удаляет ключи порциями через SCAN вместо блокирующей Redis команды KEYS,
+     * статистика обращений собирается для каждого кэша. Записи кэшей подтверждений, перенесенные
+     * в Redis после его недоступности, получают оставшийся срок локальной записи ({@link ReplayTtl}).
      *
      * @param connectionFactory Фабрика соединений с Redis.
+     * @param clearBatchSize    Количество ключей в порции SCAN при очистке кэша.
      * @return сконфигурированный {@link RedisCacheManager}.
      */
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                               @Value("${app.cache.clear-batch-size:1000}") int clearBatchSize) {
+        RedisSerializer<Object> serializer = valueSerializer(new GenericJackson2JsonRedisSerializer());
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
                 .disableCachingNullValues();
 
         RedisCacheConfiguration tempCacheConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofHours(1))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new GenericJackson2JsonRedisSerializer()))
+                .entryTtl(new ReplayTtl(CONFIRMATION_TTL))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
                 .disableCachingNullValues();
 
         Map<String, RedisCacheConfiguration> tempCache = new HashMap<>();
-        tempCache.put("registration", tempCacheConfig);
-        tempCache.put("email", tempCacheConfig);
+        tempCache.put(CacheNames.REGISTRATION, tempCacheConfig);
+        tempCache.put(CacheNames.EMAIL, tempCacheConfig);
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory,
+                BatchStrategies.scan(clearBatchSize));
+        return RedisCacheManager.builder(cacheWriter)
                 .cacheDefaults(config)
+                .initialCacheNames(Set.of(CacheNames.USER, CacheNames.USER_TERRITORY, CacheNames.PHONE))
                 .withInitialCacheConfigurations(tempCache)
+                .enableStatistics()
                 .build();
     }
 
+    /**
+     * Создаёт основной менеджер кэша: кэши из списка app.cache.near.caches получают уровень в памяти
+     * перед Redis, остальные берутся из {@link RedisCacheManager}. Обращения к Redis идут через
+     * {@link RedisCircuitBreaker}: пока Redis недоступен, кэши работают локально.
+     * Одновременные загрузки одного значения объединяются {@link SingleFlightCacheManager}.
+     *
+     * @param redisCacheManager Менеджер кэшей Redis.
+     * @param redisTemplate     Шаблон для рассылки удалений остальным экземплярам.
+     * @param listenerContainer Контейнер подписок на каналы Redis.
+     * @param circuitBreaker    Выключатель кэшей Redis.
+     * @param loadLock          Блокировка загрузки для кэшей из app.cache.single-flight.cluster-caches.
+     * @return сконфигурированный {@link NearCacheManager}.
+     */
+    @Bean
+    @Primary
+    public NearCacheManager cacheManager(RedisCacheManager redisCacheManager,
+                                         StringRedisTemplate redisTemplate,
+                                         RedisMessageListenerContainer listenerContainer,
+                                         RedisCircuitBreaker circuitBreaker,
+                                         RedisLoadLock loadLock,
+                                         @Value("${app.cache.single-flight.cluster-caches:}")
+                                         List<String> clusterCaches,
+                                         @Value("${app.cache.near.caches:user,user-territory,phone}")
+                                         List<String> nearCacheNames,
+                                         @Value("${app.cache.near.ttl:PT1M}") Duration ttl,
+                                         @Value("${app.cache.near.max-size:1000}") int maxSize,
+                                         @Value("${app.cache.near.early-refresh-beta:1.0}") double beta,
+                                         @Value("${app.cache.circuit-breaker.local-ttl:PT5M}") Duration localTtl,
+                                         @Value("${app.cache.circuit-breaker.local-max-size:1000}")
+                                         int localMaxSize) {
+        CircuitBreakerCacheManager redisCaches = new CircuitBreakerCacheManager(redisCacheManager, circuitBreaker,
+                Map.of(CacheNames.REGISTRATION, CONFIRMATION_TTL, CacheNames.EMAIL, CONFIRMATION_TTL),
+                localTtl, localMaxSize);
+        SingleFlightCacheManager singleFlightCaches = new SingleFlightCacheManager(redisCaches, loadLock,
+                clusterCaches);
+        NearCacheManager cacheManager = new NearCacheManager(singleFlightCaches, redisTemplate, circuitBreaker,
+                nearCacheNames, ttl, maxSize, beta);
+        listenerContainer.addMessageListener(cacheManager, new ChannelTopic(NearCacheManager.INVALIDATION_CHANNEL));
+        return cacheManager;
+    }
+
+    /**
+     * Создаёт выключатель кэшей Redis.
+     *
+     * @param connectionFactory Фабрика соединений с Redis для проверки его доступности.
+     * @param failureThreshold  Ошибки подключения подряд, после которых кэши переходят на локальные.
+     * @param openDuration      Время до первой проверки Redis после размыкания.
+     * @return выключатель.
+     */
+    @Bean
+    public RedisCircuitBreaker redisCircuitBreaker(RedisConnectionFactory connectionFactory,
+                                                   @Value("${app.cache.circuit-breaker.failure-threshold:3}")
+                                                   int failureThreshold,
+                                                   @Value("${app.cache.circuit-breaker.open-duration:PT5S}")
+                                                   Duration openDuration) {
+        return new RedisCircuitBreaker(connectionFactory, failureThreshold, openDuration);
+    }
+
+    /**
+     * Создаёт блокировку загрузки значений кэша, общую для экземпляров приложения.
+     *
+     * @param redisTemplate  Шаблон для блокировок в Redis.
+     * @param circuitBreaker Выключатель кэшей Redis: пока Redis недоступен, загрузка идет без блокировки.
+     * @param lockTtl        Время жизни блокировки, если экземпляр не снял ее сам.
+     * @param lockWait       Время ожидания значения, загружаемого другим экземпляром.
+     * @return блокировка загрузки.
+     */
+    @Bean
+    public RedisLoadLock redisLoadLock(StringRedisTemplate redisTemplate, RedisCircuitBreaker circuitBreaker,
+                                       @Value("${app.cache.single-flight.lock-ttl:PT5S}") Duration lockTtl,
+                                       @Value("${app.cache.single-flight.lock-wait:PT1S}") Duration lockWait) {
+        return new RedisLoadLock(redisTemplate, circuitBreaker, lockTtl, lockWait);
+    }
+
+    /**
+     * Контейнер подписок на каналы Redis, слушатели регистрируются в нем сами.
+     * Если Redis недоступен, контейнер переподключается в фоне и не мешает запуску приложения
+     *
+     * @param connectionFactory Фабрика соединений с Redis.
+     * @return контейнер подписок.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
     @Override
     public CacheErrorHandler errorHandler() {
         return new RedisCacheErrorHandler();
     }
 
+    /**
+     * @param json сериализатор JSON для формата json и для значений без двоичного представления
+     */
+    private RedisSerializer<Object> valueSerializer(RedisSerializer<Object> json) {
+        if (COMPACT_SERIALIZER.equals(serializerFormat)) {
+            return new CompactRedisSerializer(CacheValueCodecs.all(), json);
+        }
+        return json;
+    }
+
 }
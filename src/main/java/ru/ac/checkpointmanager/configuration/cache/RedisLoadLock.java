@@ -0,0 +1,113 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Короткая блокировка загрузки значения кэша в Redis, общая для всех экземпляров приложения.
+ * <p>
+ * Экземпляр, взявший блокировку, загружает значение и кладет его в кэш. Остальные ждут значение в кэше
+ * не дольше lockWait и загружают сами, если не дождались. Блокировка истекает через lockTtl, даже если
+ * экземпляр упал во время загрузки. Пока Redis недоступен, значение загружается без блокировки
+ */
+@Slf4j
+public class RedisLoadLock {
+
+    public static final String LOCK_PREFIX = "load-lock:";
+
+    private static final RedisScript<Long> UNLOCK = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private static final long POLL_MILLIS = 20;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    private final Duration lockTtl;
+
+    private final long lockWaitNanos;
+
+    public RedisLoadLock(StringRedisTemplate redisTemplate, RedisCircuitBreaker circuitBreaker,
+                         Duration lockTtl, Duration lockWait) {
+        this.redisTemplate = redisTemplate;
+        this.circuitBreaker = circuitBreaker;
+        this.lockTtl = lockTtl;
+        this.lockWaitNanos = lockWait.toNanos();
+    }
+
+    /**
+     * @param key    ключ блокировки: имя кэша и ключ значения
+     * @param lookup чтение значения из кэша
+     * @param loader загрузка значения с записью в кэш
+     * @return значение, загруженное этим или другим экземпляром
+     */
+    public Object load(String key, Supplier<Cache.ValueWrapper> lookup, Supplier<Object> loader) {
+        String lockKey = LOCK_PREFIX + key;
+        String token = UUID.randomUUID().toString();
+        Boolean locked = tryLock(lockKey, token);
+        if (Boolean.FALSE.equals(locked)) {
+            Cache.ValueWrapper loaded = awaitValue(lookup);
+            if (loaded != null) {
+                return loaded.get();
+            }
+            log.debug("Value for {} was not loaded by another instance in time, loading", key);
+        }
+        try {
+            return loader.get();
+        } finally {
+            if (Boolean.TRUE.equals(locked)) {
+                unlock(lockKey, token);
+            }
+        }
+    }
+
+    /**
+     * @return null, если Redis недоступен
+     */
+    private Boolean tryLock(String lockKey, String token) {
+        if (!circuitBreaker.isClosed()) {
+            return null;
+        }
+        try {
+            return redisTemplate.opsForValue().setIfAbsent(lockKey, token, lockTtl);
+        } catch (RuntimeException e) {
+            log.debug("Failed to lock {}: {}", lockKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private void unlock(String lockKey, String token) {
+        try {
+            redisTemplate.execute(UNLOCK, List.of(lockKey), token);
+        } catch (RuntimeException e) {
+            log.debug("Failed to unlock {}, it expires in {}: {}", lockKey, lockTtl, e.getMessage());
+        }
+    }
+
+    private Cache.ValueWrapper awaitValue(Supplier<Cache.ValueWrapper> lookup) {
+        long deadline = System.nanoTime() + lockWaitNanos;
+        while (System.nanoTime() - deadline < 0) {
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Cache.ValueWrapper value = lookup.get();
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
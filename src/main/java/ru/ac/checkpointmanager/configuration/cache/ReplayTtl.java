@@ -0,0 +1,55 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+
+/**
+ * Функция времени жизни записей кэша Redis, в которые {@link CircuitBreakerCache} переносит локальные записи
+ * после восстановления Redis.
+ * <p>
+ * Перенос идет через обычный {@link Cache#put} в том же потоке, и на время записи функция возвращает
+ * оставшееся время жизни локальной записи вместо полного: перенесенная запись истекает в Redis тогда же,
+ * когда истекла бы локально
+ */
+class ReplayTtl implements RedisCacheWriter.TtlFunction {
+
+    private static final ThreadLocal<Duration> REMAINING = new ThreadLocal<>();
+
+    private final Duration ttl;
+
+    /**
+     * @param ttl время жизни обычной записи
+     */
+    ReplayTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    @Override
+    @NonNull
+    public Duration getTimeToLive(@NonNull Object key, Object value) {
+        Duration remaining = REMAINING.get();
+        return remaining == null ? ttl : remaining;
+    }
+
+    /**
+     * Кладет запись в кэш Redis с заданным временем жизни
+     */
+    static void put(Cache cache, Object key, Object value, Duration remaining) {
+        REMAINING.set(remaining);
+        try {
+            cache.put(key, value);
+        } finally {
+            REMAINING.remove();
+        }
+    }
+
+    /**
+     * @return время жизни записи, которая сейчас переносится, null - запись не переносится
+     */
+    static Duration current() {
+        return REMAINING.get();
+    }
+}
@@ -0,0 +1,122 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.lang.NonNull;
+import ru.ac.checkpointmanager.utils.SingleFlight;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Обертка кэша, которая объединяет одновременные загрузки значения по одному ключу.
+ * <p>
+ * При промахе {@link #get(Object, Callable)} (@Cacheable с sync = true) значение загружает только один поток,
+ * остальные потоки с тем же ключом ждут его результат. Загрузки разных ключей не мешают друг другу,
+ * в отличие от get с загрузкой самого кэша Redis, который синхронизирован на весь кэш.
+ * С {@link RedisLoadLock} загрузку объединяют и экземпляры приложения: значение загружает экземпляр,
+ * взявший блокировку в Redis, остальные читают его из кэша
+ */
+public class SingleFlightCache implements Cache {
+
+    private final Cache delegate;
+
+    /**
+     * Блокировка загрузки между экземплярами, null - объединять загрузки только в этом экземпляре
+     */
+    private final RedisLoadLock loadLock;
+
+    private final SingleFlight<String, Object> loads = new SingleFlight<>();
+
+    public SingleFlightCache(Cache delegate, RedisLoadLock loadLock) {
+        this.delegate = delegate;
+        this.loadLock = loadLock;
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(@NonNull Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(@NonNull Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        return (T) loads.load(String.valueOf(key), () -> {
+            // значение могло появиться, пока поток шел к загрузке
+            ValueWrapper cached = delegate.get(key);
+            if (cached != null) {
+                return cached.get();
+            }
+            if (loadLock == null) {
+                return loadAndPut(key, valueLoader);
+            }
+            return loadLock.load(getName() + "::" + key, () -> delegate.get(key),
+                    () -> loadAndPut(key, valueLoader));
+        });
+    }
+
+    @Override
+    public void put(@NonNull Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(@NonNull Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    /**
+     * @return количество загрузок, которые получили результат загрузки другого потока
+     */
+    public long getCoalesced() {
+        return loads.getCoalesced();
+    }
+
+    private Object loadAndPut(Object key, Callable<?> valueLoader) {
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            delegate.put(key, value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,51 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.NonNull;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Менеджер кэшей, который оборачивает кэши в {@link SingleFlightCache}.
+ * Загрузки кэшей из clusterCaches объединяются и между экземплярами приложения через {@link RedisLoadLock}
+ */
+public class SingleFlightCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+
+    private final RedisLoadLock loadLock;
+
+    private final Set<String> clusterCaches;
+
+    private final Map<String, SingleFlightCache> caches = new ConcurrentHashMap<>();
+
+    public SingleFlightCacheManager(CacheManager delegate, RedisLoadLock loadLock, Collection<String> clusterCaches) {
+        this.delegate = delegate;
+        this.loadLock = loadLock;
+        this.clusterCaches = Set.copyOf(clusterCaches);
+    }
+
+    @Override
+    public Cache getCache(@NonNull String name) {
+        SingleFlightCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key ->
+                new SingleFlightCache(target, clusterCaches.contains(name) ? loadLock : null));
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
@@ -1,18 +1,30 @@
 package ru.ac.checkpointmanager.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import ru.ac.checkpointmanager.dto.CacheStatsDTO;
+import ru.ac.checkpointmanager.dto.CircuitBreakerStateDTO;
 import ru.ac.checkpointmanager.service.cache.CacheService;
 
+import java.util.List;
+import java.util.UUID;
+
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.INTERNAL_SERVER_ERROR_MSG;
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.UNAUTHORIZED_MSG;
 
@@ -20,7 +32,7 @@ import static ru.ac.checkpointmanager.utils.SwaggerConstants.UNAUTHORIZED_MSG;
 @RequestMapping("api/v1/cache")
 @RequiredArgsConstructor
 @SecurityRequirement(name = "bearerAuth")
-@Tag(name = "Управление кэшем", description = "Управление кэшем пока что ВСЕГО приложения")
+@Tag(name = "Управление кэшем", description = "Статистика и очистка кэшей приложения")
 @ApiResponses(value = {
         @ApiResponse(responseCode = "401",
                 description = UNAUTHORIZED_MSG),
@@ -50,5 +62,116 @@ public class CacheController {
         return ResponseEntity.noContent().build();
     }
 
-//TODO: функционал для очистки кэша, принадлежащего юзеру
+    @Operation(summary = "Получить статистику кэшей",
+            description = "Доступ: ADMIN. Счетчики обращений с момента запуска экземпляра приложения, " +
+                    "количество и размер записей в Redis"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "OK: возвращается статистика по каждому кэшу",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = CacheStatsDTO.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "FORBIDDEN: роль пользователя не предоставляет доступ к данному api"
+            )
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/stats")
+    public List<CacheStatsDTO> getStats() {
+        return cacheService.getStats();
+    }
+
+    @Operation(summary = "Получить состояние выключателя кэшей Redis",
+            description = "Доступ: ADMIN. Пока Redis недоступен, кэши работают локально на каждом экземпляре"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "OK: возвращается состояние выключателя",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CircuitBreakerStateDTO.class))
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "FORBIDDEN: роль пользователя не предоставляет доступ к данному api"
+            )
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/circuit-breaker")
+    public CircuitBreakerStateDTO getCircuitBreakerState() {
+        return cacheService.getCircuitBreakerState();
+    }
+
+    @Operation(summary = "Очистить кэш по имени",
+            description = "Доступ: ADMIN"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "NO_CONTENT: кэш очищен"
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "FORBIDDEN: роль пользователя не предоставляет доступ к данному api"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "NOT_FOUND: кэш не найден"
+            )
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/{cacheName}")
+    public ResponseEntity<Void> clearCache(@Parameter(description = "Имя кэша") @PathVariable String cacheName) {
+        cacheService.clearCache(cacheName);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Удалить запись из кэша по ключу",
+            description = "Доступ: ADMIN"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "NO_CONTENT: запись удалена"
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "FORBIDDEN: роль пользователя не предоставляет доступ к данному api"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "NOT_FOUND: кэш не найден"
+            )
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/{cacheName}/keys/{key}")
+    public ResponseEntity<Void> evict(@Parameter(description = "Имя кэша") @PathVariable String cacheName,
+                                      @Parameter(description = "Ключ записи") @PathVariable String key) {
+        cacheService.evict(cacheName, key);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Удалить из кэшей данные пользователя",
+            description = "Доступ: ADMIN. Удаляются пользователь, его территории, телефоны и аутентификация"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "NO_CONTENT: данные пользователя удалены из кэшей"
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "FORBIDDEN: роль пользователя не предоставляет доступ к данному api"
+            )
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping("/users/{userId}")
+    public ResponseEntity<Void> evictUser(@Parameter(description = "Уникальный идентификатор пользователя")
+                                          @PathVariable UUID userId) {
+        cacheService.evictUser(userId);
+        return ResponseEntity.noContent().build();
+    }
 }
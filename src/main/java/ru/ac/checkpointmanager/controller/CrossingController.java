@@ -28,13 +28,17 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ru.ac.checkpointmanager.annotation.PagingParam;
+import ru.ac.checkpointmanager.dto.CrossingBatchRequestDTO;
+import ru.ac.checkpointmanager.dto.CrossingBatchResultDTO;
 import ru.ac.checkpointmanager.dto.CrossingDTO;
 import ru.ac.checkpointmanager.dto.CrossingRequestDTO;
 import ru.ac.checkpointmanager.dto.passes.PagingParams;
 import ru.ac.checkpointmanager.model.Crossing;
 import ru.ac.checkpointmanager.model.enums.Direction;
+import ru.ac.checkpointmanager.service.crossing.CrossingBatchService;
 import ru.ac.checkpointmanager.service.crossing.CrossingService;
 
+import java.util.List;
 import java.util.UUID;
 
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.BAD_REQUEST_MESSAGE;
@@ -58,6 +62,7 @@ import static ru.ac.checkpointmanager.utils.SwaggerConstants.UNAUTHORIZED_MSG;
 public class CrossingController {
 
     private final CrossingService crossingService;
+    private final CrossingBatchService crossingBatchService;
 
     @Operation(summary = "Создание события: въезд/вход на территорию",
             description = "Доступ: ADMIN - любые территории, SECURITY  - только свои")
@@ -90,6 +95,23 @@ public class CrossingController {
 
     }
 
+    @Operation(summary = "Пакетная загрузка пересечений, накопленных контроллером КПП",
+            description = "Доступ: ADMIN - любые территории, SECURITY  - только свои. " +
+                    "Повторная отправка пересечений с теми же ключами идемпотентности не создает дублей")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пакет обработан, результат по каждому пересечению",
+                    content = {@Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = CrossingBatchResultDTO.class)))}),
+            @ApiResponse(responseCode = "400", description = BAD_REQUEST_MESSAGE,
+                    content = @Content(schema = @Schema(implementation = ProblemDetail.class))),
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN') or (hasRole('ROLE_SECURITY') and " +
+            "@checkpointAuthFacade.isIdsMatch(#batchDTO.crossings.![checkpointId]))")
+    @PostMapping("/batch")
+    public List<CrossingBatchResultDTO> addCrossings(@Valid @RequestBody CrossingBatchRequestDTO batchDTO) {
+        return crossingBatchService.addCrossings(batchDTO.getCrossings());
+    }
+
     /**
      * Will be replaced for in/out endpoints
      *
@@ -14,16 +14,28 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.ac.checkpointmanager.annotation.CursorParam;
 import ru.ac.checkpointmanager.annotation.PagingParam;
+import ru.ac.checkpointmanager.dto.ExportParams;
+import ru.ac.checkpointmanager.dto.passes.CursorPage;
+import ru.ac.checkpointmanager.dto.passes.CursorParams;
 import ru.ac.checkpointmanager.dto.passes.PagingParams;
 import ru.ac.checkpointmanager.projection.PassInOutView;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
+import ru.ac.checkpointmanager.service.event.PassEventBackfillService;
 import ru.ac.checkpointmanager.service.event.PassInOutViewService;
+import ru.ac.checkpointmanager.service.export.ExportService;
+import ru.ac.checkpointmanager.utils.ExportUtils;
 
 import java.util.UUID;
 
@@ -31,6 +43,9 @@ import static ru.ac.checkpointmanager.utils.SwaggerConstants.ACCESS_ADMIN_MESSAG
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.UNAUTHORIZED_MSG;
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.INTERNAL_SERVER_ERROR_MSG;
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.EVENTS_ARE_FOUND_MESSAGE;
+import static ru.ac.checkpointmanager.utils.SwaggerConstants.EVENTS_STREAM_MESSAGE;
+import static ru.ac.checkpointmanager.utils.SwaggerConstants.EXPORT_STREAMED_MESSAGE;
+import static ru.ac.checkpointmanager.utils.SwaggerConstants.INVALID_CURSOR_MESSAGE;
 
 @RestController
 @RequestMapping("api/v1/events")
@@ -44,6 +59,12 @@ public class CrossingEventController {
 
     private final PassInOutViewService passInOutViewService;
 
+    private final PassEventBackfillService passEventBackfillService;
+
+    private final ExportService exportService;
+
+    private final LiveEventService liveEventService;
+
     @Operation(summary = "Получить список событий по пропускам пользователя (для User)",
             description = "Доступ: ADMIN - события всех пользователей, USER - только свои",
             parameters = {
@@ -119,4 +140,143 @@ public class CrossingEventController {
                                             @PagingParam PagingParams pagingParams) {
         return passInOutViewService.findAll(pagingParams);
     }
+
+    @Operation(summary = "Получить события по пропускам пользователя по курсору (для User)",
+            description = "Доступ: ADMIN - события всех пользователей, USER - только свои",
+            parameters = {
+                    @Parameter(in = ParameterIn.QUERY, name = "cursor"),
+                    @Parameter(in = ParameterIn.QUERY, name = "size", example = "20"),
+                    @Parameter(in = ParameterIn.QUERY, name = "withTotal", example = "false")
+            })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = EVENTS_ARE_FOUND_MESSAGE,
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "400", description = INVALID_CURSOR_MESSAGE),
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден")})
+    @PreAuthorize("hasRole('ROLE_ADMIN') or (hasRole('ROLE_USER') and @userAuthFacade.isIdMatch(#userId))")
+    @GetMapping("/users/{userId}/scroll")
+    public CursorPage<PassInOutView> scrollEventsByUserId(@PathVariable UUID userId,
+                                                          @Schema(hidden = true) @Valid
+                                                          @CursorParam CursorParams cursorParams) {
+        return passInOutViewService.scrollEventsByUser(userId, cursorParams);
+    }
+
+    @Operation(summary = "Получить события по конкретной территории по курсору (для Security)",
+            description = "Доступ: ADMIN - по всем территориям, SECURITY - только на закрепленной территории",
+            parameters = {
+                    @Parameter(in = ParameterIn.QUERY, name = "cursor"),
+                    @Parameter(in = ParameterIn.QUERY, name = "size", example = "20"),
+                    @Parameter(in = ParameterIn.QUERY, name = "withTotal", example = "false")
+            })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = EVENTS_ARE_FOUND_MESSAGE,
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "400", description = INVALID_CURSOR_MESSAGE),
+            @ApiResponse(responseCode = "404", description = "Территория не найдена")})
+    @PreAuthorize("hasRole('ROLE_ADMIN') or (hasRole('ROLE_SECURITY') and @territoryAuthFacade.isIdMatch(#territoryId))")
+    @GetMapping("/territories/{territoryId}/scroll")
+    public CursorPage<PassInOutView> scrollEventsByTerritoryId(@PathVariable UUID territoryId,
+                                                               @Schema(hidden = true) @Valid
+                                                               @CursorParam CursorParams cursorParams) {
+        return passInOutViewService.scrollEventsByTerritory(territoryId, cursorParams);
+    }
+
+    @Operation(summary = "Получить события по всем привязанным к пользователю территориям по курсору " +
+            "(для Manager и Security)",
+            description = "Доступ: ADMIN - по всем территориям, MANAGER, SECURITY - только на закрепленной территории",
+            parameters = {
+                    @Parameter(in = ParameterIn.QUERY, name = "cursor"),
+                    @Parameter(in = ParameterIn.QUERY, name = "size", example = "20"),
+                    @Parameter(in = ParameterIn.QUERY, name = "withTotal", example = "false")
+            })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = EVENTS_ARE_FOUND_MESSAGE,
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "400", description = INVALID_CURSOR_MESSAGE),
+            @ApiResponse(responseCode = "404", description = "Пользователь или территории не найдены")})
+    @PreAuthorize("hasRole('ROLE_ADMIN') or (hasAnyRole('ROLE_MANAGER', 'ROLE_SECURITY') and @userAuthFacade.isIdMatch(#userId))")
+    @GetMapping("/users/{userId}/territories/scroll")
+    public CursorPage<PassInOutView> scrollEventsByUsersTerritories(@PathVariable UUID userId,
+                                                                    @Schema(hidden = true) @Valid
+                                                                    @CursorParam CursorParams cursorParams) {
+        return passInOutViewService.scrollEventsByUsersTerritories(userId, cursorParams);
+    }
+
+    @Operation(summary = "Получить все события по курсору (для Admin)",
+            description = ACCESS_ADMIN_MESSAGE,
+            parameters = {
+                    @Parameter(in = ParameterIn.QUERY, name = "cursor"),
+                    @Parameter(in = ParameterIn.QUERY, name = "size", example = "20"),
+                    @Parameter(in = ParameterIn.QUERY, name = "withTotal", example = "false")
+            })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = EVENTS_ARE_FOUND_MESSAGE,
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "400", description = INVALID_CURSOR_MESSAGE)})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/scroll")
+    public CursorPage<PassInOutView> scrollAllEvents(@Schema(hidden = true) @Valid
+                                                     @CursorParam CursorParams cursorParams) {
+        return passInOutViewService.scrollAll(cursorParams);
+    }
+
+    @Operation(summary = "Экспортировать события по конкретной территории в файл",
+            description = "Доступ: ADMIN - по всем территориям, SECURITY - только на закрепленной территории. " +
+                    "Период задается по времени въезда, выгрузка идет потоком без ограничения количества событий",
+            parameters = {
+                    @Parameter(in = ParameterIn.QUERY, name = "format", example = "CSV"),
+                    @Parameter(in = ParameterIn.QUERY, name = "from", example = "2024-01-01T00:00:00"),
+                    @Parameter(in = ParameterIn.QUERY, name = "to", example = "2025-01-01T00:00:00"),
+                    @Parameter(in = ParameterIn.QUERY, name = "gzip", example = "false")
+            })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = EXPORT_STREAMED_MESSAGE),
+            @ApiResponse(responseCode = "404", description = "Территория не найдена")})
+    @PreAuthorize("hasRole('ROLE_ADMIN') or (hasRole('ROLE_SECURITY') and @territoryAuthFacade.isIdMatch(#territoryId))")
+    @GetMapping("/territories/{territoryId}/export")
+    public ResponseEntity<StreamingResponseBody> exportEventsByTerritoryId(@PathVariable UUID territoryId,
+                                                                           @Schema(hidden = true)
+                                                                           ExportParams exportParams) {
+        return ExportUtils.toResponse("events-" + territoryId, exportParams,
+                exportService.exportEventsByTerritory(territoryId, exportParams));
+    }
+
+    @Operation(summary = "Подписаться на пересечения и смены статусов пропусков в реальном времени",
+            description = "Доступ: ADMIN - по всем территориям, MANAGER, SECURITY - по закрепленным территориям. " +
+                    "При потере доступа к территории события по ней перестают приходить")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = EVENTS_STREAM_MESSAGE,
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE))})
+    @PreAuthorize("hasAnyRole('ROLE_ADMIN', 'ROLE_MANAGER', 'ROLE_SECURITY')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents() {
+        return liveEventService.subscribe(null);
+    }
+
+    @Operation(summary = "Подписаться на пересечения и смены статусов пропусков территории в реальном времени",
+            description = "Доступ: ADMIN - по всем территориям, SECURITY - только на закрепленной территории. " +
+                    "При потере доступа к территории поток закрывается")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = EVENTS_STREAM_MESSAGE,
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE))})
+    @PreAuthorize("hasRole('ROLE_ADMIN') or (hasRole('ROLE_SECURITY') and @territoryAuthFacade.isIdMatch(#territoryId))")
+    @GetMapping(value = "/territories/{territoryId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEventsByTerritoryId(@PathVariable UUID territoryId) {
+        return liveEventService.subscribe(territoryId);
+    }
+
+    @Operation(summary = "Пересчитать события по всем пересечениям",
+            description = ACCESS_ADMIN_MESSAGE + " Восстанавливает таблицу событий порциями пропусков, " +
+                    "не останавливая добавление пересечений")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "События пересчитаны, возвращается их количество")})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/rebuild")
+    public int rebuildEvents() {
+        return passEventBackfillService.rebuildAll();
+    }
 }
@@ -29,21 +29,33 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.ac.checkpointmanager.annotation.CursorParam;
 import ru.ac.checkpointmanager.annotation.PagingParam;
+import ru.ac.checkpointmanager.dto.ExportParams;
+import ru.ac.checkpointmanager.dto.passes.CursorPage;
+import ru.ac.checkpointmanager.dto.passes.CursorParams;
 import ru.ac.checkpointmanager.dto.passes.PassFilterParams;
 import ru.ac.checkpointmanager.dto.passes.PagingParams;
 import ru.ac.checkpointmanager.dto.passes.PassCreateDTO;
 import ru.ac.checkpointmanager.dto.passes.PassResponseDTO;
 import ru.ac.checkpointmanager.dto.passes.PassUpdateDTO;
+import ru.ac.checkpointmanager.dto.passes.PlateIndexCheckDTO;
+import ru.ac.checkpointmanager.service.export.ExportService;
 import ru.ac.checkpointmanager.service.passes.PassService;
+import ru.ac.checkpointmanager.service.passes.PlateIndex;
 import ru.ac.checkpointmanager.specification.model.Pass_;
+import ru.ac.checkpointmanager.utils.ExportUtils;
 
+import java.util.Set;
 import java.util.UUID;
 
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.INTERNAL_SERVER_ERROR_MSG;
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.UNAUTHORIZED_MSG;
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.ACCESS_ADMIN_MESSAGE;
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.PASSES_ARE_FOUND_MESSAGE;
+import static ru.ac.checkpointmanager.utils.SwaggerConstants.EXPORT_STREAMED_MESSAGE;
+import static ru.ac.checkpointmanager.utils.SwaggerConstants.INVALID_CURSOR_MESSAGE;
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.PASS_NOT_FOUND_MESSAGE;
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.PASS_ACCESS_ALL_MESSAGE;
 
@@ -59,6 +71,10 @@ public class PassController {
 
     private final PassService service;
 
+    private final ExportService exportService;
+
+    private final PlateIndex plateIndex;
+
     /* CREATE */
     @Operation(summary = "Добавить новый пропуск",
             description = "Доступ: ADMIN - по всем территориям, MANAGER, SECURITY, USER - только для своих территорий")
@@ -200,6 +216,170 @@ public class PassController {
         return service.findPassesByUsersTerritories(userId, pagingParams, passFilterParams, part);
     }
 
+    @Operation(summary = "Получить список всех пропусков по курсору, с учетом фильтрации и совпадения" +
+            " по фрагменту имени или номера авто",
+            description = ACCESS_ADMIN_MESSAGE,
+            parameters = {
+                    @Parameter(in = ParameterIn.QUERY, name = "cursor"),
+                    @Parameter(in = ParameterIn.QUERY, name = "size"),
+                    @Parameter(in = ParameterIn.QUERY, name = "withTotal"),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.DTYPE),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.TERRITORY),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.STATUS),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.FAVORITE),
+                    @Parameter(in = ParameterIn.QUERY, name = "part")
+            })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = PASSES_ARE_FOUND_MESSAGE,
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "400", description = INVALID_CURSOR_MESSAGE)})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/scroll")
+    public CursorPage<PassResponseDTO> scrollPasses(
+            @Schema(hidden = true) @Valid @CursorParam CursorParams cursorParams,
+            @Schema(hidden = true) PassFilterParams passFilterParams,
+            @RequestParam(value = "part", required = false) String part) {
+        return service.scrollPasses(cursorParams, passFilterParams, part);
+    }
+
+    @Operation(summary = "Получить список пропусков конкретного пользователя по курсору, с учетом фильтрации" +
+            " и совпадения по фрагменту имени или номера авто",
+            description = "Доступ: ADMIN - пропуска всех пользователей, MANAGER, SECURITY, USER - только свои",
+            parameters = {
+                    @Parameter(in = ParameterIn.QUERY, name = "cursor"),
+                    @Parameter(in = ParameterIn.QUERY, name = "size"),
+                    @Parameter(in = ParameterIn.QUERY, name = "withTotal"),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.DTYPE),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.TERRITORY),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.STATUS),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.FAVORITE),
+                    @Parameter(in = ParameterIn.QUERY, name = "part")
+            })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = PASSES_ARE_FOUND_MESSAGE,
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "400", description = INVALID_CURSOR_MESSAGE),
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден")})
+    @PreAuthorize("hasRole('ROLE_ADMIN') or @userAuthFacade.isIdMatch(#userId)")
+    @GetMapping("/users/{userId}/scroll")
+    public CursorPage<PassResponseDTO> scrollPassesByUserId(
+            @PathVariable UUID userId,
+            @Schema(hidden = true) @Valid @CursorParam CursorParams cursorParams,
+            @Schema(hidden = true) PassFilterParams passFilterParams,
+            @RequestParam(value = "part", required = false) String part) {
+        return service.scrollPassesByUser(userId, cursorParams, passFilterParams, part);
+    }
+
+    @Operation(summary = "Получить список пропусков на конкретную территорию по курсору, с учетом фильтрации" +
+            " и совпадения по фрагменту имени или номера авто",
+            description = "Доступ: ADMIN - поиск по всем пропускам, SECURITY - по своим территориям",
+            parameters = {
+                    @Parameter(in = ParameterIn.QUERY, name = "cursor"),
+                    @Parameter(in = ParameterIn.QUERY, name = "size"),
+                    @Parameter(in = ParameterIn.QUERY, name = "withTotal"),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.DTYPE),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.TERRITORY),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.STATUS),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.FAVORITE),
+                    @Parameter(in = ParameterIn.QUERY, name = "part")
+            })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = PASSES_ARE_FOUND_MESSAGE,
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "400", description = INVALID_CURSOR_MESSAGE),
+            @ApiResponse(responseCode = "404", description = "Территория не найдена")})
+    @PreAuthorize("hasRole('ROLE_ADMIN') or (hasRole('ROLE_SECURITY') and @territoryAuthFacade.isIdMatch(#territoryId))")
+    @GetMapping("/territories/{territoryId}/scroll")
+    public CursorPage<PassResponseDTO> scrollPassesByTerritoryId(
+            @PathVariable UUID territoryId,
+            @Schema(hidden = true) @Valid @CursorParam CursorParams cursorParams,
+            @Schema(hidden = true) PassFilterParams passFilterParams,
+            @RequestParam(value = "part", required = false) String part) {
+        return service.scrollPassesByTerritory(territoryId, cursorParams, passFilterParams, part);
+    }
+
+    @Operation(summary = "Получить список пропусков по всем привязанным к пользователю территориям по курсору, " +
+            "с учетом фильтрации и совпадения по фрагменту имени или номера авто",
+            description = "Доступ: ADMIN - поиск по всем пропускам, MANAGER, SECURITY - по своим территориям",
+            parameters = {
+                    @Parameter(in = ParameterIn.QUERY, name = "cursor"),
+                    @Parameter(in = ParameterIn.QUERY, name = "size"),
+                    @Parameter(in = ParameterIn.QUERY, name = "withTotal"),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.DTYPE),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.TERRITORY),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.STATUS),
+                    @Parameter(in = ParameterIn.QUERY, name = Pass_.FAVORITE),
+                    @Parameter(in = ParameterIn.QUERY, name = "part")
+            })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = PASSES_ARE_FOUND_MESSAGE,
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = CursorPage.class))),
+            @ApiResponse(responseCode = "400", description = INVALID_CURSOR_MESSAGE),
+            @ApiResponse(responseCode = "404", description = "Пользователь или территории не найдены")})
+    @PreAuthorize("hasRole('ROLE_ADMIN') " +
+            "or (hasAnyRole('ROLE_MANAGER', 'ROLE_SECURITY') and @userAuthFacade.isIdMatch(#userId))")
+    @GetMapping("/users/{userId}/territories/scroll")
+    public CursorPage<PassResponseDTO> scrollPassesByUsersTerritories(
+            @PathVariable UUID userId,
+            @Schema(hidden = true) @Valid @CursorParam CursorParams cursorParams,
+            @Schema(hidden = true) PassFilterParams passFilterParams,
+            @RequestParam(value = "part", required = false) String part) {
+        return service.scrollPassesByUsersTerritories(userId, cursorParams, passFilterParams, part);
+    }
+
+    @Operation(summary = "Экспортировать пропуска на конкретную территорию в файл",
+            description = "Доступ: ADMIN - по всем территориям, SECURITY - по своим территориям. " +
+                    "Период задается по времени начала пропуска, выгрузка идет потоком без ограничения количества",
+            parameters = {
+                    @Parameter(in = ParameterIn.QUERY, name = "format", example = "CSV"),
+                    @Parameter(in = ParameterIn.QUERY, name = "from", example = "2024-01-01T00:00:00"),
+                    @Parameter(in = ParameterIn.QUERY, name = "to", example = "2025-01-01T00:00:00"),
+                    @Parameter(in = ParameterIn.QUERY, name = "gzip", example = "false")
+            })
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = EXPORT_STREAMED_MESSAGE),
+            @ApiResponse(responseCode = "404", description = "Территория не найдена")})
+    @PreAuthorize("hasRole('ROLE_ADMIN') or (hasRole('ROLE_SECURITY') and @territoryAuthFacade.isIdMatch(#territoryId))")
+    @GetMapping("/territories/{territoryId}/export")
+    public ResponseEntity<StreamingResponseBody> exportPassesByTerritoryId(@PathVariable UUID territoryId,
+                                                                           @Schema(hidden = true)
+                                                                           ExportParams exportParams) {
+        return ExportUtils.toResponse("passes-" + territoryId, exportParams,
+                exportService.exportPassesByTerritory(territoryId, exportParams));
+    }
+
+    @Operation(summary = "Найти активные пропуска на машину по номеру, распознанному камерой КПП",
+            description = "Доступ: ADMIN - по всем территориям, SECURITY - по своим территориям. " +
+                    "Номер сравнивается без учета регистра, разделителей и написания букв кириллицей или латиницей, " +
+                    "поиск идет по индексу в памяти без запроса к базе")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Id активных пропусков, пустой список если их нет",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = UUID.class))))})
+    @PreAuthorize("hasRole('ROLE_ADMIN') or (hasRole('ROLE_SECURITY') and @territoryAuthFacade.isIdMatch(#territoryId))")
+    @GetMapping("/territories/{territoryId}/plates/{licensePlate}")
+    public Set<UUID> findActivePassIdsByLicensePlate(@PathVariable UUID territoryId,
+                                                     @PathVariable String licensePlate) {
+        return plateIndex.findActivePassIds(territoryId, licensePlate);
+    }
+
+    @Operation(summary = "Сверить индекс номеров машин с базой и исправить расхождения",
+            description = "Доступ: ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Индекс сверен",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = PlateIndexCheckDTO.class))),
+            @ApiResponse(responseCode = "403", description = ACCESS_ADMIN_MESSAGE)})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/plate-index/check")
+    public PlateIndexCheckDTO checkPlateIndex() {
+        return plateIndex.check();
+    }
+
     /* UPDATE */
     @Operation(summary = "Изменить существующий пропуск",
             description = PASS_ACCESS_ALL_MESSAGE)
@@ -0,0 +1,83 @@
+package ru.ac.checkpointmanager.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.ac.checkpointmanager.aspects.ServiceCallMetrics;
+import ru.ac.checkpointmanager.dto.ServiceCallStatsDTO;
+
+import java.util.List;
+
+import static ru.ac.checkpointmanager.utils.SwaggerConstants.INTERNAL_SERVER_ERROR_MSG;
+import static ru.ac.checkpointmanager.utils.SwaggerConstants.UNAUTHORIZED_MSG;
+
+@RestController
+@RequestMapping("api/v1/metrics/service-calls")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Статистика вызовов сервисов", description = "Время выполнения и ошибки методов сервисов")
+@ApiResponses(value = {
+        @ApiResponse(responseCode = "401",
+                description = UNAUTHORIZED_MSG),
+        @ApiResponse(responseCode = "500",
+                description = INTERNAL_SERVER_ERROR_MSG)})
+public class ServiceCallMetricsController {
+
+    private final ServiceCallMetrics serviceCallMetrics;
+
+    @Operation(summary = "Получить статистику вызовов методов сервисов",
+            description = "Доступ: ADMIN. Счетчики с момента запуска экземпляра приложения или сброса статистики, " +
+                    "методы отсортированы по суммарному времени вызовов. Пустой список, если сбор статистики " +
+                    "выключен (logging.aspect.call-service)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "OK: возвращается статистика по каждому вызывавшемуся методу",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = ServiceCallStatsDTO.class)))
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "FORBIDDEN: роль пользователя не предоставляет доступ к данному api"
+            )
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping
+    public List<ServiceCallStatsDTO> getStats() {
+        return serviceCallMetrics.getStats();
+    }
+
+    @Operation(summary = "Сбросить статистику вызовов методов сервисов",
+            description = "Доступ: ADMIN"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "NO_CONTENT: статистика сброшена"
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "FORBIDDEN: роль пользователя не предоставляет доступ к данному api"
+            )
+    })
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @DeleteMapping
+    public ResponseEntity<Void> resetStats() {
+        serviceCallMetrics.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
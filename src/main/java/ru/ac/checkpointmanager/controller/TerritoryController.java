@@ -29,15 +29,18 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ru.ac.checkpointmanager.annotation.PagingParam;
+import ru.ac.checkpointmanager.dto.MembershipIndexCheckDTO;
 import ru.ac.checkpointmanager.dto.TerritoryUpdateDTO;
 import ru.ac.checkpointmanager.dto.TerritoryDTO;
 import ru.ac.checkpointmanager.dto.passes.PagingParams;
 import ru.ac.checkpointmanager.dto.user.UserResponseDTO;
+import ru.ac.checkpointmanager.service.access.MembershipIndex;
 import ru.ac.checkpointmanager.service.territories.TerritoryService;
 
 import java.util.List;
 import java.util.UUID;
 
+import static ru.ac.checkpointmanager.utils.SwaggerConstants.ACCESS_ADMIN_MESSAGE;
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.INTERNAL_SERVER_ERROR_MSG;
 import static ru.ac.checkpointmanager.utils.SwaggerConstants.UNAUTHORIZED_MSG;
 
@@ -53,6 +56,8 @@ public class TerritoryController {
 
     private final TerritoryService territoryService;
 
+    private final MembershipIndex membershipIndex;
+
     /* CREATE */
     @Operation(summary = "Добавить новую территорию",
             description = "Доступ: ADMIN")
@@ -154,6 +159,19 @@ public class TerritoryController {
         territoryService.attachUserToTerritory(territoryId, userId);
     }
 
+    @Operation(summary = "Сверить индекс связей пользователей с территориями с базой и исправить расхождения",
+            description = "Доступ: ADMIN")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Индекс сверен",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = MembershipIndexCheckDTO.class))),
+            @ApiResponse(responseCode = "403", description = ACCESS_ADMIN_MESSAGE)})
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/membership-index/check")
+    public MembershipIndexCheckDTO checkMembershipIndex() {
+        return membershipIndex.check();
+    }
+
     /* DELETE */
     @Operation(summary = "Удалить территорию и все ее КПП",
             description = "Доступ: ADMIN")
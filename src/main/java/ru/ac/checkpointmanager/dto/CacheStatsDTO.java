@@ -0,0 +1,59 @@
+package ru.ac.checkpointmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Статистика кэша: счетчики обращений с момента запуска экземпляра приложения
+ * и размер кэша в Redis на момент запроса
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheStatsDTO {
+
+    private String cacheName;
+
+    /**
+     * Попадания в кэш в памяти и в Redis
+     */
+    private long hits;
+
+    private long misses;
+
+    private long puts;
+
+    /**
+     * Удаленные из Redis записи, включая очистку кэша
+     */
+    private long evictions;
+
+    /**
+     * Количество записей кэша в Redis
+     */
+    private long entries;
+
+    /**
+     * Суммарный размер значений записей в Redis, байт
+     */
+    private long payloadBytes;
+
+    /**
+     * false, если записей больше лимита app.cache.stats.scan-limit и entries и payloadBytes посчитаны по части
+     */
+    private boolean exact;
+
+    /**
+     * Загрузки значений при промахе
+     */
+    private long loads;
+
+    private double loadAvgMillis;
+
+    /**
+     * Статистика уровня в памяти, null если кэш только в Redis
+     */
+    private NearCacheStatsDTO near;
+
+}
@@ -0,0 +1,39 @@
+package ru.ac.checkpointmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Состояние автоматического выключателя кэшей Redis
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CircuitBreakerStateDTO {
+
+    /**
+     * CLOSED - кэши в Redis, OPEN - Redis недоступен и кэши локальные, HALF_OPEN - проверка Redis
+     */
+    private String state;
+
+    /**
+     * Ошибки подключения к Redis подряд
+     */
+    private int consecutiveFailures;
+
+    /**
+     * Время последнего размыкания, null если выключатель не размыкался
+     */
+    private LocalDateTime openedAt;
+
+    private String lastFailure;
+
+    /**
+     * Ключи, измененные локально и еще не перенесенные в Redis
+     */
+    private int pendingKeys;
+
+}
@@ -0,0 +1,37 @@
+package ru.ac.checkpointmanager.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import ru.ac.checkpointmanager.model.enums.Direction;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Пересечение из буфера контроллера КПП.
+ * Ключ идемпотентности генерируется контроллером, не меняется при повторных отправках и уникален в пределах чекпоинта
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class CrossingBatchItemDTO extends CrossingRequestDTO {
+
+    @NotBlank
+    @Size(max = 100)
+    private String idempotencyKey;
+
+    @NotNull
+    private Direction direction;
+
+    public CrossingBatchItemDTO(String idempotencyKey, UUID passId, UUID checkpointId, ZonedDateTime performedAt,
+                                Direction direction) {
+        super(passId, checkpointId, performedAt);
+        this.idempotencyKey = idempotencyKey;
+        this.direction = direction;
+    }
+
+}
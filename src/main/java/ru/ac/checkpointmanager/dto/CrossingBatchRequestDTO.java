@@ -0,0 +1,21 @@
+package ru.ac.checkpointmanager.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CrossingBatchRequestDTO {
+
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@Valid CrossingBatchItemDTO> crossings;
+
+}
@@ -0,0 +1,46 @@
+package ru.ac.checkpointmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Результат обработки одного пересечения из пакета
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CrossingBatchResultDTO {
+
+    private String idempotencyKey;
+
+    /**
+     * id сохраненного пересечения, null если пересечение отклонено
+     */
+    private UUID crossingId;
+
+    private Status status;
+
+    /**
+     * Причина отклонения
+     */
+    private String message;
+
+    public enum Status {
+        /**
+         * Пересечение сохранено
+         */
+        CREATED,
+        /**
+         * Пересечение с этим ключом на этом чекпоинте уже было сохранено ранее или встречается в пакете повторно
+         */
+        DUPLICATE,
+        /**
+         * Пересечение не прошло проверки и не сохранено
+         */
+        REJECTED
+    }
+
+}
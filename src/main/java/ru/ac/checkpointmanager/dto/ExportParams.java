@@ -0,0 +1,42 @@
+package ru.ac.checkpointmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+import ru.ac.checkpointmanager.service.export.ExportFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Параметры экспорта: формат файла, период и сжатие
+ */
+@Data
+@AllArgsConstructor
+public class ExportParams {
+
+    /**
+     * Формат файла, по умолчанию CSV
+     */
+    private ExportFormat format;
+
+    /**
+     * Начало периода, включительно
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from;
+
+    /**
+     * Конец периода, не включительно
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;
+
+    /**
+     * Сжимать ли файл в gzip
+     */
+    private boolean gzip;
+
+    public ExportFormat getFormat() {
+        return format == null ? ExportFormat.CSV : format;
+    }
+}
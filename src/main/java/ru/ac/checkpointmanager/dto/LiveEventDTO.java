@@ -0,0 +1,53 @@
+package ru.ac.checkpointmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.ac.checkpointmanager.model.enums.Direction;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Событие для панелей мониторинга: пересечение или смена статуса пропуска на территории
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LiveEventDTO {
+
+    public enum Type {
+        CROSSING, PASS_STATUS
+    }
+
+    private Type type;
+
+    private UUID territoryId;
+
+    private UUID passId;
+
+    /**
+     * Статус пропуска после события
+     */
+    private PassStatus status;
+
+    private UUID crossingId;
+
+    private UUID checkpointId;
+
+    private Direction direction;
+
+    private ZonedDateTime performedAt;
+
+    public static LiveEventDTO crossing(CrossingDTO crossing, UUID territoryId) {
+        return new LiveEventDTO(Type.CROSSING, territoryId, crossing.getPassId(), null, crossing.getId(),
+                crossing.getCheckpointId(), crossing.getDirection(), crossing.getPerformedAt());
+    }
+
+    public static LiveEventDTO passStatus(UUID passId, UUID territoryId, PassStatus status) {
+        return new LiveEventDTO(Type.PASS_STATUS, territoryId, passId, status, null, null, null, null);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.ac.checkpointmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат сверки индекса связей пользователей с территориями с таблицей user_territory
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MembershipIndexCheckDTO {
+
+    /**
+     * Количество связей в индексе после сверки
+     */
+    private int indexed;
+
+    /**
+     * Связи из базы, отсутствовавшие в индексе
+     */
+    private int missing;
+
+    /**
+     * Связи в индексе, которых уже нет в базе
+     */
+    private int stale;
+
+    private long durationMs;
+
+}
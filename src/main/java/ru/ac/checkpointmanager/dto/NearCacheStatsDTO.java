@@ -0,0 +1,49 @@
+package ru.ac.checkpointmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Статистика уровня в памяти двухуровневого кэша с момента запуска экземпляра приложения
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NearCacheStatsDTO {
+
+    private String cacheName;
+
+    /**
+     * Попадания в кэш в памяти (L1)
+     */
+    private long l1Hits;
+
+    /**
+     * Промахи L1, найденные в Redis (L2)
+     */
+    private long l2Hits;
+
+    /**
+     * Промахи обоих уровней
+     */
+    private long misses;
+
+    private int l1Size;
+
+    /**
+     * Среднее время чтения при попадании в L1, мкс
+     */
+    private double l1AvgMicros;
+
+    /**
+     * Среднее время чтения с обращением к Redis, мкс
+     */
+    private double l2AvgMicros;
+
+    /**
+     * Чтения L1, обновившие запись раньше срока
+     */
+    private long earlyRefreshes;
+
+}
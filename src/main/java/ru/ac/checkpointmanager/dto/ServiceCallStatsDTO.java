@@ -0,0 +1,42 @@
+package ru.ac.checkpointmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Статистика вызовов метода сервиса с момента запуска экземпляра приложения или сброса статистики.
+ * Перцентили - верхние границы интервалов гистограммы, точность - в пределах двух раз
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ServiceCallStatsDTO {
+
+    /**
+     * Класс или интерфейс, метод и типы параметров
+     */
+    private String method;
+
+    private long calls;
+
+    /**
+     * Вызовы, завершившиеся исключением
+     */
+    private long errors;
+
+    private double avgMs;
+
+    private double p50Ms;
+
+    private double p95Ms;
+
+    private double p99Ms;
+
+    private double maxMs;
+
+    /**
+     * Суммарное время всех вызовов, мс
+     */
+    private double totalMs;
+}
@@ -0,0 +1,33 @@
+package ru.ac.checkpointmanager.dto.passes;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Страница выгрузки по курсору
+ *
+ * @param <T> тип элементов
+ */
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private final List<T> content;
+
+    /**
+     * Токен для запроса следующей страницы, null на последней странице
+     */
+    private final String nextCursor;
+
+    /**
+     * Общее количество элементов, null если не запрашивалось
+     */
+    private final Long totalElements;
+
+    public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+        return new CursorPage<>(content.stream().<R>map(mapper).toList(), nextCursor, totalElements);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.ac.checkpointmanager.dto.passes;
+
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Параметры выгрузки по курсору: вместо номера страницы передается токен продолжения из предыдущего ответа
+ */
+@Data
+@AllArgsConstructor
+public class CursorParams {
+
+    /**
+     * Токен продолжения, для первой страницы не передается
+     */
+    private String cursor;
+
+    @Positive
+    private Integer size;
+
+    /**
+     * Подсчитывать ли общее количество элементов, требует отдельного запроса
+     */
+    private boolean withTotal;
+}
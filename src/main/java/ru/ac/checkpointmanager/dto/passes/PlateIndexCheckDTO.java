@@ -0,0 +1,32 @@
+package ru.ac.checkpointmanager.dto.passes;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат сверки индекса номеров машин с базой
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlateIndexCheckDTO {
+
+    /**
+     * Количество пропусков в индексе после сверки
+     */
+    private int indexed;
+
+    /**
+     * Активные пропуска, отсутствовавшие в индексе или записанные в нем с другим номером или территорией
+     */
+    private int missing;
+
+    /**
+     * Пропуска в индексе, которые уже не активны или удалены
+     */
+    private int stale;
+
+    private long durationMs;
+
+}
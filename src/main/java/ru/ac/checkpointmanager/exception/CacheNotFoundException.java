@@ -0,0 +1,11 @@
+package ru.ac.checkpointmanager.exception;
+
+import jakarta.persistence.EntityNotFoundException;
+
+public class CacheNotFoundException extends EntityNotFoundException {
+
+    public CacheNotFoundException(String message) {
+        super(message);
+    }
+
+}
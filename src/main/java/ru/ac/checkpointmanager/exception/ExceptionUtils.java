@@ -63,6 +63,10 @@ public final class ExceptionUtils {
     public static final String CHANGE_PASS_TYPE_TO_AUTO = "Attempt to modify Pass Walk for auto";
     public static final String OVERLAP_PASS = "Reject: user [%s] has an overlapping pass [%s]";
 
+    public static final String INVALID_CURSOR = "Cursor [%s] cannot be decoded";
+
+    public static final String CACHE_NOT_FOUND_MSG = "Cache [%s] not found";
+
     private ExceptionUtils() {
         throw new AssertionError("No instances, please");
     }
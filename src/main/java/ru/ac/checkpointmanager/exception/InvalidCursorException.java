@@ -0,0 +1,8 @@
+package ru.ac.checkpointmanager.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -4,8 +4,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import ru.ac.checkpointmanager.dto.CarBrandDTO;
 import ru.ac.checkpointmanager.dto.CarDTO;
 import ru.ac.checkpointmanager.model.car.Car;
+import ru.ac.checkpointmanager.model.car.CarBrand;
 
 import java.util.Collection;
 import java.util.List;
@@ -29,13 +31,25 @@ public class CarMapper {
 
     public CarDTO toCarDTO(Car car) {
         log.debug("Converting from Car to CarDTO");
-        return modelMapper.map(car, CarDTO.class);
+        return mapCar(car);
     }
 
     public List<CarDTO> toCarDTOs(Collection<Car> cars) {
         log.debug("Converting a list of Car objects to a list of CarDTOs");
         return cars.stream()
-                .map(e -> modelMapper.map(e, CarDTO.class))
+                .map(CarMapper::mapCar)
                 .toList();
     }
+
+    /**
+     * Преобразование без ModelMapper для выдачи машин, в том числе в составе пропусков
+     */
+    static CarDTO mapCar(Car car) {
+        if (car == null) {
+            return null;
+        }
+        CarBrand brand = car.getBrand();
+        return new CarDTO(car.getId(), car.getLicensePlate(), brand == null ? null : new CarBrandDTO(brand.getBrand()),
+                car.getPhone());
+    }
 }
@@ -6,10 +6,15 @@ import org.modelmapper.PropertyMap;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import ru.ac.checkpointmanager.dto.CrossingDTO;
+import ru.ac.checkpointmanager.dto.CrossingRequestDTO;
 import ru.ac.checkpointmanager.model.Crossing;
+import ru.ac.checkpointmanager.model.checkpoints.Checkpoint;
+import ru.ac.checkpointmanager.model.enums.Direction;
+import ru.ac.checkpointmanager.model.passes.Pass;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @Component
@@ -23,13 +28,25 @@ public class CrossingMapper {
         configureModelMapper();
     }
 
+    /**
+     * Преобразование без ModelMapper: пересечения выдаются списками, сопоставление через рефлексию
+     * заметно нагружает процессор. Для id пропуска и чекпоинта ленивые ссылки не инициализируются
+     */
     public CrossingDTO toCrossingDTO(Crossing crossing) {
-        return modelMapper.map(crossing, CrossingDTO.class);
+        Pass pass = crossing.getPass();
+        Checkpoint checkpoint = crossing.getCheckpoint();
+        return new CrossingDTO(crossing.getId(), pass == null ? null : pass.getId(),
+                checkpoint == null ? null : checkpoint.getId(), crossing.getPerformedAt(), crossing.getDirection());
+    }
+
+    public CrossingDTO toCrossingDTO(UUID crossingId, CrossingRequestDTO crossingRequestDTO, Direction direction) {
+        return new CrossingDTO(crossingId, crossingRequestDTO.getPassId(), crossingRequestDTO.getCheckpointId(),
+                crossingRequestDTO.getPerformedAt(), direction);
     }
 
     public List<CrossingDTO> toCrossingsDTO(Collection<Crossing> crossings) {
         return crossings.stream()
-                .map(crossing -> modelMapper.map(crossing, CrossingDTO.class))
+                .map(this::toCrossingDTO)
                 .toList();
     }
 
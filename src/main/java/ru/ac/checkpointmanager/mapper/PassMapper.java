@@ -12,6 +12,8 @@ import ru.ac.checkpointmanager.model.Territory;
 import ru.ac.checkpointmanager.model.User;
 import ru.ac.checkpointmanager.model.passes.Pass;
 import ru.ac.checkpointmanager.model.passes.PassAuto;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.model.passes.PassTimeType;
 import ru.ac.checkpointmanager.model.passes.PassWalk;
 
 @Component
@@ -48,8 +50,40 @@ public class PassMapper {
         return pass;
     }
 
+    /**
+     * Преобразование без ModelMapper: вызывается для каждого пропуска каждой страницы выдачи,
+     * сопоставление через рефлексию заметно нагружает процессор.
+     * Результат совпадает с сопоставлением ModelMapper: статус и тип пропуска передаются именем
+     * и описанием, для пропуска на машину заполняется машина, для пешего - посетитель
+     */
     public PassResponseDTO toPassDTO(Pass pass) {
-        return modelMapper.map(pass, PassResponseDTO.class);
+        PassResponseDTO dto = new PassResponseDTO();
+        dto.setId(pass.getId());
+        dto.setUser(UserMapper.mapUser(pass.getUser()));
+        dto.setComment(pass.getComment());
+        PassStatus status = pass.getStatus();
+        if (status != null) {
+            dto.setStatus(status.name());
+            dto.setStatusDescription(status.getDescription());
+        }
+        PassTimeType timeType = pass.getTimeType();
+        if (timeType != null) {
+            dto.setTimeType(timeType.name());
+            dto.setTimeTypeDescription(timeType.getDescription());
+        }
+        dto.setTerritory(TerritoryMapper.mapTerritory(pass.getTerritory()));
+        dto.setAddedAt(pass.getAddedAt());
+        dto.setStartTime(pass.getStartTime());
+        dto.setEndTime(pass.getEndTime());
+        dto.setDtype(pass.getDtype());
+        dto.setFavorite(pass.getFavorite());
+        dto.setExpectedDirection(pass.getExpectedDirection());
+        if (pass instanceof PassAuto passAuto) {
+            dto.setCar(CarMapper.mapCar(passAuto.getCar()));
+        } else if (pass instanceof PassWalk passWalk) {
+            dto.setVisitor(VisitorMapper.mapVisitor(passWalk.getVisitor()));
+        }
+        return dto;
     }
 
     private void configureModelMapper() {
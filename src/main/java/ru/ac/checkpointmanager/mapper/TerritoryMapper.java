@@ -25,12 +25,12 @@ public class TerritoryMapper {
     }
 
     public TerritoryDTO toTerritoryDTO(Territory territory) {
-        return modelMapper.map(territory, TerritoryDTO.class);
+        return mapTerritory(territory);
     }
 
     public List<TerritoryDTO> toTerritoriesDTO(List<Territory> territories) {
         return territories.stream()
-                .map(e -> modelMapper.map(e, TerritoryDTO.class))
+                .map(TerritoryMapper::mapTerritory)
                 //if we will replace to Stream.toList() it will cause deserialization error in Redis
                 .collect(Collectors.toList());
     }
@@ -40,4 +40,15 @@ public class TerritoryMapper {
                 .map(e -> modelMapper.map(e, Territory.class))
                 .toList();
     }
+
+    /**
+     * Преобразование без ModelMapper для выдачи территорий, в том числе в составе пропусков
+     */
+    static TerritoryDTO mapTerritory(Territory territory) {
+        if (territory == null) {
+            return null;
+        }
+        return new TerritoryDTO(territory.getId(), territory.getName(), territory.getNote(), territory.getCity(),
+                territory.getAddress());
+    }
 }
@@ -28,12 +28,12 @@ public class UserMapper {
 
 
     public UserResponseDTO toUserResponseDTO(User user) {
-        return modelMapper.map(user, UserResponseDTO.class);
+        return mapUser(user);
     }
 
     public List<UserResponseDTO> toUserResponseDTOs(Collection<User> users) {
         return users.stream()
-                .map(e -> modelMapper.map(e, UserResponseDTO.class))
+                .map(UserMapper::mapUser)
                 .toList();
     }
 
@@ -53,4 +53,16 @@ public class UserMapper {
     public User toUser(Optional<RegistrationConfirmationDTO> confirmRegistration) {
         return modelMapper.map(confirmRegistration, User.class);
     }
+
+    /**
+     * Преобразование без ModelMapper для выдачи пользователей, в том числе в составе пропусков.
+     * Аватар в ответ не входит, как и при сопоставлении через ModelMapper
+     */
+    static UserResponseDTO mapUser(User user) {
+        if (user == null) {
+            return null;
+        }
+        return new UserResponseDTO(user.getId(), user.getFullName(), user.getMainNumber(), user.getEmail(),
+                user.getIsBlocked(), user.getRole(), null);
+    }
 }
\ No newline at end of file
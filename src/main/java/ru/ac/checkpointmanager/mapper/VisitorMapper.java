@@ -29,13 +29,23 @@ public class VisitorMapper {
 
     public VisitorDTO toVisitorDTO(Visitor visitor) {
         log.debug("Converting from Visitor to VisitorDTO");
-        return modelMapper.map(visitor, VisitorDTO.class);
+        return mapVisitor(visitor);
     }
 
     public List<VisitorDTO> toVisitorDTOS(Collection<Visitor> people) {
         log.debug("Converting a list of Visitor objects to a list of VisitorDTOs");
         return people.stream()
-                .map(e -> modelMapper.map(e, VisitorDTO.class))
+                .map(VisitorMapper::mapVisitor)
                 .toList();
     }
+
+    /**
+     * Преобразование без ModelMapper для выдачи посетителей, в том числе в составе пропусков
+     */
+    static VisitorDTO mapVisitor(Visitor visitor) {
+        if (visitor == null) {
+            return null;
+        }
+        return new VisitorDTO(visitor.getId(), visitor.getName(), visitor.getPhone(), visitor.getNote());
+    }
 }
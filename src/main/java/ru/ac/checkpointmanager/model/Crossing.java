@@ -56,6 +56,12 @@ public class Crossing {
     @Enumerated(EnumType.STRING)
     private Direction direction;
 
+    /**
+     * Ключ идемпотентности, переданный при пакетной загрузке пересечений
+     */
+    @Column(name = "idempotency_key")
+    private String idempotencyKey;
+
     @Override
     public String toString() {
         return "Crossing{" + id +
@@ -3,5 +3,12 @@ package ru.ac.checkpointmanager.model.enums;
 public enum Direction {
 
     IN,
-    OUT
+    OUT;
+
+    /**
+     * Ожидаемое направление следующего пересечения после пересечения в текущем направлении
+     */
+    public Direction opposite() {
+        return this == IN ? OUT : IN;
+    }
 }
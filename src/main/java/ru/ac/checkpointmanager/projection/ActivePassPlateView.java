@@ -0,0 +1,14 @@
+package ru.ac.checkpointmanager.projection;
+
+import java.util.UUID;
+
+/**
+ * Активный пропуск на машину и номер этой машины
+ *
+ * @param passId       id пропуска
+ * @param territoryId  id территории пропуска
+ * @param carId        id машины
+ * @param licensePlate номер машины, как он сохранен в базе
+ */
+public record ActivePassPlateView(UUID passId, UUID territoryId, UUID carId, String licensePlate) {
+}
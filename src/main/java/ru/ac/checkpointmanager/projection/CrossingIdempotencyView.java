@@ -0,0 +1,15 @@
+package ru.ac.checkpointmanager.projection;
+
+import java.util.UUID;
+
+/**
+ * Ранее сохраненное пересечение с ключом идемпотентности
+ */
+public interface CrossingIdempotencyView {
+
+    UUID getId();
+
+    UUID getCheckpointId();
+
+    String getIdempotencyKey();
+}
@@ -0,0 +1,13 @@
+package ru.ac.checkpointmanager.projection;
+
+import java.util.UUID;
+
+/**
+ * Данные пропуска, необходимые для проверки доступа к нему.
+ * Получается одним запросом вместо загрузки сущности пропуска с EAGER юзером и территорией
+ *
+ * @param ownerId     id владельца пропуска, null - у пропуска нет владельца
+ * @param territoryId id территории пропуска
+ */
+public record PassAccessView(UUID ownerId, UUID territoryId) {
+}
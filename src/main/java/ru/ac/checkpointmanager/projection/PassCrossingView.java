@@ -0,0 +1,69 @@
+package ru.ac.checkpointmanager.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.ac.checkpointmanager.model.checkpoints.CheckpointType;
+import ru.ac.checkpointmanager.model.enums.Direction;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.model.passes.PassTimeType;
+
+import java.util.UUID;
+
+/**
+ * Минимальный набор данных пропуска и чекпоинта, необходимый для регистрации пересечения.
+ * Получается одним запросом вместо загрузки сущностей пропуска (с EAGER юзером и территорией),
+ * чекпоинта и списка пересечений по пропуску.
+ * Поля чекпоинта равны null, если чекпоинт не найден
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class PassCrossingView {
+
+    private final UUID id;
+
+    private final PassStatus status;
+
+    private final PassTimeType timeType;
+
+    private final Direction expectedDirection;
+
+    private final String dtype;
+
+    private final UUID territoryId;
+
+    /**
+     * По пропуску уже были пересечения
+     */
+    private final boolean used;
+
+    private final UUID checkpointId;
+
+    private final UUID checkpointTerritoryId;
+
+    private final CheckpointType checkpointType;
+
+    /**
+     * Состояние пропуска после зарегистрированного пересечения, данные чекпоинта сохраняются
+     *
+     * @param status            статус пропуска после пересечения
+     * @param expectedDirection ожидаемое направление следующего пересечения
+     * @return новое представление использованного пропуска
+     */
+    public PassCrossingView withPassState(PassStatus status, Direction expectedDirection) {
+        return new PassCrossingView(id, status, timeType, expectedDirection, dtype, territoryId, true,
+                checkpointId, checkpointTerritoryId, checkpointType);
+    }
+
+    /**
+     * Тот же пропуск в текущем состоянии применительно к другому чекпоинту
+     *
+     * @param checkpoint представление того же пропуска, полученное для другого чекпоинта
+     * @return представление с состоянием пропуска из this и данными чекпоинта из checkpoint
+     */
+    public PassCrossingView withCheckpointOf(PassCrossingView checkpoint) {
+        return new PassCrossingView(id, status, timeType, expectedDirection, dtype, territoryId, used,
+                checkpoint.checkpointId, checkpoint.checkpointTerritoryId, checkpoint.checkpointType);
+    }
+}
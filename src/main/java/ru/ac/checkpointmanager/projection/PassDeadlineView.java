@@ -0,0 +1,28 @@
+package ru.ac.checkpointmanager.projection;
+
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Статус и время действия пропуска для планирования смены статуса по таймеру
+ *
+ * @param id        id пропуска
+ * @param status    текущий статус
+ * @param startTime время начала, по нему активируется отложенный пропуск
+ * @param endTime   время окончания, по нему завершается активный пропуск
+ */
+public record PassDeadlineView(UUID id, PassStatus status, LocalDateTime startTime, LocalDateTime endTime) {
+
+    /**
+     * @return время следующей смены статуса, null - для пропуска не в статусе DELAYED или ACTIVE
+     */
+    public LocalDateTime deadline() {
+        return switch (status) {
+            case DELAYED -> startTime;
+            case ACTIVE -> endTime;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package ru.ac.checkpointmanager.projection;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Событие, прочитанное при выгрузке по курсору. Сериализуется так же, как {@link PassInOutView},
+ * дополнительно хранит ключ сортировки для токена продолжения
+ */
+@Getter
+@AllArgsConstructor
+public class PassEventView implements PassInOutView {
+
+    private final String dtype;
+
+    private final String pass_comment;
+
+    private final String terr_name;
+
+    private final String pass_time_type;
+
+    private final String pass_status;
+
+    private final String car_number;
+
+    private final String car_brand;
+
+    private final String visitor;
+
+    private final LocalDateTime in_time;
+
+    private final LocalDateTime out_time;
+
+    private final UUID pass_id;
+
+    /**
+     * Время въезда без потери точности и смещения, первая часть ключа сортировки
+     */
+    @JsonIgnore
+    private final OffsetDateTime inTimeKey;
+
+    @JsonIgnore
+    private final UUID eventId;
+}
@@ -0,0 +1,15 @@
+package ru.ac.checkpointmanager.projection;
+
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+
+import java.util.UUID;
+
+/**
+ * Результат массового изменения статуса пропуска: id пропуска и присвоенный ему статус
+ */
+public interface PassStatusTransition {
+
+    UUID getId();
+
+    PassStatus getStatus();
+}
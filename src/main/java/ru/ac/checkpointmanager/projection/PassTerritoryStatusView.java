@@ -0,0 +1,15 @@
+package ru.ac.checkpointmanager.projection;
+
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+
+import java.util.UUID;
+
+/**
+ * Территория и текущий статус пропуска для рассылки событий о смене статуса
+ *
+ * @param passId      id пропуска
+ * @param territoryId id территории пропуска
+ * @param status      текущий статус
+ */
+public record PassTerritoryStatusView(UUID passId, UUID territoryId, PassStatus status) {
+}
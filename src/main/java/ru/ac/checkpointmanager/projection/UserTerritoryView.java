@@ -0,0 +1,12 @@
+package ru.ac.checkpointmanager.projection;
+
+import java.util.UUID;
+
+/**
+ * Связь пользователя с территорией, строка таблицы user_territory
+ *
+ * @param userId      id пользователя
+ * @param territoryId id территории
+ */
+public record UserTerritoryView(UUID userId, UUID territoryId) {
+}
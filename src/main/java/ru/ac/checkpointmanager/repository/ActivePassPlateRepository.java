@@ -0,0 +1,69 @@
+package ru.ac.checkpointmanager.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.ac.checkpointmanager.projection.ActivePassPlateView;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Выборка активных пропусков на машину с номерами машин для индекса номеров
+ */
+@Repository
+@RequiredArgsConstructor
+public class ActivePassPlateRepository {
+
+    private static final String ACTIVE_PASS_PLATES = "SELECT p.id, p.territory_id, p.car_id, c.license_plate " +
+            "FROM passes p JOIN cars c ON c.id = p.car_id " +
+            "WHERE p.status = 'ACTIVE' AND p.dtype = 'AUTO'";
+
+    private static final String ACTIVE_PASS_PLATES_BY_IDS = ACTIVE_PASS_PLATES + " AND p.id IN (:passIds)";
+
+    private static final String ACTIVE_PASS_IDS_BY_CAR = "SELECT p.id FROM passes p " +
+            "WHERE p.car_id = :carId AND p.status = 'ACTIVE' AND p.dtype = 'AUTO'";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Передает обработчику все активные пропуска на машину по одному, без накопления списка
+     *
+     * @param consumer обработчик, вызывается для каждого пропуска
+     */
+    public void streamAll(Consumer<ActivePassPlateView> consumer) {
+        jdbcTemplate.query(ACTIVE_PASS_PLATES, (RowCallbackHandler) rs -> consumer.accept(toView(rs, rs.getRow())));
+    }
+
+    /**
+     * @param passIds id пропусков
+     * @return те из пропусков, которые сейчас активны и оформлены на машину
+     */
+    public List<ActivePassPlateView> findByPassIds(Collection<UUID> passIds) {
+        return jdbcTemplate.query(ACTIVE_PASS_PLATES_BY_IDS, new MapSqlParameterSource("passIds", passIds),
+                ActivePassPlateRepository::toView);
+    }
+
+    /**
+     * @param carId id машины
+     * @return id активных пропусков на машину
+     */
+    public List<UUID> findPassIdsByCarId(UUID carId) {
+        return jdbcTemplate.queryForList(ACTIVE_PASS_IDS_BY_CAR, new MapSqlParameterSource("carId", carId),
+                UUID.class);
+    }
+
+    private static ActivePassPlateView toView(ResultSet rs, int rowNum) throws SQLException {
+        return new ActivePassPlateView(
+                rs.getObject("id", UUID.class),
+                rs.getObject("territory_id", UUID.class),
+                rs.getObject("car_id", UUID.class),
+                rs.getString("license_plate"));
+    }
+}
@@ -1,10 +1,13 @@
 package ru.ac.checkpointmanager.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.ac.checkpointmanager.model.checkpoints.Checkpoint;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -12,4 +15,7 @@ public interface CheckpointRepository extends JpaRepository<Checkpoint, UUID> {
     List<Checkpoint> findCheckpointsByNameContainingIgnoreCase(String name);
 
     List<Checkpoint> findCheckpointsByTerritoryIdOrderByName(UUID id);
+
+    @Query("SELECT c.territory.id FROM Checkpoint c WHERE c.id = :checkpointId")
+    Optional<UUID> findTerritoryIdById(@Param("checkpointId") UUID checkpointId);
 }
@@ -0,0 +1,63 @@
+package ru.ac.checkpointmanager.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.ac.checkpointmanager.model.Crossing;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Пакетная запись пересечений и состояний пропусков через JDBC batch, без загрузки сущностей в контекст
+ */
+@Repository
+@RequiredArgsConstructor
+public class CrossingBatchRepository {
+
+    private static final String UPDATE_PASS_STATE = "UPDATE passes " +
+            "SET status = CAST(? AS pass_status_enum), expected_direction = ? " +
+            "WHERE id = ? AND status = 'ACTIVE'";
+
+    private static final String INSERT_CROSSING = "INSERT INTO crossings " +
+            "(id, pass_id, checkpoint_id, performed_at, local_date_time, direction, idempotency_key) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Сохраняет статус и ожидаемое направление пропусков, если они все еще активны
+     *
+     * @param passes итоговые состояния пропусков
+     * @return количество обновленных строк по каждому пропуску, в порядке переданной коллекции
+     */
+    public int[] updatePassStates(Collection<PassCrossingView> passes) {
+        List<Object[]> args = passes.stream()
+                .map(pass -> new Object[]{pass.getStatus().name(), pass.getExpectedDirection().name(), pass.getId()})
+                .toList();
+        return jdbcTemplate.batchUpdate(UPDATE_PASS_STATE, args);
+    }
+
+    /**
+     * Вставляет пересечения одним JDBC batch, id пересечений должны быть заданы
+     *
+     * @param crossings пересечения со ссылками на пропуск и чекпоинт
+     */
+    public void insertCrossings(Collection<Crossing> crossings) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = crossings.stream()
+                .map(crossing -> new Object[]{
+                        crossing.getId(),
+                        crossing.getPass().getId(),
+                        crossing.getCheckpoint().getId(),
+                        crossing.getPerformedAt().toOffsetDateTime(),
+                        now,
+                        crossing.getDirection().name(),
+                        crossing.getIdempotencyKey()})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_CROSSING, args);
+    }
+}
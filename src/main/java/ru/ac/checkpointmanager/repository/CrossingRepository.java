@@ -3,9 +3,13 @@ package ru.ac.checkpointmanager.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.ac.checkpointmanager.model.Crossing;
+import ru.ac.checkpointmanager.projection.CrossingIdempotencyView;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,4 +19,17 @@ public interface CrossingRepository extends JpaRepository<Crossing, UUID> {
     Page<Crossing> findCrossingsByPassId(UUID passId, Pageable pageable);
 
     List<Crossing> findCrossingsByPassId(UUID passId);
+
+    /**
+     * Ищет уже сохраненные пересечения чекпоинтов по ключам идемпотентности, не загружая пропуска и чекпоинты.
+     * Ключ уникален в пределах чекпоинта, вызывающий код сверяет пары чекпоинт - ключ
+     *
+     * @param checkpointIds id чекпоинтов
+     * @param keys          ключи идемпотентности
+     * @return id, чекпоинты и ключи найденных пересечений
+     */
+    @Query("SELECT c.id AS id, c.checkpoint.id AS checkpointId, c.idempotencyKey AS idempotencyKey " +
+            "FROM Crossing c WHERE c.checkpoint.id IN :checkpointIds AND c.idempotencyKey IN :keys")
+    List<CrossingIdempotencyView> findByIdempotencyKeys(@Param("checkpointIds") Collection<UUID> checkpointIds,
+                                                        @Param("keys") Collection<String> keys);
 }
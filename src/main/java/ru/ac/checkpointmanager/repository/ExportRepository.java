@@ -0,0 +1,191 @@
+package ru.ac.checkpointmanager.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ac.checkpointmanager.dto.CarBrandDTO;
+import ru.ac.checkpointmanager.dto.CarDTO;
+import ru.ac.checkpointmanager.dto.TerritoryDTO;
+import ru.ac.checkpointmanager.dto.VisitorDTO;
+import ru.ac.checkpointmanager.dto.passes.PassResponseDTO;
+import ru.ac.checkpointmanager.dto.user.UserResponseDTO;
+import ru.ac.checkpointmanager.model.enums.Direction;
+import ru.ac.checkpointmanager.model.enums.Role;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.model.passes.PassTimeType;
+import ru.ac.checkpointmanager.projection.PassInOutView;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Потоковая выгрузка событий и пропусков для экспорта.
+ * <p>
+ * Запросы выполняются на соединении основного пула в транзакции только для чтения, без автокоммита:
+ * драйвер PostgreSQL читает результат курсором порциями по fetch size, строки передаются обработчику
+ * по одной и не накапливаются в памяти. Одновременных выгрузок не больше maxConcurrent, чтобы долгие
+ * выгрузки не заняли весь пул, следующая ждет освобождения не дольше {@link #SLOT_WAIT_SECONDS} секунд
+ */
+@Repository
+public class ExportRepository {
+
+    /**
+     * Ожидание свободной выгрузки, как ожидание соединения Hikari по умолчанию
+     */
+    private static final long SLOT_WAIT_SECONDS = 30;
+
+    private static final String EVENTS_BY_TERRITORY = PassRepository.EVENTS_SELECT +
+            "WHERE e.territory_id = :terId " +
+            "AND (CAST(:from AS timestamptz) IS NULL OR e.in_time >= :from) " +
+            "AND (CAST(:to AS timestamptz) IS NULL OR e.in_time < :to) " +
+            "ORDER BY e.in_time, e.id";
+
+    private static final String PASSES_BY_TERRITORY = "SELECT p.id, p.comment, p.status, p.time_type, " +
+            "p.added_at, p.start_time, p.end_time, p.dtype, p.favorite, p.expected_direction, " +
+            "u.id AS user_id, u.full_name AS user_full_name, u.main_number, u.email, u.is_blocked, u.role, " +
+            "t.id AS territory_id, t.name AS territory_name, t.note AS territory_note, t.city, t.address, " +
+            "c.id AS car_id, c.license_plate, c.car_phone, b.brand, " +
+            "v.id AS visitor_id, v.full_name AS visitor_name, v.visitor_phone, v.note AS visitor_note " +
+            "FROM passes p " +
+            "JOIN territories t ON t.id = p.territory_id " +
+            "LEFT JOIN users u ON u.id = p.user_id " +
+            "LEFT JOIN cars c ON c.id = p.car_id " +
+            "LEFT JOIN car_brand b ON b.id = c.brand_id " +
+            "LEFT JOIN visitors v ON v.id = p.visitor_id " +
+            "WHERE p.territory_id = :terId " +
+            "AND (CAST(:from AS timestamp) IS NULL OR p.start_time >= :from) " +
+            "AND (CAST(:to AS timestamp) IS NULL OR p.start_time < :to) " +
+            "ORDER BY p.start_time, p.id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Semaphore exports;
+
+    public ExportRepository(DataSource dataSource, PlatformTransactionManager transactionManager,
+                            @Value("${app.export.max-concurrent:2}") int maxConcurrent,
+                            @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        this.exports = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Выгружает события территории в порядке in_time, id, события без въезда идут последними
+     *
+     * @param terId    id территории
+     * @param from     начало периода по времени въезда, включительно, null - без ограничения
+     * @param to       конец периода по времени въезда, не включительно, null - без ограничения
+     * @param consumer обработчик, вызывается для каждого события
+     */
+    public void streamEventsByTerritory(UUID terId, LocalDateTime from, LocalDateTime to,
+                                        Consumer<PassInOutView> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource("terId", terId)
+                .addValue("from", toOffsetDateTime(from))
+                .addValue("to", toOffsetDateTime(to));
+        stream(() -> jdbcTemplate.query(EVENTS_BY_TERRITORY, params,
+                (RowCallbackHandler) rs -> consumer.accept(PassEventRepository.toPassEventView(rs, rs.getRow()))));
+    }
+
+    /**
+     * Выгружает пропуска территории в порядке start_time, id
+     *
+     * @param terId    id территории
+     * @param from     начало периода по времени начала пропуска, включительно, null - без ограничения
+     * @param to       конец периода по времени начала пропуска, не включительно, null - без ограничения
+     * @param consumer обработчик, вызывается для каждого пропуска
+     */
+    public void streamPassesByTerritory(UUID terId, LocalDateTime from, LocalDateTime to,
+                                        Consumer<PassResponseDTO> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource("terId", terId)
+                .addValue("from", from == null ? null : Timestamp.valueOf(from))
+                .addValue("to", to == null ? null : Timestamp.valueOf(to));
+        stream(() -> jdbcTemplate.query(PASSES_BY_TERRITORY, params,
+                (RowCallbackHandler) rs -> consumer.accept(toPassResponseDTO(rs))));
+    }
+
+    private void stream(Runnable query) {
+        try {
+            if (!exports.tryAcquire(SLOT_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                throw new CannotGetJdbcConnectionException("Too many exports in progress");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotGetJdbcConnectionException("Interrupted while waiting for export");
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> query.run());
+        } finally {
+            exports.release();
+        }
+    }
+
+    private static PassResponseDTO toPassResponseDTO(ResultSet rs) throws SQLException {
+        PassResponseDTO pass = new PassResponseDTO();
+        pass.setId(rs.getObject("id", UUID.class));
+        pass.setComment(rs.getString("comment"));
+        PassStatus status = PassStatus.valueOf(rs.getString("status"));
+        pass.setStatus(status.name());
+        pass.setStatusDescription(status.getDescription());
+        PassTimeType timeType = PassTimeType.valueOf(rs.getString("time_type"));
+        pass.setTimeType(timeType.name());
+        pass.setTimeTypeDescription(timeType.getDescription());
+        pass.setAddedAt(toLocalDateTime(rs.getTimestamp("added_at")));
+        pass.setStartTime(toLocalDateTime(rs.getTimestamp("start_time")));
+        pass.setEndTime(toLocalDateTime(rs.getTimestamp("end_time")));
+        pass.setDtype(rs.getString("dtype"));
+        pass.setFavorite((Boolean) rs.getObject("favorite"));
+        String direction = rs.getString("expected_direction");
+        pass.setExpectedDirection(direction == null ? null : Direction.valueOf(direction));
+        UUID userId = rs.getObject("user_id", UUID.class);
+        if (userId != null) {
+            String role = rs.getString("role");
+            pass.setUser(new UserResponseDTO(userId, rs.getString("user_full_name"), rs.getString("main_number"),
+                    rs.getString("email"), (Boolean) rs.getObject("is_blocked"),
+                    role == null ? null : Role.valueOf(role), null));
+        }
+        pass.setTerritory(new TerritoryDTO(rs.getObject("territory_id", UUID.class), rs.getString("territory_name"),
+                rs.getString("territory_note"), rs.getString("city"), rs.getString("address")));
+        UUID carId = rs.getObject("car_id", UUID.class);
+        if (carId != null) {
+            pass.setCar(new CarDTO(carId, rs.getString("license_plate"), new CarBrandDTO(rs.getString("brand")),
+                    rs.getString("car_phone")));
+        }
+        UUID visitorId = rs.getObject("visitor_id", UUID.class);
+        if (visitorId != null) {
+            pass.setVisitor(new VisitorDTO(visitorId, rs.getString("visitor_name"), rs.getString("visitor_phone"),
+                    rs.getString("visitor_note")));
+        }
+        return pass;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    /**
+     * Период задается во времени зоны приложения, как время событий в {@link PassInOutView}
+     */
+    private static OffsetDateTime toOffsetDateTime(LocalDateTime time) {
+        return time == null ? null : time.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+}
@@ -0,0 +1,207 @@
+package ru.ac.checkpointmanager.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.ac.checkpointmanager.model.Crossing;
+import ru.ac.checkpointmanager.projection.PassEventView;
+import ru.ac.checkpointmanager.projection.PassInOutView;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Таблица pass_events: пары въезд-выезд по пропускам, поддерживаемые при добавлении пересечений.
+ * Выгрузка по курсору продолжает выборку после ключа (in_time, id) последнего события предыдущей страницы
+ */
+@Repository
+@RequiredArgsConstructor
+public class PassEventRepository {
+
+    /**
+     * Нулевой UUID, меньше любого id пропуска
+     */
+    public static final UUID FIRST_PASS_ID = new UUID(0L, 0L);
+
+    /**
+     * Пары въезд-выезд составляет функция pass_event_pairs (V_356) - единое правило для записи и пересчета:
+     * выезд закрывает событие, если предыдущее пересечение пропуска - въезд, иначе образует событие без въезда
+     */
+    private static final String INSERT_PAIRS = "INSERT INTO pass_events " +
+            "(pass_id, territory_id, user_id, in_time, out_time) " +
+            "SELECT p.id, p.territory_id, p.user_id, pr.in_time, pr.out_time FROM ";
+
+    /**
+     * Пересечение может изменить только событие, начатое предыдущим пересечением пропуска, и более поздние:
+     * они удаляются и составляются заново по пересечениям начиная с предыдущего.
+     * Пересечение должно быть уже записано в crossings
+     */
+    private static final String RECORD_CROSSING = "WITH bound AS (SELECT COALESCE(" +
+            "(SELECT max(COALESCE(e.in_time, e.out_time)) FROM pass_events e " +
+            "WHERE e.pass_id = :passId AND COALESCE(e.in_time, e.out_time) < :time), :time) AS from_time), " +
+            "deleted AS (DELETE FROM pass_events e USING bound b " +
+            "WHERE e.pass_id = :passId AND COALESCE(e.in_time, e.out_time) >= b.from_time) " +
+            INSERT_PAIRS + "bound b, pass_event_pairs(ARRAY[CAST(:passId AS UUID)], b.from_time) pr " +
+            "JOIN passes p ON p.id = pr.pass_id";
+
+    private static final String LOCK_PASS_IDS = "SELECT id FROM passes " +
+            "WHERE id > :after ORDER BY id LIMIT :limit FOR UPDATE";
+
+    private static final String DELETE_EVENTS = "DELETE FROM pass_events WHERE pass_id IN (:passIds)";
+
+    private static final String INSERT_EVENTS_FROM_CROSSINGS = INSERT_PAIRS +
+            "pass_event_pairs(CAST(ARRAY[:passIds] AS UUID[]), '-infinity') pr JOIN passes p ON p.id = pr.pass_id";
+
+    private static final String SEEK_AFTER_IN_TIME = "e.in_time IS NOT NULL " +
+            "AND (e.in_time, e.id) < (:afterTime, :afterId)";
+
+    /**
+     * При сортировке in_time DESC события без въезда идут первыми
+     */
+    private static final String SEEK_AFTER_NULL_IN_TIME = "(e.in_time IS NOT NULL OR e.id < :afterId)";
+
+    private static final String ORDER_AND_LIMIT = " ORDER BY e.in_time DESC, e.id DESC LIMIT :limit";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Обновляет события по сохраненным пересечениям одним JDBC batch.
+     * Пересечения должны быть записаны в crossings в текущей транзакции до вызова
+     *
+     * @param crossings пересечения со ссылками на пропуск
+     */
+    public void recordCrossings(Collection<Crossing> crossings) {
+        SqlParameterSource[] args = crossings.stream()
+                .map(crossing -> new MapSqlParameterSource()
+                        .addValue("passId", crossing.getPass().getId())
+                        .addValue("direction", crossing.getDirection().name())
+                        .addValue("time", crossing.getPerformedAt().toOffsetDateTime()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(RECORD_CROSSING, args);
+    }
+
+    /**
+     * Блокирует очередную порцию пропусков для пересчета событий, чтобы добавление пересечений
+     * по ним дождалось окончания пересчета
+     *
+     * @param after id последнего пропуска предыдущей порции, для первой порции - {@link #FIRST_PASS_ID}
+     * @param limit размер порции
+     * @return id пропусков порции по возрастанию
+     */
+    public List<UUID> lockPassIdsAfter(UUID after, int limit) {
+        return jdbcTemplate.queryForList(LOCK_PASS_IDS, new MapSqlParameterSource()
+                .addValue("after", after)
+                .addValue("limit", limit), UUID.class);
+    }
+
+    /**
+     * Пересчитывает события пропусков по всем их пересечениям
+     *
+     * @param passIds id пропусков
+     * @return количество созданных событий
+     */
+    public int rebuildEvents(Collection<UUID> passIds) {
+        MapSqlParameterSource params = new MapSqlParameterSource("passIds", passIds);
+        jdbcTemplate.update(DELETE_EVENTS, params);
+        return jdbcTemplate.update(INSERT_EVENTS_FROM_CROSSINGS, params);
+    }
+
+    /**
+     * Выгрузка событий пользователя по курсору
+     *
+     * @param userId    id пользователя
+     * @param afterId   id последнего события предыдущей страницы, для первой страницы null
+     * @param afterTime время въезда последнего события предыдущей страницы
+     * @param limit     размер выборки
+     * @return события в порядке in_time DESC, id DESC
+     */
+    public List<PassEventView> findEventsByUserAfter(UUID userId, UUID afterId, OffsetDateTime afterTime, int limit) {
+        return findEventsAfter("e.user_id = :userId", new MapSqlParameterSource("userId", userId),
+                afterId, afterTime, limit);
+    }
+
+    /**
+     * Выгрузка событий территорий по курсору, параметры как у {@link #findEventsByUserAfter}
+     */
+    public List<PassEventView> findEventsByTerritoriesAfter(Collection<UUID> terIds, UUID afterId,
+                                                           OffsetDateTime afterTime, int limit) {
+        return findEventsAfter("e.territory_id IN (:terIds)", new MapSqlParameterSource("terIds", terIds),
+                afterId, afterTime, limit);
+    }
+
+    /**
+     * Выгрузка всех событий по курсору, параметры как у {@link #findEventsByUserAfter}
+     */
+    public List<PassEventView> findAllEventsAfter(UUID afterId, OffsetDateTime afterTime, int limit) {
+        return findEventsAfter(null, new MapSqlParameterSource(), afterId, afterTime, limit);
+    }
+
+    public long countEventsByUser(UUID userId) {
+        return count("e.user_id = :userId", new MapSqlParameterSource("userId", userId));
+    }
+
+    public long countEventsByTerritories(Collection<UUID> terIds) {
+        return count("e.territory_id IN (:terIds)", new MapSqlParameterSource("terIds", terIds));
+    }
+
+    public long countAllEvents() {
+        return count(null, new MapSqlParameterSource());
+    }
+
+    private List<PassEventView> findEventsAfter(String condition, MapSqlParameterSource params, UUID afterId,
+                                                OffsetDateTime afterTime, int limit) {
+        List<String> conditions = new ArrayList<>();
+        if (condition != null) {
+            conditions.add(condition);
+        }
+        if (afterId != null) {
+            conditions.add(afterTime == null ? SEEK_AFTER_NULL_IN_TIME : SEEK_AFTER_IN_TIME);
+            params.addValue("afterId", afterId).addValue("afterTime", afterTime);
+        }
+        String where = conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions);
+        params.addValue("limit", limit);
+        return jdbcTemplate.query(PassRepository.EVENTS_SELECT + where + ORDER_AND_LIMIT, params,
+                PassEventRepository::toPassEventView);
+    }
+
+    private long count(String condition, MapSqlParameterSource params) {
+        String sql = "SELECT count(*) FROM pass_events e" + (condition == null ? "" : " WHERE " + condition);
+        Long count = jdbcTemplate.queryForObject(sql, params, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    static PassEventView toPassEventView(ResultSet rs, int rowNum) throws SQLException {
+        OffsetDateTime inTime = rs.getObject("in_time", OffsetDateTime.class);
+        OffsetDateTime outTime = rs.getObject("out_time", OffsetDateTime.class);
+        return new PassEventView(
+                rs.getString("dtype"),
+                rs.getString("pass_comment"),
+                rs.getString("terr_name"),
+                rs.getString("pass_time_type"),
+                rs.getString("pass_status"),
+                rs.getString("car_number"),
+                rs.getString("car_brand"),
+                rs.getString("visitor"),
+                toLocalDateTime(inTime),
+                toLocalDateTime(outTime),
+                rs.getObject("pass_id", UUID.class),
+                inTime,
+                rs.getObject("event_id", UUID.class));
+    }
+
+    /**
+     * Время в зоне приложения, как в {@link PassInOutView} из запросов JPA
+     */
+    private static LocalDateTime toLocalDateTime(OffsetDateTime time) {
+        return time == null ? null : time.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+}
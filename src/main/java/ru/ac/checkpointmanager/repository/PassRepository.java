@@ -4,15 +4,24 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.ac.checkpointmanager.model.enums.Direction;
 import ru.ac.checkpointmanager.model.passes.Pass;
 import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.projection.PassAccessView;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
+import ru.ac.checkpointmanager.projection.PassDeadlineView;
 import ru.ac.checkpointmanager.projection.PassInOutView;
+import ru.ac.checkpointmanager.projection.PassStatusTransition;
+import ru.ac.checkpointmanager.projection.PassTerritoryStatusView;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -64,31 +73,213 @@ public interface PassRepository extends JpaRepository<Pass, UUID>, JpaSpecificat
                                                @Param("column") String timeColumn, @Param("time") LocalDateTime time);
 
     /**
-     * Проверяет связь между пользователем и территориями
-     * (разрешение пользователя на создание пропуска на эту территорию).
+     * Одним запросом переводит в статус ACTIVE до limit отложенных пропусков, время начала которых наступило.
+     * Строки захватываются через FOR UPDATE SKIP LOCKED: строки, заблокированные другой транзакцией
+     * (другим экземпляром приложения или изменением пропуска), пропускаются без ожидания.
+     * Запрос не помечен {@link org.springframework.data.jpa.repository.Modifying}, т.к. возвращает
+     * id измененных строк через RETURNING
      *
-     * @param userId      ID проверяемого пользователя
-     * @param territoryId ID проверяемой территории
-     * @return boolean результат проверки
+     * @param time  дата и время для сравнения со временем начала пропуска
+     * @param limit максимальное количество пропусков
+     * @return список id активированных пропусков
      */
-    @Query(value = "SELECT EXISTS (SELECT FROM user_territory WHERE user_id = :uId AND territory_id = :tId)"
+    @Query(value = "UPDATE passes SET status = 'ACTIVE' " +
+            "WHERE id IN (SELECT id FROM passes WHERE status = 'DELAYED' AND start_time < :time " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id"
             , nativeQuery = true)
-    boolean checkUserTerritoryRelation(@Param("uId") UUID userId, @Param("tId") UUID territoryId);
+    List<UUID> activateDelayedPasses(@Param("time") LocalDateTime time, @Param("limit") int limit);
 
-    @Query(value = "SELECT * FROM pass_in_out_view p WHERE p.user_id = :userId ORDER BY in_time DESC"
+    /**
+     * Одним запросом переводит до limit активных пропусков с истекшим временем действия в итоговый статус:
+     * OUTDATED - если по пропуску не было пересечений,
+     * COMPLETED - если ожидается въезд (последнее пересечение было на выезд),
+     * WARNING - если ожидается выезд (последнее пересечение было на въезд).
+     * Строки захватываются через FOR UPDATE SKIP LOCKED, как в {@link #activateDelayedPasses(LocalDateTime, int)}
+     *
+     * @param time  дата и время для сравнения со временем окончания пропуска
+     * @param limit максимальное количество пропусков
+     * @return список пар id пропуска - присвоенный статус
+     */
+    @Query(value = "UPDATE passes p SET status = CAST(CASE " +
+            "WHEN NOT EXISTS (SELECT 1 FROM crossings c WHERE c.pass_id = p.id) THEN 'OUTDATED' " +
+            "WHEN p.expected_direction = 'OUT' THEN 'WARNING' " +
+            "ELSE 'COMPLETED' END AS pass_status_enum) " +
+            "WHERE p.id IN (SELECT id FROM passes WHERE status = 'ACTIVE' AND end_time < :time " +
+            "LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING p.id AS id, CAST(p.status AS TEXT) AS status"
             , nativeQuery = true)
-    Page<PassInOutView> findEventsByUser(UUID userId, Pageable pageable);
+    List<PassStatusTransition> resolveExpiredActivePasses(@Param("time") LocalDateTime time,
+                                                          @Param("limit") int limit);
 
-    @Query(value = "SELECT * FROM pass_in_out_view p WHERE p.territory_id = :terId ORDER BY in_time DESC"
+    /**
+     * Вариант {@link #activateDelayedPasses(LocalDateTime, int)} только для указанных пропусков,
+     * вызывается таймером в момент наступления времени начала
+     *
+     * @param ids  id пропусков
+     * @param time дата и время для сравнения со временем начала пропуска
+     * @return список id активированных пропусков
+     */
+    @Query(value = "UPDATE passes SET status = 'ACTIVE' " +
+            "WHERE id IN (SELECT id FROM passes WHERE id IN (:ids) AND status = 'DELAYED' AND start_time <= :time " +
+            "FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id"
             , nativeQuery = true)
-    Page<PassInOutView> findEventsByTerritory(UUID terId, Pageable pageable);
+    List<UUID> activateDelayedPassesByIds(@Param("ids") Collection<UUID> ids, @Param("time") LocalDateTime time);
 
-    @Query(value = "SELECT * FROM pass_in_out_view p ORDER BY in_time DESC"
+    /**
+     * Вариант {@link #resolveExpiredActivePasses(LocalDateTime, int)} только для указанных пропусков,
+     * вызывается таймером в момент наступления времени окончания
+     *
+     * @param ids  id пропусков
+     * @param time дата и время для сравнения со временем окончания пропуска
+     * @return список пар id пропуска - присвоенный статус
+     */
+    @Query(value = "UPDATE passes p SET status = CAST(CASE " +
+            "WHEN NOT EXISTS (SELECT 1 FROM crossings c WHERE c.pass_id = p.id) THEN 'OUTDATED' " +
+            "WHEN p.expected_direction = 'OUT' THEN 'WARNING' " +
+            "ELSE 'COMPLETED' END AS pass_status_enum) " +
+            "WHERE p.id IN (SELECT id FROM passes WHERE id IN (:ids) AND status = 'ACTIVE' AND end_time <= :time " +
+            "FOR UPDATE SKIP LOCKED) " +
+            "RETURNING p.id AS id, CAST(p.status AS TEXT) AS status"
             , nativeQuery = true)
+    List<PassStatusTransition> resolveExpiredActivePassesByIds(@Param("ids") Collection<UUID> ids,
+                                                               @Param("time") LocalDateTime time);
+
+    /**
+     * Отложенные пропуски, время начала которых наступит до указанного времени,
+     * и активные пропуски, время окончания которых наступит до указанного времени
+     *
+     * @param until   граница времени
+     * @param delayed статус отложенного пропуска
+     * @param active  статус активного пропуска
+     * @return статус и время действия найденных пропусков
+     */
+    @Query("SELECT new ru.ac.checkpointmanager.projection.PassDeadlineView(p.id, p.status, p.startTime, p.endTime) " +
+            "FROM Pass p WHERE (p.status = :delayed AND p.startTime < :until) " +
+            "OR (p.status = :active AND p.endTime < :until)")
+    List<PassDeadlineView> findDeadlinesBefore(@Param("until") LocalDateTime until,
+                                               @Param("delayed") PassStatus delayed,
+                                               @Param("active") PassStatus active);
+
+    /**
+     * Статус и время действия указанных пропусков в одном из статусов
+     *
+     * @param ids      id пропусков
+     * @param statuses статусы
+     * @return статус и время действия найденных пропусков
+     */
+    @Query("SELECT new ru.ac.checkpointmanager.projection.PassDeadlineView(p.id, p.status, p.startTime, p.endTime) " +
+            "FROM Pass p WHERE p.id IN :ids AND p.status IN :statuses")
+    List<PassDeadlineView> findDeadlinesByIds(@Param("ids") Collection<UUID> ids,
+                                              @Param("statuses") Collection<PassStatus> statuses);
+
+    /**
+     * Одним запросом получает данные пропуска и чекпоинта, необходимые для регистрации пересечения,
+     * а также признак наличия пересечений по пропуску
+     *
+     * @param passId       id пропуска
+     * @param checkpointId id чекпоинта
+     * @return {@link PassCrossingView} с данными пропуска и чекпоинта (поля чекпоинта null, если он не найден),
+     * пустой Optional, если пропуск не найден
+     */
+    @Query("SELECT new ru.ac.checkpointmanager.projection.PassCrossingView(" +
+            "p.id, p.status, p.timeType, p.expectedDirection, p.dtype, p.territory.id, " +
+            "CASE WHEN EXISTS (SELECT 1 FROM Crossing cr WHERE cr.pass.id = p.id) THEN true ELSE false END, " +
+            "c.id, c.territory.id, c.type) " +
+            "FROM Pass p LEFT JOIN Checkpoint c ON c.id = :checkpointId " +
+            "WHERE p.id = :passId")
+    Optional<PassCrossingView> findPassCrossingView(@Param("passId") UUID passId,
+                                                    @Param("checkpointId") UUID checkpointId);
+
+    /**
+     * Получает владельца и территорию пропуска без загрузки сущности
+     *
+     * @param passId id пропуска
+     * @return {@link PassAccessView}, пустой Optional, если пропуск не найден
+     */
+    @Query("SELECT new ru.ac.checkpointmanager.projection.PassAccessView(p.user.id, p.territory.id) " +
+            "FROM Pass p WHERE p.id = :passId")
+    Optional<PassAccessView> findPassAccessView(@Param("passId") UUID passId);
+
+    /**
+     * Получает территории и текущие статусы пропусков без загрузки сущностей
+     *
+     * @param passIds id пропусков
+     * @return {@link PassTerritoryStatusView}, ненайденные пропуски в списке отсутствуют
+     */
+    @Query("SELECT new ru.ac.checkpointmanager.projection.PassTerritoryStatusView(p.id, p.territory.id, p.status) " +
+            "FROM Pass p WHERE p.id IN :passIds")
+    List<PassTerritoryStatusView> findTerritoryStatusViews(@Param("passIds") Collection<UUID> passIds);
+
+    /**
+     * Пакетный вариант {@link #findPassCrossingView(UUID, UUID)}: для каждого найденного пропуска возвращает
+     * по строке на каждый найденный чекпоинт, либо одну строку с пустыми полями чекпоинта, если ни один не найден
+     *
+     * @param passIds       id пропусков
+     * @param checkpointIds id чекпоинтов
+     * @return список {@link PassCrossingView}, ненайденные пропуски в нем отсутствуют
+     */
+    @Query("SELECT new ru.ac.checkpointmanager.projection.PassCrossingView(" +
+            "p.id, p.status, p.timeType, p.expectedDirection, p.dtype, p.territory.id, " +
+            "CASE WHEN EXISTS (SELECT 1 FROM Crossing cr WHERE cr.pass.id = p.id) THEN true ELSE false END, " +
+            "c.id, c.territory.id, c.type) " +
+            "FROM Pass p LEFT JOIN Checkpoint c ON c.id IN :checkpointIds " +
+            "WHERE p.id IN :passIds")
+    List<PassCrossingView> findPassCrossingViews(@Param("passIds") Collection<UUID> passIds,
+                                                 @Param("checkpointIds") Collection<UUID> checkpointIds);
+
+    /**
+     * Обновляет статус и ожидаемое направление пропуска после пересечения,
+     * только если пропуск все еще активен (защита от параллельного изменения статуса)
+     *
+     * @param passId            id пропуска
+     * @param status            новый статус
+     * @param expectedDirection ожидаемое направление следующего пересечения
+     * @param activeStatus      статус, в котором должен находиться пропуск
+     * @return количество обновленных строк (0, если пропуск уже не активен)
+     */
+    @Modifying
+    @Query("UPDATE Pass p SET p.status = :status, p.expectedDirection = :expectedDirection " +
+            "WHERE p.id = :passId AND p.status = :activeStatus")
+    int updateStatusAndExpectedDirection(@Param("passId") UUID passId, @Param("status") PassStatus status,
+                                         @Param("expectedDirection") Direction expectedDirection,
+                                         @Param("activeStatus") PassStatus activeStatus);
+
+    /**
+     * События (пары въезд-выезд) с данными пропуска. Фильтрация, сортировка и подсчет выполняются
+     * по индексам таблицы pass_events, остальные таблицы присоединяются только для строк страницы.
+     * Порядок in_time DESC, id DESC совпадает с порядком выгрузки по курсору
+     */
+    String EVENTS_SELECT = "SELECT p.dtype, p.comment AS pass_comment, t.name AS terr_name, " +
+            "p.time_type AS pass_time_type, p.status AS pass_status, c.license_plate AS car_number, " +
+            "b.brand AS car_brand, v.full_name AS visitor, e.in_time, e.out_time, p.id AS pass_id, " +
+            "e.territory_id, e.user_id, e.id AS event_id " +
+            "FROM pass_events e " +
+            "JOIN passes p ON p.id = e.pass_id " +
+            "JOIN territories t ON t.id = e.territory_id " +
+            "LEFT JOIN cars c ON c.id = p.car_id " +
+            "LEFT JOIN visitors v ON v.id = p.visitor_id " +
+            "LEFT JOIN car_brand b ON b.id = c.brand_id ";
+
+    @Query(value = EVENTS_SELECT + "WHERE e.user_id = :userId ORDER BY e.in_time DESC, e.id DESC",
+            countQuery = "SELECT count(*) FROM pass_events e WHERE e.user_id = :userId",
+            nativeQuery = true)
+    Page<PassInOutView> findEventsByUser(UUID userId, Pageable pageable);
+
+    @Query(value = EVENTS_SELECT + "WHERE e.territory_id = :terId ORDER BY e.in_time DESC, e.id DESC",
+            countQuery = "SELECT count(*) FROM pass_events e WHERE e.territory_id = :terId",
+            nativeQuery = true)
+    Page<PassInOutView> findEventsByTerritory(UUID terId, Pageable pageable);
+
+    @Query(value = EVENTS_SELECT + "ORDER BY e.in_time DESC, e.id DESC",
+            countQuery = "SELECT count(*) FROM pass_events",
+            nativeQuery = true)
     Page<PassInOutView> findAllEvents(Pageable pageable);
 
-    @Query(value = "SELECT * FROM pass_in_out_view p WHERE p.territory_id IN :terIds ORDER BY in_time DESC"
-            , nativeQuery = true)
+    @Query(value = EVENTS_SELECT + "WHERE e.territory_id IN :terIds ORDER BY e.in_time DESC, e.id DESC",
+            countQuery = "SELECT count(*) FROM pass_events e WHERE e.territory_id IN :terIds",
+            nativeQuery = true)
     Page<PassInOutView> findEventsByTerritories(@Param("terIds") List<UUID> terIds, Pageable pageable);
 
     /**
@@ -108,9 +299,62 @@ public interface PassRepository extends JpaRepository<Pass, UUID>, JpaSpecificat
      *
      * @param userId запрашиваемый пользователь
      * @return список найденных пропусков
+     * @deprecated загружает всю историю пропусков пользователя, для проверки перекрытия используются
+     * {@link #findOverlappingPassAutoIds} и {@link #findOverlappingPassWalkIds}
      */
+    @Deprecated(since = "0.1.19", forRemoval = true)
     List<Pass> findAllPassesByUserId(UUID userId);
 
+    /**
+     * Ищет активные и отложенные пропуски на авто, созданные тем же пользователем на ту же территорию
+     * для того же номера авто, время действия которых пересекается с указанным интервалом.
+     * Запрос опирается на частичный индекс passes_user_territory_time_idx
+     *
+     * @param passId       id проверяемого пропуска (исключается из поиска), null для нового пропуска
+     * @param userId       id пользователя
+     * @param territoryId  id территории
+     * @param licensePlate номер авто
+     * @param startTime    начало интервала
+     * @param endTime      окончание интервала
+     * @param statuses     статусы, среди которых ищется перекрытие
+     * @return список id перекрывающихся пропусков
+     */
+    @Query("SELECT p.id FROM PassAuto p WHERE p.user.id = :userId AND p.territory.id = :territoryId " +
+            "AND p.status IN :statuses AND (:passId IS NULL OR p.id <> :passId) " +
+            "AND p.startTime < :endTime AND p.endTime > :startTime " +
+            "AND p.car.licensePlate = :licensePlate")
+    List<UUID> findOverlappingPassAutoIds(@Param("passId") UUID passId, @Param("userId") UUID userId,
+                                          @Param("territoryId") UUID territoryId,
+                                          @Param("licensePlate") String licensePlate,
+                                          @Param("startTime") LocalDateTime startTime,
+                                          @Param("endTime") LocalDateTime endTime,
+                                          @Param("statuses") Collection<PassStatus> statuses);
+
+    /**
+     * Ищет активные и отложенные пешие пропуски, созданные тем же пользователем на ту же территорию
+     * для посетителя с тем же именем, время действия которых пересекается с указанным интервалом.
+     * Запрос опирается на частичный индекс passes_user_territory_time_idx
+     *
+     * @param passId      id проверяемого пропуска (исключается из поиска), null для нового пропуска
+     * @param userId      id пользователя
+     * @param territoryId id территории
+     * @param visitorName имя посетителя
+     * @param startTime   начало интервала
+     * @param endTime     окончание интервала
+     * @param statuses    статусы, среди которых ищется перекрытие
+     * @return список id перекрывающихся пропусков
+     */
+    @Query("SELECT p.id FROM PassWalk p WHERE p.user.id = :userId AND p.territory.id = :territoryId " +
+            "AND p.status IN :statuses AND (:passId IS NULL OR p.id <> :passId) " +
+            "AND p.startTime < :endTime AND p.endTime > :startTime " +
+            "AND p.visitor.name = :visitorName")
+    List<UUID> findOverlappingPassWalkIds(@Param("passId") UUID passId, @Param("userId") UUID userId,
+                                          @Param("territoryId") UUID territoryId,
+                                          @Param("visitorName") String visitorName,
+                                          @Param("startTime") LocalDateTime startTime,
+                                          @Param("endTime") LocalDateTime endTime,
+                                          @Param("statuses") Collection<PassStatus> statuses);
+
     /**
      * Получает страницу объектов Pass для конкретного пользователя, отсортированных по заданной логике
      *
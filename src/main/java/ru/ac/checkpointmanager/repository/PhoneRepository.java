@@ -6,6 +6,7 @@ import org.springframework.data.repository.query.Param;
 import ru.ac.checkpointmanager.model.Phone;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -18,4 +19,7 @@ public interface PhoneRepository extends JpaRepository<Phone, UUID> {
     // ищет в таблице phones номера, которые привязаны к переданному user_id
     @Query(value = "SELECT number FROM phones WHERE user_id = :user_id", nativeQuery = true)
     Collection<String> getPhonesByUserId(@Param("user_id") UUID id);
+
+    @Query("SELECT p.id FROM Phone p WHERE p.user.id = :userId")
+    List<UUID> findIdsByUserId(@Param("userId") UUID userId);
 }
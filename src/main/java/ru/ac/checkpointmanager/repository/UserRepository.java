@@ -19,7 +19,14 @@ import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
-    Collection<User> findUserByFullNameContainingIgnoreCase(String name);
+    /**
+     * Поиск пользователей по фрагменту имени по индексу триграмм, ближайшие совпадения первыми
+     *
+     * @param pattern шаблон из {@link ru.ac.checkpointmanager.utils.SearchUtils#containsIgnoreCasePattern}
+     */
+    @Query(value = "SELECT u.* FROM users u WHERE lower(u.full_name) LIKE :pattern " +
+            "ORDER BY similarity(lower(u.full_name), :pattern) DESC, u.full_name", nativeQuery = true)
+    Collection<User> searchByFullName(@Param("pattern") String pattern);
 
     Optional<User> findByEmail(String email);
 
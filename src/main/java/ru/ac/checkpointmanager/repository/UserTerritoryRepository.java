@@ -0,0 +1,63 @@
+package ru.ac.checkpointmanager.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.ac.checkpointmanager.projection.UserTerritoryView;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Выборка связей пользователей с территориями для индекса связей
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserTerritoryRepository {
+
+    private static final String USER_TERRITORIES = "SELECT user_id, territory_id FROM user_territory";
+
+    private static final String USER_TERRITORIES_BY_USERS = USER_TERRITORIES + " WHERE user_id IN (:userIds)";
+
+    private static final String USER_IDS_BY_TERRITORY = "SELECT user_id FROM user_territory " +
+            "WHERE territory_id = :territoryId";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Передает обработчику все связи по одной, без накопления списка
+     *
+     * @param consumer обработчик, вызывается для каждой связи
+     */
+    public void streamAll(Consumer<UserTerritoryView> consumer) {
+        jdbcTemplate.query(USER_TERRITORIES, (RowCallbackHandler) rs -> consumer.accept(toView(rs, rs.getRow())));
+    }
+
+    /**
+     * @param userIds id пользователей
+     * @return связи пользователей с территориями
+     */
+    public List<UserTerritoryView> findByUserIds(Collection<UUID> userIds) {
+        return jdbcTemplate.query(USER_TERRITORIES_BY_USERS, new MapSqlParameterSource("userIds", userIds),
+                UserTerritoryRepository::toView);
+    }
+
+    /**
+     * @param territoryId id территории
+     * @return id пользователей, привязанных к территории
+     */
+    public List<UUID> findUserIdsByTerritoryId(UUID territoryId) {
+        return jdbcTemplate.queryForList(USER_IDS_BY_TERRITORY, new MapSqlParameterSource("territoryId", territoryId),
+                UUID.class);
+    }
+
+    private static UserTerritoryView toView(ResultSet rs, int rowNum) throws SQLException {
+        return new UserTerritoryView(rs.getObject("user_id", UUID.class), rs.getObject("territory_id", UUID.class));
+    }
+}
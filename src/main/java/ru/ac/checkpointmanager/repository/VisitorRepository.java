@@ -13,9 +13,22 @@ import java.util.UUID;
 @Repository
 public interface VisitorRepository extends JpaRepository<Visitor, UUID> {
 
-    List<Visitor> findByNameContainingIgnoreCase(String name);
-
-    List<Visitor> findByPhoneContaining(String phone);
+    /**
+     * Поиск посетителей по фрагменту имени по индексу триграмм, ближайшие совпадения первыми
+     *
+     * @param pattern шаблон из {@link ru.ac.checkpointmanager.utils.SearchUtils#containsIgnoreCasePattern}
+     */
+    @Query(value = "SELECT v.* FROM visitors v WHERE lower(v.full_name) LIKE :pattern " +
+            "ORDER BY similarity(lower(v.full_name), :pattern) DESC, v.full_name", nativeQuery = true)
+    List<Visitor> searchByName(@Param("pattern") String pattern);
+
+    /**
+     * Поиск посетителей по фрагменту телефона, шаблон из
+     * {@link ru.ac.checkpointmanager.utils.SearchUtils#containsPattern}
+     */
+    @Query(value = "SELECT v.* FROM visitors v WHERE v.visitor_phone LIKE :pattern " +
+            "ORDER BY similarity(v.visitor_phone, :pattern) DESC, v.visitor_phone", nativeQuery = true)
+    List<Visitor> searchByPhone(@Param("pattern") String pattern);
 
     Optional<Visitor> findVisitorByPasses_Id(UUID passId);
 
@@ -1,6 +1,8 @@
 package ru.ac.checkpointmanager.repository.car;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.ac.checkpointmanager.model.car.CarBrand;
 
 import java.util.List;
@@ -8,7 +10,14 @@ import java.util.Optional;
 
 public interface CarBrandRepository extends JpaRepository<CarBrand, Long> {
 
-    List<CarBrand> findByBrandContainingIgnoreCase(String brandName);
+    /**
+     * Поиск брендов по фрагменту названия по индексу триграмм, ближайшие совпадения первыми
+     *
+     * @param pattern шаблон из {@link ru.ac.checkpointmanager.utils.SearchUtils#containsIgnoreCasePattern}
+     */
+    @Query(value = "SELECT b.* FROM car_brand b WHERE lower(b.brand) LIKE :pattern " +
+            "ORDER BY similarity(lower(b.brand), :pattern) DESC, b.brand", nativeQuery = true)
+    List<CarBrand> searchByBrand(@Param("pattern") String pattern);
 
     Optional<CarBrand> findByBrand(String name);
 
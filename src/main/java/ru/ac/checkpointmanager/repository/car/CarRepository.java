@@ -14,7 +14,22 @@ public interface CarRepository extends JpaRepository<Car, UUID> {
             , nativeQuery = true)
     List<Car> findCarsByUserId(@Param("userId") UUID userId);
 
-    List<Car> findByPhoneContaining(String phone);
+    /**
+     * Поиск машин по фрагменту телефона по индексу триграмм, ближайшие совпадения первыми
+     *
+     * @param pattern шаблон из {@link ru.ac.checkpointmanager.utils.SearchUtils#containsPattern}
+     */
+    @Query(value = "SELECT c.* FROM cars c WHERE c.car_phone LIKE :pattern " +
+            "ORDER BY similarity(c.car_phone, :pattern) DESC, c.car_phone", nativeQuery = true)
+    List<Car> searchByPhone(@Param("pattern") String pattern);
+
+    /**
+     * Поиск машин по фрагменту номера, шаблон из
+     * {@link ru.ac.checkpointmanager.utils.SearchUtils#containsIgnoreCasePattern}
+     */
+    @Query(value = "SELECT c.* FROM cars c WHERE lower(c.license_plate) LIKE :pattern " +
+            "ORDER BY similarity(lower(c.license_plate), :pattern) DESC, c.license_plate", nativeQuery = true)
+    List<Car> searchByLicensePlate(@Param("pattern") String pattern);
 
     @Query(value = "SELECT EXISTS (" +
             "SELECT * FROM passes p " +
@@ -1,5 +1,6 @@
 package ru.ac.checkpointmanager.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
@@ -57,6 +58,8 @@ public class SecurityConfig {
                                         "/swagger-ui/**", "/v3/api-docs/**",
                                         "/error", "/webjars/**", "/swagger-ui.html"
                                 ).permitAll()
+                                // асинхронная диспетчеризация (SSE, выгрузки) продолжает уже проверенный запрос
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                                 .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session.sessionCreationPolicy(STATELESS))
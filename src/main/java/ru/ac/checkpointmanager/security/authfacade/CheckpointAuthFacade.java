@@ -1,28 +1,34 @@
 package ru.ac.checkpointmanager.security.authfacade;
 
 import org.springframework.stereotype.Component;
-import ru.ac.checkpointmanager.model.checkpoints.Checkpoint;
-import ru.ac.checkpointmanager.repository.TerritoryRepository;
-import ru.ac.checkpointmanager.service.checkpoints.CheckpointService;
+import ru.ac.checkpointmanager.service.access.AccessService;
 
+import java.util.Collection;
 import java.util.UUID;
 
 @Component("checkpointAuthFacade")
 public final class CheckpointAuthFacade implements AuthFacade {
 
-    private final CheckpointService checkpointService;
-    private final TerritoryRepository territoryRepository;
+    private final AccessService accessService;
 
-    private CheckpointAuthFacade(CheckpointService checkpointService, TerritoryRepository territoryRepository) {
-        this.checkpointService = checkpointService;
-        this.territoryRepository = territoryRepository;
+    private CheckpointAuthFacade(AccessService accessService) {
+        this.accessService = accessService;
     }
 
     @Override
     public boolean isIdMatch(UUID checkpointId) {
         UUID userId = getCurrentUser().getId();
-        Checkpoint checkpoint = checkpointService.findCheckpointById(checkpointId);
-        UUID territoryId = checkpoint.getTerritory().getId();
-        return territoryRepository.checkUserTerritoryRelation(userId, territoryId);
+        UUID territoryId = accessService.getCheckpointTerritoryId(checkpointId);
+        return accessService.isTerritoryMember(userId, territoryId);
+    }
+
+    /**
+     * Проверяет, что все чекпоинты находятся на территориях текущего пользователя
+     *
+     * @param checkpointIds id чекпоинтов, могут повторяться
+     * @return true, если все чекпоинты доступны пользователю
+     */
+    public boolean isIdsMatch(Collection<UUID> checkpointIds) {
+        return checkpointIds.stream().distinct().allMatch(this::isIdMatch);
     }
 }
@@ -1,34 +1,31 @@
 package ru.ac.checkpointmanager.security.authfacade;
 
 import org.springframework.stereotype.Component;
-import ru.ac.checkpointmanager.model.passes.Pass;
-import ru.ac.checkpointmanager.repository.TerritoryRepository;
-import ru.ac.checkpointmanager.service.passes.PassService;
+import ru.ac.checkpointmanager.service.access.AccessService;
 
 import java.util.UUID;
 
+/**
+ * Проверки доступа к пропуску. Обе проверки используют одни данные пропуска,
+ * полученные одним запросом к БД за HTTP запрос, связь с территорией проверяется в памяти
+ */
 @Component("passAuthFacade")
 public final class PassAuthFacade implements AuthFacade {
 
-    private final PassService passService;
-    private final TerritoryRepository territoryRepository;
+    private final AccessService accessService;
 
-    private PassAuthFacade(PassService passService, TerritoryRepository territoryRepository) {
-        this.passService = passService;
-        this.territoryRepository = territoryRepository;
+    private PassAuthFacade(AccessService accessService) {
+        this.accessService = accessService;
     }
 
     @Override
     public boolean isIdMatch(UUID passId) {
         UUID userId = getCurrentUser().getId();
-        Pass pass = passService.findPassById(passId);
-        return userId.equals(pass.getUser().getId());
+        return userId.equals(accessService.getPassAccess(passId).ownerId());
     }
 
     public boolean isTerritoryIdMatch(UUID passId) {
         UUID userId = getCurrentUser().getId();
-        Pass pass = passService.findPassById(passId);
-        UUID territoryId = pass.getTerritory().getId();
-        return territoryRepository.checkUserTerritoryRelation(userId, territoryId);
+        return accessService.isTerritoryMember(userId, accessService.getPassAccess(passId).territoryId());
     }
 }
@@ -1,24 +1,24 @@
 package ru.ac.checkpointmanager.security.authfacade;
 
 import org.springframework.stereotype.Component;
-import ru.ac.checkpointmanager.repository.TerritoryRepository;
 import ru.ac.checkpointmanager.model.enums.Role;
+import ru.ac.checkpointmanager.service.access.AccessService;
 
 import java.util.UUID;
 
 @Component("territoryAuthFacade")
 public final class TerritoryAuthFacade implements AuthFacade {
 
-    private final TerritoryRepository territoryRepository;
+    private final AccessService accessService;
 
-    private TerritoryAuthFacade(TerritoryRepository territoryRepository) {
-        this.territoryRepository = territoryRepository;
+    private TerritoryAuthFacade(AccessService accessService) {
+        this.accessService = accessService;
     }
 
     @Override
     public boolean isIdMatch(UUID territoryId) {
         UUID userId = getCurrentUser().getId();
-        return territoryRepository.checkUserTerritoryRelation(userId, territoryId);
+        return accessService.isTerritoryMember(userId, territoryId);
     }
 
     /**
@@ -31,6 +31,6 @@ public final class TerritoryAuthFacade implements AuthFacade {
      */
     public boolean isUserIdMatch(UUID userId) {
         UUID currentUserId = getCurrentUser().getId();
-        return territoryRepository.checkIfUsersAreInTheSameTerritory(currentUserId, userId);
+        return accessService.shareTerritory(currentUserId, userId);
     }
 }
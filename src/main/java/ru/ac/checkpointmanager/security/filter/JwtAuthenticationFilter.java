@@ -13,7 +13,6 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -22,8 +21,9 @@ import org.springframework.web.servlet.HandlerExceptionResolver;
 import ru.ac.checkpointmanager.exception.InvalidTokenException;
 import ru.ac.checkpointmanager.model.User;
 import ru.ac.checkpointmanager.security.CustomAuthenticationToken;
-import ru.ac.checkpointmanager.security.jwt.JwtService;
 import ru.ac.checkpointmanager.security.jwt.JwtValidator;
+import ru.ac.checkpointmanager.security.jwt.VerifiedToken;
+import ru.ac.checkpointmanager.security.principal.PrincipalCache;
 import ru.ac.checkpointmanager.utils.MethodLog;
 
 import java.io.IOException;
@@ -38,19 +38,21 @@ import java.util.UUID;
  * безопасности Spring Security, если токен валиден. Он проверяет наличие токена, его валидность,
  * и на основе данных токена создает объект аутентификации в контексте безопасности.
  * <p>
+ * Токен проверяется один раз за запрос: имя пользователя и роли берутся из проверенного токена,
+ * пользователь берется из {@link PrincipalCache}.
+ * <p>
  *
  * @author fifimova
- * @see JwtService
- * @see UserDetailsService
+ * @see JwtValidator
+ * @see PrincipalCache
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
     private final JwtValidator jwtValidator;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
     private final HandlerExceptionResolver handlerExceptionResolver;
 
     @Override
@@ -58,7 +60,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
-        log.debug("Method {} was invoked", MethodLog.getMethodName());
+        log.debug("Method {} was invoked", MethodLog.caller());
 
         Optional<String> jwtOpt = getJwtFromRequest(request);
         if (jwtOpt.isEmpty()) { //если хедер пустой, то пускаем запрос дальше, будет работать наш фильтр (роль такого юзера Anonymous)
@@ -68,11 +70,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         String jwt = jwtOpt.get();
         try {
-            if (StringUtils.isNotBlank(jwt) && jwtValidator.validateAccessToken(jwt)) {
-                String userEmail = jwtService.extractUsername(jwt);
+            Optional<VerifiedToken> verified = StringUtils.isNotBlank(jwt)
+                    ? jwtValidator.verifyAccessToken(jwt)
+                    : Optional.empty();
+            if (verified.isPresent()) {
                 if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail); //will throw exception
-                    setAuthenticationContext(request, jwt, userDetails);
+                    UserDetails userDetails = principalCache.loadUser(verified.get()); //will throw exception
+                    setAuthenticationContext(request, verified.get(), userDetails);
                 }
             } else {
                 log.debug("Invalid JWT token [{}]", jwt);
@@ -100,8 +104,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return Optional.empty();
     }
 
-    private void setAuthenticationContext(HttpServletRequest request, String jwt, UserDetails userDetails) {
-        Collection<? extends GrantedAuthority> authorities = jwtService.extractRole(jwt).stream()
+    private void setAuthenticationContext(HttpServletRequest request, VerifiedToken verified,
+                                          UserDetails userDetails) {
+        Collection<? extends GrantedAuthority> authorities = verified.roles().stream()
                 .map(SimpleGrantedAuthority::new).toList();
         User castedUser = (User) userDetails; //у нас других объектов реализующих юзер дитейлс нет, поэтому кастим сразу
         UUID userId = castedUser.getId();
@@ -2,9 +2,13 @@ package ru.ac.checkpointmanager.security.jwt;
 
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Optional;
+
 public interface JwtValidator {
     boolean validateAccessToken(String token);
 
+    Optional<VerifiedToken> verifyAccessToken(String token);
+
     void validateRefreshToken(String token);
 
     boolean isUsernameValid(String token, UserDetails userDetails);
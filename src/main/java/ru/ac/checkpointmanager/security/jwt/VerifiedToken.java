@@ -0,0 +1,25 @@
+package ru.ac.checkpointmanager.security.jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Проверенный токен доступа: подпись и срок действия проверены, нужные для аутентификации клеймы
+ * извлечены один раз. Объект неизменяемый, его можно переиспользовать между запросами до истечения токена
+ *
+ * @param username  subject токена, email пользователя
+ * @param roles     роли из клейма role
+ * @param userId    id пользователя из клейма id, null если клейма нет
+ * @param expiresAt время истечения токена, null если срок действия не задан
+ */
+public record VerifiedToken(String username, List<String> roles, UUID userId, Instant expiresAt) {
+
+    public VerifiedToken {
+        roles = List.copyOf(roles);
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -1,10 +1,12 @@
 package ru.ac.checkpointmanager.security.jwt.impl;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
@@ -59,6 +61,22 @@ public class JwtServiceImpl implements JwtService {
     @Value("${application.security.jwt.refresh-token.expiration}")
     private long refreshExpiration;
 
+    private Key signInKey;
+
+    /**
+     * Парсер потокобезопасен, поэтому создается один раз и используется для всех токенов
+     */
+    private JwtParser jwtParser;
+
+    /**
+     * Декодирует секретный ключ и создает парсер после установки настроек
+     */
+    @PostConstruct
+    public void init() {
+        signInKey = getSignInKey();
+        jwtParser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+    }
+
     /**
      * Извлекает имя пользователя из токена.
      * <p>
@@ -72,7 +90,7 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public String extractUsername(String token) {
-        log.debug(METHOD_TOKEN, MethodLog.getMethodName(), token);
+        log.debug(METHOD_TOKEN, MethodLog.caller(), token);
         return extractClaim(token, Claims::getSubject);
     }
 
@@ -88,8 +106,16 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public List<String> extractRole(String token) {
-        log.info(METHOD_TOKEN, MethodLog.getMethodName(), token);
-        List<?> roles = extractAllClaims(token).get("role", List.class);
+        log.debug(METHOD_TOKEN, MethodLog.caller(), token);
+        return extractRole(extractAllClaims(token));
+    }
+
+    /**
+     * @param claims клеймы проверенного токена
+     * @return список ролей из клейма role, пустой если клейма нет
+     */
+    static List<String> extractRole(Claims claims) {
+        List<?> roles = claims.get("role", List.class);
         if (roles == null) {
             return Collections.emptyList();
         }
@@ -112,7 +138,7 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public UUID extractId(String token) {
-        log.info(METHOD_TOKEN, MethodLog.getMethodName(), token);
+        log.debug(METHOD_TOKEN, MethodLog.caller(), token);
         String id = extractAllClaims(token).get("id", String.class);
         if (id == null) {
             throw new InvalidTokenException("Jwt hasn't ID claim");//TODO move to validator too
@@ -134,7 +160,7 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        log.info("Method {} was invoked", MethodLog.getMethodName());
+        log.debug("Method {} was invoked", MethodLog.caller());
         final Claims claims = extractAllClaims(token);
         return claimsResolver.apply(claims);
     }
@@ -154,7 +180,7 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public String generateAccessToken(UserDetails userDetails) {
-        log.debug("Method {}, User {}", MethodLog.getMethodName(), userDetails.getUsername());
+        log.debug("Method {}, User {}", MethodLog.caller(), userDetails.getUsername());
         Map<String, Object> extraClaims = new HashMap<>();
         User user = (User) userDetails;
         List<String> rolesList = userDetails.getAuthorities().stream()
@@ -169,7 +195,7 @@ public class JwtServiceImpl implements JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -190,7 +216,7 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public String generateRefreshToken(UserDetails userDetails) {
-        log.debug("Method {}, User {}", MethodLog.getMethodName(), userDetails.getUsername());
+        log.debug("Method {}, User {}", MethodLog.caller(), userDetails.getUsername());
         Map<String, Object> extraClaims = new HashMap<>();
         extraClaims.put("refresh", true);
 
@@ -200,7 +226,7 @@ public class JwtServiceImpl implements JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + refreshExpiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
@@ -208,7 +234,7 @@ public class JwtServiceImpl implements JwtService {
      * Извлекает все утверждения (claims) из JWT токена.
      * <p>
      * Этот метод извлекает и возвращает объект {@link Claims}, содержащий все утверждения,
-     * закодированные в токене. Для парсинга токена используется ключ подписи.
+     * закодированные в токене. Для парсинга токена используется заранее созданный парсер с ключом подписи.
      * <p>
      *
      * @param token Строка JWT токена.
@@ -216,13 +242,8 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public Claims extractAllClaims(String token) {
-        log.info("Method {} was invoked", MethodLog.getMethodName());
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        log.debug("Method {} was invoked", MethodLog.caller());
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -240,7 +261,7 @@ public class JwtServiceImpl implements JwtService {
      * @return Объект {@link Key}, используемый для подписи JWT токенов.
      */
     private Key getSignInKey() {
-        log.info("Method {} was invoked", MethodLog.getMethodName());
+        log.debug("Method {} was invoked", MethodLog.caller());
         byte[] keyBytes = Decoders.BASE64.decode(secretKey);
         return Keys.hmacShaKeyFor(keyBytes);
     }
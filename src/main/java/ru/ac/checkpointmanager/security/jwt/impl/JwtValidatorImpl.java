@@ -14,8 +14,13 @@ import org.springframework.stereotype.Service;
 import ru.ac.checkpointmanager.exception.InvalidTokenException;
 import ru.ac.checkpointmanager.security.jwt.JwtService;
 import ru.ac.checkpointmanager.security.jwt.JwtValidator;
+import ru.ac.checkpointmanager.security.jwt.VerifiedToken;
 import ru.ac.checkpointmanager.utils.MethodLog;
 
+import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -23,6 +28,7 @@ public class JwtValidatorImpl implements JwtValidator {
 
     public static final String BLANK_SUBJECT_MSG = "JWT is not valid, username is blank or empty";
     private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
     public static final String ERROR_MESSAGE = "Error occurred during parsing access token [{}]";
 
     public static final String REFRESH = "refresh";
@@ -37,22 +43,42 @@ public class JwtValidatorImpl implements JwtValidator {
      */
     @Override
     public boolean validateAccessToken(String token) {
+        return verifyAccessToken(token).isPresent();
+    }
+
+    /**
+     * Проверяет токен доступа так же, как {@link #validateAccessToken}, и за один разбор извлекает клеймы,
+     * нужные для аутентификации. Проверенные токены кэшируются до истечения их срока действия,
+     * повторная проверка того же токена не разбирает его и не проверяет подпись
+     *
+     * @param token JWT access token
+     * @return проверенный токен, пустой если токен не валидный
+     * @throws ExpiredJwtException если истекло время действия (бросается из {@link JwtService})
+     */
+    @Override
+    public Optional<VerifiedToken> verifyAccessToken(String token) {
+        VerifiedToken cached = verifiedTokenCache.get(token);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
         try {
             Claims claims = jwtService.extractAllClaims(token);
             String username = claims.getSubject();
             if (StringUtils.isBlank(username)) {
                 log.debug(BLANK_SUBJECT_MSG);
-                return false;
+                return Optional.empty();
             }
             if (!ObjectUtils.isEmpty(claims.get(REFRESH))) {
                 log.debug("JWT is not valid, contains label for refresh token");
-                return false;
+                return Optional.empty();
             }
+            VerifiedToken verified = toVerifiedToken(claims);
+            verifiedTokenCache.put(token, verified);
             log.debug("Access token validated");
-            return true;
+            return Optional.of(verified);
         } catch (UnsupportedJwtException | MalformedJwtException | SignatureException | IllegalArgumentException ex) {
             log.warn(ERROR_MESSAGE, ex.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
 
@@ -79,8 +105,18 @@ public class JwtValidatorImpl implements JwtValidator {
 
     @Override
     public boolean isUsernameValid(String token, UserDetails userDetails) {
-        log.debug("Method {}, User {}", MethodLog.getMethodName(), userDetails.getUsername());
+        log.debug("Method {}, User {}", MethodLog.caller(), userDetails.getUsername());
         final String username = jwtService.extractUsername(token);
         return username.equals(userDetails.getUsername());
     }
+
+    /**
+     * @throws IllegalArgumentException если клейм id не является UUID, токен считается невалидным
+     */
+    private static VerifiedToken toVerifiedToken(Claims claims) {
+        String id = claims.get("id", String.class);
+        Date expiration = claims.getExpiration();
+        return new VerifiedToken(claims.getSubject(), JwtServiceImpl.extractRole(claims),
+                id == null ? null : UUID.fromString(id), expiration == null ? null : expiration.toInstant());
+    }
 }
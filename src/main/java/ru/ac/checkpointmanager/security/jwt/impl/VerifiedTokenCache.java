@@ -0,0 +1,52 @@
+package ru.ac.checkpointmanager.security.jwt.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.ac.checkpointmanager.security.jwt.VerifiedToken;
+import ru.ac.checkpointmanager.utils.ExpiringMap;
+
+
+/**
+ * Кэш недавно проверенных токенов доступа: повторный запрос с тем же токеном не проверяет подпись заново.
+ * <p>
+ * Запись живет не дольше самого токена, истекшая запись удаляется при чтении, и токен проверяется
+ * парсером, который бросит исключение об истечении срока. Токены без срока действия не кэшируются.
+ * Размер ограничен, см. {@link ExpiringMap}
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final ExpiringMap<String, VerifiedToken> tokens;
+
+    private final int maxSize;
+
+    public VerifiedTokenCache(@Value("${application.security.jwt.verified-cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.tokens = new ExpiringMap<>(maxSize, verified -> verified.expiresAt().toEpochMilli(),
+                System::currentTimeMillis);
+    }
+
+    /**
+     * @param token строка JWT
+     * @return проверенный токен или null, если токена нет в кэше или он истек
+     */
+    public VerifiedToken get(String token) {
+        return tokens.get(token);
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (maxSize <= 0 || verified.expiresAt() == null) {
+            return;
+        }
+        int dropped = tokens.put(token, verified);
+        if (dropped > 0) {
+            log.debug("Verified token cache is full, {} tokens dropped", dropped);
+        }
+    }
+
+    public int size() {
+        return tokens.size();
+    }
+}
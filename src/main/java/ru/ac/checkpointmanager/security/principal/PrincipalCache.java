@@ -0,0 +1,28 @@
+package ru.ac.checkpointmanager.security.principal;
+
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.security.jwt.VerifiedToken;
+
+import java.util.UUID;
+
+/**
+ * Кэш аутентифицированных пользователей для фильтра JWT, чтобы не читать пользователя из базы на каждый запрос
+ */
+public interface PrincipalCache {
+
+    /**
+     * @param token проверенный токен доступа
+     * @return новый объект пользователя с полями, нужными для авторизации
+     * @throws UsernameNotFoundException если пользователь с email из токена не найден
+     */
+    User loadUser(VerifiedToken token);
+
+    /**
+     * Удаляет пользователя из кэша на всех экземплярах приложения, вызывается при изменении
+     * email, роли, блокировки, пароля, данных пользователя или его удалении
+     *
+     * @param userId id пользователя
+     */
+    void invalidate(UUID userId);
+}
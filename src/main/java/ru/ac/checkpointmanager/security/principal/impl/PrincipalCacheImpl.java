@@ -0,0 +1,150 @@
+package ru.ac.checkpointmanager.security.principal.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.model.enums.Role;
+import ru.ac.checkpointmanager.security.jwt.VerifiedToken;
+import ru.ac.checkpointmanager.security.principal.PrincipalCache;
+import ru.ac.checkpointmanager.utils.ExpiringMap;
+import ru.ac.checkpointmanager.utils.TransactionUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш аутентифицированных пользователей с коротким временем жизни, ключ - id пользователя из токена.
+ * <p>
+ * В кэше хранится неизменяемый снимок полей пользователя без пароля, на каждый запрос создается новый объект
+ * {@link User}, поэтому изменения объекта в одном запросе не видны в других. Если email в кэше не совпадает
+ * с email из токена, пользователь читается из базы, как и без кэша.
+ * <p>
+ * Инвалидация удаляет запись сразу и еще раз после коммита транзакции, затем рассылает id пользователя
+ * остальным экземплярам через канал Redis. Если Redis недоступен, на других экземплярах запись
+ * устареет не дольше, чем на время жизни кэша
+ */
+@Service
+@Slf4j
+public class PrincipalCacheImpl implements PrincipalCache, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "principal-invalidation";
+
+    private final UserDetailsService userDetailsService;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final long ttlNanos;
+
+    private final ExpiringMap<UUID, CachedPrincipal> principals;
+
+    /**
+     * Счетчик инвалидаций: пользователь, прочитанный из базы во время инвалидации, не кладется в кэш,
+     * прочитанные данные могли устареть
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public PrincipalCacheImpl(UserDetailsService userDetailsService,
+                              StringRedisTemplate redisTemplate,
+                              RedisMessageListenerContainer listenerContainer,
+                              @Value("${application.security.principal-cache.ttl:PT30S}") Duration ttl,
+                              @Value("${application.security.principal-cache.max-size:10000}") int maxSize) {
+        this.userDetailsService = userDetailsService;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.ttlNanos = ttl.toNanos();
+        this.principals = new ExpiringMap<>(maxSize, CachedPrincipal::expiresAt, System::nanoTime);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    @Override
+    public User loadUser(VerifiedToken token) {
+        UUID userId = token.userId();
+        if (userId != null) {
+            CachedPrincipal cached = principals.get(userId);
+            if (cached != null && cached.email().equals(token.username())) {
+                return cached.toUser();
+            }
+        }
+        long invalidationsBefore = invalidations.get();
+        User user = (User) userDetailsService.loadUserByUsername(token.username());
+        if (user.getId() != null && user.getId().equals(userId) && invalidations.get() == invalidationsBefore) {
+            put(user);
+        }
+        return user;
+    }
+
+    @Override
+    public void invalidate(UUID userId) {
+        evict(userId);
+        TransactionUtils.afterCommit(() -> {
+            evict(userId);
+            publish(userId);
+        }, e -> log.warn("Failed to evict principal {} after commit: {}", userId, e.getMessage()));
+    }
+
+    /**
+     * Получает id пользователя, измененного на другом экземпляре приложения
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String userId = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            evict(UUID.fromString(userId));
+            log.debug("Principal {} invalidated by another instance", userId);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid principal invalidation message [{}]", userId);
+        }
+    }
+
+    private void put(User user) {
+        principals.put(user.getId(), new CachedPrincipal(user.getId(), user.getFullName(), user.getMainNumber(),
+                user.getEmail(), user.getIsBlocked(), user.getRole(), System.nanoTime() + ttlNanos));
+    }
+
+    private void evict(UUID userId) {
+        invalidations.incrementAndGet();
+        principals.remove(userId);
+    }
+
+    /**
+     * Ошибка рассылки не должна доходить до вызывающего кода, изменения уже сохранены
+     */
+    private void publish(UUID userId) {
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, userId.toString());
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish principal invalidation for {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private record CachedPrincipal(UUID id, String fullName, String mainNumber, String email, Boolean isBlocked,
+                                   Role role, long expiresAt) {
+
+        User toUser() {
+            User user = new User();
+            user.setId(id);
+            user.setFullName(fullName);
+            user.setMainNumber(mainNumber);
+            user.setEmail(email);
+            user.setIsBlocked(isBlocked);
+            user.setRole(role);
+            return user;
+        }
+    }
+}
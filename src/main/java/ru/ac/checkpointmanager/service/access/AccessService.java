@@ -0,0 +1,37 @@
+package ru.ac.checkpointmanager.service.access;
+
+import ru.ac.checkpointmanager.exception.CheckpointNotFoundException;
+import ru.ac.checkpointmanager.exception.pass.PassNotFoundException;
+import ru.ac.checkpointmanager.projection.PassAccessView;
+
+import java.util.UUID;
+
+/**
+ * Данные для проверок доступа, общие для AuthFacade и сервисов.
+ * Связи пользователей с территориями проверяются по {@link MembershipIndex}, данные пропусков и чекпоинтов
+ * запоминаются на время HTTP запроса, повторная проверка в том же запросе не обращается к БД
+ */
+public interface AccessService {
+
+    /**
+     * @return true, если пользователь привязан к территории
+     */
+    boolean isTerritoryMember(UUID userId, UUID territoryId);
+
+    /**
+     * @return true, если пользователи привязаны хотя бы к одной общей территории
+     */
+    boolean shareTerritory(UUID userId, UUID otherUserId);
+
+    /**
+     * @return владелец и территория пропуска
+     * @throws PassNotFoundException если пропуск не найден
+     */
+    PassAccessView getPassAccess(UUID passId);
+
+    /**
+     * @return id территории чекпоинта
+     * @throws CheckpointNotFoundException если чекпоинт не найден
+     */
+    UUID getCheckpointTerritoryId(UUID checkpointId);
+}
@@ -0,0 +1,25 @@
+package ru.ac.checkpointmanager.service.access;
+
+import ru.ac.checkpointmanager.dto.MembershipIndexCheckDTO;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface MembershipIndex {
+
+    boolean isMember(UUID userId, UUID territoryId);
+
+    boolean shareTerritory(UUID userId, UUID otherUserId);
+
+    List<UUID> findCommonTerritoryIds(UUID userId, UUID otherUserId);
+
+    List<UUID> findTerritoryIds(UUID userId);
+
+    void refreshUser(UUID userId);
+
+    void refreshTerritory(UUID territoryId);
+
+    MembershipIndexCheckDTO check();
+
+    int size();
+}
@@ -0,0 +1,64 @@
+package ru.ac.checkpointmanager.service.access.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.ac.checkpointmanager.exception.CheckpointNotFoundException;
+import ru.ac.checkpointmanager.exception.ExceptionUtils;
+import ru.ac.checkpointmanager.exception.pass.PassNotFoundException;
+import ru.ac.checkpointmanager.projection.PassAccessView;
+import ru.ac.checkpointmanager.repository.CheckpointRepository;
+import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.service.access.AccessService;
+import ru.ac.checkpointmanager.service.access.MembershipIndex;
+import ru.ac.checkpointmanager.utils.RequestMemo;
+
+import java.util.UUID;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AccessServiceImpl implements AccessService {
+
+    private final MembershipIndex membershipIndex;
+
+    private final PassRepository passRepository;
+
+    private final CheckpointRepository checkpointRepository;
+
+    @Override
+    public boolean isTerritoryMember(UUID userId, UUID territoryId) {
+        return membershipIndex.isMember(userId, territoryId);
+    }
+
+    @Override
+    public boolean shareTerritory(UUID userId, UUID otherUserId) {
+        return membershipIndex.shareTerritory(userId, otherUserId);
+    }
+
+    @Override
+    public PassAccessView getPassAccess(UUID passId) {
+        return RequestMemo.get(new PassAccessKey(passId), () -> passRepository.findPassAccessView(passId).orElseThrow(
+                () -> {
+                    log.warn(ExceptionUtils.PASS_NOT_FOUND.formatted(passId));
+                    return new PassNotFoundException(ExceptionUtils.PASS_NOT_FOUND.formatted(passId));
+                }));
+    }
+
+    @Override
+    public UUID getCheckpointTerritoryId(UUID checkpointId) {
+        return RequestMemo.get(new CheckpointTerritoryKey(checkpointId),
+                () -> checkpointRepository.findTerritoryIdById(checkpointId).orElseThrow(
+                        () -> {
+                            log.warn(ExceptionUtils.CHECKPOINT_NOT_FOUND.formatted(checkpointId));
+                            return new CheckpointNotFoundException(
+                                    ExceptionUtils.CHECKPOINT_NOT_FOUND.formatted(checkpointId));
+                        }));
+    }
+
+    private record PassAccessKey(UUID passId) {
+    }
+
+    private record CheckpointTerritoryKey(UUID checkpointId) {
+    }
+}
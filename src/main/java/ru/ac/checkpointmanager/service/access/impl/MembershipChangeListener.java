@@ -0,0 +1,79 @@
+package ru.ac.checkpointmanager.service.access.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.springframework.stereotype.Component;
+import ru.ac.checkpointmanager.model.Territory;
+import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.service.access.MembershipIndex;
+
+import java.util.UUID;
+
+/**
+ * Обновляет {@link MembershipIndex} при любом изменении таблицы user_territory через JPA:
+ * коллекции User.territories и Territory.users обе записывают эту таблицу.
+ * Связи перечитываются из базы после коммита транзакции
+ */
+@Component
+@RequiredArgsConstructor
+public class MembershipChangeListener implements PostCollectionRecreateEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private static final String USER_TERRITORIES = User.class.getName() + ".territories";
+
+    private static final String TERRITORY_USERS = Territory.class.getName() + ".users";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final MembershipIndex membershipIndex;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onChange(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onChange(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onChange(event);
+    }
+
+    private void onChange(AbstractCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        if (!USER_TERRITORIES.equals(role) && !TERRITORY_USERS.equals(role)) {
+            return;
+        }
+        if (!(event.getAffectedOwnerIdOrNull() instanceof UUID ownerId)) {
+            return;
+        }
+        if (USER_TERRITORIES.equals(role)) {
+            membershipIndex.refreshUser(ownerId);
+        } else {
+            membershipIndex.refreshTerritory(ownerId);
+        }
+    }
+}
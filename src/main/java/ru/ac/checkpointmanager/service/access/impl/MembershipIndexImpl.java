@@ -0,0 +1,490 @@
+package ru.ac.checkpointmanager.service.access.impl;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.ac.checkpointmanager.dto.MembershipIndexCheckDTO;
+import ru.ac.checkpointmanager.projection.UserTerritoryView;
+import ru.ac.checkpointmanager.repository.TerritoryRepository;
+import ru.ac.checkpointmanager.repository.UserTerritoryRepository;
+import ru.ac.checkpointmanager.service.access.MembershipIndex;
+import ru.ac.checkpointmanager.utils.TransactionUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Индекс связей пользователей с территориями (таблица user_territory) в памяти.
+ * <p>
+ * Пользователи и территории получают порядковые номера, связи хранятся в обе стороны отсортированными
+ * массивами номеров: пользователь - территории, территория - пользователи. Проверка связи - двоичный поиск,
+ * общие территории двух пользователей - пересечение двух массивов. Номера не освобождаются при удалении.
+ * <p>
+ * Чтение идет без блокировок: массивы не изменяются, а заменяются целиком. Изменения применяются под общей
+ * блокировкой: связи пользователя заново читаются из базы после коммита транзакции, которая их изменила
+ * (см. {@link MembershipChangeListener}), и id пользователей рассылаются остальным экземплярам через канал
+ * Redis {@link #CHANNEL}. Индекс строится при старте приложения и периодически сверяется с базой.
+ * Более старое чтение из базы не заменяет связи пользователя, прочитанные позже.
+ * <p>
+ * Отсутствие связи в индексе проверяется в базе: связь могла появиться на другом экземпляре, сообщение о ней
+ * еще не пришло. Найденная так связь добавляется в индекс. Наличие связи в индексе доверяется не дольше
+ * user-ttl с последнего чтения связей пользователя из базы, затем связи пользователя перечитываются при
+ * следующем обращении: потерянное сообщение Redis не оставляет отозванный доступ дольше этого времени.
+ * До построения индекса все проверки идут в базу
+ */
+@Service
+@Slf4j
+public class MembershipIndexImpl implements MembershipIndex, MessageListener {
+
+    public static final String CHANNEL = "membership-index";
+
+    private static final String SEPARATOR = "|";
+
+    private static final int[] EMPTY = new int[0];
+
+    private final UserTerritoryRepository userTerritoryRepository;
+
+    private final TerritoryRepository territoryRepository;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final long userTtlNanos;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Ordinals users = new Ordinals();
+
+    private final Ordinals territories = new Ordinals();
+
+    /**
+     * Пользователь - отсортированные номера его территорий
+     */
+    private final Map<UUID, int[]> territoriesByUser = new ConcurrentHashMap<>();
+
+    /**
+     * Территория - отсортированные номера ее пользователей
+     */
+    private final Map<UUID, int[]> usersByTerritory = new ConcurrentHashMap<>();
+
+    /**
+     * Пользователь - System.nanoTime() начала чтения из базы, которым получены его связи в индексе.
+     * Изменяется под блокировкой lock
+     */
+    private final Map<UUID, Long> readAtByUser = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+
+    private volatile boolean built;
+
+    public MembershipIndexImpl(UserTerritoryRepository userTerritoryRepository,
+                               TerritoryRepository territoryRepository, StringRedisTemplate redisTemplate,
+                               RedisMessageListenerContainer listenerContainer,
+                               @Value("${app.membership-index.user-ttl:PT30S}") Duration userTtl) {
+        this.userTerritoryRepository = userTerritoryRepository;
+        this.territoryRepository = territoryRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.userTtlNanos = userTtl.toNanos();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @Override
+    public boolean isMember(UUID userId, UUID territoryId) {
+        if (built) {
+            int territory = territories.find(territoryId);
+            if (territory >= 0 && Arrays.binarySearch(territoriesOf(userId), territory) >= 0) {
+                return true;
+            }
+        }
+        return repair(userId, territoryRepository.checkUserTerritoryRelation(userId, territoryId));
+    }
+
+    @Override
+    public boolean shareTerritory(UUID userId, UUID otherUserId) {
+        if (built && intersect(territoriesOf(userId), territoriesOf(otherUserId)).length > 0) {
+            return true;
+        }
+        return repair(userId, territoryRepository.checkIfUsersAreInTheSameTerritory(userId, otherUserId));
+    }
+
+    /**
+     * @return id общих территорий пользователей по индексу
+     */
+    @Override
+    public List<UUID> findCommonTerritoryIds(UUID userId, UUID otherUserId) {
+        if (!built) {
+            List<UUID> ids = new ArrayList<>();
+            territoryRepository.findCommonTerritories(userId, otherUserId).forEach(t -> ids.add(t.getId()));
+            return ids;
+        }
+        int[] common = intersect(territoriesOf(userId), territoriesOf(otherUserId));
+        List<UUID> ids = new ArrayList<>(common.length);
+        for (int territory : common) {
+            ids.add(territories.id(territory));
+        }
+        return ids;
+    }
+
+    /**
+     * @return id территорий пользователя по индексу, без обращения к базе после построения индекса
+     */
+    @Override
+    public List<UUID> findTerritoryIds(UUID userId) {
+        if (!built) {
+            return userTerritoryRepository.findByUserIds(List.of(userId)).stream()
+                    .map(UserTerritoryView::territoryId).toList();
+        }
+        int[] own = territoriesOf(userId);
+        List<UUID> ids = new ArrayList<>(own.length);
+        for (int territory : own) {
+            ids.add(territories.id(territory));
+        }
+        return ids;
+    }
+
+    /**
+     * Перечитывает из базы связи пользователя после коммита текущей транзакции, без транзакции - сразу,
+     * и рассылает id пользователя остальным экземплярам
+     *
+     * @param userId id пользователя, связи которого изменены
+     */
+    @Override
+    public void refreshUser(UUID userId) {
+        afterCommit(() -> List.of(userId));
+    }
+
+    /**
+     * Перечитывает из базы связи всех пользователей территории, как {@link #refreshUser},
+     * включая пользователей, которые были привязаны к территории до изменения
+     *
+     * @param territoryId id территории, список пользователей которой изменен
+     */
+    @Override
+    public void refreshTerritory(UUID territoryId) {
+        afterCommit(() -> {
+            Set<UUID> userIds = new HashSet<>(userTerritoryRepository.findUserIdsByTerritoryId(territoryId));
+            for (int user : usersByTerritory.getOrDefault(territoryId, EMPTY)) {
+                userIds.add(users.id(user));
+            }
+            return userIds;
+        });
+    }
+
+    /**
+     * Сверяет индекс со всеми связями в базе и исправляет расхождения.
+     * Пользователи, перечитанные после начала чтения базы, не сверяются: их связи в индексе уже актуальнее
+     *
+     * @return количество связей в индексе и найденных расхождений
+     */
+    @Override
+    public synchronized MembershipIndexCheckDTO check() {
+        long start = System.currentTimeMillis();
+        boolean wasBuilt = built;
+        long readAt = System.nanoTime();
+        Map<UUID, List<UUID>> actual = new HashMap<>();
+        userTerritoryRepository.streamAll(view -> actual.computeIfAbsent(view.userId(), id -> new ArrayList<>())
+                .add(view.territoryId()));
+        int missing = 0;
+        int stale = 0;
+        synchronized (lock) {
+            Set<UUID> userIds = new HashSet<>(actual.keySet());
+            userIds.addAll(territoriesByUser.keySet());
+            for (UUID userId : userIds) {
+                if (isOlderThanIndexed(userId, readAt)) {
+                    continue;
+                }
+                Diff diff = apply(userId, actual.getOrDefault(userId, Collections.emptyList()), readAt);
+                missing += diff.added();
+                stale += diff.removed();
+            }
+            built = true;
+        }
+        MembershipIndexCheckDTO result = new MembershipIndexCheckDTO(size(), missing, stale,
+                System.currentTimeMillis() - start);
+        if (wasBuilt && (missing > 0 || stale > 0)) {
+            log.warn("Membership index repaired: {} missing and {} stale memberships, {} memberships indexed",
+                    missing, stale, result.getIndexed());
+        } else {
+            log.debug("Membership index is consistent, {} memberships indexed", result.getIndexed());
+        }
+        return result;
+    }
+
+    /**
+     * @return количество связей в индексе
+     */
+    @Override
+    public int size() {
+        return territoriesByUser.values().stream().mapToInt(territoryOrdinals -> territoryOrdinals.length).sum();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        MembershipIndexCheckDTO result = check();
+        log.info("Membership index built: {} memberships in {} ms", result.getIndexed(), result.getDurationMs());
+    }
+
+    @Scheduled(fixedDelayString = "${app.membership-index.check-interval:PT10M}",
+            initialDelayString = "${app.membership-index.check-interval:PT10M}")
+    public void checkByScheduler() {
+        check();
+    }
+
+    /**
+     * Получает id пользователей, связи которых изменены на другом экземпляре приложения
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 2);
+        if (parts.length < 2) {
+            log.warn("Invalid membership index message [{}]", body);
+            return;
+        }
+        if (instanceId.equals(parts[0])) {
+            return;
+        }
+        try {
+            List<UUID> userIds = Arrays.stream(parts[1].split(",")).map(UUID::fromString).toList();
+            reload(userIds);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply membership index message [{}], it will be repaired by the next check: {}",
+                    body, e.getMessage());
+        }
+    }
+
+    /**
+     * Связи пользователя, прочитанные из базы раньше user-ttl, перечитываются до ответа
+     */
+    private int[] territoriesOf(UUID userId) {
+        int[] own = territoriesByUser.get(userId);
+        if (own == null) {
+            return EMPTY;
+        }
+        Long readAt = readAtByUser.get(userId);
+        if (readAt == null || System.nanoTime() - readAt > userTtlNanos) {
+            log.trace("Memberships of user {} are older than ttl, reloading", userId);
+            reload(List.of(userId));
+            own = territoriesByUser.getOrDefault(userId, EMPTY);
+        }
+        return own;
+    }
+
+    /**
+     * Связь найдена в базе, но не в индексе: индекс отстал, связи пользователя перечитываются
+     */
+    private boolean repair(UUID userId, boolean foundInDb) {
+        if (foundInDb && built) {
+            log.debug("Membership index is behind for user {}, refreshing", userId);
+            reload(List.of(userId));
+        }
+        return foundInDb;
+    }
+
+    private void reload(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        long readAt = System.nanoTime();
+        Map<UUID, List<UUID>> actual = new HashMap<>();
+        for (UserTerritoryView view : userTerritoryRepository.findByUserIds(userIds)) {
+            actual.computeIfAbsent(view.userId(), id -> new ArrayList<>()).add(view.territoryId());
+        }
+        synchronized (lock) {
+            for (UUID userId : userIds) {
+                if (!isOlderThanIndexed(userId, readAt)) {
+                    apply(userId, actual.getOrDefault(userId, Collections.emptyList()), readAt);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return связи пользователя в индексе прочитаны из базы позже readAt. Вызывается под блокировкой lock
+     */
+    private boolean isOlderThanIndexed(UUID userId, long readAt) {
+        Long indexedAt = readAtByUser.get(userId);
+        return indexedAt != null && indexedAt - readAt > 0;
+    }
+
+    /**
+     * Заменяет территории пользователя и обновляет обратные связи территорий. Вызывается под блокировкой lock
+     *
+     * @param readAt System.nanoTime() начала чтения территорий из базы
+     */
+    private Diff apply(UUID userId, Collection<UUID> territoryIds, long readAt) {
+        readAtByUser.put(userId, readAt);
+        int[] updated = territoryIds.stream().mapToInt(territories::ordinal).distinct().sorted().toArray();
+        int[] previous = updated.length == 0 ? territoriesByUser.remove(userId)
+                : territoriesByUser.put(userId, updated);
+        if (previous == null) {
+            previous = EMPTY;
+        }
+        if (Arrays.equals(previous, updated)) {
+            return Diff.NONE;
+        }
+        int user = users.ordinal(userId);
+        int removed = 0;
+        for (int territory : previous) {
+            if (Arrays.binarySearch(updated, territory) < 0) {
+                usersByTerritory.computeIfPresent(territories.id(territory), (id, members) -> without(members, user));
+                removed++;
+            }
+        }
+        int added = 0;
+        for (int territory : updated) {
+            if (Arrays.binarySearch(previous, territory) < 0) {
+                usersByTerritory.merge(territories.id(territory), new int[]{user}, (members, single) ->
+                        with(members, user));
+                added++;
+            }
+        }
+        return new Diff(added, removed);
+    }
+
+    /**
+     * Если обновление после коммита не удалось, индекс исправит ближайшая сверка или проверка отсутствующей связи
+     */
+    private void afterCommit(Supplier<Collection<UUID>> userIds) {
+        TransactionUtils.afterCommit(() -> {
+            Collection<UUID> ids = userIds.get();
+            reload(ids);
+            publish(ids);
+        }, e -> log.error("Failed to refresh membership index, it will be repaired by the next check", e));
+    }
+
+    /**
+     * Ошибка рассылки не должна доходить до вызывающего кода, изменения уже сохранены
+     */
+    private void publish(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String body = instanceId + SEPARATOR + String.join(",", userIds.stream().map(UUID::toString).toList());
+        try {
+            redisTemplate.convertAndSend(CHANNEL, body);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish membership change for {}: {}", userIds, e.getMessage());
+        }
+    }
+
+    private static int[] intersect(int[] first, int[] second) {
+        int[] common = new int[Math.min(first.length, second.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                common[count++] = first[i];
+                i++;
+                j++;
+            }
+        }
+        return count == common.length ? common : Arrays.copyOf(common, count);
+    }
+
+    private static int[] with(int[] sorted, int value) {
+        int position = Arrays.binarySearch(sorted, value);
+        if (position >= 0) {
+            return sorted;
+        }
+        int insertAt = -position - 1;
+        int[] result = new int[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, insertAt);
+        result[insertAt] = value;
+        System.arraycopy(sorted, insertAt, result, insertAt + 1, sorted.length - insertAt);
+        return result;
+    }
+
+    /**
+     * @return массив без значения, null - массив пуст и удаляется из индекса
+     */
+    private static int[] without(int[] sorted, int value) {
+        int position = Arrays.binarySearch(sorted, value);
+        if (position < 0) {
+            return sorted;
+        }
+        if (sorted.length == 1) {
+            return null;
+        }
+        int[] result = new int[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, position);
+        System.arraycopy(sorted, position + 1, result, position, sorted.length - position - 1);
+        return result;
+    }
+
+    /**
+     * Порядковые номера id: номер выдается один раз и не изменяется
+     */
+    private static final class Ordinals {
+
+        private final Map<UUID, Integer> ordinals = new ConcurrentHashMap<>();
+
+        private volatile UUID[] ids = new UUID[64];
+
+        private int count;
+
+        /**
+         * @return номер id, -1 если номер не выдавался
+         */
+        int find(UUID id) {
+            Integer ordinal = ordinals.get(id);
+            return ordinal == null ? -1 : ordinal;
+        }
+
+        synchronized int ordinal(UUID id) {
+            Integer ordinal = ordinals.get(id);
+            if (ordinal != null) {
+                return ordinal;
+            }
+            UUID[] current = ids;
+            if (count == current.length) {
+                current = Arrays.copyOf(current, count * 2);
+            }
+            current[count] = id;
+            ids = current;
+            ordinals.put(id, count);
+            return count++;
+        }
+
+        UUID id(int ordinal) {
+            return ids[ordinal];
+        }
+    }
+
+    private record Diff(int added, int removed) {
+
+        static final Diff NONE = new Diff(0, 0);
+    }
+}
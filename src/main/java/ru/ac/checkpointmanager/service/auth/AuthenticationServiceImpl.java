@@ -2,9 +2,9 @@ package ru.ac.checkpointmanager.service.auth;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
-import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.mail.MailException;
 import org.springframework.mail.MailSendException;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -57,7 +57,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final UserMapper userMapper;
-    private final RedisCacheManager cacheManager;
+    private final CacheManager cacheManager;
 
 
     /**
@@ -85,7 +85,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Transactional
     @Override
     public RegistrationConfirmationDTO preRegister(RegistrationDTO registrationDTO) {
-        log.debug(METHOD_WAS_INVOKED, MethodLog.getMethodName());
+        log.debug(METHOD_WAS_INVOKED, MethodLog.caller());
         if (userRepository.existsByEmail(registrationDTO.getEmail())) {
             log.warn(ExceptionUtils.EMAIL_EXISTS.formatted(registrationDTO.getEmail()));
             throw new EmailAlreadyExistsException(ExceptionUtils.EMAIL_EXISTS.formatted(registrationDTO.getEmail()));
@@ -127,7 +127,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Transactional(isolation = Isolation.READ_COMMITTED)
     @Override
     public void confirmRegistration(String token) {
-        log.debug(METHOD_WAS_INVOKED, MethodLog.getMethodName());
+        log.debug(METHOD_WAS_INVOKED, MethodLog.caller());
         Optional<RegistrationConfirmationDTO> confirmUser = Optional.ofNullable(
                         cacheManager.getCache("registration"))
                 .map(cache -> cache.get(token, RegistrationConfirmationDTO.class));
@@ -145,7 +145,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Override
     @Transactional(readOnly = true)
     public PreAuthResponseDTO isUserAuthenticated(String email) {
-        log.debug("Method {}, email {}", MethodLog.getMethodName(), email);
+        log.debug("Method {}, email {}", MethodLog.caller(), email);
         Optional<User> foundUser = userRepository.findByEmail(email);
         return foundUser.map(user -> new PreAuthResponseDTO(true, user.getFullName()))
                 .orElseGet(() -> new PreAuthResponseDTO(false, null));
@@ -168,7 +168,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
      */
     @Override
     public LoginResponseDTO authenticate(AuthRequestDTO request) {
-        log.debug("Method {}, Username {}", MethodLog.getMethodName(), request.getEmail());
+        log.debug("Method {}, Username {}", MethodLog.caller(), request.getEmail());
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail(),
@@ -201,7 +201,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Override
     @Transactional(readOnly = true)
     public AuthResponseDTO refreshToken(RefreshTokenDTO refreshTokenDTO) {
-        log.debug(METHOD_WAS_INVOKED, MethodLog.getMethodName());
+        log.debug(METHOD_WAS_INVOKED, MethodLog.caller());
         final String refreshToken = refreshTokenDTO.getRefreshToken();
         jwtValidator.validateRefreshToken(refreshToken);
         String username = jwtService.extractUsername(refreshToken);
@@ -1,6 +1,22 @@
 package ru.ac.checkpointmanager.service.cache;
 
+import ru.ac.checkpointmanager.dto.CacheStatsDTO;
+import ru.ac.checkpointmanager.dto.CircuitBreakerStateDTO;
+
+import java.util.List;
+import java.util.UUID;
+
 public interface CacheService {
 
     void clearAllCaches();
+
+    List<CacheStatsDTO> getStats();
+
+    void clearCache(String cacheName);
+
+    void evict(String cacheName, String key);
+
+    void evictUser(UUID userId);
+
+    CircuitBreakerStateDTO getCircuitBreakerState();
 }
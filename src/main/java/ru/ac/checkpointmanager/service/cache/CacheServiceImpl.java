@@ -1,18 +1,63 @@
 package ru.ac.checkpointmanager.service.cache;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
+import ru.ac.checkpointmanager.configuration.cache.CacheNames;
+import ru.ac.checkpointmanager.configuration.cache.MeteredCache;
+import ru.ac.checkpointmanager.configuration.cache.NearCache;
+import ru.ac.checkpointmanager.configuration.cache.RedisCircuitBreaker;
+import ru.ac.checkpointmanager.dto.CacheStatsDTO;
+import ru.ac.checkpointmanager.dto.CircuitBreakerStateDTO;
+import ru.ac.checkpointmanager.exception.CacheNotFoundException;
+import ru.ac.checkpointmanager.exception.ExceptionUtils;
+import ru.ac.checkpointmanager.repository.PhoneRepository;
+import ru.ac.checkpointmanager.security.principal.PrincipalCache;
+
+import java.util.List;
+import java.util.UUID;
 
 @Service
+@Slf4j
 public class CacheServiceImpl implements CacheService {
 
     private final CacheManager cacheManager;
 
-    @Autowired
-    public CacheServiceImpl(CacheManager cacheManager) {
+    private final RedisCacheManager redisCacheManager;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final PhoneRepository phoneRepository;
+
+    private final PrincipalCache principalCache;
+
+    private final RedisCircuitBreaker circuitBreaker;
+
+    private final int scanLimit;
+
+    public CacheServiceImpl(CacheManager cacheManager,
+                            RedisCacheManager redisCacheManager,
+                            StringRedisTemplate redisTemplate,
+                            PhoneRepository phoneRepository,
+                            PrincipalCache principalCache,
+                            RedisCircuitBreaker circuitBreaker,
+                            @Value("${app.cache.stats.scan-limit:10000}") int scanLimit) {
         this.cacheManager = cacheManager;
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.phoneRepository = phoneRepository;
+        this.principalCache = principalCache;
+        this.circuitBreaker = circuitBreaker;
+        this.scanLimit = scanLimit;
     }
 
     /**
@@ -27,4 +72,120 @@ public class CacheServiceImpl implements CacheService {
             }
         });
     }
+
+    /**
+     * Собирает статистику всех кэшей. Записи кэша в Redis перебираются через SCAN,
+     * не больше app.cache.stats.scan-limit на кэш, чтобы запрос не нагружал Redis с большим количеством ключей.
+     * Пока Redis недоступен, записи не считаются
+     *
+     * @return статистика по каждому кэшу
+     */
+    @Override
+    public List<CacheStatsDTO> getStats() {
+        return cacheManager.getCacheNames().stream().sorted().map(this::getStats).toList();
+    }
+
+    /**
+     * Очищает кэш в Redis порциями через SCAN и кэш в памяти на всех экземплярах приложения
+     *
+     * @param cacheName имя кэша
+     * @throws CacheNotFoundException если кэша с таким именем нет
+     */
+    @Override
+    public void clearCache(String cacheName) {
+        getCache(cacheName).clear();
+        log.info("Cache [{}] cleared", cacheName);
+    }
+
+    /**
+     * @param cacheName имя кэша
+     * @param key       ключ в строковом виде, как в Redis
+     * @throws CacheNotFoundException если кэша с таким именем нет
+     */
+    @Override
+    public void evict(String cacheName, String key) {
+        getCache(cacheName).evict(key);
+        log.info("Key [{}] evicted from cache [{}]", key, cacheName);
+    }
+
+    /**
+     * Удаляет из кэшей пользователя, его территории и телефоны, а также аутентификацию пользователя
+     *
+     * @param userId id пользователя
+     */
+    @Override
+    public void evictUser(UUID userId) {
+        getCache(CacheNames.USER).evict(userId);
+        getCache(CacheNames.USER_TERRITORY).evict(userId);
+        Cache phones = getCache(CacheNames.PHONE);
+        phoneRepository.findIdsByUserId(userId).forEach(phones::evict);
+        principalCache.invalidate(userId);
+        log.info("Cached data of user [{}] evicted", userId);
+    }
+
+    @Override
+    public CircuitBreakerStateDTO getCircuitBreakerState() {
+        return circuitBreaker.getState();
+    }
+
+    private Cache getCache(String cacheName) {
+        Cache cache = cacheManager.getCacheNames().contains(cacheName) ? cacheManager.getCache(cacheName) : null;
+        if (cache == null) {
+            log.warn(ExceptionUtils.CACHE_NOT_FOUND_MSG.formatted(cacheName));
+            throw new CacheNotFoundException(ExceptionUtils.CACHE_NOT_FOUND_MSG.formatted(cacheName));
+        }
+        return cache;
+    }
+
+    private CacheStatsDTO getStats(String cacheName) {
+        CacheStatsDTO stats = new CacheStatsDTO();
+        stats.setCacheName(cacheName);
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof MeteredCache meteredCache) {
+            stats.setLoads(meteredCache.getLoads());
+            stats.setLoadAvgMillis(meteredCache.getLoadAvgMillis());
+            if (meteredCache.getDelegate() instanceof NearCache nearCache) {
+                stats.setNear(nearCache.getStats());
+                stats.setHits(stats.getNear().getL1Hits());
+            }
+        }
+        if (redisCacheManager.getCache(cacheName) instanceof RedisCache redisCache) {
+            CacheStatistics statistics = redisCache.getStatistics();
+            stats.setHits(stats.getHits() + statistics.getHits());
+            stats.setMisses(statistics.getMisses());
+            stats.setPuts(statistics.getPuts());
+            stats.setEvictions(statistics.getDeletes());
+            if (circuitBreaker.isClosed()) {
+                measureEntries(redisCache.getCacheConfiguration().getKeyPrefixFor(cacheName), stats);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Считает записи и размер значений по префиксу ключей кэша, перебирая ключи через SCAN
+     */
+    private void measureEntries(String keyPrefix, CacheStatsDTO stats) {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            ScanOptions options = ScanOptions.scanOptions().match(keyPrefix + "*").count(1000).build();
+            long entries = 0;
+            long payloadBytes = 0;
+            boolean exact = true;
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                while (cursor.hasNext()) {
+                    if (entries == scanLimit) {
+                        exact = false;
+                        break;
+                    }
+                    Long length = connection.stringCommands().strLen(cursor.next());
+                    entries++;
+                    payloadBytes += length == null ? 0 : length;
+                }
+            }
+            stats.setEntries(entries);
+            stats.setPayloadBytes(payloadBytes);
+            stats.setExact(exact);
+            return null;
+        });
+    }
 }
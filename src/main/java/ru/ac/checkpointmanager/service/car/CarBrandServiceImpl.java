@@ -9,6 +9,7 @@ import ru.ac.checkpointmanager.exception.CarBrandNotFoundException;
 import ru.ac.checkpointmanager.exception.ExceptionUtils;
 import ru.ac.checkpointmanager.model.car.CarBrand;
 import ru.ac.checkpointmanager.repository.car.CarBrandRepository;
+import ru.ac.checkpointmanager.utils.SearchUtils;
 
 import java.util.List;
 
@@ -75,6 +76,6 @@ public class CarBrandServiceImpl implements CarBrandService {
 
     @Override
     public List<CarBrand> findByBrandsContainingIgnoreCase(String brandName) {
-        return carBrandRepository.findByBrandContainingIgnoreCase(brandName);
+        return carBrandRepository.searchByBrand(SearchUtils.containsIgnoreCasePattern(brandName));
     }
 }
@@ -11,8 +11,10 @@ import ru.ac.checkpointmanager.model.car.Car;
 import ru.ac.checkpointmanager.model.car.CarBrand;
 import ru.ac.checkpointmanager.repository.car.CarBrandRepository;
 import ru.ac.checkpointmanager.repository.car.CarRepository;
+import ru.ac.checkpointmanager.service.passes.PlateIndex;
 import ru.ac.checkpointmanager.service.user.UserService;
 import ru.ac.checkpointmanager.utils.MethodLog;
+import ru.ac.checkpointmanager.utils.SearchUtils;
 
 import java.util.List;
 import java.util.Optional;
@@ -32,6 +34,8 @@ public class CarServiceImpl implements CarService {
 
     private final UserService userService;
 
+    private final PlateIndex plateIndex;
+
     @Override
     @Transactional
     public Car addCar(Car car) {
@@ -67,6 +71,7 @@ public class CarServiceImpl implements CarService {
         }
         carRepository.deleteById(carId);
         log.info("[Car with id: {}] successfully deleted", carId);
+        plateIndex.refreshCar(carId);
     }
 
     @Override
@@ -86,6 +91,7 @@ public class CarServiceImpl implements CarService {
         existingCar.setBrand(carBrandToUpdate);
         Car saved = carRepository.save(existingCar);
         log.info("[Car with id: {}] successfully updated", carId);
+        plateIndex.refreshCar(carId);
         return saved;
     }
 
@@ -97,12 +103,12 @@ public class CarServiceImpl implements CarService {
     @Override
     public List<Car> findByPhonePart(String phone) {
         log.info("Searching for Cars with phone containing: {}", phone);
-        return carRepository.findByPhoneContaining(phone);
+        return carRepository.searchByPhone(SearchUtils.containsPattern(phone));
     }
 
     @Override
     public List<Car> findByUserId(UUID userId) {
-        log.debug("Method {} [UUID - {}]", MethodLog.getMethodName(), userId);
+        log.debug("Method {} [UUID - {}]", MethodLog.caller(), userId);
         userService.findById(userId);
 
         List<Car> foundCars = carRepository.findCarsByUserId(userId);
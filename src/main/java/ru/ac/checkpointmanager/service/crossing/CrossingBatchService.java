@@ -0,0 +1,12 @@
+package ru.ac.checkpointmanager.service.crossing;
+
+import ru.ac.checkpointmanager.dto.CrossingBatchItemDTO;
+import ru.ac.checkpointmanager.dto.CrossingBatchResultDTO;
+
+import java.util.List;
+
+public interface CrossingBatchService {
+
+    List<CrossingBatchResultDTO> addCrossings(List<CrossingBatchItemDTO> crossings);
+
+}
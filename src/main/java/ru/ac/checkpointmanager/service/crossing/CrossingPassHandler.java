@@ -1,10 +1,13 @@
 package ru.ac.checkpointmanager.service.crossing;
 
 import ru.ac.checkpointmanager.model.enums.Direction;
-import ru.ac.checkpointmanager.model.passes.Pass;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
 
 public interface CrossingPassHandler {
 
-    void handle(Pass pass, Direction currentDirection);
+    void handle(PassCrossingView pass, Direction currentDirection);
+
+    PassStatus process(PassCrossingView pass, Direction currentDirection);
 
 }
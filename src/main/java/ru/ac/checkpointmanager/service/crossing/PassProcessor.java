@@ -1,10 +1,11 @@
 package ru.ac.checkpointmanager.service.crossing;
 
 import ru.ac.checkpointmanager.model.enums.Direction;
-import ru.ac.checkpointmanager.model.passes.Pass;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
 
 public interface PassProcessor {
 
-    void process(Pass pass, Direction currentDirection);
+    PassStatus process(PassCrossingView pass, Direction currentDirection);
 
 }
@@ -0,0 +1,244 @@
+package ru.ac.checkpointmanager.service.crossing.impl;
+
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.ac.checkpointmanager.dto.CrossingBatchItemDTO;
+import ru.ac.checkpointmanager.dto.CrossingBatchResultDTO;
+import ru.ac.checkpointmanager.exception.CheckpointNotFoundException;
+import ru.ac.checkpointmanager.exception.ExceptionUtils;
+import ru.ac.checkpointmanager.exception.pass.PassException;
+import ru.ac.checkpointmanager.exception.pass.PassNotFoundException;
+import ru.ac.checkpointmanager.mapper.CrossingMapper;
+import ru.ac.checkpointmanager.model.Crossing;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.projection.CrossingIdempotencyView;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
+import ru.ac.checkpointmanager.repository.CheckpointRepository;
+import ru.ac.checkpointmanager.repository.CrossingBatchRepository;
+import ru.ac.checkpointmanager.repository.CrossingRepository;
+import ru.ac.checkpointmanager.repository.PassEventRepository;
+import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.service.crossing.CrossingBatchService;
+import ru.ac.checkpointmanager.service.crossing.CrossingPassHandler;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
+import ru.ac.checkpointmanager.service.passes.PassChecker;
+import ru.ac.checkpointmanager.service.passes.PlateIndex;
+import ru.ac.checkpointmanager.specification.model.PassAuto_;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CrossingBatchServiceImpl implements CrossingBatchService {
+
+    private final CrossingRepository crossingRepository;
+    private final CrossingBatchRepository crossingBatchRepository;
+    private final PassRepository passRepository;
+    private final CheckpointRepository checkpointRepository;
+    private final PassEventRepository passEventRepository;
+    private final CrossingPassHandler crossingPassHandler;
+    private final PassChecker passChecker;
+    private final PlateIndex plateIndex;
+    private final CrossingMapper mapper;
+    private final LiveEventService liveEventService;
+
+    /**
+     * Добавляет пакет пересечений, накопленных контроллером КПП.
+     * <p>
+     * Пересечения, ключ идемпотентности которых уже сохранен для того же чекпоинта, не добавляются повторно:
+     * ключ уникален в пределах чекпоинта, поэтому совпавший ключ другого КПП не раскрывает чужие пересечения.
+     * Остальные группируются по пропуску и обрабатываются в порядке performedAt теми же проверками
+     * и процессорами, что и одиночное пересечение, состояние пропуска переносится между пересечениями в памяти.
+     * Данные всех пропусков и чекпоинтов получаются одним запросом, состояния пропусков, пересечения
+     * и события в pass_events записываются тремя JDBC batch. Отклонение одного пересечения не влияет на остальные.
+     * Если пропуск перестал быть активным до записи, все его пересечения из пакета отклоняются.
+     * Сохраненные пересечения и смены статусов пропусков рассылаются подписчикам после коммита
+     *
+     * @param crossings пересечения с ключами идемпотентности
+     * @return результаты обработки в порядке переданных пересечений
+     * @throws DataIntegrityViolationException если пакет с теми же ключами параллельно сохранен
+     *                                         другим запросом, повторная отправка вернет DUPLICATE
+     */
+    @Override
+    @Transactional
+    public List<CrossingBatchResultDTO> addCrossings(List<CrossingBatchItemDTO> crossings) {
+        log.debug("Adding batch of {} crossings", crossings.size());
+        Map<ItemKey, CrossingBatchResultDTO> results = new HashMap<>();
+        Set<ItemKey> keys = crossings.stream().map(ItemKey::of).collect(Collectors.toSet());
+        Set<UUID> checkpointIds = keys.stream().map(ItemKey::checkpointId).collect(Collectors.toSet());
+        Set<String> idempotencyKeys = keys.stream().map(ItemKey::idempotencyKey).collect(Collectors.toSet());
+        for (CrossingIdempotencyView saved : crossingRepository.findByIdempotencyKeys(checkpointIds, idempotencyKeys)) {
+            ItemKey key = new ItemKey(saved.getCheckpointId(), saved.getIdempotencyKey());
+            if (keys.contains(key)) {
+                results.put(key, new CrossingBatchResultDTO(saved.getIdempotencyKey(),
+                        saved.getId(), CrossingBatchResultDTO.Status.DUPLICATE, null));
+            }
+        }
+
+        Map<UUID, List<CrossingBatchItemDTO>> newCrossingsByPass = new LinkedHashMap<>();
+        Set<ItemKey> newKeys = new HashSet<>();
+        for (CrossingBatchItemDTO item : crossings) {
+            ItemKey key = ItemKey.of(item);
+            if (!results.containsKey(key) && newKeys.add(key)) {
+                newCrossingsByPass.computeIfAbsent(item.getPassId(), passId -> new ArrayList<>()).add(item);
+            }
+        }
+        if (!newCrossingsByPass.isEmpty()) {
+            processNewCrossings(newCrossingsByPass, results);
+        }
+        return toOrderedResults(crossings, results);
+    }
+
+    private void processNewCrossings(Map<UUID, List<CrossingBatchItemDTO>> crossingsByPass,
+                                     Map<ItemKey, CrossingBatchResultDTO> results) {
+        Set<UUID> checkpointIds = crossingsByPass.values().stream().flatMap(List::stream)
+                .map(CrossingBatchItemDTO::getCheckpointId).collect(Collectors.toSet());
+        Map<UUID, Map<UUID, PassCrossingView>> viewsByPass = new HashMap<>();
+        for (PassCrossingView view : passRepository.findPassCrossingViews(crossingsByPass.keySet(), checkpointIds)) {
+            viewsByPass.computeIfAbsent(view.getId(), passId -> new HashMap<>()).put(view.getCheckpointId(), view);
+        }
+
+        List<PassCrossingView> passStates = new ArrayList<>();
+        List<List<Crossing>> passCrossings = new ArrayList<>();
+        List<List<CrossingBatchItemDTO>> passItems = new ArrayList<>();
+        crossingsByPass.forEach((passId, items) -> {
+            items.sort(Comparator.comparing(item -> item.getPerformedAt().toInstant()));
+            Map<UUID, PassCrossingView> views = viewsByPass.get(passId);
+            PassCrossingView state = views == null ? null : views.values().iterator().next();
+            List<Crossing> accepted = new ArrayList<>();
+            List<CrossingBatchItemDTO> acceptedItems = new ArrayList<>();
+            for (CrossingBatchItemDTO item : items) {
+                try {
+                    state = applyCrossing(state, views, item);
+                    Crossing crossing = toCrossing(item);
+                    accepted.add(crossing);
+                    acceptedItems.add(item);
+                    results.put(ItemKey.of(item), new CrossingBatchResultDTO(item.getIdempotencyKey(),
+                            crossing.getId(), CrossingBatchResultDTO.Status.CREATED, null));
+                } catch (PassException | EntityNotFoundException e) {
+                    results.put(ItemKey.of(item), new CrossingBatchResultDTO(item.getIdempotencyKey(),
+                            null, CrossingBatchResultDTO.Status.REJECTED, e.getMessage()));
+                }
+            }
+            if (!accepted.isEmpty()) {
+                passStates.add(state);
+                passCrossings.add(accepted);
+                passItems.add(acceptedItems);
+            }
+        });
+        if (passStates.isEmpty()) {
+            return;
+        }
+
+        int[] updated = crossingBatchRepository.updatePassStates(passStates);
+        List<Crossing> toInsert = new ArrayList<>();
+        List<UUID> deactivatedPassAutoIds = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                toInsert.addAll(passCrossings.get(i));
+                PassCrossingView state = passStates.get(i);
+                for (Crossing crossing : passCrossings.get(i)) {
+                    liveEventService.publishCrossing(mapper.toCrossingDTO(crossing), state.getTerritoryId());
+                }
+                if (state.getStatus() != PassStatus.ACTIVE) {
+                    liveEventService.publishPassStatus(state.getId(), state.getTerritoryId(), state.getStatus());
+                    if (PassAuto_.DTYPE.equals(state.getDtype())) {
+                        deactivatedPassAutoIds.add(state.getId());
+                    }
+                }
+                continue;
+            }
+            UUID passId = passStates.get(i).getId();
+            log.warn(ExceptionUtils.INACTIVE_PASS.formatted(passId));
+            for (CrossingBatchItemDTO item : passItems.get(i)) {
+                results.put(ItemKey.of(item), new CrossingBatchResultDTO(item.getIdempotencyKey(),
+                        null, CrossingBatchResultDTO.Status.REJECTED, ExceptionUtils.INACTIVE_PASS.formatted(passId)));
+            }
+        }
+        if (!toInsert.isEmpty()) {
+            crossingBatchRepository.insertCrossings(toInsert);
+            passEventRepository.recordCrossings(toInsert);
+        }
+        plateIndex.refreshPasses(deactivatedPassAutoIds);
+        log.info("Batch crossings saved: {}, passes updated: {}", toInsert.size(), passStates.size());
+    }
+
+    /**
+     * Применяет к текущему состоянию пропуска проверки и правила процессора для очередного пересечения
+     *
+     * @return состояние пропуска после пересечения
+     */
+    private PassCrossingView applyCrossing(PassCrossingView state, Map<UUID, PassCrossingView> views,
+                                           CrossingBatchItemDTO item) {
+        if (state == null) {
+            log.warn(ExceptionUtils.PASS_NOT_FOUND.formatted(item.getPassId()));
+            throw new PassNotFoundException(ExceptionUtils.PASS_NOT_FOUND.formatted(item.getPassId()));
+        }
+        passChecker.checkPassActivity(state);
+        PassCrossingView checkpoint = views.get(item.getCheckpointId());
+        if (checkpoint == null) {
+            log.warn(ExceptionUtils.CHECKPOINT_NOT_FOUND.formatted(item.getCheckpointId()));
+            throw new CheckpointNotFoundException(ExceptionUtils.CHECKPOINT_NOT_FOUND.formatted(item.getCheckpointId()));
+        }
+        PassCrossingView pass = state.withCheckpointOf(checkpoint);
+        passChecker.checkPassAndCheckpointTerritories(pass);
+        passChecker.checkPassAndCheckpointCompatibility(pass);
+        PassStatus status = crossingPassHandler.process(pass, item.getDirection());
+        return pass.withPassState(status, item.getDirection().opposite());
+    }
+
+    /**
+     * Повторы ключа чекпоинта внутри пакета получают результат первого вхождения, созданное пересечение -
+     * как DUPLICATE
+     */
+    private List<CrossingBatchResultDTO> toOrderedResults(List<CrossingBatchItemDTO> crossings,
+                                                          Map<ItemKey, CrossingBatchResultDTO> results) {
+        Set<ItemKey> seen = new HashSet<>();
+        List<CrossingBatchResultDTO> ordered = new ArrayList<>(crossings.size());
+        for (CrossingBatchItemDTO item : crossings) {
+            ItemKey key = ItemKey.of(item);
+            CrossingBatchResultDTO result = results.get(key);
+            if (!seen.add(key) && result.getStatus() == CrossingBatchResultDTO.Status.CREATED) {
+                result = new CrossingBatchResultDTO(item.getIdempotencyKey(), result.getCrossingId(),
+                        CrossingBatchResultDTO.Status.DUPLICATE, null);
+            }
+            ordered.add(result);
+        }
+        return ordered;
+    }
+
+    private Crossing toCrossing(CrossingBatchItemDTO item) {
+        Crossing crossing = new Crossing();
+        crossing.setId(UUID.randomUUID());
+        crossing.setPass(passRepository.getReferenceById(item.getPassId()));
+        crossing.setCheckpoint(checkpointRepository.getReferenceById(item.getCheckpointId()));
+        crossing.setDirection(item.getDirection());
+        crossing.setPerformedAt(item.getPerformedAt());
+        crossing.setIdempotencyKey(item.getIdempotencyKey());
+        return crossing;
+    }
+
+    /**
+     * Ключ идемпотентности уникален в пределах чекпоинта
+     */
+    private record ItemKey(UUID checkpointId, String idempotencyKey) {
+
+        static ItemKey of(CrossingBatchItemDTO item) {
+            return new ItemKey(item.getCheckpointId(), item.getIdempotencyKey());
+        }
+    }
+}
@@ -6,12 +6,18 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.ac.checkpointmanager.exception.ExceptionUtils;
 import ru.ac.checkpointmanager.exception.PassProcessorException;
+import ru.ac.checkpointmanager.exception.pass.InactivePassException;
 import ru.ac.checkpointmanager.model.enums.Direction;
-import ru.ac.checkpointmanager.model.passes.Pass;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
 import ru.ac.checkpointmanager.repository.PassRepository;
 import ru.ac.checkpointmanager.service.crossing.CrossingPassHandler;
 import ru.ac.checkpointmanager.service.crossing.PassProcessor;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
+import ru.ac.checkpointmanager.service.passes.PlateIndex;
+import ru.ac.checkpointmanager.specification.model.PassAuto_;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -23,35 +29,61 @@ class CrossingPassHandlerImpl implements CrossingPassHandler {
 
     private final Map<String, PassProcessor> passProcessingMap;
 
+    private final PlateIndex plateIndex;
+
+    private final LiveEventService liveEventService;
+
     /**
      * Обрабатывает использованный при пересечении пропуск в зависимости от его временного типа,
      * затем устанавливает ожидаемое направление следующего пересечения
-     * на противоположное направлению текущего пересечения
+     * на противоположное направлению текущего пересечения.
+     * Статус и направление сохраняются одним условным UPDATE, без загрузки сущности пропуска.
+     * Пропуск на машину, переставший быть активным, убирается из индекса номеров после коммита,
+     * смена статуса рассылается подписчикам территории
      *
-     * @param pass             пропуск, использованный при пересечении
+     * @param pass             данные пропуска, использованного при пересечении
      * @param currentDirection направление текущего (добавляемого) пересечения
      * @throws PassProcessorException процессор для типа пропуска не установлен
+     * @throws InactivePassException  если пропуск перестал быть активным во время обработки
      */
     @Override
     @Transactional
-    public void handle(Pass pass, Direction currentDirection) {
+    public void handle(PassCrossingView pass, Direction currentDirection) {
+        PassStatus status = process(pass, currentDirection);
+        Direction nextDirectionForUsedPass = currentDirection.opposite();
+
+        int updated = passRepository.updateStatusAndExpectedDirection(pass.getId(), status, nextDirectionForUsedPass,
+                PassStatus.ACTIVE);
+        if (updated == 0) {
+            log.warn(ExceptionUtils.INACTIVE_PASS.formatted(pass.getId()));
+            throw new InactivePassException(ExceptionUtils.INACTIVE_PASS.formatted(pass.getId()));
+        }
+        if (status != PassStatus.ACTIVE) {
+            liveEventService.publishPassStatus(pass.getId(), pass.getTerritoryId(), status);
+            if (PassAuto_.DTYPE.equals(pass.getDtype())) {
+                plateIndex.refreshPasses(List.of(pass.getId()));
+            }
+        }
+        log.debug("Pass [{}], changed expected direction to {}", pass.getId(), nextDirectionForUsedPass);
+    }
+
+    /**
+     * Применяет к пропуску правила процессора, соответствующего его временному типу, без сохранения
+     *
+     * @param pass             данные пропуска, использованного при пересечении
+     * @param currentDirection направление текущего (добавляемого) пересечения
+     * @return статус пропуска после пересечения
+     * @throws PassProcessorException процессор для типа пропуска не установлен
+     */
+    @Override
+    public PassStatus process(PassCrossingView pass, Direction currentDirection) {
         String passTimeType = pass.getTimeType().toString();
         PassProcessor passProcessor = passProcessingMap.get(passTimeType);
         if (passProcessor == null) {
             log.error(ExceptionUtils.UNSUPPORTED_PASS_TYPE.formatted(passTimeType));
             throw new PassProcessorException(ExceptionUtils.UNSUPPORTED_PASS_TYPE.formatted(passTimeType));
         }
-
-        passProcessor.process(pass, currentDirection);
-
-        Direction nextDirectionForUsedPass = switch (currentDirection) {
-            case IN -> Direction.OUT;
-            case OUT -> Direction.IN;
-        };
-        pass.setExpectedDirection(nextDirectionForUsedPass);
-        log.debug("Pass [{}], changed expected direction to {}", pass.getId(), nextDirectionForUsedPass);
-
-        passRepository.save(pass);
+        return passProcessor.process(pass, currentDirection);
     }
 
 }
@@ -10,23 +10,31 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.ac.checkpointmanager.dto.CrossingDTO;
 import ru.ac.checkpointmanager.dto.CrossingRequestDTO;
 import ru.ac.checkpointmanager.dto.passes.PagingParams;
+import ru.ac.checkpointmanager.exception.CheckpointNotFoundException;
 import ru.ac.checkpointmanager.exception.CrossingNotFoundException;
+import ru.ac.checkpointmanager.exception.ExceptionUtils;
 import ru.ac.checkpointmanager.exception.MismatchedTerritoryException;
 import ru.ac.checkpointmanager.exception.pass.InactivePassException;
+import ru.ac.checkpointmanager.exception.pass.PassNotFoundException;
 import ru.ac.checkpointmanager.mapper.CrossingMapper;
 import ru.ac.checkpointmanager.model.Crossing;
 import ru.ac.checkpointmanager.model.checkpoints.Checkpoint;
 import ru.ac.checkpointmanager.model.enums.Direction;
 import ru.ac.checkpointmanager.model.passes.Pass;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
+import ru.ac.checkpointmanager.repository.CheckpointRepository;
 import ru.ac.checkpointmanager.repository.CrossingRepository;
-import ru.ac.checkpointmanager.service.checkpoints.CheckpointService;
+import ru.ac.checkpointmanager.repository.PassEventRepository;
+import ru.ac.checkpointmanager.repository.PassRepository;
 import ru.ac.checkpointmanager.service.crossing.CrossingPassHandler;
 import ru.ac.checkpointmanager.service.crossing.CrossingService;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
 import ru.ac.checkpointmanager.service.passes.PassChecker;
 import ru.ac.checkpointmanager.service.passes.PassService;
 import ru.ac.checkpointmanager.utils.MethodLog;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Transactional(readOnly = true)
@@ -38,40 +46,62 @@ public class CrossingServiceImpl implements CrossingService {
     private static final String METHOD_UUID = "Method {} [{}]";
 
     private final CrossingRepository crossingRepository;
+    private final PassRepository passRepository;
+    private final CheckpointRepository checkpointRepository;
+    private final PassEventRepository passEventRepository;
     private final PassService passService;
-    private final CheckpointService checkpointService;
     private final CrossingPassHandler crossingPassHandler;
     private final PassChecker passChecker;
     private final CrossingMapper mapper;
+    private final LiveEventService liveEventService;
 
     /**
-     * Добавляет пересечение
+     * Добавляет пересечение.
+     * <p>
+     * Данные пропуска, чекпоинта и признак наличия пересечений по пропуску получаются одним запросом,
+     * статус и ожидаемое направление пропуска обновляются одним условным UPDATE,
+     * пересечение сохраняется со ссылками на пропуск и чекпоинт без их загрузки
+     * и сразу записывается в базу, события пропуска в pass_events составляются по таблице crossings.
+     * После коммита пересечение рассылается подписчикам территории пропуска
      *
      * @param crossingDTO параметры пересечения
      * @param direction   направление
      * @return {@link CrossingDTO} сохраненное пересечение со всеми необходимыми для отображения параметрами
+     * @throws PassNotFoundException        если пропуск не найден
      * @throws InactivePassException        если пропуск не активен
+     * @throws CheckpointNotFoundException  если чекпоинт не найден
      * @throws MismatchedTerritoryException если территория пропуск не соответствует территории чекпоинта
      */
     @Override
     @Transactional
     public CrossingDTO addCrossing(CrossingRequestDTO crossingDTO, Direction direction) {
-        log.debug(METHOD_UUID, MethodLog.getMethodName(), crossingDTO);
+        log.debug(METHOD_UUID, MethodLog.caller(), crossingDTO);
 
         UUID passId = crossingDTO.getPassId();
-        Pass pass = passService.findPassById(passId);
+        UUID checkpointId = crossingDTO.getCheckpointId();
+        PassCrossingView pass = passRepository.findPassCrossingView(passId, checkpointId).orElseThrow(
+                () -> {
+                    log.warn(ExceptionUtils.PASS_NOT_FOUND.formatted(passId));
+                    return new PassNotFoundException(ExceptionUtils.PASS_NOT_FOUND.formatted(passId));
+                });
         passChecker.checkPassActivity(pass);
 
-        UUID checkpointId = crossingDTO.getCheckpointId();
-        Checkpoint checkpoint = checkpointService.findCheckpointById(checkpointId);
-        passChecker.checkPassAndCheckpointTerritories(pass, checkpoint);
-        passChecker.checkPassAndCheckpointCompatibility(pass, checkpoint);
+        if (pass.getCheckpointId() == null) {
+            log.warn(ExceptionUtils.CHECKPOINT_NOT_FOUND.formatted(checkpointId));
+            throw new CheckpointNotFoundException(ExceptionUtils.CHECKPOINT_NOT_FOUND.formatted(checkpointId));
+        }
+        passChecker.checkPassAndCheckpointTerritories(pass);
+        passChecker.checkPassAndCheckpointCompatibility(pass);
 
         crossingPassHandler.handle(pass, direction);
-        Crossing crossing = toCrossing(direction, pass, checkpoint, crossingDTO.getPerformedAt());
-        crossing = crossingRepository.save(crossing);
+        Crossing crossing = toCrossing(direction, passRepository.getReferenceById(passId),
+                checkpointRepository.getReferenceById(checkpointId), crossingDTO.getPerformedAt());
+        crossing = crossingRepository.saveAndFlush(crossing);
+        passEventRepository.recordCrossings(List.of(crossing));
         log.info("Crossing added [{}]", crossing);
-        return mapper.toCrossingDTO(crossing);
+        CrossingDTO added = mapper.toCrossingDTO(crossing.getId(), crossingDTO, direction);
+        liveEventService.publishCrossing(added, pass.getTerritoryId());
+        return added;
     }
 
     @Override
@@ -3,7 +3,8 @@ package ru.ac.checkpointmanager.service.crossing.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.ac.checkpointmanager.model.enums.Direction;
-import ru.ac.checkpointmanager.model.passes.Pass;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
 import ru.ac.checkpointmanager.service.crossing.PassProcessor;
 
 @Service("PERMANENT")
@@ -13,15 +14,17 @@ public class PassProcessorPermanent implements PassProcessor {
     /**
      * Обрабатывает многоразовый пропуск типа PERMANENT, просто логирует события
      *
-     * @param pass             пропуск
+     * @param pass             данные пропуска
      * @param currentDirection направление пересечения
+     * @return статус пропуска после пересечения (не меняется)
      */
     @Override
-    public void process(Pass pass, Direction currentDirection) {
+    public PassStatus process(PassCrossingView pass, Direction currentDirection) {
         log.debug("Processing permanent pass [{}]", pass.getId());
 
         if (pass.getExpectedDirection() != currentDirection) {
             log.warn("Two crossings in a row in the same direction - {}, pass {}", currentDirection, pass.getId());
         }
+        return pass.getStatus();
     }
-}
\ No newline at end of file
+}
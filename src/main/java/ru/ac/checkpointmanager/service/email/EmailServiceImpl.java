@@ -57,7 +57,7 @@ public class EmailServiceImpl implements EmailService {
     @Override
     @Async
     public void sendRegisterConfirm(String to, String token) {
-        log.debug("Method {}", MethodLog.getMethodName());
+        log.debug("Method {}", MethodLog.caller());
         String htmlContent;
         try {
             ClassPathResource resource = new ClassPathResource("templates/registration-confirmation.html");
@@ -0,0 +1,21 @@
+package ru.ac.checkpointmanager.service.event;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.ac.checkpointmanager.dto.CrossingDTO;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface LiveEventService {
+
+    SseEmitter subscribe(UUID territoryId);
+
+    void publishCrossing(CrossingDTO crossing, UUID territoryId);
+
+    void publishPassStatus(UUID passId, UUID territoryId, PassStatus status);
+
+    void publishPassStatuses(Collection<UUID> passIds);
+
+    int size();
+}
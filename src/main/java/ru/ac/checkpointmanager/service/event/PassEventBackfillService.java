@@ -0,0 +1,7 @@
+package ru.ac.checkpointmanager.service.event;
+
+public interface PassEventBackfillService {
+
+    int rebuildAll();
+
+}
@@ -1,6 +1,8 @@
 package ru.ac.checkpointmanager.service.event;
 
 import org.springframework.data.domain.Page;
+import ru.ac.checkpointmanager.dto.passes.CursorPage;
+import ru.ac.checkpointmanager.dto.passes.CursorParams;
 import ru.ac.checkpointmanager.dto.passes.PagingParams;
 import ru.ac.checkpointmanager.projection.PassInOutView;
 
@@ -16,4 +18,12 @@ public interface PassInOutViewService {
 
     Page<PassInOutView> findAll(PagingParams pagingParams);
 
+    CursorPage<PassInOutView> scrollEventsByUser(UUID userId, CursorParams cursorParams);
+
+    CursorPage<PassInOutView> scrollEventsByTerritory(UUID terId, CursorParams cursorParams);
+
+    CursorPage<PassInOutView> scrollEventsByUsersTerritories(UUID userId, CursorParams cursorParams);
+
+    CursorPage<PassInOutView> scrollAll(CursorParams cursorParams);
+
 }
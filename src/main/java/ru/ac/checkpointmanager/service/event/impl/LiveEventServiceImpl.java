@@ -0,0 +1,424 @@
+package ru.ac.checkpointmanager.service.event.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.ac.checkpointmanager.dto.CrossingDTO;
+import ru.ac.checkpointmanager.dto.LiveEventDTO;
+import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.model.enums.Role;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.projection.PassTerritoryStatusView;
+import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.security.authfacade.AuthFacade;
+import ru.ac.checkpointmanager.service.access.MembershipIndex;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
+import ru.ac.checkpointmanager.utils.TransactionUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Рассылка пересечений и смен статуса пропусков подписчикам (панелям мониторинга) через Server-Sent Events.
+ * <p>
+ * Событие публикуется после коммита транзакции в канал Redis {@link #CHANNEL} и получается из него всеми
+ * экземплярами приложения, в том числе отправившим, каждый экземпляр передает его своим подписчикам.
+ * Если Redis недоступен, событие передается только подписчикам этого экземпляра.
+ * <p>
+ * Подписчик получает события только своих территорий: ADMIN - всех, остальные - закрепленных за ними,
+ * территории берутся из {@link MembershipIndex} и обновляются при каждом heartbeat, при потере доступа
+ * к территории подписки поток закрывается.
+ * <p>
+ * Поток, получивший событие, только кладет его в ограниченную очередь подписчика, отправку выполняет
+ * пул потоков не более чем по MAX_EVENTS_PER_DRAIN событий подряд на подписчика. У подписчика в каждый момент
+ * не больше одной задачи отправки, пул не ограничен по числу потоков: клиент, который не читает поток,
+ * держит запись и только свой поток пула, не задерживая отправку остальным. Если очередь заполнена,
+ * новые события отбрасываются и считаются, подписчик получает событие overflow с их количеством и может
+ * перечитать состояние запросом к REST API. Подписчик отключается на heartbeat, если запись в его поток
+ * длится дольше write-timeout или его очередь заполнена и не разбиралась между двумя heartbeat, поток пула
+ * освобождается, когда контейнер сервлетов прервет запись по своему таймауту
+ */
+@Service
+@Slf4j
+public class LiveEventServiceImpl implements LiveEventService, MessageListener {
+
+    public static final String CHANNEL = "live-events";
+
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    private static final int MAX_EVENTS_PER_DRAIN = 64;
+
+    private final PassRepository passRepository;
+
+    private final MembershipIndex membershipIndex;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final ObjectMapper objectMapper;
+
+    private final AuthFacade authFacade;
+
+    private final long timeoutMillis;
+
+    private final int queueSize;
+
+    private final long writeTimeoutNanos;
+
+    private final ExecutorService sender;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public LiveEventServiceImpl(PassRepository passRepository, MembershipIndex membershipIndex,
+                                StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+                                ObjectMapper objectMapper, @Qualifier("userAuthFacade") AuthFacade authFacade,
+                                @Value("${app.live-events.timeout:PT30M}") Duration timeout,
+                                @Value("${app.live-events.queue-size:256}") int queueSize,
+                                @Value("${app.live-events.write-timeout:PT10S}") Duration writeTimeout) {
+        this.passRepository = passRepository;
+        this.membershipIndex = membershipIndex;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.authFacade = authFacade;
+        this.timeoutMillis = timeout.toMillis();
+        this.queueSize = queueSize;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("live-events-");
+        threadFactory.setDaemon(true);
+        this.sender = Executors.newCachedThreadPool(threadFactory);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        sender.shutdownNow();
+    }
+
+    /**
+     * Подписывает текущего пользователя на события, ADMIN получает события всех территорий
+     *
+     * @param territoryId id территории, null - все территории пользователя
+     * @return поток событий
+     */
+    @Override
+    public SseEmitter subscribe(UUID territoryId) {
+        User user = authFacade.getCurrentUser();
+        UUID userId = user.getRole() == Role.ADMIN ? null : user.getId();
+        Subscriber subscriber = new Subscriber(createEmitter(), userId, territoryId);
+        subscriber.refreshTerritories();
+        SseEmitter emitter = subscriber.emitter;
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.offer(SseEmitter.event().comment("connected"));
+        log.debug("User [{}] subscribed to live events of territory {}, {} subscribers", user.getId(),
+                territoryId == null ? "all" : territoryId, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Публикует пересечение после коммита текущей транзакции, без транзакции - сразу
+     */
+    @Override
+    public void publishCrossing(CrossingDTO crossing, UUID territoryId) {
+        LiveEventDTO event = LiveEventDTO.crossing(crossing, territoryId);
+        afterCommit(() -> publish(event));
+    }
+
+    /**
+     * Публикует смену статуса пропуска после коммита текущей транзакции, без транзакции - сразу
+     */
+    @Override
+    public void publishPassStatus(UUID passId, UUID territoryId, PassStatus status) {
+        LiveEventDTO event = LiveEventDTO.passStatus(passId, territoryId, status);
+        afterCommit(() -> publish(event));
+    }
+
+    /**
+     * Публикует смену статуса пропусков, измененных массово: территории и статусы пропусков читаются
+     * из базы после коммита текущей транзакции, без транзакции - сразу
+     *
+     * @param passIds id пропусков
+     */
+    @Override
+    public void publishPassStatuses(Collection<UUID> passIds) {
+        if (passIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(passIds);
+        afterCommit(() -> {
+            for (int from = 0; from < ids.size(); from += LOOKUP_BATCH_SIZE) {
+                List<UUID> batch = ids.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, ids.size()));
+                for (PassTerritoryStatusView view : passRepository.findTerritoryStatusViews(batch)) {
+                    publish(LiveEventDTO.passStatus(view.passId(), view.territoryId(), view.status()));
+                }
+            }
+        });
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    @Override
+    public int size() {
+        return subscribers.size();
+    }
+
+    /**
+     * Получает событие, опубликованное любым экземпляром приложения
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            dispatch(objectMapper.readValue(body, LiveEventDTO.class), body);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Invalid live event message [{}]: {}", body, e.getMessage());
+        }
+    }
+
+    /**
+     * Обновляет территории подписчиков, отключает потерявших доступ и не успевающих читать,
+     * остальным отправляет комментарий, чтобы прокси не закрыл простаивающее соединение
+     */
+    @Scheduled(fixedRateString = "${app.live-events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled()) {
+                log.info("Live events subscriber of user [{}] does not read events, disconnecting",
+                        subscriber.userId);
+                subscriber.close();
+                continue;
+            }
+            try {
+                subscriber.refreshTerritories();
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh territories of live events subscriber: {}", e.getMessage());
+            }
+            if (subscriber.lostAccess()) {
+                log.info("User [{}] lost access to territory [{}], live events stream closed", subscriber.userId,
+                        subscriber.territoryId);
+                subscriber.close();
+                continue;
+            }
+            subscriber.offer(SseEmitter.event().comment("ping"));
+        }
+    }
+
+    private void publish(LiveEventDTO event) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize live event {}", event, e);
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, body);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish live event, delivering to local subscribers only: {}", e.getMessage());
+            dispatch(event, body);
+        }
+    }
+
+    private void dispatch(LiveEventDTO event, String body) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String name = event.getType() == LiveEventDTO.Type.CROSSING ? "crossing" : "pass-status";
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.accepts(event.getTerritoryId())) {
+                subscriber.offer(SseEmitter.event().name(name).data(body, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionUtils.afterCommit(action, e -> log.error("Failed to publish live event", e));
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        /**
+         * null - подписчик видит все территории
+         */
+        private final UUID userId;
+
+        /**
+         * null - подписка на все территории подписчика
+         */
+        private final UUID territoryId;
+
+        private final BlockingQueue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueSize);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final AtomicLong dropped = new AtomicLong();
+
+        private final AtomicLong sent = new AtomicLong();
+
+        /**
+         * null - все территории
+         */
+        private volatile Set<UUID> territories;
+
+        private volatile boolean closed;
+
+        /**
+         * Время начала текущей записи в поток по System.nanoTime(), 0 - запись не выполняется
+         */
+        private volatile long writeStartedAt;
+
+        /**
+         * Отправлено событий на момент прошлого heartbeat, доступ только из heartbeat
+         */
+        private long sentAtLastHeartbeat = -1;
+
+        private Subscriber(SseEmitter emitter, UUID userId, UUID territoryId) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.territoryId = territoryId;
+        }
+
+        void refreshTerritories() {
+            if (userId == null) {
+                territories = territoryId == null ? null : Set.of(territoryId);
+                return;
+            }
+            Set<UUID> own = Set.copyOf(membershipIndex.findTerritoryIds(userId));
+            if (territoryId == null) {
+                territories = own;
+            } else {
+                territories = own.contains(territoryId) ? Set.of(territoryId) : Set.of();
+            }
+        }
+
+        boolean accepts(UUID eventTerritoryId) {
+            Set<UUID> current = territories;
+            return !closed && (current == null || current.contains(eventTerritoryId));
+        }
+
+        boolean lostAccess() {
+            return territoryId != null && territories.isEmpty();
+        }
+
+        boolean isStalled() {
+            long started = writeStartedAt;
+            if (started != 0 && System.nanoTime() - started > writeTimeoutNanos) {
+                return true;
+            }
+            long current = sent.get();
+            boolean stalled = queue.remainingCapacity() == 0 && current == sentAtLastHeartbeat;
+            sentAtLastHeartbeat = current;
+            return stalled;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                dropped.incrementAndGet();
+            }
+            scheduleDrain();
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            try {
+                // complete ждет завершения текущей записи, поэтому выполняется в пуле, а не в вызывающем потоке
+                sender.execute(emitter::complete);
+            } catch (RejectedExecutionException e) {
+                emitter.complete();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sender.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                long lost = dropped.getAndSet(0);
+                if (lost > 0) {
+                    send(SseEmitter.event().name("overflow").data(String.valueOf(lost)));
+                }
+                SseEmitter.SseEventBuilder event;
+                int count = 0;
+                while (count < MAX_EVENTS_PER_DRAIN && !closed && (event = queue.poll()) != null) {
+                    send(event);
+                    sent.incrementAndGet();
+                    count++;
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Live events subscriber of user [{}] disconnected: {}", userId, e.getMessage());
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && (!queue.isEmpty() || dropped.get() > 0)) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            writeStartedAt = System.nanoTime();
+            try {
+                emitter.send(event);
+            } finally {
+                writeStartedAt = 0;
+            }
+        }
+    }
+}
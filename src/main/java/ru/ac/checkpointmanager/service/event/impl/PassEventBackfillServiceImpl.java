@@ -0,0 +1,66 @@
+package ru.ac.checkpointmanager.service.event.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ac.checkpointmanager.repository.PassEventRepository;
+import ru.ac.checkpointmanager.service.event.PassEventBackfillService;
+
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Slf4j
+public class PassEventBackfillServiceImpl implements PassEventBackfillService {
+
+    private static final int CHUNK_SIZE = 1_000;
+
+    private final PassEventRepository passEventRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PassEventBackfillServiceImpl(PassEventRepository passEventRepository,
+                                        PlatformTransactionManager transactionManager) {
+        this.passEventRepository = passEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Пересчитывает таблицу событий по всем пересечениям, порциями пропусков по возрастанию id.
+     * <p>
+     * Каждая порция пересчитывается в своей транзакции под блокировкой строк пропусков,
+     * поэтому пересечения, добавляемые во время пересчета, не теряются и не дублируются,
+     * а длительность блокировок не зависит от объема таблицы crossings. Повторный запуск безопасен
+     *
+     * @return количество созданных событий
+     */
+    @Override
+    public int rebuildAll() {
+        UUID after = PassEventRepository.FIRST_PASS_ID;
+        int passes = 0;
+        int events = 0;
+        while (true) {
+            UUID chunkAfter = after;
+            ChunkResult chunk = transactionTemplate.execute(status -> {
+                List<UUID> passIds = passEventRepository.lockPassIdsAfter(chunkAfter, CHUNK_SIZE);
+                if (passIds.isEmpty()) {
+                    return new ChunkResult(passIds, 0);
+                }
+                return new ChunkResult(passIds, passEventRepository.rebuildEvents(passIds));
+            });
+            if (chunk == null || chunk.passIds().isEmpty()) {
+                break;
+            }
+            passes += chunk.passIds().size();
+            events += chunk.events();
+            after = chunk.passIds().get(chunk.passIds().size() - 1);
+            log.debug("Pass events rebuilt for {} passes, last pass [{}]", passes, after);
+        }
+        log.info("Pass events rebuilt: {} events for {} passes", events, passes);
+        return events;
+    }
+
+    private record ChunkResult(List<UUID> passIds, int events) {
+    }
+}
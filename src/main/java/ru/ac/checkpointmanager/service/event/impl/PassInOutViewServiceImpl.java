@@ -6,20 +6,28 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import ru.ac.checkpointmanager.dto.passes.CursorPage;
+import ru.ac.checkpointmanager.dto.passes.CursorParams;
 import ru.ac.checkpointmanager.dto.passes.PagingParams;
 import ru.ac.checkpointmanager.exception.ExceptionUtils;
+import ru.ac.checkpointmanager.exception.InvalidCursorException;
 import ru.ac.checkpointmanager.exception.TerritoryNotFoundException;
 import ru.ac.checkpointmanager.exception.UserNotFoundException;
 import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.projection.PassEventView;
 import ru.ac.checkpointmanager.projection.PassInOutView;
+import ru.ac.checkpointmanager.repository.PassEventRepository;
 import ru.ac.checkpointmanager.repository.PassRepository;
 import ru.ac.checkpointmanager.repository.TerritoryRepository;
 import ru.ac.checkpointmanager.repository.UserRepository;
 import ru.ac.checkpointmanager.service.event.PassInOutViewService;
+import ru.ac.checkpointmanager.utils.CursorUtils;
 import ru.ac.checkpointmanager.utils.TerritoryUtils;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.LongSupplier;
 
 @Service
 @RequiredArgsConstructor
@@ -32,6 +40,8 @@ public class PassInOutViewServiceImpl implements PassInOutViewService {
 
     private final TerritoryRepository territoryRepository;
 
+    private final PassEventRepository passEventRepository;
+
     /**
      * Получение событий по идентификатору пользователя
      *
@@ -83,13 +93,7 @@ public class PassInOutViewServiceImpl implements PassInOutViewService {
      */
     @Override
     public Page<PassInOutView> findEventsByUsersTerritories(UUID userId, PagingParams pagingParams) {
-        User user = userRepository.findUserWithTerritoriesById(userId).orElseThrow(
-                () -> {
-                    log.warn(ExceptionUtils.USER_NOT_FOUND_MSG.formatted(userId));
-                    return new UserNotFoundException(ExceptionUtils.USER_NOT_FOUND_MSG.formatted(userId));
-                }
-        );
-        List<UUID> terIds = TerritoryUtils.getTerritoryIdsOrThrow(user, userId);
+        List<UUID> terIds = findUsersTerritoryIds(userId);
         Pageable pageable = PageRequest.of(pagingParams.getPage(), pagingParams.getSize());
         return passRepository.findEventsByTerritories(terIds, pageable);
     }
@@ -105,4 +109,120 @@ public class PassInOutViewServiceImpl implements PassInOutViewService {
         Pageable pageable = PageRequest.of(pagingParams.getPage(), pagingParams.getSize());
         return passRepository.findAllEvents(pageable);
     }
+
+    /**
+     * Выгрузка событий пользователя по курсору, без пропуска offset строк на глубоких страницах
+     *
+     * @param userId       идентификатор
+     * @param cursorParams токен продолжения, размер страницы и признак подсчета общего количества
+     * @return {@link CursorPage<PassInOutView>} страница с дто событий и токеном следующей страницы
+     * @throws UserNotFoundException  если пользователь не найдет
+     * @throws InvalidCursorException если токен продолжения не декодируется
+     */
+    @Override
+    public CursorPage<PassInOutView> scrollEventsByUser(UUID userId, CursorParams cursorParams) {
+        if (!userRepository.existsById(userId)) {
+            log.warn(ExceptionUtils.USER_NOT_FOUND_MSG.formatted(userId));
+            throw new UserNotFoundException(ExceptionUtils.USER_NOT_FOUND_MSG.formatted(userId));
+        }
+        return scroll(cursorParams,
+                (afterId, afterTime, limit) -> passEventRepository.findEventsByUserAfter(userId, afterId,
+                        afterTime, limit),
+                () -> passEventRepository.countEventsByUser(userId));
+    }
+
+    /**
+     * Выгрузка событий территории по курсору
+     *
+     * @param terId        идентификатор территории
+     * @param cursorParams токен продолжения, размер страницы и признак подсчета общего количества
+     * @return {@link CursorPage<PassInOutView>} страница с дто событий и токеном следующей страницы
+     * @throws TerritoryNotFoundException если территория не найдет
+     * @throws InvalidCursorException     если токен продолжения не декодируется
+     */
+    @Override
+    public CursorPage<PassInOutView> scrollEventsByTerritory(UUID terId, CursorParams cursorParams) {
+        if (!territoryRepository.existsById(terId)) {
+            throw new TerritoryNotFoundException(terId);
+        }
+        List<UUID> terIds = List.of(terId);
+        return scroll(cursorParams,
+                (afterId, afterTime, limit) -> passEventRepository.findEventsByTerritoriesAfter(terIds, afterId,
+                        afterTime, limit),
+                () -> passEventRepository.countEventsByTerritories(terIds));
+    }
+
+    /**
+     * Выгрузка событий по всем привязанным к пользователю территориям по курсору
+     *
+     * @param userId       идентификатор пользователя
+     * @param cursorParams токен продолжения, размер страницы и признак подсчета общего количества
+     * @return {@link CursorPage<PassInOutView>} страница с дто событий и токеном следующей страницы
+     * @throws UserNotFoundException      если пользователь не найден
+     * @throws TerritoryNotFoundException если у пользователя нет связанных территорий
+     * @throws InvalidCursorException     если токен продолжения не декодируется
+     */
+    @Override
+    public CursorPage<PassInOutView> scrollEventsByUsersTerritories(UUID userId, CursorParams cursorParams) {
+        List<UUID> terIds = findUsersTerritoryIds(userId);
+        return scroll(cursorParams,
+                (afterId, afterTime, limit) -> passEventRepository.findEventsByTerritoriesAfter(terIds, afterId,
+                        afterTime, limit),
+                () -> passEventRepository.countEventsByTerritories(terIds));
+    }
+
+    /**
+     * Выгрузка всех событий по курсору
+     *
+     * @param cursorParams токен продолжения, размер страницы и признак подсчета общего количества
+     * @return {@link CursorPage<PassInOutView>} страница с дто событий и токеном следующей страницы
+     * @throws InvalidCursorException если токен продолжения не декодируется
+     */
+    @Override
+    public CursorPage<PassInOutView> scrollAll(CursorParams cursorParams) {
+        return scroll(cursorParams, passEventRepository::findAllEventsAfter, passEventRepository::countAllEvents);
+    }
+
+    private List<UUID> findUsersTerritoryIds(UUID userId) {
+        User user = userRepository.findUserWithTerritoriesById(userId).orElseThrow(
+                () -> {
+                    log.warn(ExceptionUtils.USER_NOT_FOUND_MSG.formatted(userId));
+                    return new UserNotFoundException(ExceptionUtils.USER_NOT_FOUND_MSG.formatted(userId));
+                }
+        );
+        return TerritoryUtils.getTerritoryIdsOrThrow(user, userId);
+    }
+
+    /**
+     * Токен продолжения содержит время въезда (пустое для события без въезда) и id последнего события
+     * страницы.
+     * Выбирается на одно событие больше размера страницы, чтобы без подсчета узнать, есть ли следующая
+     */
+    private static CursorPage<PassInOutView> scroll(CursorParams cursorParams, EventsAfter eventsAfter,
+                                                    LongSupplier count) {
+        UUID afterId = null;
+        OffsetDateTime afterTime = null;
+        String cursor = cursorParams.getCursor();
+        if (cursor != null) {
+            String[] key = CursorUtils.decode(cursor, 2);
+            afterTime = key[0].isEmpty() ? null : CursorUtils.parse(cursor, key[0], OffsetDateTime::parse);
+            afterId = CursorUtils.parse(cursor, key[1], UUID::fromString);
+        }
+        int size = cursorParams.getSize();
+        List<PassEventView> events = eventsAfter.find(afterId, afterTime, size + 1);
+        String nextCursor = null;
+        if (events.size() > size) {
+            events = events.subList(0, size);
+            PassEventView last = events.get(size - 1);
+            nextCursor = CursorUtils.encode(last.getInTimeKey(), last.getEventId());
+        }
+        Long total = cursorParams.isWithTotal() ? count.getAsLong() : null;
+        return new CursorPage<>(List.copyOf(events), nextCursor, total);
+    }
+
+    @FunctionalInterface
+    private interface EventsAfter {
+
+        List<PassEventView> find(UUID afterId, OffsetDateTime afterTime, int limit);
+    }
 }
@@ -0,0 +1,13 @@
+package ru.ac.checkpointmanager.service.export;
+
+import java.util.function.Function;
+
+/**
+ * Колонка CSV: заголовок и значение, получаемое из строки экспорта
+ *
+ * @param header заголовок колонки
+ * @param value  функция получения значения, может вернуть null
+ * @param <T>    тип строки экспорта
+ */
+public record ExportColumn<T>(String header, Function<T, Object> value) {
+}
@@ -0,0 +1,21 @@
+package ru.ac.checkpointmanager.service.export;
+
+import lombok.Getter;
+
+/**
+ * Форматы экспорта: CSV с заголовком или JSON-объекты по одному в строке
+ */
+@Getter
+public enum ExportFormat {
+    CSV("text/csv;charset=UTF-8", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+}
@@ -0,0 +1,13 @@
+package ru.ac.checkpointmanager.service.export;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.ac.checkpointmanager.dto.ExportParams;
+
+import java.util.UUID;
+
+public interface ExportService {
+
+    StreamingResponseBody exportEventsByTerritory(UUID terId, ExportParams exportParams);
+
+    StreamingResponseBody exportPassesByTerritory(UUID terId, ExportParams exportParams);
+}
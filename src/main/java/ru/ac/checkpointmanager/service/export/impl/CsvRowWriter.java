@@ -0,0 +1,63 @@
+package ru.ac.checkpointmanager.service.export.impl;
+
+import ru.ac.checkpointmanager.service.export.ExportColumn;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * CSV по RFC 4180 в UTF-8 с BOM, чтобы кириллица корректно открывалась в табличных редакторах
+ */
+class CsvRowWriter<T> implements ExportRowWriter<T> {
+
+    private static final char BOM = '\uFEFF';
+
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    private final Writer writer;
+
+    private final List<ExportColumn<T>> columns;
+
+    CsvRowWriter(OutputStream out, List<ExportColumn<T>> columns) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.columns = columns;
+        writer.write(BOM);
+        for (int i = 0; i < columns.size(); i++) {
+            writeValue(i, columns.get(i).header());
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void write(T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            Object value = columns.get(i).value().apply(row);
+            writeValue(i, value == null ? "" : value.toString());
+        }
+        writer.write(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void writeValue(int index, String value) throws IOException {
+        if (index > 0) {
+            writer.write(',');
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
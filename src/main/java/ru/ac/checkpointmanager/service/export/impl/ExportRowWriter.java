@@ -0,0 +1,14 @@
+package ru.ac.checkpointmanager.service.export.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Запись строк экспорта в поток по одной, без накопления
+ *
+ * @param <T> тип строки экспорта
+ */
+interface ExportRowWriter<T> extends Closeable {
+
+    void write(T row) throws IOException;
+}
@@ -0,0 +1,138 @@
+package ru.ac.checkpointmanager.service.export.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.ac.checkpointmanager.dto.CarDTO;
+import ru.ac.checkpointmanager.dto.ExportParams;
+import ru.ac.checkpointmanager.dto.VisitorDTO;
+import ru.ac.checkpointmanager.dto.passes.PassResponseDTO;
+import ru.ac.checkpointmanager.dto.user.UserResponseDTO;
+import ru.ac.checkpointmanager.exception.TerritoryNotFoundException;
+import ru.ac.checkpointmanager.projection.PassInOutView;
+import ru.ac.checkpointmanager.repository.ExportRepository;
+import ru.ac.checkpointmanager.repository.TerritoryRepository;
+import ru.ac.checkpointmanager.service.export.ExportColumn;
+import ru.ac.checkpointmanager.service.export.ExportFormat;
+import ru.ac.checkpointmanager.service.export.ExportService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportServiceImpl implements ExportService {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private static final List<ExportColumn<PassInOutView>> EVENT_COLUMNS = List.of(
+            new ExportColumn<>("pass_id", PassInOutView::getPass_id),
+            new ExportColumn<>("dtype", PassInOutView::getDtype),
+            new ExportColumn<>("time_type", PassInOutView::getPass_time_type),
+            new ExportColumn<>("status", PassInOutView::getPass_status),
+            new ExportColumn<>("territory", PassInOutView::getTerr_name),
+            new ExportColumn<>("car_number", PassInOutView::getCar_number),
+            new ExportColumn<>("car_brand", PassInOutView::getCar_brand),
+            new ExportColumn<>("visitor", PassInOutView::getVisitor),
+            new ExportColumn<>("comment", PassInOutView::getPass_comment),
+            new ExportColumn<>("in_time", PassInOutView::getIn_time),
+            new ExportColumn<>("out_time", PassInOutView::getOut_time));
+
+    private static final List<ExportColumn<PassResponseDTO>> PASS_COLUMNS = List.of(
+            new ExportColumn<>("id", PassResponseDTO::getId),
+            new ExportColumn<>("dtype", PassResponseDTO::getDtype),
+            new ExportColumn<>("time_type", PassResponseDTO::getTimeType),
+            new ExportColumn<>("status", PassResponseDTO::getStatus),
+            new ExportColumn<>("territory", pass -> pass.getTerritory().getName()),
+            new ExportColumn<>("user_id", nested(PassResponseDTO::getUser, UserResponseDTO::getId)),
+            new ExportColumn<>("user_name", nested(PassResponseDTO::getUser, UserResponseDTO::getFullName)),
+            new ExportColumn<>("start_time", PassResponseDTO::getStartTime),
+            new ExportColumn<>("end_time", PassResponseDTO::getEndTime),
+            new ExportColumn<>("added_at", PassResponseDTO::getAddedAt),
+            new ExportColumn<>("expected_direction", PassResponseDTO::getExpectedDirection),
+            new ExportColumn<>("favorite", PassResponseDTO::getFavorite),
+            new ExportColumn<>("car_number", nested(PassResponseDTO::getCar, CarDTO::getLicensePlate)),
+            new ExportColumn<>("car_brand", nested(PassResponseDTO::getCar, car -> car.getBrand().getBrand())),
+            new ExportColumn<>("visitor", nested(PassResponseDTO::getVisitor, VisitorDTO::getName)),
+            new ExportColumn<>("visitor_phone", nested(PassResponseDTO::getVisitor, VisitorDTO::getPhone)),
+            new ExportColumn<>("comment", PassResponseDTO::getComment));
+
+    private final ExportRepository exportRepository;
+
+    private final TerritoryRepository territoryRepository;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Экспорт событий территории за период по времени въезда.
+     * Существование территории проверяется сразу, выгрузка выполняется при записи ответа
+     *
+     * @param terId        id территории
+     * @param exportParams формат, период и сжатие
+     * @return тело ответа, записывающее события в поток по мере чтения из БД
+     * @throws TerritoryNotFoundException если территория не найдена
+     */
+    @Override
+    public StreamingResponseBody exportEventsByTerritory(UUID terId, ExportParams exportParams) {
+        checkTerritory(terId);
+        return out -> export(out, exportParams, EVENT_COLUMNS, "events", terId,
+                consumer -> exportRepository.streamEventsByTerritory(terId, exportParams.getFrom(),
+                        exportParams.getTo(), consumer));
+    }
+
+    /**
+     * Экспорт пропусков территории за период по времени начала пропуска, параметры как у
+     * {@link #exportEventsByTerritory}
+     */
+    @Override
+    public StreamingResponseBody exportPassesByTerritory(UUID terId, ExportParams exportParams) {
+        checkTerritory(terId);
+        return out -> export(out, exportParams, PASS_COLUMNS, "passes", terId,
+                consumer -> exportRepository.streamPassesByTerritory(terId, exportParams.getFrom(),
+                        exportParams.getTo(), consumer));
+    }
+
+    private void checkTerritory(UUID terId) {
+        if (!territoryRepository.existsById(terId)) {
+            throw new TerritoryNotFoundException(terId);
+        }
+    }
+
+    private <T> void export(OutputStream out, ExportParams exportParams, List<ExportColumn<T>> columns,
+                            String name, UUID terId, Consumer<Consumer<T>> source) throws IOException {
+        long start = System.currentTimeMillis();
+        long[] rows = {0};
+        OutputStream target = exportParams.isGzip() ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out;
+        try (ExportRowWriter<T> writer = exportParams.getFormat() == ExportFormat.CSV
+                ? new CsvRowWriter<>(target, columns)
+                : new NdjsonRowWriter<>(target, objectMapper)) {
+            source.accept(row -> {
+                try {
+                    writer.write(row);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            log.warn("Export of {} for territory {} interrupted after {} rows", name, terId, rows[0]);
+            throw e.getCause();
+        }
+        log.info("Exported {} {} of territory {} in {} ms", rows[0], name, terId,
+                System.currentTimeMillis() - start);
+    }
+
+    private static <T, N> Function<T, Object> nested(Function<T, N> getter, Function<N, Object> value) {
+        return row -> Optional.ofNullable(getter.apply(row)).map(value).orElse(null);
+    }
+}
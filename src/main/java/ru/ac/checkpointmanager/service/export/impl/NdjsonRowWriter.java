@@ -0,0 +1,37 @@
+package ru.ac.checkpointmanager.service.export.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * JSON-объекты по одному в строке, сериализуются настройками {@link ObjectMapper} ответов API.
+ * Поток не сбрасывается после каждой строки, данные уходят клиенту по заполнению буфера
+ */
+class NdjsonRowWriter<T> implements ExportRowWriter<T> {
+
+    private final ObjectWriter objectWriter;
+
+    private final JsonGenerator generator;
+
+    NdjsonRowWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+        this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void write(T row) throws IOException {
+        objectWriter.writeValue(generator, row);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -3,6 +3,7 @@ package ru.ac.checkpointmanager.service.passes;
 import org.springframework.lang.NonNull;
 import ru.ac.checkpointmanager.model.checkpoints.Checkpoint;
 import ru.ac.checkpointmanager.model.passes.Pass;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
 
 import java.util.UUID;
 
@@ -16,5 +17,11 @@ public interface PassChecker {
 
     void checkPassAndCheckpointCompatibility(Pass pass, Checkpoint checkpoint);
 
+    void checkPassActivity(PassCrossingView pass);
+
+    void checkPassAndCheckpointTerritories(PassCrossingView pass);
+
+    void checkPassAndCheckpointCompatibility(PassCrossingView pass);
+
     void isPassUpdatable(@NonNull Pass pass);
 }
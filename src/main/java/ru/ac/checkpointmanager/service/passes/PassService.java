@@ -1,6 +1,8 @@
 package ru.ac.checkpointmanager.service.passes;
 
 import org.springframework.data.domain.Page;
+import ru.ac.checkpointmanager.dto.passes.CursorPage;
+import ru.ac.checkpointmanager.dto.passes.CursorParams;
 import ru.ac.checkpointmanager.dto.passes.PassFilterParams;
 import ru.ac.checkpointmanager.dto.passes.PagingParams;
 import ru.ac.checkpointmanager.dto.passes.PassCreateDTO;
@@ -27,6 +29,17 @@ public interface PassService {
     Page<PassResponseDTO> findPassesByUsersTerritories(UUID userId, PagingParams pagingParams, PassFilterParams passFilterParams,
                                                        String part);
 
+    CursorPage<PassResponseDTO> scrollPasses(CursorParams cursorParams, PassFilterParams passFilterParams, String part);
+
+    CursorPage<PassResponseDTO> scrollPassesByUser(UUID userId, CursorParams cursorParams,
+                                                   PassFilterParams passFilterParams, String part);
+
+    CursorPage<PassResponseDTO> scrollPassesByTerritory(UUID terId, CursorParams cursorParams,
+                                                        PassFilterParams passFilterParams, String part);
+
+    CursorPage<PassResponseDTO> scrollPassesByUsersTerritories(UUID userId, CursorParams cursorParams,
+                                                               PassFilterParams passFilterParams, String part);
+
     PassResponseDTO updatePass(PassUpdateDTO passUpdateDTO);
 
     PassResponseDTO cancelPass(UUID id);
@@ -0,0 +1,16 @@
+package ru.ac.checkpointmanager.service.passes;
+
+import ru.ac.checkpointmanager.model.passes.Pass;
+
+import java.util.UUID;
+
+public interface PassStatusTimer {
+
+    void schedule(Pass pass);
+
+    void cancel(UUID passId);
+
+    void reload();
+
+    int size();
+}
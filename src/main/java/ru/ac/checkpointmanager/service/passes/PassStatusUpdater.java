@@ -0,0 +1,20 @@
+package ru.ac.checkpointmanager.service.passes;
+
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public interface PassStatusUpdater {
+
+    List<UUID> activateDelayedPasses(LocalDateTime time);
+
+    Map<PassStatus, List<UUID>> resolveExpiredPasses(LocalDateTime time);
+
+    List<UUID> activateDelayedPasses(Collection<UUID> passIds, LocalDateTime time);
+
+    Map<PassStatus, List<UUID>> resolveExpiredPasses(Collection<UUID> passIds, LocalDateTime time);
+}
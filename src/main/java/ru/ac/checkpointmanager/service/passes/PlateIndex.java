@@ -0,0 +1,20 @@
+package ru.ac.checkpointmanager.service.passes;
+
+import ru.ac.checkpointmanager.dto.passes.PlateIndexCheckDTO;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+
+public interface PlateIndex {
+
+    Set<UUID> findActivePassIds(UUID territoryId, String licensePlate);
+
+    void refreshPasses(Collection<UUID> passIds);
+
+    void refreshCar(UUID carId);
+
+    PlateIndexCheckDTO check();
+
+    int size();
+}
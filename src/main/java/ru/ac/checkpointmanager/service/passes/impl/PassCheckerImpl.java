@@ -14,7 +14,9 @@ import ru.ac.checkpointmanager.model.checkpoints.Checkpoint;
 import ru.ac.checkpointmanager.model.checkpoints.CheckpointType;
 import ru.ac.checkpointmanager.model.passes.Pass;
 import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
 import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.service.access.AccessService;
 import ru.ac.checkpointmanager.service.passes.PassChecker;
 
 import java.util.UUID;
@@ -26,9 +28,12 @@ public class PassCheckerImpl implements PassChecker {
 
     private final PassRepository passRepository;
 
+    private final AccessService accessService;
+
     /**
      * Проверяет связь пользователя и территории,
-     * которая означает право пользователя создавать пропуска на указанную территорию
+     * которая означает право пользователя создавать пропуска на указанную территорию.
+     * Результат проверки в HTTP запросе общий с проверками доступа
      *
      * @param userId      id пользователя
      * @param territoryId id территории
@@ -36,7 +41,7 @@ public class PassCheckerImpl implements PassChecker {
      */
     @Override
     public void checkUserTerritoryRelation(UUID userId, UUID territoryId) {
-        if (!passRepository.checkUserTerritoryRelation(userId, territoryId)) {
+        if (!accessService.isTerritoryMember(userId, territoryId)) {
             log.warn(ExceptionUtils.USER_TER_REL_MSG.formatted(userId, territoryId));
             throw new UserTerritoryRelationException(ExceptionUtils.USER_TER_REL_MSG.formatted(userId, territoryId));
         }
@@ -51,10 +56,7 @@ public class PassCheckerImpl implements PassChecker {
      */
     @Override
     public void checkPassActivity(Pass pass) {
-        if (pass.getStatus() != PassStatus.ACTIVE) {
-            log.warn(ExceptionUtils.INACTIVE_PASS.formatted(pass.getId()));
-            throw new InactivePassException(ExceptionUtils.INACTIVE_PASS.formatted(pass.getId()));
-        }
+        checkPassActivity(pass.getId(), pass.getStatus());
     }
 
     /**
@@ -68,26 +70,43 @@ public class PassCheckerImpl implements PassChecker {
     public void checkPassAndCheckpointTerritories(Pass pass, Checkpoint checkpoint) {
         Territory checkPointTerritory = checkpoint.getTerritory();
         Territory passTerritory = pass.getTerritory();
-        if (checkPointTerritory == null ||
-                passTerritory == null ||
-                !checkPointTerritory.getId().equals(passTerritory.getId())) {
-            log.warn(ExceptionUtils.PASS_MISMATCHED_TERRITORY.formatted(pass.getId(),
-                    passTerritory != null ? passTerritory.getId() : "null",
-                    checkPointTerritory != null ? checkPointTerritory.getId() : "null"
-            ));
-            throw new MismatchedTerritoryException(ExceptionUtils.PASS_MISMATCHED_TERRITORY.formatted(pass.getId(),
-                    passTerritory != null ? passTerritory.getId() : "null",
-                    checkPointTerritory != null ? checkPointTerritory.getId() : "null"));
-        }
+        checkPassAndCheckpointTerritories(pass.getId(),
+                passTerritory != null ? passTerritory.getId() : null,
+                checkPointTerritory != null ? checkPointTerritory.getId() : null);
     }
 
     @Override
     public void checkPassAndCheckpointCompatibility(Pass pass, Checkpoint checkpoint) {
-        if (checkpoint.getType() != CheckpointType.UNIVERSAL &&
-                !pass.getDtype().equals(checkpoint.getType().toString())) {
-            log.warn("Conflict between the types of pass and checkpoint [pass - %s, %s], [checkpoint - %s, %s]"
-                    .formatted(pass.getId(), pass.getDtype(), checkpoint.getId(), checkpoint.getType()));
-        }
+        checkPassAndCheckpointCompatibility(pass.getId(), pass.getDtype(), checkpoint.getId(), checkpoint.getType());
+    }
+
+    /**
+     * Проверяет активен ли пропуск по данным, полученным для регистрации пересечения
+     *
+     * @param pass данные пропуска
+     * @throws InactivePassException если пропуск не активен
+     */
+    @Override
+    public void checkPassActivity(PassCrossingView pass) {
+        checkPassActivity(pass.getId(), pass.getStatus());
+    }
+
+    /**
+     * Проверяет, принадлежат ли пропуск и чекпоинт одной территории
+     * по данным, полученным для регистрации пересечения
+     *
+     * @param pass данные пропуска и чекпоинта
+     * @throws MismatchedTerritoryException если территория пропуск не соответствует территории чекпоинта
+     */
+    @Override
+    public void checkPassAndCheckpointTerritories(PassCrossingView pass) {
+        checkPassAndCheckpointTerritories(pass.getId(), pass.getTerritoryId(), pass.getCheckpointTerritoryId());
+    }
+
+    @Override
+    public void checkPassAndCheckpointCompatibility(PassCrossingView pass) {
+        checkPassAndCheckpointCompatibility(pass.getId(), pass.getDtype(), pass.getCheckpointId(),
+                pass.getCheckpointType());
     }
 
     @Override
@@ -98,4 +117,34 @@ public class PassCheckerImpl implements PassChecker {
             throw new ModifyPassException(ExceptionUtils.PASS_NOT_UPDATE.formatted(pass.getId(), passStatus));
         }
     }
+
+    private void checkPassActivity(UUID passId, PassStatus status) {
+        if (status != PassStatus.ACTIVE) {
+            log.warn(ExceptionUtils.INACTIVE_PASS.formatted(passId));
+            throw new InactivePassException(ExceptionUtils.INACTIVE_PASS.formatted(passId));
+        }
+    }
+
+    private void checkPassAndCheckpointTerritories(UUID passId, UUID passTerritoryId, UUID checkpointTerritoryId) {
+        if (checkpointTerritoryId == null ||
+                passTerritoryId == null ||
+                !checkpointTerritoryId.equals(passTerritoryId)) {
+            log.warn(ExceptionUtils.PASS_MISMATCHED_TERRITORY.formatted(passId,
+                    passTerritoryId != null ? passTerritoryId : "null",
+                    checkpointTerritoryId != null ? checkpointTerritoryId : "null"
+            ));
+            throw new MismatchedTerritoryException(ExceptionUtils.PASS_MISMATCHED_TERRITORY.formatted(passId,
+                    passTerritoryId != null ? passTerritoryId : "null",
+                    checkpointTerritoryId != null ? checkpointTerritoryId : "null"));
+        }
+    }
+
+    private void checkPassAndCheckpointCompatibility(UUID passId, String dtype, UUID checkpointId,
+                                                     CheckpointType checkpointType) {
+        if (checkpointType != CheckpointType.UNIVERSAL &&
+                !dtype.equals(checkpointType.toString())) {
+            log.warn("Conflict between the types of pass and checkpoint [pass - %s, %s], [checkpoint - %s, %s]"
+                    .formatted(passId, dtype, checkpointId, checkpointType));
+        }
+    }
 }
@@ -10,13 +10,19 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ac.checkpointmanager.dto.passes.CursorPage;
+import ru.ac.checkpointmanager.dto.passes.CursorParams;
 import ru.ac.checkpointmanager.dto.passes.PassFilterParams;
 import ru.ac.checkpointmanager.dto.passes.PagingParams;
 import ru.ac.checkpointmanager.dto.passes.PassCreateDTO;
 import ru.ac.checkpointmanager.dto.passes.PassResponseDTO;
 import ru.ac.checkpointmanager.dto.passes.PassUpdateDTO;
 import ru.ac.checkpointmanager.exception.ExceptionUtils;
+import ru.ac.checkpointmanager.exception.InvalidCursorException;
 import ru.ac.checkpointmanager.exception.TerritoryNotFoundException;
 import ru.ac.checkpointmanager.exception.UserNotFoundException;
 import ru.ac.checkpointmanager.exception.pass.ModifyPassException;
@@ -26,21 +32,29 @@ import ru.ac.checkpointmanager.mapper.PassMapper;
 import ru.ac.checkpointmanager.model.Crossing;
 import ru.ac.checkpointmanager.model.User;
 import ru.ac.checkpointmanager.model.passes.Pass;
-import ru.ac.checkpointmanager.model.passes.PassConstant;
+import ru.ac.checkpointmanager.model.passes.PassAuto;
 import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.model.passes.PassWalk;
 import ru.ac.checkpointmanager.repository.CrossingRepository;
 import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
 import ru.ac.checkpointmanager.service.passes.PassChecker;
 import ru.ac.checkpointmanager.service.passes.PassResolver;
 import ru.ac.checkpointmanager.service.passes.PassService;
+import ru.ac.checkpointmanager.service.passes.PassStatusTimer;
+import ru.ac.checkpointmanager.service.passes.PassStatusUpdater;
+import ru.ac.checkpointmanager.service.passes.PlateIndex;
 import ru.ac.checkpointmanager.service.territories.TerritoryService;
 import ru.ac.checkpointmanager.service.user.UserService;
 import ru.ac.checkpointmanager.specification.PassSpecification;
+import ru.ac.checkpointmanager.utils.CursorUtils;
+import ru.ac.checkpointmanager.utils.SingleFlight;
 import ru.ac.checkpointmanager.utils.TerritoryUtils;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static ru.ac.checkpointmanager.utils.StringTrimmer.trimThemAll;
@@ -60,6 +74,7 @@ public class PassServiceImpl implements PassService {
     private static final String PASS_NOT_ACTIVATED = "Pass [%s] cannot be activated (%s)";
     private static final String PASS_STATUS = "Pass [{}], changed status on {}";
     private static final String PASS_STATUS_CROSS = "Pass [{}], exist {} crossings, changed status on {}";
+    private static final Set<PassStatus> OVERLAP_CHECK_STATUSES = EnumSet.of(PassStatus.ACTIVE, PassStatus.DELAYED);
 
     private final PassRepository passRepository;
     private final CrossingRepository crossingRepository;
@@ -68,6 +83,16 @@ public class PassServiceImpl implements PassService {
     private final PassMapper mapper;
     private final PassResolver passResolver;
     private final PassChecker passChecker;
+    private final PassStatusUpdater passStatusUpdater;
+    private final PlateIndex plateIndex;
+    private final PassStatusTimer passStatusTimer;
+    private final LiveEventService liveEventService;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Одновременные запросы одного пропуска читают его из БД один раз
+     */
+    private final SingleFlight<UUID, PassResponseDTO> passLoads = new SingleFlight<>();
 
     private int hourForLogInScheduledCheck;
 
@@ -90,6 +115,9 @@ public class PassServiceImpl implements PassService {
         pass.setId(UUID.randomUUID());
         Pass savedPass = passRepository.save(pass);
         log.info("Pass saved [{}]", savedPass);
+        refreshPlateIndex(savedPass);
+        passStatusTimer.schedule(savedPass);
+        publishStatus(savedPass);
 
         return mapper.toPassDTO(savedPass);
     }
@@ -116,9 +144,20 @@ public class PassServiceImpl implements PassService {
         return foundPasses.map(mapper::toPassDTO);
     }
 
+    /**
+     * Поиск пропуска по id. Вне транзакции одновременные запросы одного пропуска объединяются:
+     * пропуск читает один запрос в своей транзакции, остальные ждут его результат, не занимая соединения с БД
+     *
+     * @param id id пропуска
+     * @return {@link PassResponseDTO} дто пропуска
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public PassResponseDTO findById(UUID id) {
-        return mapper.toPassDTO(findPassById(id));
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return mapper.toPassDTO(findPassById(id));
+        }
+        return passLoads.load(id, () -> transactionTemplate.execute(status -> mapper.toPassDTO(findPassById(id))));
     }
 
     @Override
@@ -200,6 +239,82 @@ public class PassServiceImpl implements PassService {
         return foundPasses.map(mapper::toPassDTO);
     }
 
+    /**
+     * Выдача пропусков по курсору с учетом фильтрации и (опционально) частичного совпадения номера авто
+     * и/или имени посетителя. Порядок тот же, что и при постраничной выдаче, но следующая страница
+     * выбирается после ключа сортировки последнего пропуска, а не пропуском offset строк
+     *
+     * @param cursorParams     токен продолжения, размер страницы и признак подсчета общего количества
+     * @param passFilterParams параметры фильтрации
+     * @param part             часть текста по которому будет сравнение
+     * @return {@link CursorPage<PassResponseDTO>} страница с дто пропусков и токеном следующей страницы
+     * @throws InvalidCursorException если токен продолжения не декодируется
+     */
+    @Override
+    public CursorPage<PassResponseDTO> scrollPasses(CursorParams cursorParams, PassFilterParams passFilterParams,
+                                                    String part) {
+        Specification<Pass> spec = PassSpecification.byFilterParams(passFilterParams);
+        return scroll(addByVisitorAndByCarNumberPartSpecIfPartPresent(part, spec), cursorParams);
+    }
+
+    @Override
+    public CursorPage<PassResponseDTO> scrollPassesByUser(UUID userId, CursorParams cursorParams,
+                                                          PassFilterParams passFilterParams, String part) {
+        userService.findById(userId);
+        Specification<Pass> spec = Specification.where(PassSpecification.byUserId(userId))
+                .and(PassSpecification.byFilterParams(passFilterParams));
+        return scroll(addByVisitorAndByCarNumberPartSpecIfPartPresent(part, spec), cursorParams);
+    }
+
+    @Override
+    public CursorPage<PassResponseDTO> scrollPassesByTerritory(UUID terId, CursorParams cursorParams,
+                                                               PassFilterParams passFilterParams, String part) {
+        territoryService.findById(terId);
+        Specification<Pass> spec = Specification.where(PassSpecification.byTerritoryId(terId))
+                .and(PassSpecification.byFilterParams(passFilterParams));
+        return scroll(addByVisitorAndByCarNumberPartSpecIfPartPresent(part, spec), cursorParams);
+    }
+
+    @Override
+    public CursorPage<PassResponseDTO> scrollPassesByUsersTerritories(UUID userId, CursorParams cursorParams,
+                                                                      PassFilterParams passFilterParams, String part) {
+        User user = userService.findUserById(userId);
+        List<UUID> terIds = TerritoryUtils.getTerritoryIdsOrThrow(user, userId);
+        Specification<Pass> spec = terIds.stream()
+                .map(PassSpecification::byTerritoryId)
+                .reduce(Specification::or)
+                .get()
+                .and(PassSpecification.byFilterParams(passFilterParams));
+        return scroll(addByVisitorAndByCarNumberPartSpecIfPartPresent(part, spec), cursorParams);
+    }
+
+    /**
+     * Токен продолжения содержит ранг статуса, время начала и id последнего пропуска страницы.
+     * Выбирается на один пропуск больше размера страницы, чтобы без подсчета узнать, есть ли следующая
+     */
+    private CursorPage<PassResponseDTO> scroll(Specification<Pass> spec, CursorParams cursorParams) {
+        Specification<Pass> pageSpec = spec;
+        String cursor = cursorParams.getCursor();
+        if (cursor != null) {
+            String[] key = CursorUtils.decode(cursor, 3);
+            pageSpec = spec.and(PassSpecification.afterSortKey(
+                    CursorUtils.parse(cursor, key[0], Integer::parseInt),
+                    CursorUtils.parse(cursor, key[1], LocalDateTime::parse),
+                    CursorUtils.parse(cursor, key[2], UUID::fromString)));
+        }
+        int size = cursorParams.getSize();
+        List<Pass> passes = passRepository.findBy(pageSpec, query -> query.limit(size + 1).all());
+        String nextCursor = null;
+        if (passes.size() > size) {
+            passes = passes.subList(0, size);
+            Pass last = passes.get(size - 1);
+            nextCursor = CursorUtils.encode(PassSpecification.statusRank(last.getStatus()), last.getStartTime(),
+                    last.getId());
+        }
+        Long total = cursorParams.isWithTotal() ? passRepository.count(spec) : null;
+        return new CursorPage<>(passes.stream().map(mapper::toPassDTO).toList(), nextCursor, total);
+    }
+
     @Override
     @Transactional
     @NonNull
@@ -225,6 +340,10 @@ public class PassServiceImpl implements PassService {
 
         Pass updatedPass = passRepository.save(existPass);
         log.info("Pass updated: {}", updatedPass);
+        if (updatedPass instanceof PassAuto passAuto) {
+            plateIndex.refreshCar(passAuto.getCar().getId());
+        }
+        passStatusTimer.schedule(updatedPass);
 
         return mapper.toPassDTO(updatedPass);
     }
@@ -254,6 +373,9 @@ public class PassServiceImpl implements PassService {
 
         pass = passRepository.save(pass);
         log.info(PASS_STATUS_CROSS, id, passCrossings.size(), targetStatus);
+        refreshPlateIndex(pass);
+        passStatusTimer.schedule(pass);
+        publishStatus(pass);
         return mapper.toPassDTO(pass);
     }
 
@@ -280,6 +402,9 @@ public class PassServiceImpl implements PassService {
         }
         Pass activatedPass = passRepository.save(pass);
         log.info(PASS_STATUS, pass.getId(), pass.getStatus());
+        refreshPlateIndex(pass);
+        passStatusTimer.schedule(activatedPass);
+        publishStatus(activatedPass);
 
         return mapper.toPassDTO(activatedPass);
     }
@@ -296,6 +421,7 @@ public class PassServiceImpl implements PassService {
         pass.setStatus(PassStatus.COMPLETED);
         Pass completedPass = passRepository.save(pass);
         log.info(PASS_STATUS, pass.getId(), pass.getStatus());
+        publishStatus(completedPass);
 
         return mapper.toPassDTO(completedPass);
     }
@@ -321,113 +447,93 @@ public class PassServiceImpl implements PassService {
     @Override
     @Transactional
     public void deletePass(UUID id) {
-        findPassById(id);
+        Pass pass = findPassById(id);
         passRepository.deleteById(id);
         log.info("Pass [{}] successfully deleted", id);
+        refreshPlateIndex(pass);
+        passStatusTimer.cancel(id);
     }
 
     /**
+     * Проверяет перекрытие пропуска с уже существующими. Из БД выбираются только id активных и отложенных
+     * пропусков того же типа, пользователя, территории и авто/посетителя, с пересекающимся временем действия,
+     * история пропусков пользователя в память не загружается
+     *
      * @param newPass добавляемый или изменяемый пропуск
      * @throws OverlapPassException, если в системе существует другой активный пропуск,
      *                               созданный тем же юзером, в котором совпадает территория, данные машины/человека
      *                               и пересекается (накладывается) время действия
      */
     void checkOverlapTime(Pass newPass) {
-        List<Pass> passesByUser = passRepository.findAllPassesByUserId(newPass.getUser().getId());
-
-        Optional<Pass> overlapPass = passesByUser.stream()
-                .filter(existPass -> existPass.getClass().equals(newPass.getClass()))
-                .filter(existPass -> existPass.getStatus().equals(PassStatus.ACTIVE) ||
-                        existPass.getStatus().equals(PassStatus.DELAYED))
-                .filter(existPass -> existPass.compareByFields(newPass))
-                .findFirst();
-
-        if (overlapPass.isPresent()) {
-            log.info(ExceptionUtils.OVERLAP_PASS.formatted(newPass.getUser().getId(), overlapPass.get().getId()));
-            throw new OverlapPassException(ExceptionUtils.OVERLAP_PASS.formatted(newPass.getUser().getId(), overlapPass.get().getId()));
+        UUID userId = newPass.getUser().getId();
+        UUID territoryId = newPass.getTerritory().getId();
+        List<UUID> overlapPassIds;
+        if (newPass instanceof PassAuto passAuto) {
+            overlapPassIds = passRepository.findOverlappingPassAutoIds(newPass.getId(), userId, territoryId,
+                    passAuto.getCar().getLicensePlate(), newPass.getStartTime(), newPass.getEndTime(),
+                    OVERLAP_CHECK_STATUSES);
+        } else if (newPass instanceof PassWalk passWalk) {
+            overlapPassIds = passRepository.findOverlappingPassWalkIds(newPass.getId(), userId, territoryId,
+                    passWalk.getVisitor().getName(), newPass.getStartTime(), newPass.getEndTime(),
+                    OVERLAP_CHECK_STATUSES);
+        } else {
+            return;
+        }
+
+        if (!overlapPassIds.isEmpty()) {
+            log.info(ExceptionUtils.OVERLAP_PASS.formatted(userId, overlapPassIds.get(0)));
+            throw new OverlapPassException(ExceptionUtils.OVERLAP_PASS.formatted(userId, overlapPassIds.get(0)));
         }
     }
 
     /**
-     * Каждую минуту 00 секунд запускает проверку отложенных и активных пропусков с целью актуализации их статусов
+     * Сверка статусов отложенных и активных пропусков с базой, по умолчанию раз в пять минут.
+     * <p>
+     * Статусы в момент наступления времени начала и окончания меняет {@link PassStatusTimer}, сверка переводит
+     * пропуски, пропущенные таймером (созданные на другом экземпляре приложения, не обработанные из-за ошибки),
+     * и заново загружает сроки пропусков в таймер.
+     * <p>
+     * Сверка выполняется вне транзакции: пропуски обрабатываются порциями в коротких транзакциях
+     * с захватом строк через SKIP LOCKED, поэтому экземпляры приложения делят работу между собой,
+     * а прерванная сверка продолжается следующим запуском.
+     * Пропуска с измененным статусом обновляются в индексе номеров и рассылаются подписчикам
+     * после обработки всех порций
      *
-     * @see PassServiceImpl#updateDelayedPassesOnStartTimeReached
-     * @see PassServiceImpl#updateActivePassesOnEndTimeReached
+     * @see PassStatusUpdater#activateDelayedPasses
+     * @see PassStatusUpdater#resolveExpiredPasses
      */
-    @Scheduled(cron = "0 * * * * ?")
-    @Transactional
+    @Scheduled(cron = "${app.pass-timer.reconcile-cron:0 */5 * * * ?}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void updatePassStatusByScheduler() {
-        if (LocalDateTime.now().getHour() != hourForLogInScheduledCheck) {
-            hourForLogInScheduledCheck = LocalDateTime.now().getHour();
+        LocalDateTime now = LocalDateTime.now();
+        if (now.getHour() != hourForLogInScheduledCheck) {
+            hourForLogInScheduledCheck = now.getHour();
             log.debug("Scheduled method for update passes state continues to work");
         }
 
-        updateDelayedPassesOnStartTimeReached();
-        updateActivePassesOnEndTimeReached();
+        List<UUID> activated = passStatusUpdater.activateDelayedPasses(now);
+        plateIndex.refreshPasses(activated);
+        liveEventService.publishPassStatuses(activated);
+        passStatusUpdater.resolveExpiredPasses(now).values().forEach(ids -> {
+            plateIndex.refreshPasses(ids);
+            liveEventService.publishPassStatuses(ids);
+        });
+        passStatusTimer.reload();
     }
 
     /**
-     * Обновляет статусы отложенных пропусков, время начала которых уже наступило, делая их активными
-     * (условие - время начала меньше текущего времени плюс одна минута -
-     * т.к. зафиксированные значения времени не кратны минуте, а содержат также секунды и миллисекунды,
-     * то такое условие обеспечивает активацию пропуска чуть заранее - зазор может составить до одной минуты.
-     * В противном случае мы бы имели наоборот запаздывание активации длительностью до минуты)
-     *
-     * @see PassStatus
+     * Смена статуса рассылается подписчикам территории после коммита
      */
-    private void updateDelayedPassesOnStartTimeReached() {
-        PassStatus sourceStatus = PassStatus.DELAYED;
-        PassStatus targetStatus = PassStatus.ACTIVE;
-
-        List<Pass> passes = passRepository.findPassesByStatusAndTimeBefore(sourceStatus,
-                PassConstant.START_TIME, LocalDateTime.now().plusMinutes(1));
-        if (passes.isEmpty()) {
-            return;
-        }
-        log.info("Check passes - startTime reached on {} delayed pass(es)", passes.size());
-
-        for (Pass pass : passes) {
-            pass.setStatus(targetStatus);
-            passRepository.save(pass);
-            log.debug(PASS_STATUS, pass.getId(), targetStatus);
-        }
+    private void publishStatus(Pass pass) {
+        liveEventService.publishPassStatus(pass.getId(), pass.getTerritory().getId(), pass.getStatus());
     }
 
     /**
-     * Обновляет статусы активных пропусков с истекшим временем действия:
-     * по каждому активному пропуску ищет зафиксированные пересечения:
-     * если пересечений не было, присваивает пропуску статус OUTDATED,
-     * если последнее пересечение было на выезд - COMPLETED,
-     * если на въезд - WARNING
-     *
-     * @see PassStatus
+     * Индекс номеров содержит только пропуска на машину
      */
-    private void updateActivePassesOnEndTimeReached() {
-        PassStatus sourceStatus = PassStatus.ACTIVE;
-        PassStatus targetStatus;
-
-        List<Pass> passes = passRepository.findPassesByStatusAndTimeBefore(sourceStatus,
-                PassConstant.END_TIME, LocalDateTime.now());
-        if (passes.isEmpty()) {
-            return;
-        }
-        log.info("Check passes - endTime reached on {} active pass(es)", passes.size());
-
-        for (Pass pass : passes) {
-            List<Crossing> passCrossings = crossingRepository.findCrossingsByPassId(pass.getId());
-
-            if (passCrossings.isEmpty()) {
-                targetStatus = PassStatus.OUTDATED;
-            } else {
-                targetStatus = switch (pass.getExpectedDirection()) {
-                    case IN -> PassStatus.COMPLETED;
-                    case OUT -> PassStatus.WARNING;
-                };
-            }
-            pass.setStatus(targetStatus);
-
-            passRepository.save(pass);
-            log.info(PASS_STATUS_CROSS, pass.getId(), passCrossings.size(), targetStatus);
+    private void refreshPlateIndex(Pass pass) {
+        if (pass instanceof PassAuto) {
+            plateIndex.refreshPasses(List.of(pass.getId()));
         }
     }
 
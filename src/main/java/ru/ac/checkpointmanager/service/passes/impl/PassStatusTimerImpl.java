@@ -0,0 +1,191 @@
+package ru.ac.checkpointmanager.service.passes.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ac.checkpointmanager.model.passes.Pass;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.projection.PassDeadlineView;
+import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
+import ru.ac.checkpointmanager.service.passes.PassStatusTimer;
+import ru.ac.checkpointmanager.service.passes.PassStatusUpdater;
+import ru.ac.checkpointmanager.service.passes.PlateIndex;
+import ru.ac.checkpointmanager.utils.TimerWheel;
+import ru.ac.checkpointmanager.utils.TransactionUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Смена статусов пропусков точно в момент наступления времени начала и окончания.
+ * <p>
+ * Сроки отложенных (время начала) и активных (время окончания) пропусков хранятся в колесе таймеров
+ * {@link TimerWheel} с тиком в одну секунду, колесо поворачивается каждую секунду. Пропуски, срок которых
+ * наступил, переводятся в новый статус одним UPDATE по их id, после чего их новые сроки заново читаются
+ * из базы: активированный пропуск ставится в колесо на время окончания.
+ * <p>
+ * Колесо обновляется после коммита транзакций, создающих и изменяющих пропуски, и загружается из базы
+ * при старте и при каждой сверке {@link PassServiceImpl#updatePassStatusByScheduler} на horizon вперед.
+ * Сверка остается страховкой: она переводит пропуски, пропущенные колесом, например созданные на другом
+ * экземпляре приложения или не обработанные из-за ошибки. UPDATE изменяет пропуск, только если он еще
+ * в прежнем статусе и его время наступило, поэтому устаревшие сроки в колесе и срабатывание одного пропуска
+ * на нескольких экземплярах приложения не приводят к повторной смене статуса
+ */
+@Service
+@Slf4j
+public class PassStatusTimerImpl implements PassStatusTimer {
+
+    private static final long TICK_MILLIS = 1000;
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final Set<PassStatus> TIMED_STATUSES = Set.of(PassStatus.DELAYED, PassStatus.ACTIVE);
+
+    private final PassRepository passRepository;
+
+    private final PassStatusUpdater passStatusUpdater;
+
+    private final PlateIndex plateIndex;
+
+    private final LiveEventService liveEventService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration horizon;
+
+    /**
+     * Доступ под блокировкой на самом колесе
+     */
+    private final TimerWheel<UUID> wheel = new TimerWheel<>(TICK_MILLIS, System.currentTimeMillis());
+
+    public PassStatusTimerImpl(PassRepository passRepository, PassStatusUpdater passStatusUpdater,
+                               PlateIndex plateIndex, LiveEventService liveEventService,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${app.pass-timer.horizon:PT24H}") Duration horizon) {
+        this.passRepository = passRepository;
+        this.passStatusUpdater = passStatusUpdater;
+        this.plateIndex = plateIndex;
+        this.liveEventService = liveEventService;
+        this.transactionTemplate = transactionTemplate;
+        this.horizon = horizon;
+    }
+
+    /**
+     * Ставит пропуск в колесо на время следующей смены статуса после коммита текущей транзакции,
+     * без транзакции - сразу. Пропуск не в статусе DELAYED или ACTIVE убирается из колеса
+     *
+     * @param pass созданный или измененный пропуск
+     */
+    @Override
+    public void schedule(Pass pass) {
+        PassDeadlineView view = new PassDeadlineView(pass.getId(), pass.getStatus(), pass.getStartTime(),
+                pass.getEndTime());
+        afterCommit(() -> scheduleLocal(view));
+    }
+
+    /**
+     * Убирает пропуск из колеса после коммита текущей транзакции, без транзакции - сразу
+     *
+     * @param passId id удаленного пропуска
+     */
+    @Override
+    public void cancel(UUID passId) {
+        afterCommit(() -> {
+            synchronized (wheel) {
+                wheel.cancel(passId);
+            }
+        });
+    }
+
+    /**
+     * Загружает из базы пропуски, статус которых сменится в пределах horizon. Сроки пропусков, уже
+     * находящихся в колесе, обновляются, остальные пропуски в колесе не затрагиваются
+     */
+    @Override
+    public void reload() {
+        List<PassDeadlineView> deadlines = passRepository.findDeadlinesBefore(LocalDateTime.now().plus(horizon),
+                PassStatus.DELAYED, PassStatus.ACTIVE);
+        deadlines.forEach(this::scheduleLocal);
+        log.debug("Pass timer reloaded: {} deadlines within {}, {} passes scheduled", deadlines.size(), horizon,
+                size());
+    }
+
+    @Override
+    public int size() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        reload();
+        log.info("Pass timer built: {} passes scheduled within {}", size(), horizon);
+    }
+
+    /**
+     * Поворачивает колесо и меняет статус пропусков, срок которых наступил. При ошибке пропуски
+     * из колеса не возвращаются, их статус сменит ближайшая сверка
+     */
+    @Scheduled(fixedRateString = "${app.pass-timer.tick-interval:PT1S}")
+    public void fire() {
+        List<UUID> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            for (int from = 0; from < due.size(); from += BATCH_SIZE) {
+                List<UUID> batch = due.subList(from, Math.min(from + BATCH_SIZE, due.size()));
+                transactionTemplate.executeWithoutResult(status -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    List<UUID> activated = passStatusUpdater.activateDelayedPasses(batch, now);
+                    plateIndex.refreshPasses(activated);
+                    liveEventService.publishPassStatuses(activated);
+                    passStatusUpdater.resolveExpiredPasses(batch, now).values().forEach(ids -> {
+                        plateIndex.refreshPasses(ids);
+                        liveEventService.publishPassStatuses(ids);
+                    });
+                });
+                passRepository.findDeadlinesByIds(batch, TIMED_STATUSES).forEach(this::scheduleLocal);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to change status of {} pass(es) by timer, they will be changed by the next check",
+                    due.size(), e);
+        }
+    }
+
+    private void scheduleLocal(PassDeadlineView view) {
+        LocalDateTime deadline = view.deadline();
+        synchronized (wheel) {
+            if (deadline == null) {
+                wheel.cancel(view.id());
+            } else {
+                wheel.schedule(view.id(), toMillis(deadline));
+            }
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Если обновление таймера после коммита не удалось, пропуск переведет ближайшая сверка
+     */
+    private static void afterCommit(Runnable action) {
+        TransactionUtils.afterCommit(action, e ->
+                log.error("Failed to update pass timer, pass status will be changed by the next check", e));
+    }
+}
@@ -0,0 +1,147 @@
+package ru.ac.checkpointmanager.service.passes.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.projection.PassStatusTransition;
+import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.service.passes.PassStatusUpdater;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Массовое (set-based) изменение статусов пропусков по достижении времени начала или окончания.
+ * Каждый переход выполняется UPDATE запросом без загрузки пропусков и их пересечений в память.
+ * <p>
+ * Все пропуски с наступившим временем обрабатываются порциями по chunkSize, каждая порция - в своей
+ * короткой транзакции. Порция захватывается через FOR UPDATE SKIP LOCKED, поэтому несколько экземпляров
+ * приложения, запустивших обработку одновременно, делят пропуски между собой без ожидания блокировок,
+ * и каждый пропуск меняет статус (и попадает в лог) ровно на одном экземпляре. После падения экземпляра
+ * посреди обработки закоммиченные порции сохраняются, незакоммиченная откатывается и ее блокировки
+ * снимаются, оставшиеся пропуски обработает следующий запуск на любом экземпляре.
+ * Методы обработки порциями нужно вызывать вне транзакции, иначе порции выполняются в ней
+ */
+@Component
+@Slf4j
+public class PassStatusUpdaterImpl implements PassStatusUpdater {
+
+    private final PassRepository passRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    public PassStatusUpdaterImpl(PassRepository passRepository, TransactionTemplate transactionTemplate,
+                                 @Value("${app.pass-timer.reconcile-chunk-size:1000}") int chunkSize) {
+        this.passRepository = passRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Переводит отложенные пропуски, время начала которых наступило, в статус ACTIVE порциями по chunkSize
+     *
+     * @param time дата и время, до которого должно наступить время начала пропуска
+     * @return список id пропусков, активированных этим вызовом
+     */
+    @Override
+    public List<UUID> activateDelayedPasses(LocalDateTime time) {
+        List<UUID> activated = new ArrayList<>();
+        List<UUID> chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> passRepository.activateDelayedPasses(time, chunkSize));
+            activated.addAll(chunk);
+        } while (chunk.size() == chunkSize);
+        return logActivated(activated);
+    }
+
+    /**
+     * Переводит в статус ACTIVE указанные отложенные пропуски, время начала которых наступило.
+     * Пропуски в другом статусе или с ненаступившим временем начала не изменяются
+     *
+     * @param passIds id пропусков
+     * @param time    дата и время, до которого должно наступить время начала пропуска
+     * @return список id активированных пропусков
+     */
+    @Override
+    @Transactional
+    public List<UUID> activateDelayedPasses(Collection<UUID> passIds, LocalDateTime time) {
+        if (passIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return logActivated(passRepository.activateDelayedPassesByIds(passIds, time));
+    }
+
+    /**
+     * Переводит активные пропуски с истекшим временем действия в итоговый статус порциями по chunkSize:
+     * если пересечений не было - OUTDATED,
+     * если последнее пересечение было на выезд - COMPLETED,
+     * если на въезд - WARNING
+     *
+     * @param time дата и время, до которого должно наступить время окончания пропуска
+     * @return id пропусков, измененных этим вызовом, сгруппированные по присвоенному статусу
+     */
+    @Override
+    public Map<PassStatus, List<UUID>> resolveExpiredPasses(LocalDateTime time) {
+        List<PassStatusTransition> transitions = new ArrayList<>();
+        List<PassStatusTransition> chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> passRepository.resolveExpiredActivePasses(time, chunkSize));
+            transitions.addAll(chunk);
+        } while (chunk.size() == chunkSize);
+        return groupResolved(transitions);
+    }
+
+    /**
+     * Переводит указанные активные пропуски с истекшим временем действия в итоговый статус,
+     * как {@link #resolveExpiredPasses(LocalDateTime)}. Пропуски в другом статусе или с ненаступившим
+     * временем окончания не изменяются
+     *
+     * @param passIds id пропусков
+     * @param time    дата и время, до которого должно наступить время окончания пропуска
+     * @return id пропусков, сгруппированные по присвоенному статусу
+     */
+    @Override
+    @Transactional
+    public Map<PassStatus, List<UUID>> resolveExpiredPasses(Collection<UUID> passIds, LocalDateTime time) {
+        if (passIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return groupResolved(passRepository.resolveExpiredActivePassesByIds(passIds, time));
+    }
+
+    private List<UUID> logActivated(List<UUID> activated) {
+        if (!activated.isEmpty()) {
+            log.info("Check passes - startTime reached on {} delayed pass(es)", activated.size());
+            log.debug("Passes {}, changed status on {}", activated, PassStatus.ACTIVE);
+        }
+        return activated;
+    }
+
+    private Map<PassStatus, List<UUID>> groupResolved(List<PassStatusTransition> transitions) {
+        if (transitions.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<PassStatus, List<UUID>> resolved = transitions.stream()
+                .collect(Collectors.groupingBy(PassStatusTransition::getStatus,
+                        () -> new EnumMap<>(PassStatus.class),
+                        Collectors.mapping(PassStatusTransition::getId, Collectors.toList())));
+        log.info("Check passes - endTime reached on {} active pass(es)", transitions.size());
+        resolved.forEach((status, ids) -> {
+            log.info("Check passes - {} pass(es) changed status on {}", ids.size(), status);
+            log.debug("Passes {}, changed status on {}", ids, status);
+        });
+        return resolved;
+    }
+}
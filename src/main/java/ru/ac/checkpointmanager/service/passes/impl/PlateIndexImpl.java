@@ -0,0 +1,228 @@
+package ru.ac.checkpointmanager.service.passes.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.ac.checkpointmanager.dto.passes.PlateIndexCheckDTO;
+import ru.ac.checkpointmanager.projection.ActivePassPlateView;
+import ru.ac.checkpointmanager.repository.ActivePassPlateRepository;
+import ru.ac.checkpointmanager.service.passes.PlateIndex;
+import ru.ac.checkpointmanager.utils.LicensePlateUtils;
+import ru.ac.checkpointmanager.utils.TransactionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Индекс активных пропусков на машину по территории и нормализованному номеру машины
+ * для распознавания номеров камерами КПП.
+ * <p>
+ * Чтение идет без блокировок: множества id пропусков в индексе не изменяются, а заменяются целиком.
+ * Изменения применяются под общей блокировкой: состояние пропусков заново читается из базы после коммита
+ * транзакции, которая их изменила, поэтому откат транзакции не попадает в индекс.
+ * Индекс строится при старте приложения и периодически сверяется с базой, сверка исправляет расхождения,
+ * например если обновление после коммита не удалось
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlateIndexImpl implements PlateIndex {
+
+    private final ActivePassPlateRepository activePassPlateRepository;
+
+    private final Map<PlateKey, Set<UUID>> passIdsByPlate = new ConcurrentHashMap<>();
+
+    private final Map<UUID, IndexEntry> entriesByPassId = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+
+    /**
+     * Пропуска, обновленные во время чтения базы при сверке, их состояние в индексе новее прочитанного.
+     * Сверки выполняются по одной, доступ под блокировкой lock
+     */
+    private Set<UUID> refreshedDuringCheck;
+
+    /**
+     * @param territoryId  id территории КПП
+     * @param licensePlate номер машины в любом регистре, с разделителями, кириллицей или латиницей
+     * @return id активных пропусков на машину с этим номером на территории, пустое множество если их нет
+     */
+    @Override
+    public Set<UUID> findActivePassIds(UUID territoryId, String licensePlate) {
+        return passIdsByPlate.getOrDefault(new PlateKey(territoryId, LicensePlateUtils.normalize(licensePlate)),
+                Collections.emptySet());
+    }
+
+    /**
+     * Перечитывает из базы состояние пропусков после коммита текущей транзакции,
+     * без транзакции - сразу. Неактивные и удаленные пропуска убираются из индекса
+     *
+     * @param passIds id созданных, измененных или удаленных пропусков
+     */
+    @Override
+    public void refreshPasses(Collection<UUID> passIds) {
+        if (passIds.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = List.copyOf(passIds);
+        afterCommit(() -> refresh(ids));
+    }
+
+    /**
+     * Перечитывает из базы состояние активных пропусков на машину после изменения или удаления машины,
+     * как {@link #refreshPasses}
+     *
+     * @param carId id машины
+     */
+    @Override
+    public void refreshCar(UUID carId) {
+        afterCommit(() -> {
+            Set<UUID> ids = new HashSet<>(activePassPlateRepository.findPassIdsByCarId(carId));
+            entriesByPassId.forEach((passId, entry) -> {
+                if (carId.equals(entry.carId())) {
+                    ids.add(passId);
+                }
+            });
+            refresh(ids);
+        });
+    }
+
+    /**
+     * Сверяет индекс со всеми активными пропусками на машину в базе и исправляет расхождения.
+     * Пропуска, обновленные во время чтения базы, не сверяются: их состояние в индексе уже актуальнее
+     *
+     * @return количество пропусков в индексе и найденных расхождений
+     */
+    @Override
+    public synchronized PlateIndexCheckDTO check() {
+        long start = System.currentTimeMillis();
+        synchronized (lock) {
+            refreshedDuringCheck = new HashSet<>();
+        }
+        Map<UUID, IndexEntry> actual = new HashMap<>();
+        try {
+            activePassPlateRepository.streamAll(view -> actual.put(view.passId(), toEntry(view)));
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                refreshedDuringCheck = null;
+            }
+            throw e;
+        }
+        int missing = 0;
+        int stale = 0;
+        synchronized (lock) {
+            Set<UUID> skipped = refreshedDuringCheck;
+            refreshedDuringCheck = null;
+            for (Map.Entry<UUID, IndexEntry> entry : actual.entrySet()) {
+                if (!skipped.contains(entry.getKey()) && apply(entry.getKey(), entry.getValue())) {
+                    missing++;
+                }
+            }
+            for (UUID passId : new ArrayList<>(entriesByPassId.keySet())) {
+                if (!actual.containsKey(passId) && !skipped.contains(passId) && apply(passId, null)) {
+                    stale++;
+                }
+            }
+        }
+        PlateIndexCheckDTO result = new PlateIndexCheckDTO(entriesByPassId.size(), missing, stale,
+                System.currentTimeMillis() - start);
+        if (missing > 0 || stale > 0) {
+            log.warn("Plate index repaired: {} missing and {} stale passes, {} passes indexed",
+                    missing, stale, result.getIndexed());
+        } else {
+            log.debug("Plate index is consistent, {} passes indexed", result.getIndexed());
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return entriesByPassId.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        PlateIndexCheckDTO result = check();
+        log.info("Plate index built: {} active auto passes in {} ms", result.getIndexed(), result.getDurationMs());
+    }
+
+    @Scheduled(fixedDelayString = "${app.plate-index.check-interval:PT10M}",
+            initialDelayString = "${app.plate-index.check-interval:PT10M}")
+    public void checkByScheduler() {
+        check();
+    }
+
+    private void refresh(Collection<UUID> passIds) {
+        if (passIds.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            Map<UUID, IndexEntry> actual = new HashMap<>();
+            for (ActivePassPlateView view : activePassPlateRepository.findByPassIds(passIds)) {
+                actual.put(view.passId(), toEntry(view));
+            }
+            for (UUID passId : passIds) {
+                apply(passId, actual.get(passId));
+            }
+            if (refreshedDuringCheck != null) {
+                refreshedDuringCheck.addAll(passIds);
+            }
+        }
+    }
+
+    /**
+     * @return true, если состояние пропуска в индексе изменилось
+     */
+    private boolean apply(UUID passId, IndexEntry entry) {
+        IndexEntry previous = entry == null ? entriesByPassId.remove(passId) : entriesByPassId.put(passId, entry);
+        if (Objects.equals(previous, entry)) {
+            return false;
+        }
+        if (previous != null) {
+            passIdsByPlate.computeIfPresent(previous.key(), (key, ids) -> {
+                Set<UUID> rest = new HashSet<>(ids);
+                rest.remove(passId);
+                return rest.isEmpty() ? null : Set.copyOf(rest);
+            });
+        }
+        if (entry != null) {
+            passIdsByPlate.merge(entry.key(), Set.of(passId), (ids, added) -> {
+                Set<UUID> all = new HashSet<>(ids);
+                all.add(passId);
+                return Set.copyOf(all);
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Если обновление после коммита не удалось, индекс исправит ближайшая сверка
+     */
+    private static void afterCommit(Runnable action) {
+        TransactionUtils.afterCommit(action, e ->
+                log.error("Failed to refresh plate index, it will be repaired by the next check", e));
+    }
+
+    private static IndexEntry toEntry(ActivePassPlateView view) {
+        return new IndexEntry(new PlateKey(view.territoryId(), LicensePlateUtils.normalize(view.licensePlate())),
+                view.carId());
+    }
+
+    private record PlateKey(UUID territoryId, String licensePlate) {
+    }
+
+    private record IndexEntry(PlateKey key, UUID carId) {
+    }
+}
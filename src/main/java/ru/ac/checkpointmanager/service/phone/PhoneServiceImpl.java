@@ -37,7 +37,7 @@ public class PhoneServiceImpl implements PhoneService {
     @Override
     @Transactional
     public PhoneDTO createPhoneNumber(PhoneDTO phoneDTO) {
-        log.debug(METHOD_CALLED, MethodLog.getMethodName());
+        log.debug(METHOD_CALLED, MethodLog.caller());
         String cleanedPhone = cleanPhone(phoneDTO.getNumber());
 
         User user = userRepository.findById(phoneDTO.getUserId()).orElseThrow(
@@ -60,11 +60,11 @@ public class PhoneServiceImpl implements PhoneService {
         return phoneMapper.toPhoneDTO(savedPhone);
     }
 
-    @Cacheable(value = "phone", key = "#id")
+    @Cacheable(value = "phone", key = "#id", sync = true)
     @Override
     @Transactional(readOnly = true)
     public PhoneDTO findById(UUID id) {
-        log.debug("Method {}, UUID - {}", MethodLog.getMethodName(), id);
+        log.debug("Method {}, UUID - {}", MethodLog.caller(), id);
         return phoneMapper.toPhoneDTO(findPhoneById(id));
     }
 
@@ -81,7 +81,7 @@ public class PhoneServiceImpl implements PhoneService {
     @Override
     @Transactional
     public PhoneDTO updatePhoneNumber(PhoneDTO phoneDTO) {
-        log.debug(METHOD_CALLED, MethodLog.getMethodName());
+        log.debug(METHOD_CALLED, MethodLog.caller());
         UUID phoneId = phoneDTO.getId();
         Phone foundPhone = phoneRepository.findById(phoneId).orElseThrow(
                 () -> {
@@ -106,7 +106,7 @@ public class PhoneServiceImpl implements PhoneService {
     @Override
     @Transactional
     public void deletePhoneNumber(UUID id) {
-        log.debug("Method {}, UUID - {}", MethodLog.getMethodName(), id);
+        log.debug("Method {}, UUID - {}", MethodLog.caller(), id);
         if (phoneRepository.findById(id).isEmpty()) {
             log.warn(PHONE_NUMBER_NOT_FOUND_LOG, id);
             throw new PhoneNumberNotFoundException(PHONE_NUMBER_NOT_FOUND_MSG.formatted(id));
@@ -118,14 +118,14 @@ public class PhoneServiceImpl implements PhoneService {
     @Override
     @Transactional(readOnly = true)
     public Collection<PhoneDTO> getAll() {
-        log.debug(METHOD_CALLED, MethodLog.getMethodName());
+        log.debug(METHOD_CALLED, MethodLog.caller());
         return phoneMapper.toPhonesDTO(phoneRepository.findAll());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Boolean existsByNumber(String number) {
-        log.debug(METHOD_CALLED, MethodLog.getMethodName());
+        log.debug(METHOD_CALLED, MethodLog.caller());
         return phoneRepository.existsByNumber(number);
     }
 
@@ -3,6 +3,7 @@ package ru.ac.checkpointmanager.service.user;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
@@ -11,7 +12,6 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.mail.MailException;
 import org.springframework.mail.MailSendException;
 import org.springframework.security.access.AccessDeniedException;
@@ -49,10 +49,13 @@ import ru.ac.checkpointmanager.repository.TerritoryRepository;
 import ru.ac.checkpointmanager.repository.UserRepository;
 import ru.ac.checkpointmanager.security.authfacade.AuthFacade;
 import ru.ac.checkpointmanager.security.jwt.JwtService;
+import ru.ac.checkpointmanager.security.principal.PrincipalCache;
+import ru.ac.checkpointmanager.service.access.MembershipIndex;
 import ru.ac.checkpointmanager.service.email.EmailService;
 import ru.ac.checkpointmanager.specification.UserSpecification;
 import ru.ac.checkpointmanager.utils.FieldsValidation;
 import ru.ac.checkpointmanager.utils.MethodLog;
+import ru.ac.checkpointmanager.utils.SearchUtils;
 
 import java.util.Collection;
 import java.util.List;
@@ -94,8 +97,10 @@ public class UserServiceImpl implements UserService {
     private final TerritoryRepository territoryRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
-    private final RedisCacheManager cacheManager;
+    private final CacheManager cacheManager;
     private final JwtService jwtService;
+    private final PrincipalCache principalCache;
+    private final MembershipIndex membershipIndex;
 
     @Qualifier("userAuthFacade")
     private final AuthFacade authFacade;
@@ -107,8 +112,10 @@ public class UserServiceImpl implements UserService {
                            TerritoryRepository territoryRepository,
                            PasswordEncoder passwordEncoder,
                            EmailService emailService,
-                           RedisCacheManager cacheManager,
+                           CacheManager cacheManager,
                            JwtService jwtService,
+                           PrincipalCache principalCache,
+                           MembershipIndex membershipIndex,
                            @Qualifier("userAuthFacade") AuthFacade authFacade) {
         this.userMapper = userMapper;
         this.territoryMapper = territoryMapper;
@@ -119,6 +126,8 @@ public class UserServiceImpl implements UserService {
         this.emailService = emailService;
         this.cacheManager = cacheManager;
         this.jwtService = jwtService;
+        this.principalCache = principalCache;
+        this.membershipIndex = membershipIndex;
         this.authFacade = authFacade;
     }
 
@@ -135,9 +144,9 @@ public class UserServiceImpl implements UserService {
      * @see UserNotFoundException
      */
     @Override
-    @Cacheable(value = "user", key = "#id")
+    @Cacheable(value = "user", key = "#id", sync = true)
     public UserResponseDTO findById(UUID id) {
-        log.debug(METHOD_UUID, MethodLog.getMethodName(), id);
+        log.debug(METHOD_UUID, MethodLog.caller(), id);
         User foundUser = findUserById(id);
         return userMapper.toUserResponseDTO(foundUser);
     }
@@ -157,10 +166,10 @@ public class UserServiceImpl implements UserService {
      * @param userId Уникальный идентификатор пользователя, для которого нужно найти территории.
      * @return Список {@link TerritoryDTO}, представляющий территории пользователя.
      */
-    @Cacheable(value = "user-territory", key = "#userId")
+    @Cacheable(value = "user-territory", key = "#userId", sync = true)
     @Override
     public List<TerritoryDTO> findTerritoriesByUserId(UUID userId) {
-        log.debug(METHOD_UUID, MethodLog.getMethodName(), userId);
+        log.debug(METHOD_UUID, MethodLog.caller(), userId);
         List<Territory> territories = findTerritoriesByUser(userId);
         return territoryMapper.toTerritoriesDTO(territories);
     }
@@ -173,9 +182,12 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public List<TerritoryDTO> findCommonTerritoriesByUserId(UUID userId) {
-        log.debug(METHOD_UUID, MethodLog.getMethodName(), userId);
+        log.debug(METHOD_UUID, MethodLog.caller(), userId);
         UUID currentUserid = authFacade.getCurrentUser().getId();
-        List<Territory> commonTerritories = territoryRepository.findCommonTerritories(userId, currentUserid);
+        List<UUID> commonTerritoryIds = membershipIndex.findCommonTerritoryIds(userId, currentUserid);
+        List<Territory> commonTerritories = commonTerritoryIds.isEmpty()
+                ? List.of()
+                : territoryRepository.findAllById(commonTerritoryIds);
         return territoryMapper.toTerritoriesDTO(commonTerritories);
     }
 
@@ -194,9 +206,9 @@ public class UserServiceImpl implements UserService {
     @Cacheable(value = "user", key = "#name")
     @Override
     public Collection<UserResponseDTO> findByName(String name) {
-        log.info("Method {} was invoked", MethodLog.getMethodName());
+        log.info("Method {} was invoked", MethodLog.caller());
         return userMapper.toUserResponseDTOs(userRepository
-                .findUserByFullNameContainingIgnoreCase(name));
+                .searchByFullName(SearchUtils.containsIgnoreCasePattern(name)));
     }
 
     @Override
@@ -262,6 +274,7 @@ public class UserServiceImpl implements UserService {
             }
         }
         userRepository.save(foundUser);
+        principalCache.invalidate(foundUser.getId());
         log.info("[User {}] updated", foundUser.getId());
 
         return userMapper.toUserResponseDTO(foundUser);
@@ -276,6 +289,8 @@ public class UserServiceImpl implements UserService {
      * подтверждение; в случае несовпадения также выбрасывается исключение. После успешной проверки пароль пользователя
      * обновляется.
      * <p>
+     * Пользователь читается из базы: в контексте безопасности хранится снимок из {@link PrincipalCache} без пароля.
+     * <p>
      *
      * @param request Объект {@link NewPasswordDTO}, содержащий текущий и новый пароли.
      * @throws PasswordConfirmationException    если новый пароль и его подтверждение не совпадают.
@@ -285,8 +300,13 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void changePassword(NewPasswordDTO request) {
-        User user = authFacade.getCurrentUser();
-        log.debug("Method {}, Username - {}", MethodLog.getMethodName(), user.getUsername());
+        UUID userId = authFacade.getCurrentUser().getId();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> {
+                    log.warn(USER_NOT_FOUND_MSG.formatted(userId));
+                    return new UserNotFoundException(USER_NOT_FOUND_MSG.formatted(userId));
+                });
+        log.debug("Method {}, Username - {}", MethodLog.caller(), user.getUsername());
 
         if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
             log.warn("Current password not matched for {}", user.getEmail());
@@ -300,6 +320,7 @@ public class UserServiceImpl implements UserService {
 
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
         log.debug("Password for {} successfully changed", user.getEmail());
     }
 
@@ -327,7 +348,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public EmailConfirmationDTO changeEmail(NewEmailDTO request) {
         User user = authFacade.getCurrentUser();
-        log.debug("[Method {}], [Username - {}]", MethodLog.getMethodName(), user.getUsername());
+        log.debug("[Method {}], [Username - {}]", MethodLog.caller(), user.getUsername());
 
         if (userRepository.findByEmail(request.getNewEmail()).isPresent()) {
             log.warn(ExceptionUtils.EMAIL_EXISTS.formatted(request.getNewEmail()));
@@ -372,7 +393,7 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public AuthResponseDTO confirmEmail(String token) {
-        log.debug("[Method {}], [Temporary token {}]", MethodLog.getMethodName(), token);
+        log.debug("[Method {}], [Temporary token {}]", MethodLog.caller(), token);
         Optional<EmailConfirmationDTO> confirmEmail = Optional.ofNullable(
                         cacheManager.getCache("email"))
                 .map(cache -> cache.get(token, EmailConfirmationDTO.class));
@@ -388,6 +409,7 @@ public class UserServiceImpl implements UserService {
             userRepository.save(user);
             log.info("User email updated from {} to {}, [UUID {}]", previousEmail, newEmail, user.getId());
             Objects.requireNonNull(cacheManager.getCache("user")).evict(user.getId());
+            principalCache.invalidate(user.getId());
 
             String accessToken = jwtService.generateAccessToken(user);
             String refreshToken = jwtService.generateRefreshToken(user);
@@ -417,7 +439,7 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void changeRole(UUID id, Role role) {
-        log.debug(METHOD_UUID, MethodLog.getMethodName(), id);
+        log.debug(METHOD_UUID, MethodLog.caller(), id);
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn(USER_NOT_FOUND_MSG.formatted(id));
@@ -439,6 +461,7 @@ public class UserServiceImpl implements UserService {
         }
         existingUser.setRole(role);
         userRepository.save(existingUser);
+        principalCache.invalidate(id);
         log.debug("Role for {} successfully changed", existingUser.getId());
     }
 
@@ -459,7 +482,7 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public UserResponseDTO updateBlockStatus(UUID id, Boolean isBlocked) {
-        log.debug(METHOD_UUID, MethodLog.getMethodName(), id);
+        log.debug(METHOD_UUID, MethodLog.caller(), id);
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn(USER_NOT_FOUND_MSG.formatted(id));
@@ -468,6 +491,7 @@ public class UserServiceImpl implements UserService {
         if (!Objects.equals(existingUser.getIsBlocked(), isBlocked)) {
             existingUser.setIsBlocked(isBlocked);
             userRepository.save(existingUser);
+            principalCache.invalidate(id);
             log.debug("Block status {} for {} successfully changed", isBlocked, id);
         } else {
             log.warn("User {} already has block status {}", id, isBlocked);
@@ -489,11 +513,12 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void blockById(UUID id) {
-        log.debug(METHOD_UUID, MethodLog.getMethodName(), id);
+        log.debug(METHOD_UUID, MethodLog.caller(), id);
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(String.format(USER_NOT_FOUND_MSG, id)));
         if (!existingUser.getIsBlocked()) {
             userRepository.blockById(id);
+            principalCache.invalidate(id);
             log.debug("User {} successfully blocked", id);
         } else {
             log.warn("User {} already blocked", id);
@@ -514,11 +539,12 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void unblockById(UUID id) {
-        log.debug(METHOD_UUID, MethodLog.getMethodName(), id);
+        log.debug(METHOD_UUID, MethodLog.caller(), id);
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(String.format(USER_NOT_FOUND_MSG, id)));
         if (existingUser.getIsBlocked()) {
             userRepository.unblockById(id);
+            principalCache.invalidate(id);
             log.debug("User {} successfully unblocked", id);
         } else {
             log.warn("User {} already unblocked", id);
@@ -539,12 +565,13 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public void deleteUser(UUID id) {
-        log.debug(METHOD_UUID, MethodLog.getMethodName(), id);
+        log.debug(METHOD_UUID, MethodLog.caller(), id);
         if (userRepository.findById(id).isEmpty()) {
             log.warn(USER_NOT_FOUND_MSG.formatted(id));
             throw new UserNotFoundException(USER_NOT_FOUND_MSG.formatted(id));
         }
         userRepository.deleteById(id);
+        principalCache.invalidate(id);
         log.info("User {} successfully deleted", id);
     }
 
@@ -564,7 +591,7 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public Page<UserResponseDTO> getAll(PagingParams pagingParams, UserFilterParams filterParams, String fullNamePart) {
-        log.debug("Method {}", MethodLog.getMethodName());
+        log.debug("Method {}", MethodLog.caller());
         Pageable pageable = PageRequest.of(pagingParams.getPage(), pagingParams.getSize());
         Specification<User> spec = UserSpecification.byFilterParams(filterParams);
         spec = addFullNamePartForSpecification(fullNamePart, spec);
@@ -585,7 +612,7 @@ public class UserServiceImpl implements UserService {
     @Override
     public Page<UserResponseDTO> getTerritoriesAssociatedUsers(PagingParams pagingParams, UserFilterParams filterParams,
                                                                String part) {
-        log.debug("Method {}", MethodLog.getMethodName());
+        log.debug("Method {}", MethodLog.caller());
         UUID currentUserid = authFacade.getCurrentUser().getId();
         Pageable pageable = PageRequest.of(pagingParams.getPage(), pagingParams.getSize());
         Page<User> userPage = userRepository.findTerritoriesAssociatedUsers(currentUserid, pageable);
@@ -609,7 +636,7 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public Collection<String> findUsersPhones(UUID userId) {
-        log.debug("Method {}, UUID {}", MethodLog.getMethodName(), userId);
+        log.debug("Method {}, UUID {}", MethodLog.caller(), userId);
         return phoneRepository.getPhonesByUserId(userId);
     }
 
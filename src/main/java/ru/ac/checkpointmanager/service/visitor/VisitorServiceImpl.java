@@ -10,6 +10,7 @@ import ru.ac.checkpointmanager.exception.VisitorNotFoundException;
 import ru.ac.checkpointmanager.mapper.VisitorMapper;
 import ru.ac.checkpointmanager.model.Visitor;
 import ru.ac.checkpointmanager.repository.VisitorRepository;
+import ru.ac.checkpointmanager.utils.SearchUtils;
 
 import java.util.List;
 import java.util.UUID;
@@ -72,14 +73,14 @@ public class VisitorServiceImpl implements VisitorService {
     @Override
     public List<VisitorDTO> findByNamePart(String name) {
         log.debug("Searching for Visitors with name containing: {}", name);
-        List<Visitor> visitors = visitorRepository.findByNameContainingIgnoreCase(name);
+        List<Visitor> visitors = visitorRepository.searchByName(SearchUtils.containsIgnoreCasePattern(name));
         return visitorMapper.toVisitorDTOS(visitors);
     }
 
     @Override
     public List<VisitorDTO> findByPhonePart(String phone) {
         log.debug("Searching for Visitors with phone containing: {}", phone);
-        List<Visitor> visitors = visitorRepository.findByPhoneContaining(phone);
+        List<Visitor> visitors = visitorRepository.searchByPhone(SearchUtils.containsPattern(phone));
         return visitorMapper.toVisitorDTOS(visitors);
     }
 
@@ -2,10 +2,10 @@ package ru.ac.checkpointmanager.specification;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
-import jakarta.persistence.criteria.Join;
-import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.jpa.domain.Specification;
 import ru.ac.checkpointmanager.dto.passes.PassFilterParams;
@@ -23,7 +23,9 @@ import ru.ac.checkpointmanager.specification.model.Pass_;
 import ru.ac.checkpointmanager.specification.model.Territory_;
 import ru.ac.checkpointmanager.specification.model.User_;
 import ru.ac.checkpointmanager.specification.model.Visitor_;
+import ru.ac.checkpointmanager.utils.SearchUtils;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -31,6 +33,8 @@ import java.util.UUID;
 @Slf4j
 public final class PassSpecification {
 
+    private static final int OTHER_STATUS_RANK = 4;
+
     private PassSpecification() {
         throw new AssertionError("No PassSpecification instances for you!");
     }
@@ -72,20 +76,60 @@ public final class PassSpecification {
             }
 
             if (!query.getResultType().equals(Long.class)) {
-                CriteriaBuilder.Case<Integer> statusCase = cb.selectCase();
-                Expression<Integer> orderExpression = statusCase
-                        .when(cb.equal(root.get(Pass_.STATUS), PassStatus.WARNING), 1)
-                        .when(cb.equal(root.get(Pass_.STATUS), PassStatus.ACTIVE), 2)
-                        .when(cb.equal(root.get(Pass_.STATUS), PassStatus.DELAYED), 3)
-                        .otherwise(4);
-
-                query.orderBy(cb.asc(orderExpression), cb.desc(root.get(Pass_.START_TIME)));
+                query.orderBy(cb.asc(statusRank(root, cb)), cb.desc(root.get(Pass_.START_TIME)),
+                        cb.asc(root.get(Pass_.ID)));
             }
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
 
+    /**
+     * Позиция пропуска в порядке сортировки {@link #byFilterParams}: сначала по статусу (WARNING, ACTIVE,
+     * DELAYED, остальные), затем по убыванию времени начала и по id
+     *
+     * @param status статус пропуска
+     * @return ранг статуса, совпадающий с выражением сортировки
+     */
+    public static int statusRank(PassStatus status) {
+        return switch (status) {
+            case WARNING -> 1;
+            case ACTIVE -> 2;
+            case DELAYED -> 3;
+            default -> OTHER_STATUS_RANK;
+        };
+    }
+
+    /**
+     * Спецификация для выгрузки по курсору: пропуска, которые в порядке сортировки {@link #byFilterParams}
+     * идут после пропуска с переданным ключом
+     *
+     * @param rank      ранг статуса последнего пропуска предыдущей страницы
+     * @param startTime время начала последнего пропуска предыдущей страницы
+     * @param id        id последнего пропуска предыдущей страницы
+     * @return {@link Specification<Pass>} спецификация для генерации SQL
+     */
+    public static Specification<Pass> afterSortKey(int rank, LocalDateTime startTime, UUID id) {
+        return (root, query, cb) -> {
+            Expression<Integer> statusRank = statusRank(root, cb);
+            Path<LocalDateTime> start = root.get(Pass_.START_TIME);
+            Path<UUID> passId = root.get(Pass_.ID);
+            return cb.or(
+                    cb.greaterThan(statusRank, rank),
+                    cb.and(cb.equal(statusRank, rank), cb.or(
+                            cb.lessThan(start, startTime),
+                            cb.and(cb.equal(start, startTime), cb.greaterThan(passId, id)))));
+        };
+    }
+
+    private static Expression<Integer> statusRank(Root<Pass> root, CriteriaBuilder cb) {
+        CriteriaBuilder.Case<Integer> statusCase = cb.selectCase();
+        for (PassStatus status : List.of(PassStatus.WARNING, PassStatus.ACTIVE, PassStatus.DELAYED)) {
+            statusCase = statusCase.when(cb.equal(root.get(Pass_.STATUS), status), statusRank(status));
+        }
+        return statusCase.otherwise(OTHER_STATUS_RANK);
+    }
+
     public static Specification<Pass> byUserId(UUID userId) {
         return (root, query, cb) -> cb.equal(root.get(Pass_.USER).get(User_.ID), userId);
     }
@@ -96,8 +140,9 @@ public final class PassSpecification {
 
     /**
      * Спецификация для создания критерия для поиска пропуска по совпадению номера вложенного автомобиля.
-     * Генерирует запрос с LEFT JOIN если в cars поле license_plate строка содержит переданный
-     * фрагмент строки
+     * Генерирует подзапрос id машин, в номере которых содержится переданный фрагмент строки:
+     * подзапрос читает индекс триграмм по lower(license_plate), в отличие от условия по LEFT JOIN,
+     * объединенного через OR с условием по посетителю
      *
      * @param part фрагмент строки для поиска
      * @return {@link Specification<Pass>} спецификация для генерации SQL
@@ -106,17 +151,20 @@ public final class PassSpecification {
         log.debug("Setting specification for Car for LIKE query with part {}", part);
         return (root, query, criteriaBuilder) -> {
             Root<PassAuto> paRoot = criteriaBuilder.treat(root, PassAuto.class);
-            Join<Car, PassAuto> carJoin = paRoot.join(PassAuto_.CAR, JoinType.LEFT);
-            return criteriaBuilder.like(
-                    criteriaBuilder.lower(carJoin.get(Car_.LICENSE_PLATE)), "%" + part.toLowerCase() + "%");
+            Subquery<UUID> carIds = query.subquery(UUID.class);
+            Root<Car> car = carIds.from(Car.class);
+            carIds.select(car.get(Car_.ID)).where(criteriaBuilder.like(
+                    criteriaBuilder.lower(car.get(Car_.LICENSE_PLATE)),
+                    SearchUtils.containsIgnoreCasePattern(part), SearchUtils.LIKE_ESCAPE));
+            return paRoot.get(PassAuto_.CAR).get(Car_.ID).in(carIds);
         };
     }
 
 
     /**
      * Спецификация для создания критерия для поиска пропуска по совпадению имени вложенного посетителя.
-     * Генерирует запрос с LEFT JOIN если в visitors поле full_name строка содержит переданный
-     * фрагмент строки
+     * Генерирует подзапрос id посетителей, в full_name которых содержится переданный фрагмент строки,
+     * подзапрос читает индекс триграмм по lower(full_name)
      *
      * @param part фрагмент строки для поиска
      * @return {@link Specification<Pass>} спецификация для генерации SQL
@@ -124,10 +172,13 @@ public final class PassSpecification {
     public static Specification<Pass> byVisitorPart(String part) {
         log.debug("Setting specification for Visitor for LIKE query with part {}", part);
         return (root, query, criteriaBuilder) -> {
-            Root<PassWalk> paRoot = criteriaBuilder.treat(root, PassWalk.class);
-            Join<Visitor, PassWalk> visitorJoin = paRoot.join(PassWalk_.VISITOR, JoinType.LEFT);
-            return criteriaBuilder.like(
-                    criteriaBuilder.lower(visitorJoin.get(Visitor_.NAME)), "%" + part.toLowerCase() + "%");
+            Root<PassWalk> pwRoot = criteriaBuilder.treat(root, PassWalk.class);
+            Subquery<UUID> visitorIds = query.subquery(UUID.class);
+            Root<Visitor> visitor = visitorIds.from(Visitor.class);
+            visitorIds.select(visitor.get(Visitor_.ID)).where(criteriaBuilder.like(
+                    criteriaBuilder.lower(visitor.get(Visitor_.NAME)),
+                    SearchUtils.containsIgnoreCasePattern(part), SearchUtils.LIKE_ESCAPE));
+            return pwRoot.get(PassWalk_.VISITOR).get(Visitor_.ID).in(visitorIds);
         };
     }
 
@@ -9,6 +9,7 @@ import ru.ac.checkpointmanager.model.User;
 import ru.ac.checkpointmanager.model.enums.Role;
 import ru.ac.checkpointmanager.specification.model.Territory_;
 import ru.ac.checkpointmanager.specification.model.User_;
+import ru.ac.checkpointmanager.utils.SearchUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -58,15 +59,16 @@ public final class UserSpecification {
     }
 
     /**
-     * Генерация спецификации для фильтрации записей по фрагменту переданной строки
+     * Генерация спецификации для фильтрации записей по фрагменту переданной строки,
+     * условие читает индекс триграмм по lower(full_name)
      * @param part фрагмент строки поиска
      * @return {@link Specification<User>} спецификация для генерации SQL
      */
     public static Specification<User> byFullNamePart(String part) {
         log.debug("Setting specification for User for LIKE query with part {}", part);
         return (root, query, criteriaBuilder) -> {
-            return criteriaBuilder.like(
-                    criteriaBuilder.lower(root.get(User_.FULL_NAME)), "%" + part.toLowerCase() + "%");
+            return criteriaBuilder.like(criteriaBuilder.lower(root.get(User_.FULL_NAME)),
+                    SearchUtils.containsIgnoreCasePattern(part), SearchUtils.LIKE_ESCAPE);
         };
     }
 }
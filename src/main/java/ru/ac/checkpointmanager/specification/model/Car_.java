@@ -6,6 +6,8 @@ import ru.ac.checkpointmanager.model.car.Car;
 @StaticMetamodel(Car.class)
 public abstract class Car_ {
 
+    public static final String ID = "id";
+
     public static final String LICENSE_PLATE = "licensePlate";
 
     private Car_() {
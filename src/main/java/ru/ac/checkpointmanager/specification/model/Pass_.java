@@ -6,6 +6,8 @@ import ru.ac.checkpointmanager.model.passes.Pass;
 @StaticMetamodel(Pass.class)
 public abstract class Pass_ {
 
+    public static final String ID = "id";
+
     public static final String DTYPE = "dtype";
 
     public static final String TERRITORY = "territory";
@@ -6,6 +6,8 @@ import ru.ac.checkpointmanager.model.Visitor;
 @StaticMetamodel(Visitor.class)
 public abstract class Visitor_ {
 
+    public static final String ID = "id";
+
     public static final String NAME = "name";
 
     private Visitor_() {
@@ -0,0 +1,78 @@
+package ru.ac.checkpointmanager.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.ac.checkpointmanager.exception.ExceptionUtils;
+import ru.ac.checkpointmanager.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Кодирование позиции выгрузки по курсору в непрозрачный токен продолжения.
+ * Токен - значения ключа сортировки последнего отданного элемента, разделенные '|', в base64url
+ */
+@Slf4j
+public final class CursorUtils {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorUtils() {
+        throw new AssertionError("No instances, please");
+    }
+
+    /**
+     * @param parts значения ключа сортировки, null кодируется пустой строкой
+     * @return токен продолжения
+     */
+    public static String encode(Object... parts) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                builder.append(SEPARATOR);
+            }
+            if (parts[i] != null) {
+                builder.append(parts[i]);
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor токен продолжения
+     * @param size   ожидаемое количество значений
+     * @return значения ключа сортировки, пустая строка соответствует null
+     * @throws InvalidCursorException если токен не декодируется или содержит другое количество значений
+     */
+    public static String[] decode(String cursor, int size) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+        } catch (IllegalArgumentException e) {
+            log.warn(ExceptionUtils.INVALID_CURSOR.formatted(cursor));
+            throw new InvalidCursorException(ExceptionUtils.INVALID_CURSOR.formatted(cursor));
+        }
+        if (parts.length != size) {
+            log.warn(ExceptionUtils.INVALID_CURSOR.formatted(cursor));
+            throw new InvalidCursorException(ExceptionUtils.INVALID_CURSOR.formatted(cursor));
+        }
+        return parts;
+    }
+
+    /**
+     * @param cursor токен продолжения, для сообщения об ошибке
+     * @param value  значение из {@link #decode}
+     * @param parser преобразование строки в значение ключа
+     * @return значение ключа
+     * @throws InvalidCursorException если значение не преобразуется
+     */
+    public static <T> T parse(String cursor, String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            log.warn(ExceptionUtils.INVALID_CURSOR.formatted(cursor));
+            throw new InvalidCursorException(ExceptionUtils.INVALID_CURSOR.formatted(cursor));
+        }
+    }
+}
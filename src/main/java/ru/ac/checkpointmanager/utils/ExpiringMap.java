@@ -0,0 +1,115 @@
+package ru.ac.checkpointmanager.utils;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Ограниченная по размеру карта записей со сроком жизни для локальных кэшей.
+ * <p>
+ * Срок записи хранит само значение, его возвращает функция expiresAt в единицах переданных часов.
+ * Истекшая запись не возвращается и удаляется при чтении. При заполнении новая запись освобождает место:
+ * сначала удаляются истекшие записи, а если их не хватило - четверть карты в произвольном порядке.
+ * Карта потокобезопасна, размер может ненадолго превысить maxSize при одновременной записи
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значения
+ */
+public class ExpiringMap<K, V> {
+
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    private final ToLongFunction<V> expiresAt;
+
+    private final LongSupplier clock;
+
+    /**
+     * @param maxSize   максимальное число записей
+     * @param expiresAt срок записи по значению
+     * @param clock     текущее время в тех же единицах, что и срок записи
+     */
+    public ExpiringMap(int maxSize, ToLongFunction<V> expiresAt, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.expiresAt = expiresAt;
+        this.clock = clock;
+    }
+
+    /**
+     * @return значение или null, если записи нет или она истекла
+     */
+    public V get(K key) {
+        V value = entries.get(key);
+        if (value == null) {
+            return null;
+        }
+        if (isExpired(value, clock.getAsLong())) {
+            entries.remove(key, value);
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * Кладет запись, при заполнении карты сначала освобождает место
+     *
+     * @return число неистекших записей, удаленных, чтобы освободить место
+     */
+    public int put(K key, V value) {
+        int dropped = 0;
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            dropped = evictOverflow();
+        }
+        entries.put(key, value);
+        return dropped;
+    }
+
+    public V remove(K key) {
+        return entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Обходит неистекшие записи
+     */
+    public void forEach(BiConsumer<K, V> action) {
+        long now = clock.getAsLong();
+        entries.forEach((key, value) -> {
+            if (!isExpired(value, now)) {
+                action.accept(key, value);
+            }
+        });
+    }
+
+    private boolean isExpired(V value, long now) {
+        return expiresAt.applyAsLong(value) - now <= 0;
+    }
+
+    private int evictOverflow() {
+        long now = clock.getAsLong();
+        entries.values().removeIf(value -> isExpired(value, now));
+        int toRemove = Math.max(0, entries.size() - maxSize + Math.max(1, maxSize / 4));
+        int dropped = toRemove;
+        Iterator<K> iterator = entries.keySet().iterator();
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+        return dropped;
+    }
+}
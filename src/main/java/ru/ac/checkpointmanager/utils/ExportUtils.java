@@ -0,0 +1,55 @@
+package ru.ac.checkpointmanager.utils;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.ac.checkpointmanager.dto.ExportParams;
+
+/**
+ * Заголовки ответа с файлом экспорта. Сжатый файл отдается как .gz вложение, а не через Content-Encoding,
+ * чтобы клиент сохранял его без распаковки
+ */
+public final class ExportUtils {
+
+    /**
+     * Атрибут запроса экспорта: запись ответа получает время ожидания app.export.timeout
+     * вместо общего для асинхронных запросов
+     */
+    public static final String EXPORT_ATTRIBUTE = ExportUtils.class.getName() + ".EXPORT";
+
+    private static final String GZIP_CONTENT_TYPE = "application/gzip";
+
+    private ExportUtils() {
+        throw new AssertionError("No instances, please");
+    }
+
+    /**
+     * @param name         имя файла без расширения
+     * @param exportParams формат и сжатие
+     * @param body         тело ответа, записывающее файл
+     * @return ответ с типом содержимого и именем файла вложения, текущий запрос помечается
+     * атрибутом {@link #EXPORT_ATTRIBUTE}
+     */
+    public static ResponseEntity<StreamingResponseBody> toResponse(String name, ExportParams exportParams,
+                                                                   StreamingResponseBody body) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(EXPORT_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+        String fileName = name + "." + exportParams.getFormat().getExtension();
+        String contentType = exportParams.getFormat().getContentType();
+        if (exportParams.isGzip()) {
+            fileName += ".gz";
+            contentType = GZIP_CONTENT_TYPE;
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(contentType))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName).build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,40 @@
+package ru.ac.checkpointmanager.utils;
+
+/**
+ * Приведение номера машины к единому виду для сравнения.
+ * Номер с камеры КПП и номер в базе могут отличаться регистром, разделителями
+ * и написанием одинаковых по виду букв кириллицей или латиницей
+ */
+public final class LicensePlateUtils {
+
+    private static final String CYRILLIC = "АВЕКМНОРСТУХ";
+
+    private static final String LATIN = "ABEKMHOPCTYX";
+
+    private LicensePlateUtils() {
+        throw new AssertionError("No instances, please");
+    }
+
+    /**
+     * Переводит номер в верхний регистр, убирает все символы, кроме букв и цифр,
+     * и заменяет кириллические буквы номеров на латинские того же начертания
+     *
+     * @param licensePlate номер машины
+     * @return нормализованный номер, пустая строка для null
+     */
+    public static String normalize(String licensePlate) {
+        if (licensePlate == null) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder(licensePlate.length());
+        for (int i = 0; i < licensePlate.length(); i++) {
+            char c = Character.toUpperCase(licensePlate.charAt(i));
+            if (!Character.isLetterOrDigit(c)) {
+                continue;
+            }
+            int cyrillic = CYRILLIC.indexOf(c);
+            builder.append(cyrillic < 0 ? c : LATIN.charAt(cyrillic));
+        }
+        return builder.toString();
+    }
+}
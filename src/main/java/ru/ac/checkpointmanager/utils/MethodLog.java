@@ -1,9 +1,54 @@
 package ru.ac.checkpointmanager.utils;
 
-public class MethodLog {
+import java.util.Iterator;
 
-    public static String getMethodName() {
-        StackTraceElement[] stackTraceElements = Thread.currentThread().getStackTrace();
-        return stackTraceElements[2].getMethodName();
+/**
+ * Имя вызывающего метода для сообщений лога: {@code log.debug("Method {}", MethodLog.caller())}.
+ * <p>
+ * {@link #caller()} возвращает один и тот же объект, имя метода вычисляется в его toString, то есть только
+ * при форматировании сообщения. Если уровень лога выключен, сообщение не форматируется и вызов ничего
+ * не стоит. При форматировании {@link StackWalker} проходит кадры стека до вызова логгера logback и берет
+ * кадр, из которого логгер вызван, без снимка всего стека. Appender'ы logback форматируют сообщение
+ * во время вызова логгера, если сообщение отформатировано позже, имя метода - unknown
+ */
+public final class MethodLog {
+
+    private static final String LOGGER_CLASS = "ch.qos.logback.classic.Logger";
+
+    private static final String UNKNOWN = "unknown";
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private static final Object CALLER = new Object() {
+        @Override
+        public String toString() {
+            return callerName();
+        }
+    };
+
+    private MethodLog() {
+    }
+
+    /**
+     * @return объект, строковое представление которого - имя метода, вызвавшего логгер
+     */
+    public static Object caller() {
+        return CALLER;
+    }
+
+    private static String callerName() {
+        return WALKER.walk(frames -> {
+            boolean inLogger = false;
+            Iterator<StackWalker.StackFrame> iterator = frames.iterator();
+            while (iterator.hasNext()) {
+                StackWalker.StackFrame frame = iterator.next();
+                boolean logger = LOGGER_CLASS.equals(frame.getClassName());
+                if (inLogger && !logger) {
+                    return frame.getMethodName();
+                }
+                inLogger = logger || inLogger;
+            }
+            return UNKNOWN;
+        });
     }
-}
\ No newline at end of file
+}
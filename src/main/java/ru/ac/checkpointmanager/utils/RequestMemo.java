@@ -0,0 +1,79 @@
+package ru.ac.checkpointmanager.utils;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Запоминание результатов на время HTTP запроса: проверки доступа и сервисы одного запроса
+ * не повторяют одинаковые запросы к БД.
+ * <p>
+ * Результаты хранятся в атрибуте запроса и удаляются вместе с ним. Вне запроса (планировщик, фоновые потоки)
+ * значение вычисляется при каждом вызове. Исключения не запоминаются
+ */
+public final class RequestMemo {
+
+    private static final String ATTRIBUTE = RequestMemo.class.getName();
+
+    private RequestMemo() {
+        throw new AssertionError("No instances, please");
+    }
+
+    /**
+     * @param key    ключ значения, уникальный для всех вызывающих: record с типом проверки и ее параметрами
+     * @param loader вычисление значения, если его еще нет в запросе
+     * @return значение, вычисленное в этом запросе, в том числе null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T get(Object key, Supplier<T> loader) {
+        Map<Object, Object> memo = memo(true);
+        if (memo == null) {
+            return loader.get();
+        }
+        if (memo.containsKey(key)) {
+            return (T) memo.get(key);
+        }
+        T value = loader.get();
+        memo.put(key, value);
+        return value;
+    }
+
+    /**
+     * Запоминает значение, уже известное вызывающему, например полученное вместе с другим значением
+     */
+    public static void put(Object key, Object value) {
+        Map<Object, Object> memo = memo(true);
+        if (memo != null) {
+            memo.put(key, value);
+        }
+    }
+
+    /**
+     * Забывает значение после изменения данных, от которых оно зависит
+     */
+    public static void evict(Object key) {
+        Map<Object, Object> memo = memo(false);
+        if (memo != null) {
+            memo.remove(key);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> memo(boolean create) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        // запрос обрабатывается одним потоком, синхронизация не нужна
+        Map<Object, Object> memo = (Map<Object, Object>) attributes.getAttribute(ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (memo == null && create) {
+            memo = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return memo;
+    }
+}
@@ -0,0 +1,55 @@
+package ru.ac.checkpointmanager.utils;
+
+/**
+ * Подготовка фрагмента строки для поиска по частичному совпадению (LIKE '%x%').
+ * Поля поиска проиндексированы GIN индексами триграмм pg_trgm, регистронезависимые - по lower(),
+ * поэтому запросы сравнивают lower(поле) с фрагментом в нижнем регистре
+ */
+public final class SearchUtils {
+
+    /**
+     * Символ экранирования в шаблонах LIKE, по умолчанию в PostgreSQL
+     */
+    public static final char LIKE_ESCAPE = '\\';
+
+    private SearchUtils() {
+        throw new AssertionError("No instances, please");
+    }
+
+    /**
+     * Экранирует символы шаблона LIKE, чтобы '%' и '_' во фрагменте искались как обычные символы
+     *
+     * @param part фрагмент строки
+     * @return экранированный фрагмент
+     */
+    public static String escapeLike(String part) {
+        StringBuilder builder = new StringBuilder(part.length());
+        for (int i = 0; i < part.length(); i++) {
+            char c = part.charAt(i);
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') {
+                builder.append(LIKE_ESCAPE);
+            }
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Шаблон можно передавать и в similarity() для ранжирования: pg_trgm строит триграммы только
+     * по буквам и цифрам, символы шаблона не влияют на оценку
+     *
+     * @param part фрагмент строки
+     * @return шаблон LIKE для поиска фрагмента
+     */
+    public static String containsPattern(String part) {
+        return "%" + escapeLike(part) + "%";
+    }
+
+    /**
+     * @param part фрагмент строки
+     * @return шаблон LIKE для поиска фрагмента без учета регистра
+     */
+    public static String containsIgnoreCasePattern(String part) {
+        return containsPattern(part.toLowerCase());
+    }
+}
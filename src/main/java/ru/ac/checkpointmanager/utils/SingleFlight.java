@@ -0,0 +1,65 @@
+package ru.ac.checkpointmanager.utils;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одновременных загрузок по ключу.
+ * <p>
+ * Первый вызов с ключом выполняет загрузку, вызовы с тем же ключом, пришедшие до ее окончания, ждут
+ * и получают тот же результат или то же исключение. Следующий вызов после окончания загрузки загружает заново,
+ * результаты не кэшируются. Загрузка не должна вызывать {@link #load} с тем же ключом
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значения
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * @return количество вызовов, получивших результат чужой загрузки
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
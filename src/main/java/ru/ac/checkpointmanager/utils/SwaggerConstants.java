@@ -58,6 +58,13 @@ public class SwaggerConstants {
 
     //для PassController
     public static final String PASSES_ARE_FOUND_MESSAGE = "Пропуска найдены";
+
+    public static final String EVENTS_STREAM_MESSAGE = "Поток Server-Sent Events: crossing - пересечение, " +
+            "pass-status - смена статуса пропуска, overflow - число событий, потерянных из-за медленного чтения";
+
+    public static final String EXPORT_STREAMED_MESSAGE = "Файл выгружается потоком в формате CSV или NDJSON, " +
+            "при gzip=true - сжатым";
+    public static final String INVALID_CURSOR_MESSAGE = "Некорректный токен продолжения";
     public static final String PASS_NOT_FOUND_MESSAGE = "Пропуск не найден";
     public static final String PASS_ACCESS_ALL_MESSAGE =
             "Доступ: ADMIN - пропуски всех пользователей, MANAGER, SECURITY, USER - только свои";
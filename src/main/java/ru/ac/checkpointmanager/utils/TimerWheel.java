@@ -0,0 +1,162 @@
+package ru.ac.checkpointmanager.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Иерархическое колесо таймеров: срабатывание ключей по наступлении их сроков с точностью до одного тика.
+ * <p>
+ * Четыре уровня по 64 ячейки: ячейка первого уровня - один тик, каждого следующего - в 64 раза больше.
+ * Ключ кладется в ячейку уровня, на который приходится его срок, и при повороте колеса спускается на нижние
+ * уровни, пока не окажется в ячейке первого уровня и не сработает. Добавление, удаление и срабатывание ключа
+ * не зависят от числа ключей в колесе. Максимальный срок - 64^4 тиков от текущего, ключи с большим сроком
+ * не принимаются.
+ * <p>
+ * Ключ срабатывает не раньше своего срока: срок округляется вверх до тика. Класс не потокобезопасен
+ *
+ * @param <K> тип ключа
+ */
+public class TimerWheel<K> {
+
+    private static final int LEVELS = 4;
+
+    private static final int SLOT_BITS = 6;
+
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+
+    private final List<List<Set<K>>> wheels = new ArrayList<>(LEVELS);
+
+    private final Map<K, Position> positions = new HashMap<>();
+
+    /**
+     * Ключи, срок которых уже наступил при добавлении
+     */
+    private final Set<K> overdue = new LinkedHashSet<>();
+
+    private long currentTick;
+
+    /**
+     * @param tickMillis длительность тика, мс
+     * @param nowMillis  текущее время, мс
+     */
+    public TimerWheel(long tickMillis, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.currentTick = nowMillis / tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            List<Set<K>> slots = new ArrayList<>(SLOTS);
+            for (int slot = 0; slot < SLOTS; slot++) {
+                slots.add(new HashSet<>());
+            }
+            wheels.add(slots);
+        }
+    }
+
+    /**
+     * Добавляет ключ или переносит его на новый срок
+     *
+     * @param key            ключ
+     * @param deadlineMillis срок, мс
+     * @return false, если срок дальше максимального и ключ не добавлен
+     */
+    public boolean schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        return place(key, deadlineTick);
+    }
+
+    /**
+     * Удаляет ключ из колеса
+     *
+     * @return true, если ключ был в колесе
+     */
+    public boolean cancel(K key) {
+        Position position = positions.remove(key);
+        if (position == null) {
+            return overdue.remove(key);
+        }
+        wheels.get(position.level()).get(position.slot()).remove(key);
+        return true;
+    }
+
+    /**
+     * Поворачивает колесо до текущего времени
+     *
+     * @param nowMillis текущее время, мс
+     * @return ключи, срок которых наступил, они удаляются из колеса
+     */
+    public List<K> advance(long nowMillis) {
+        List<K> due = new ArrayList<>(overdue);
+        overdue.clear();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            Set<K> slot = wheels.get(0).get((int) (currentTick & SLOT_MASK));
+            for (K key : slot) {
+                positions.remove(key);
+                due.add(key);
+            }
+            slot.clear();
+            due.addAll(overdue);
+            overdue.clear();
+        }
+        return due;
+    }
+
+    public int size() {
+        return positions.size() + overdue.size();
+    }
+
+    public boolean contains(K key) {
+        return positions.containsKey(key) || overdue.contains(key);
+    }
+
+    /**
+     * Спускает ключи текущей ячейки уровня на нижние уровни
+     */
+    private void cascade(int level) {
+        Set<K> slot = wheels.get(level).get((int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK));
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<K> keys = new ArrayList<>(slot);
+        slot.clear();
+        for (K key : keys) {
+            Position position = positions.remove(key);
+            place(key, position.deadlineTick());
+        }
+    }
+
+    private boolean place(K key, long deadlineTick) {
+        long delta = deadlineTick - currentTick;
+        if (delta <= 0) {
+            overdue.add(key);
+            return true;
+        }
+        for (int level = 0; level < LEVELS; level++) {
+            if (delta < 1L << (SLOT_BITS * (level + 1))) {
+                int slot = (int) ((deadlineTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                wheels.get(level).get(slot).add(key);
+                positions.put(key, new Position(deadlineTick, level, slot));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Position(long deadlineTick, int level, int slot) {
+    }
+}
@@ -0,0 +1,45 @@
+package ru.ac.checkpointmanager.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * Действия, которые должны выполняться только после успешного коммита текущей транзакции:
+ * обновление локальных индексов, рассылка событий и инвалидаций другим инстансам
+ */
+public final class TransactionUtils {
+
+    private TransactionUtils() {
+        throw new AssertionError("No instances, please");
+    }
+
+    /**
+     * Выполняет действие после коммита текущей транзакции, а если транзакции нет - сразу.
+     * Ошибка действия не доходит до вызывающего кода, изменения к этому моменту уже сохранены,
+     * поэтому она передается обработчику
+     *
+     * @param action  действие
+     * @param onError обработчик ошибки действия, обычно запись в лог
+     */
+    public static void afterCommit(Runnable action, Consumer<RuntimeException> onError) {
+        Runnable safeAction = () -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                onError.accept(e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    safeAction.run();
+                }
+            });
+        } else {
+            safeAction.run();
+        }
+    }
+}
@@ -6,7 +6,7 @@ DELETE FROM databasechangelog WHERE filename = 'liquibase/insert_demo_data.sql';
 -- а также не забывайте добавлять новые таблицы в транкейт
 -- (альтернатива - дропать схему, чтобы все скрипты накатывались заново, а не только этот; можно будет сделать и так)
 
-TRUNCATE TABLE crossings, passes, users, user_territory, cars, car_brand, visitors, checkpoints, territories CASCADE;
+TRUNCATE TABLE pass_events, crossings, passes, users, user_territory, cars, car_brand, visitors, checkpoints, territories CASCADE;
 
 DO $$
     DECLARE
@@ -140,4 +140,9 @@ DO $$
 
                (pass7_id, chp1_id, now() + interval '10 hour', nowDT + interval '10 hour', 'IN'),
                (pass7_id, chp1_id, now() + interval '11 hour', nowDT + interval '11 hour', 'OUT');
+
+        INSERT INTO pass_events (pass_id, territory_id, user_id, in_time, out_time)
+        SELECT p.id, p.territory_id, p.user_id, pr.in_time, pr.out_time
+        FROM pass_event_pairs(ARRAY(SELECT id FROM passes), '-infinity') pr
+                 JOIN passes p ON p.id = pr.pass_id;
 END $$;
@@ -0,0 +1,11 @@
+-- отложенные пропуски, ожидающие активации по времени начала
+CREATE INDEX IF NOT EXISTS passes_delayed_start_time_idx ON passes (start_time) WHERE status = 'DELAYED';
+GO
+
+-- активные пропуски, ожидающие завершения по времени окончания
+CREATE INDEX IF NOT EXISTS passes_active_end_time_idx ON passes (end_time) WHERE status = 'ACTIVE';
+GO
+
+-- проверка наличия пересечений по пропуску
+CREATE INDEX IF NOT EXISTS crossings_pass_id_idx ON crossings (pass_id);
+GO
@@ -0,0 +1,6 @@
+-- проверка перекрытия затрагивает только действующие пропуски пользователя на территории,
+-- размер индекса не зависит от накопленной истории завершенных пропусков
+CREATE INDEX IF NOT EXISTS passes_user_territory_time_idx
+    ON passes (user_id, territory_id, start_time, end_time)
+    WHERE status IN ('ACTIVE', 'DELAYED');
+GO
@@ -0,0 +1,10 @@
+-- ключ идемпотентности передается контроллером КПП при повторной отправке буферизованных пересечений,
+-- пересечения, созданные через одиночные эндпоинты, ключа не имеют
+ALTER TABLE crossings
+    ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(100);
+GO
+
+CREATE UNIQUE INDEX IF NOT EXISTS crossings_idempotency_key_uidx
+    ON crossings (idempotency_key)
+    WHERE idempotency_key IS NOT NULL;
+GO
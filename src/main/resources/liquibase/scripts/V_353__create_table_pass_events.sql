@@ -0,0 +1,35 @@
+-- пары въезд-выезд по пропускам, поддерживаются при добавлении пересечений и заменяют pass_in_out_view,
+-- которое пересчитывало пары оконными функциями по всей таблице crossings на каждый запрос
+CREATE TABLE IF NOT EXISTS pass_events
+(
+    id           UUID DEFAULT gen_random_uuid(),
+    pass_id      UUID NOT NULL,
+    territory_id UUID NOT NULL,
+    user_id      UUID,
+    in_time      TIMESTAMPTZ,
+    out_time     TIMESTAMPTZ,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_pass_events_passes
+        FOREIGN KEY (pass_id) REFERENCES passes (id)
+            ON DELETE CASCADE
+);
+GO
+
+-- сортировка in_time DESC (NULLS FIRST) совпадает с сортировкой выборок событий, страница и count читаются по индексу
+CREATE INDEX IF NOT EXISTS pass_events_territory_in_time_idx ON pass_events (territory_id, in_time DESC);
+GO
+
+CREATE INDEX IF NOT EXISTS pass_events_user_in_time_idx ON pass_events (user_id, in_time DESC);
+GO
+
+CREATE INDEX IF NOT EXISTS pass_events_in_time_idx ON pass_events (in_time DESC);
+GO
+
+-- поиск незакрытого въезда пропуска при выезде
+CREATE INDEX IF NOT EXISTS pass_events_open_idx ON pass_events (pass_id, in_time) WHERE out_time IS NULL;
+GO
+
+-- существующие пересечения переносятся в V_356 функцией pass_event_pairs
+
+DROP VIEW IF EXISTS pass_in_out_view;
+GO
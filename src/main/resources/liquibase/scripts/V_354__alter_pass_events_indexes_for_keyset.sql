@@ -0,0 +1,19 @@
+-- выгрузка событий по курсору продолжает выборку после ключа (in_time, id), id добавлен в индексы,
+-- чтобы страница читалась по индексу и при совпадении in_time
+DROP INDEX IF EXISTS pass_events_territory_in_time_idx;
+GO
+
+DROP INDEX IF EXISTS pass_events_user_in_time_idx;
+GO
+
+DROP INDEX IF EXISTS pass_events_in_time_idx;
+GO
+
+CREATE INDEX IF NOT EXISTS pass_events_territory_in_time_id_idx ON pass_events (territory_id, in_time DESC, id DESC);
+GO
+
+CREATE INDEX IF NOT EXISTS pass_events_user_in_time_id_idx ON pass_events (user_id, in_time DESC, id DESC);
+GO
+
+CREATE INDEX IF NOT EXISTS pass_events_in_time_id_idx ON pass_events (in_time DESC, id DESC);
+GO
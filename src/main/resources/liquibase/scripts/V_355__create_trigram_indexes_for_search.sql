@@ -0,0 +1,22 @@
+-- поиск по фрагменту (LIKE '%x%') читает индексы триграмм вместо последовательного сканирования,
+-- регистронезависимые поля индексируются по lower(), как в запросах поиска
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+GO
+
+CREATE INDEX IF NOT EXISTS cars_license_plate_trgm_idx ON cars USING gin (lower(license_plate) gin_trgm_ops);
+GO
+
+CREATE INDEX IF NOT EXISTS cars_car_phone_trgm_idx ON cars USING gin (car_phone gin_trgm_ops);
+GO
+
+CREATE INDEX IF NOT EXISTS visitors_full_name_trgm_idx ON visitors USING gin (lower(full_name) gin_trgm_ops);
+GO
+
+CREATE INDEX IF NOT EXISTS visitors_visitor_phone_trgm_idx ON visitors USING gin (visitor_phone gin_trgm_ops);
+GO
+
+CREATE INDEX IF NOT EXISTS users_full_name_trgm_idx ON users USING gin (lower(full_name) gin_trgm_ops);
+GO
+
+CREATE INDEX IF NOT EXISTS car_brand_brand_trgm_idx ON car_brand USING gin (lower(brand) gin_trgm_ops);
+GO
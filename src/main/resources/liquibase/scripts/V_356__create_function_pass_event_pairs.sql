@@ -0,0 +1,57 @@
+-- пропуск удаленного пользователя остается с user_id = NULL (V_342), его события тоже
+ALTER TABLE pass_events ALTER COLUMN user_id DROP NOT NULL;
+GO
+
+-- единое правило составления пар въезд-выезд, по нему события и записываются, и пересчитываются:
+-- пересечения пропуска упорядочиваются по времени, въезд открывает событие, выезд закрывает его,
+-- если предыдущее пересечение пропуска - этот въезд, иначе образует событие без въезда.
+-- Учитываются пересечения не раньше from_time
+CREATE OR REPLACE FUNCTION pass_event_pairs(pass_ids UUID[], from_time TIMESTAMPTZ)
+    RETURNS TABLE
+            (
+                pass_id  UUID,
+                in_time  TIMESTAMPTZ,
+                out_time TIMESTAMPTZ
+            )
+    LANGUAGE sql
+    STABLE
+AS
+$$
+SELECT c.pass_id,
+       CASE WHEN c.direction = 'IN' THEN c.performed_at END,
+       CASE
+           WHEN c.direction = 'OUT' THEN c.performed_at
+           WHEN c.next_direction = 'OUT' THEN c.next_performed_at
+           END
+FROM (SELECT cr.pass_id,
+             cr.direction,
+             cr.performed_at,
+             LAG(cr.direction) OVER w     AS prev_direction,
+             LEAD(cr.direction) OVER w    AS next_direction,
+             LEAD(cr.performed_at) OVER w AS next_performed_at
+      FROM crossings cr
+      WHERE cr.pass_id = ANY (pass_ids)
+        AND cr.performed_at >= from_time
+      WINDOW w AS (PARTITION BY cr.pass_id ORDER BY cr.performed_at, cr.id)) c
+WHERE c.direction = 'IN'
+   OR c.prev_direction IS DISTINCT FROM 'IN'
+$$;
+GO
+
+-- при записи пересечения пересчитываются события пропуска, начатые не раньше предыдущего пересечения
+DROP INDEX IF EXISTS pass_events_open_idx;
+GO
+
+CREATE INDEX IF NOT EXISTS pass_events_pass_start_idx ON pass_events (pass_id, COALESCE(in_time, out_time));
+GO
+
+-- события, перенесенные V_353 по другому правилу, пересчитываются по pass_event_pairs
+DELETE
+FROM pass_events;
+GO
+
+INSERT INTO pass_events (pass_id, territory_id, user_id, in_time, out_time)
+SELECT p.id, p.territory_id, p.user_id, pr.in_time, pr.out_time
+FROM pass_event_pairs(ARRAY(SELECT DISTINCT c.pass_id FROM crossings c), '-infinity') pr
+         JOIN passes p ON p.id = pr.pass_id;
+GO
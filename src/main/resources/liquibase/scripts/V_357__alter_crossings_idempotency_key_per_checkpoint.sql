@@ -0,0 +1,9 @@
+-- ключ идемпотентности уникален в пределах чекпоинта: совпадение ключей разных КПП не считается повтором
+-- и не раскрывает пересечения чужой территории
+DROP INDEX IF EXISTS crossings_idempotency_key_uidx;
+GO
+
+CREATE UNIQUE INDEX IF NOT EXISTS crossings_checkpoint_idempotency_key_uidx
+    ON crossings (checkpoint_id, idempotency_key)
+    WHERE idempotency_key IS NOT NULL;
+GO
@@ -0,0 +1,88 @@
+package ru.ac.checkpointmanager.aspects;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.ac.checkpointmanager.dto.ServiceCallStatsDTO;
+import ru.ac.checkpointmanager.exception.PhoneNumberNotFoundException;
+import ru.ac.checkpointmanager.service.phone.PhoneService;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceCallMetricsAspectTest {
+
+    @Mock
+    ProceedingJoinPoint joinPoint;
+
+    @Mock
+    MethodSignature signature;
+
+    ServiceCallMetrics metrics;
+
+    ServiceCallMetricsAspect aspect;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new ServiceCallMetrics();
+        aspect = new ServiceCallMetricsAspect(metrics, false, 0, Duration.ofSeconds(10));
+    }
+
+    @Test
+    void measureCall_SuccessAndError_CountCallsAndErrors() throws Throwable {
+        mockMethod();
+        Mockito.when(joinPoint.proceed()).thenReturn("ok").thenThrow(new PhoneNumberNotFoundException("not found"));
+
+        Assertions.assertThat(aspect.measureCall(joinPoint)).isEqualTo("ok");
+        Assertions.assertThatThrownBy(() -> aspect.measureCall(joinPoint))
+                .isInstanceOf(PhoneNumberNotFoundException.class);
+
+        Assertions.assertThat(metrics.getStats()).singleElement().satisfies(stats -> {
+            Assertions.assertThat(stats.getMethod()).isEqualTo("PhoneService.findById(UUID)");
+            Assertions.assertThat(stats.getCalls()).isEqualTo(2);
+            Assertions.assertThat(stats.getErrors()).isEqualTo(1);
+            Assertions.assertThat(stats.getP99Ms()).isLessThanOrEqualTo(stats.getMaxMs());
+        });
+    }
+
+    @Test
+    void reset_AfterCalls_StatsEmpty() throws Throwable {
+        mockMethod();
+        aspect.measureCall(joinPoint);
+
+        metrics.reset();
+
+        Assertions.assertThat(metrics.getStats()).isEmpty();
+    }
+
+    @Test
+    void record_KnownLatencies_PercentilesFromHistogram() {
+        MethodCallStats stats = new MethodCallStats("method");
+        for (int i = 0; i < 98; i++) {
+            stats.record(Duration.ofMillis(1).toNanos(), false);
+        }
+        stats.record(Duration.ofMillis(100).toNanos(), false);
+        stats.record(Duration.ofMillis(200).toNanos(), true);
+
+        ServiceCallStatsDTO result = stats.toDTO();
+
+        Assertions.assertThat(result.getCalls()).isEqualTo(100);
+        Assertions.assertThat(result.getP50Ms()).isBetween(1.0, 2.048);
+        Assertions.assertThat(result.getP99Ms()).isBetween(100.0, 131.072);
+        Assertions.assertThat(result.getMaxMs()).isEqualTo(200.0);
+    }
+
+    private void mockMethod() throws NoSuchMethodException {
+        Method method = PhoneService.class.getMethod("findById", UUID.class);
+        Mockito.when(joinPoint.getSignature()).thenReturn(signature);
+        Mockito.when(signature.getMethod()).thenReturn(method);
+    }
+}
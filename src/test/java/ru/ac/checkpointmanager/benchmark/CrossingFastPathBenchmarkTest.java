@@ -0,0 +1,193 @@
+package ru.ac.checkpointmanager.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.ac.checkpointmanager.config.EnablePostgresAndRedisTestContainers;
+import ru.ac.checkpointmanager.configuration.ModelMapperConfiguration;
+import ru.ac.checkpointmanager.dto.CrossingRequestDTO;
+import ru.ac.checkpointmanager.mapper.CrossingMapper;
+import ru.ac.checkpointmanager.model.Territory;
+import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.model.checkpoints.Checkpoint;
+import ru.ac.checkpointmanager.model.checkpoints.CheckpointType;
+import ru.ac.checkpointmanager.model.enums.Direction;
+import ru.ac.checkpointmanager.repository.ActivePassPlateRepository;
+import ru.ac.checkpointmanager.repository.CheckpointRepository;
+import ru.ac.checkpointmanager.repository.CrossingBatchRepository;
+import ru.ac.checkpointmanager.repository.CrossingRepository;
+import ru.ac.checkpointmanager.repository.PassEventRepository;
+import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.repository.TerritoryRepository;
+import ru.ac.checkpointmanager.repository.UserRepository;
+import ru.ac.checkpointmanager.repository.UserTerritoryRepository;
+import ru.ac.checkpointmanager.service.access.MembershipIndex;
+import ru.ac.checkpointmanager.service.access.impl.AccessServiceImpl;
+import ru.ac.checkpointmanager.service.access.impl.MembershipIndexImpl;
+import ru.ac.checkpointmanager.service.crossing.CrossingService;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
+import ru.ac.checkpointmanager.service.passes.PassService;
+import ru.ac.checkpointmanager.service.passes.impl.PassCheckerImpl;
+import ru.ac.checkpointmanager.service.passes.impl.PlateIndexImpl;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Замер пропускной способности регистрации пересечений в один поток (пересечений в секунду на ядро).
+ * Каждый вызов выполняется в собственной транзакции, как при запросе с КПП.
+ * Запускается отдельной задачей: ./gradlew benchmark
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext
+@EnablePostgresAndRedisTestContainers
+@Import(CrossingFastPathBenchmarkTest.CrossingConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("benchmark")
+@Slf4j
+class CrossingFastPathBenchmarkTest {
+
+    private static final int PASSES = 2_000;
+
+    private static final int WARMUP = 500;
+
+    @TestConfiguration
+    @ComponentScan("ru.ac.checkpointmanager.service.crossing")
+    @Import({PassCheckerImpl.class, AccessServiceImpl.class, CrossingMapper.class, ModelMapperConfiguration.class,
+            CrossingBatchRepository.class, PassEventRepository.class, PlateIndexImpl.class,
+            ActivePassPlateRepository.class, MembershipIndexImpl.class, UserTerritoryRepository.class})
+    static class CrossingConfig {
+    }
+
+    @MockBean
+    PassService passService;
+
+    @MockBean
+    StringRedisTemplate redisTemplate;
+
+    @MockBean
+    RedisMessageListenerContainer listenerContainer;
+
+    @MockBean
+    LiveEventService liveEventService;
+
+    @Autowired
+    MembershipIndex membershipIndex;
+
+    @Autowired
+    CrossingService crossingService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TerritoryRepository territoryRepository;
+
+    @Autowired
+    CheckpointRepository checkpointRepository;
+
+    @Autowired
+    PassRepository passRepository;
+
+    @Autowired
+    CrossingRepository crossingRepository;
+
+    UUID userId;
+
+    UUID territoryId;
+
+    UUID checkpointId;
+
+    @BeforeEach
+    void init() {
+        User user = userRepository.saveAndFlush(TestUtils.getUser());
+        Territory territory = TestUtils.getTerritoryForDB();
+        territory.setUsers(List.of(user));
+        Territory savedTerritory = territoryRepository.saveAndFlush(territory);
+        Checkpoint checkpoint = checkpointRepository.saveAndFlush(
+                TestUtils.getCheckpoint(CheckpointType.UNIVERSAL, savedTerritory));
+        userId = user.getId();
+        territoryId = savedTerritory.getId();
+        checkpointId = checkpoint.getId();
+        membershipIndex.check();
+    }
+
+    @AfterEach
+    void clear() {
+        crossingRepository.deleteAllInBatch();
+        passRepository.deleteAllInBatch();
+        checkpointRepository.deleteAll();
+        territoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void addCrossing_ActivePermanentPasses_MeasureCrossingsPerSecond() {
+        List<UUID> passIds = seedPasses();
+        for (UUID passId : passIds.subList(0, WARMUP)) {
+            crossingService.addCrossing(new CrossingRequestDTO(passId, checkpointId, ZonedDateTime.now()),
+                    Direction.IN);
+        }
+
+        List<UUID> measured = passIds.subList(WARMUP, passIds.size());
+        long[] latencies = new long[measured.size()];
+        long start = System.nanoTime();
+        for (int i = 0; i < measured.size(); i++) {
+            long callStart = System.nanoTime();
+            crossingService.addCrossing(new CrossingRequestDTO(measured.get(i), checkpointId, ZonedDateTime.now()),
+                    Direction.IN);
+            latencies[i] = System.nanoTime() - callStart;
+        }
+        long totalNs = System.nanoTime() - start;
+        Arrays.sort(latencies);
+
+        log.info("Registered {} crossings in {} ms: {} crossings/sec per core, p50 {} us, p99 {} us",
+                measured.size(), totalNs / 1_000_000, measured.size() * 1_000_000_000L / totalNs,
+                latencies[latencies.length / 2] / 1_000, latencies[latencies.length * 99 / 100] / 1_000);
+        Assertions.assertThat(crossingRepository.count()).isEqualTo(PASSES);
+    }
+
+    private List<UUID> seedPasses() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> passRows = new ArrayList<>(PASSES);
+        List<UUID> passIds = new ArrayList<>(PASSES);
+        for (int i = 0; i < PASSES; i++) {
+            UUID id = UUID.randomUUID();
+            passIds.add(id);
+            passRows.add(new Object[]{id, userId, territoryId, Timestamp.valueOf(now.minusHours(1)),
+                    Timestamp.valueOf(now.plusDays(1))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO passes (id, user_id, status, time_type, territory_id, added_at, " +
+                "start_time, end_time, dtype, favorite, expected_direction) " +
+                "VALUES (?, ?, 'ACTIVE', 'PERMANENT', ?, now(), ?, ?, 'WALK', false, 'IN')", passRows);
+        return passIds;
+    }
+}
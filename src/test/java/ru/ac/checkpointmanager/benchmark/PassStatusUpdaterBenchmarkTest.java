@@ -0,0 +1,143 @@
+package ru.ac.checkpointmanager.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.ac.checkpointmanager.config.EnablePostgresAndRedisTestContainers;
+import ru.ac.checkpointmanager.model.Territory;
+import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.model.checkpoints.Checkpoint;
+import ru.ac.checkpointmanager.model.checkpoints.CheckpointType;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.repository.CheckpointRepository;
+import ru.ac.checkpointmanager.repository.TerritoryRepository;
+import ru.ac.checkpointmanager.repository.UserRepository;
+import ru.ac.checkpointmanager.service.passes.PassStatusUpdater;
+import ru.ac.checkpointmanager.service.passes.impl.PassStatusUpdaterImpl;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Замер массового изменения статусов пропусков на 100_000 ожидающих обработки пропусков.
+ * Запускается отдельной задачей: ./gradlew benchmark
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext
+@EnablePostgresAndRedisTestContainers
+@Import(PassStatusUpdaterImpl.class)
+@Tag("benchmark")
+@Slf4j
+class PassStatusUpdaterBenchmarkTest {
+
+    private static final int PASSES = 100_000;
+
+    private static final int BATCH = 5_000;
+
+    @Autowired
+    PassStatusUpdater passStatusUpdater;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TerritoryRepository territoryRepository;
+
+    @Autowired
+    CheckpointRepository checkpointRepository;
+
+    UUID userId;
+
+    UUID territoryId;
+
+    UUID checkpointId;
+
+    @BeforeEach
+    void init() {
+        User user = userRepository.saveAndFlush(TestUtils.getUser());
+        Territory territory = TestUtils.getTerritoryForDB();
+        territory.setUsers(List.of(user));
+        Territory savedTerritory = territoryRepository.saveAndFlush(territory);
+        Checkpoint checkpoint = checkpointRepository.saveAndFlush(
+                TestUtils.getCheckpoint(CheckpointType.UNIVERSAL, savedTerritory));
+        userId = user.getId();
+        territoryId = savedTerritory.getId();
+        checkpointId = checkpoint.getId();
+    }
+
+    @Test
+    void updateStatuses_100kPendingPasses_MeasureBulkUpdate() {
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> activeIds = seedPasses(now);
+
+        long start = System.nanoTime();
+        List<UUID> activated = passStatusUpdater.activateDelayedPasses(now);
+        long activationMs = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        Map<PassStatus, List<UUID>> resolved = passStatusUpdater.resolveExpiredPasses(now);
+        long resolvingMs = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("Activated {} delayed passes in {} ms", activated.size(), activationMs);
+        log.info("Resolved {} expired passes in {} ms: {}", activeIds.size(), resolvingMs,
+                resolved.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue().size()).toList());
+        Assertions.assertThat(activated).hasSize(PASSES / 2);
+        Assertions.assertThat(resolved.values().stream().mapToInt(List::size).sum()).isEqualTo(PASSES / 2);
+    }
+
+    /**
+     * Половина пропусков - отложенные с наступившим временем начала, половина - активные с истекшим временем,
+     * у каждого третьего активного есть пересечение
+     */
+    private List<UUID> seedPasses(LocalDateTime now) {
+        List<Object[]> passRows = new ArrayList<>(PASSES);
+        List<Object[]> crossingRows = new ArrayList<>();
+        List<UUID> activeIds = new ArrayList<>(PASSES / 2);
+        for (int i = 0; i < PASSES; i++) {
+            UUID id = UUID.randomUUID();
+            boolean delayed = i % 2 == 0;
+            Timestamp startTime = Timestamp.valueOf(delayed ? now.minusMinutes(5) : now.minusDays(1));
+            Timestamp endTime = Timestamp.valueOf(delayed ? now.plusDays(1) : now.minusMinutes(5));
+            String direction = i % 4 == 1 ? "OUT" : "IN";
+            passRows.add(new Object[]{id, userId, delayed ? "DELAYED" : "ACTIVE", territoryId, startTime, endTime,
+                    direction});
+            if (!delayed) {
+                activeIds.add(id);
+                if (i % 3 == 0) {
+                    crossingRows.add(new Object[]{id, checkpointId});
+                }
+            }
+        }
+        batchInsert("INSERT INTO passes (id, user_id, status, time_type, territory_id, added_at, start_time, end_time, " +
+                "dtype, favorite, expected_direction) " +
+                "VALUES (?, ?, CAST(? AS pass_status_enum), 'PERMANENT', ?, now(), ?, ?, 'WALK', false, ?)", passRows);
+        batchInsert("INSERT INTO crossings (pass_id, checkpoint_id, local_date_time, performed_at, direction) " +
+                "VALUES (?, ?, now(), now(), 'IN')", crossingRows);
+        return activeIds;
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH, rows.size())));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package ru.ac.checkpointmanager.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.ac.checkpointmanager.config.EnablePostgresAndRedisTestContainers;
+import ru.ac.checkpointmanager.model.car.CarBrand;
+import ru.ac.checkpointmanager.repository.VisitorRepository;
+import ru.ac.checkpointmanager.repository.car.CarBrandRepository;
+import ru.ac.checkpointmanager.repository.car.CarRepository;
+import ru.ac.checkpointmanager.util.TestUtils;
+import ru.ac.checkpointmanager.utils.SearchUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Замер поиска по фрагменту номера машины и имени посетителя на 1_000_000 машин и посетителей.
+ * Запускается отдельной задачей: ./gradlew benchmark
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext
+@EnablePostgresAndRedisTestContainers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Tag("benchmark")
+@Slf4j
+class TrigramSearchBenchmarkTest {
+
+    private static final int ROWS = 1_000_000;
+
+    private static final int SEARCHES = 200;
+
+    private static final String PLATE_LETTERS = "ABEKMHOPCTYX";
+
+    private static final String[] SURNAMES = {"ivanov", "petrov", "sidorov", "smirnov", "kuznetsov"};
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @Autowired
+    CarBrandRepository carBrandRepository;
+
+    @Autowired
+    VisitorRepository visitorRepository;
+
+    final Random random = new Random(42);
+
+    @BeforeEach
+    void init() {
+        CarBrand brand = carBrandRepository.saveAndFlush(TestUtils.getCarBrand());
+        jdbcTemplate.update("INSERT INTO cars (id, license_plate, brand_id, car_phone) " +
+                "SELECT gen_random_uuid(), " +
+                "substr('" + PLATE_LETTERS + "', 1 + g % 12, 1) || lpad((g * 7919 % 1000)::text, 3, '0') || " +
+                "substr('" + PLATE_LETTERS + "', 1 + (g / 12) % 12, 1) || " +
+                "substr('" + PLATE_LETTERS + "', 1 + (g / 144) % 12, 1) || (10 + g % 190)::text, " +
+                "?, '+7916' || lpad(g::text, 7, '0') " +
+                "FROM generate_series(1, ?) g", brand.getId(), ROWS);
+        jdbcTemplate.update("INSERT INTO visitors (id, full_name, visitor_phone) " +
+                "SELECT gen_random_uuid(), (ARRAY['Ivanov', 'Petrov', 'Sidorov', 'Smirnov', 'Kuznetsov'])" +
+                "[1 + g % 5] || ' ' || substr(md5(g::text), 1, 10), '+7900' || lpad(g::text, 7, '0') " +
+                "FROM generate_series(1, ?) g", ROWS);
+        jdbcTemplate.execute("ANALYZE cars");
+        jdbcTemplate.execute("ANALYZE visitors");
+    }
+
+    @AfterEach
+    void clear() {
+        jdbcTemplate.update("DELETE FROM cars");
+        jdbcTemplate.update("DELETE FROM visitors");
+        carBrandRepository.deleteAll();
+    }
+
+    @Test
+    void searchByLicensePlate_MillionCars_UseTrigramIndexAndMeasureLatency() {
+        String pattern = SearchUtils.containsIgnoreCasePattern("A123");
+        Assertions.assertThat(explain("SELECT id FROM cars WHERE lower(license_plate) LIKE ?", pattern))
+                .contains("cars_license_plate_trgm_idx");
+
+        measure("license plate", part -> carRepository.searchByLicensePlate(
+                SearchUtils.containsIgnoreCasePattern(part)).size(), this::randomPlatePart);
+    }
+
+    @Test
+    void searchByName_MillionVisitors_UseTrigramIndexAndMeasureLatency() {
+        String pattern = SearchUtils.containsIgnoreCasePattern("ov 1a2");
+        Assertions.assertThat(explain("SELECT id FROM visitors WHERE lower(full_name) LIKE ?", pattern))
+                .contains("visitors_full_name_trgm_idx");
+
+        measure("visitor name", part -> visitorRepository.searchByName(
+                SearchUtils.containsIgnoreCasePattern(part)).size(), this::randomNamePart);
+    }
+
+    private void measure(String name, Function<String, Integer> search, Supplier<String> parts) {
+        for (int i = 0; i < SEARCHES / 4; i++) {
+            search.apply(parts.get());
+        }
+        long[] latencies = new long[SEARCHES];
+        long found = 0;
+        for (int i = 0; i < SEARCHES; i++) {
+            String part = parts.get();
+            long start = System.nanoTime();
+            found += search.apply(part);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        log.info("Search by {} on {} rows: p50 {} ms, p99 {} ms, {} rows found on average", name, ROWS,
+                latencies[SEARCHES / 2] / 1_000_000.0, latencies[SEARCHES * 99 / 100] / 1_000_000.0,
+                found / SEARCHES);
+    }
+
+    private String explain(String sql, String pattern) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql.replace("?", "'" + pattern + "'"),
+                String.class);
+        log.info("Plan: {}", plan);
+        return String.join("\n", plan);
+    }
+
+    /**
+     * Фрагмент номера, как его набирает охранник: буква и три цифры
+     */
+    private String randomPlatePart() {
+        return PLATE_LETTERS.charAt(random.nextInt(PLATE_LETTERS.length())) + "%03d".formatted(random.nextInt(1000));
+    }
+
+    /**
+     * Окончание фамилии и начало уникальной части имени
+     */
+    private String randomNamePart() {
+        String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+        return surname.substring(surname.length() - 3) + " " + Integer.toHexString(random.nextInt(4096));
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import ru.ac.checkpointmanager.security.filter.JwtAuthenticationFilter;
 import ru.ac.checkpointmanager.security.jwt.JwtService;
 import ru.ac.checkpointmanager.security.jwt.JwtValidator;
+import ru.ac.checkpointmanager.security.principal.PrincipalCache;
 
 @TestConfiguration
 public class ValidationTestConfiguration {
@@ -23,4 +24,7 @@ public class ValidationTestConfiguration {
     @MockBean
     UserDetailsService userDetailsService;
 
+    @MockBean
+    PrincipalCache principalCache;
+
 }
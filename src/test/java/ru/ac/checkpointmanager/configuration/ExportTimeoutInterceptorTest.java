@@ -0,0 +1,36 @@
+package ru.ac.checkpointmanager.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import ru.ac.checkpointmanager.utils.ExportUtils;
+
+import java.time.Duration;
+
+class ExportTimeoutInterceptorTest {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(30);
+
+    ExportTimeoutInterceptor interceptor = new ExportTimeoutInterceptor(TIMEOUT);
+
+    @Test
+    void beforeConcurrentHandling_ExportRequest_SetExportTimeout() {
+        AsyncWebRequest request = Mockito.mock(AsyncWebRequest.class);
+        Mockito.when(request.getAttribute(ExportUtils.EXPORT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST))
+                .thenReturn(Boolean.TRUE);
+
+        interceptor.beforeConcurrentHandling(request, () -> null);
+
+        Mockito.verify(request).setTimeout(TIMEOUT.toMillis());
+    }
+
+    @Test
+    void beforeConcurrentHandling_OtherRequest_KeepDefaultTimeout() {
+        AsyncWebRequest request = Mockito.mock(AsyncWebRequest.class);
+
+        interceptor.beforeConcurrentHandling(request, () -> null);
+
+        Mockito.verify(request, Mockito.never()).setTimeout(Mockito.anyLong());
+    }
+}
@@ -0,0 +1,68 @@
+package ru.ac.checkpointmanager.configuration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class LogRingBufferTest {
+
+    @Test
+    void offer_BufferFull_RejectUntilPolled() {
+        LogRingBuffer<Integer> buffer = new LogRingBuffer<>(3);
+
+        for (int i = 0; i < buffer.capacity(); i++) {
+            Assertions.assertThat(buffer.offer(i)).isTrue();
+        }
+
+        Assertions.assertThat(buffer.capacity()).isEqualTo(4);
+        Assertions.assertThat(buffer.offer(100)).isFalse();
+        Assertions.assertThat(buffer.poll()).isZero();
+        Assertions.assertThat(buffer.offer(100)).isTrue();
+        Assertions.assertThat(buffer.size()).isEqualTo(4);
+    }
+
+    @Test
+    void offer_ConcurrentProducers_ConsumerGetsEveryElementOnce() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 50_000;
+        LogRingBuffer<Integer> buffer = new LogRingBuffer<>(256);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int first = p * perProducer;
+            executor.submit(() -> {
+                start.await();
+                for (int i = first; i < first + perProducer; i++) {
+                    while (!buffer.offer(i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        Set<Integer> received = new HashSet<>();
+        List<Integer> duplicates = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received.size() + duplicates.size() < producers * perProducer && System.nanoTime() < deadline) {
+            Integer element = buffer.poll();
+            if (element != null && !received.add(element)) {
+                duplicates.add(element);
+            }
+        }
+        executor.shutdownNow();
+
+        Assertions.assertThat(duplicates).isEmpty();
+        Assertions.assertThat(received).hasSize(producers * perProducer);
+        Assertions.assertThat(buffer.poll()).isNull();
+    }
+}
@@ -0,0 +1,233 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CircuitBreakerCacheTest {
+
+    RedisCache redis;
+
+    RedisConnectionFactory connectionFactory;
+
+    RedisCircuitBreaker breaker;
+
+    @BeforeEach
+    void init() {
+        redis = new RedisCache("user");
+        connectionFactory = Mockito.mock(RedisConnectionFactory.class);
+        Mockito.when(connectionFactory.getConnection()).thenAnswer(invocation -> {
+            redis.checkAvailable();
+            return Mockito.mock(RedisConnection.class);
+        });
+        breaker = new RedisCircuitBreaker(connectionFactory, 2, Duration.ZERO);
+    }
+
+    @Test
+    void get_RedisDown_OpenAfterThresholdAndStopCallingRedis() {
+        CircuitBreakerCache cache = cache(redis, false);
+        redis.down = true;
+
+        cache.put("key", "value");
+        cache.get("other");
+        int callsWhenOpened = redis.calls.get();
+        Object value = cache.get("key", String.class);
+        cache.evict("other");
+
+        Assertions.assertThat(value).isEqualTo("value");
+        Assertions.assertThat(breaker.getState().getState()).isEqualTo(RedisCircuitBreaker.State.OPEN.name());
+        Assertions.assertThat(redis.calls.get()).isEqualTo(callsWhenOpened);
+    }
+
+    @Test
+    void probe_RedisRecovered_EvictKeysChangedLocallyAndClose() {
+        CircuitBreakerCache cache = cache(redis, false);
+        redis.put("key", "old");
+        redis.put("untouched", "value");
+        openBreaker(cache);
+
+        cache.put("key", "new");
+        breaker.probe();
+        Assertions.assertThat(breaker.isClosed()).isFalse();
+        redis.down = false;
+        breaker.probe();
+
+        Assertions.assertThat(breaker.isClosed()).isTrue();
+        Assertions.assertThat(breaker.getState().getPendingKeys()).isZero();
+        Assertions.assertThat(redis.get("key")).isNull();
+        Assertions.assertThat(cache.get("untouched", String.class)).isEqualTo("value");
+    }
+
+    @Test
+    void probe_ConfirmationCacheRecovered_ReplayPutsAndEvictUsedTokens() {
+        RedisCache registration = new RedisCache(CacheNames.REGISTRATION);
+        CircuitBreakerCache cache = cache(registration, true);
+        registration.put("used-token", "registration");
+        redis = registration;
+        openBreaker(cache);
+
+        cache.put("new-token", "new registration");
+        cache.evict("used-token");
+        Assertions.assertThat(cache.get("new-token", String.class)).isEqualTo("new registration");
+        registration.down = false;
+        breaker.probe();
+
+        Assertions.assertThat(registration.get("new-token", String.class)).isEqualTo("new registration");
+        Assertions.assertThat(registration.get("used-token")).isNull();
+    }
+
+    @Test
+    void probe_ConfirmationCacheRecovered_ReplayWithRemainingTtl() {
+        RedisCache registration = new RedisCache(CacheNames.REGISTRATION);
+        CircuitBreakerCache cache = cache(registration, true);
+        redis = registration;
+        openBreaker(cache);
+
+        cache.put("token", "registration");
+        registration.down = false;
+        breaker.probe();
+
+        Assertions.assertThat(registration.get("token", String.class)).isEqualTo("registration");
+        Assertions.assertThat(registration.ttls.get("token")).isNotNull()
+                .isPositive().isLessThanOrEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void probe_ConfirmationExpiredLocally_NotReplay() {
+        RedisCache registration = new RedisCache(CacheNames.REGISTRATION);
+        CircuitBreakerCache cache = new CircuitBreakerCache(registration, breaker, 0, 10, true);
+        breaker.register(cache);
+        redis = registration;
+        openBreaker(cache);
+
+        cache.put("token", "registration");
+        registration.down = false;
+        breaker.probe();
+
+        Assertions.assertThat(registration.get("token")).isNull();
+    }
+
+    @Test
+    void clear_RedisDown_ClearRedisAfterRecovery() {
+        CircuitBreakerCache cache = cache(redis, false);
+        redis.put("key", "value");
+        openBreaker(cache);
+
+        cache.clear();
+        redis.down = false;
+        breaker.probe();
+
+        Assertions.assertThat(redis.get("key")).isNull();
+    }
+
+    @Test
+    void get_SerializationError_ThrowAndKeepClosed() {
+        CircuitBreakerCache cache = cache(redis, false);
+        redis.serializationError = true;
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThatExceptionOfType(SerializationException.class)
+                    .isThrownBy(() -> cache.get("key"));
+        }
+
+        Assertions.assertThat(breaker.isClosed()).isTrue();
+    }
+
+    private CircuitBreakerCache cache(RedisCache redisCache, boolean replayPuts) {
+        CircuitBreakerCache cache = new CircuitBreakerCache(redisCache, breaker, TimeUnit.MINUTES.toNanos(1), 10,
+                replayPuts);
+        breaker.register(cache);
+        return cache;
+    }
+
+    private void openBreaker(CircuitBreakerCache cache) {
+        redis.down = true;
+        cache.get("probe");
+        cache.get("probe");
+        Assertions.assertThat(breaker.isClosed()).isFalse();
+    }
+
+    /**
+     * Кэш в памяти, который отвечает как недоступный Redis
+     */
+    static class RedisCache extends ConcurrentMapCache {
+
+        volatile boolean down;
+
+        volatile boolean serializationError;
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        /**
+         * Время жизни записей, перенесенных из локального кэша
+         */
+        final Map<Object, Duration> ttls = new ConcurrentHashMap<>();
+
+        RedisCache(String name) {
+            super(name);
+        }
+
+        @Override
+        protected Object lookup(@NonNull Object key) {
+            checkAvailable();
+            if (serializationError) {
+                throw new SerializationException("Could not read");
+            }
+            return super.lookup(key);
+        }
+
+        @Override
+        public void put(@NonNull Object key, Object value) {
+            checkAvailable();
+            Duration ttl = ReplayTtl.current();
+            if (ttl != null) {
+                ttls.put(key, ttl);
+            }
+            super.put(key, value);
+        }
+
+        @Override
+        public boolean evictIfPresent(@NonNull Object key) {
+            checkAvailable();
+            return super.evictIfPresent(key);
+        }
+
+        @Override
+        public void evict(@NonNull Object key) {
+            checkAvailable();
+            super.evict(key);
+        }
+
+        @Override
+        public boolean invalidate() {
+            checkAvailable();
+            return super.invalidate();
+        }
+
+        @Override
+        public void clear() {
+            checkAvailable();
+            super.clear();
+        }
+
+        void checkAvailable() {
+            calls.incrementAndGet();
+            if (down) {
+                throw new RedisConnectionFailureException("Connection refused");
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import ru.ac.checkpointmanager.dto.CarBrandDTO;
+import ru.ac.checkpointmanager.dto.PhoneDTO;
+import ru.ac.checkpointmanager.dto.TerritoryDTO;
+import ru.ac.checkpointmanager.dto.avatar.AvatarDTO;
+import ru.ac.checkpointmanager.dto.user.EmailConfirmationDTO;
+import ru.ac.checkpointmanager.dto.user.RegistrationConfirmationDTO;
+import ru.ac.checkpointmanager.dto.user.UserResponseDTO;
+import ru.ac.checkpointmanager.model.enums.PhoneNumberType;
+import ru.ac.checkpointmanager.model.enums.Role;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+class CompactRedisSerializerTest {
+
+    GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+
+    CompactRedisSerializer serializer = new CompactRedisSerializer(CacheValueCodecs.all(), json);
+
+    @ParameterizedTest
+    @MethodSource("getCachedValues")
+    void serialize_CachedDto_RoundTrip(Object value) {
+        Assertions.assertThat(serializer.deserialize(serializer.serialize(value))).usingRecursiveComparison()
+                .isEqualTo(value);
+    }
+
+    @Test
+    void serialize_CachedDto_SmallerThanJson() {
+        UserResponseDTO user = new UserResponseDTO(TestUtils.USER_ID, "Ivanov Ivan", "+79001234567",
+                "ivanov@example.com", false, Role.USER, null);
+
+        Assertions.assertThat(serializer.serialize(user)).hasSizeLessThan(json.serialize(user).length / 2);
+        Assertions.assertThat(serializer.serialize(getPhone())).hasSizeLessThan(json.serialize(getPhone()).length);
+    }
+
+    @Test
+    void serialize_ValueWithoutCodec_WriteJsonAfterHeader() {
+        Map<String, String> value = Map.of("key", "value");
+
+        byte[] bytes = serializer.serialize(value);
+
+        Assertions.assertThat(Arrays.copyOfRange(bytes, CompactRedisSerializer.HEADER_LENGTH, bytes.length))
+                .isEqualTo(json.serialize(value));
+        Assertions.assertThat(serializer.deserialize(bytes)).isEqualTo(value);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getValuesWithoutCodec")
+    void serialize_ValueWithoutCodec_RoundTrip(Object value) {
+        Assertions.assertThat(serializer.deserialize(serializer.serialize(value))).usingRecursiveComparison()
+                .isEqualTo(value);
+    }
+
+    @Test
+    void deserialize_JsonWrittenBeforeCompactFormat_ReadByFallback() {
+        PhoneDTO phone = getPhone();
+
+        Assertions.assertThat(serializer.deserialize(json.serialize(phone))).usingRecursiveComparison()
+                .isEqualTo(phone);
+    }
+
+    @Test
+    void deserialize_WrittenWithAnotherSchemaVersion_ReadAsCacheMiss() {
+        CacheValueCodec<PhoneDTO> newerPhone = new CacheValueCodec<>() {
+            @Override
+            public int typeId() {
+                return CacheValueCodecs.PHONE.typeId();
+            }
+
+            @Override
+            public int version() {
+                return CacheValueCodecs.PHONE.version() + 1;
+            }
+
+            @Override
+            public Class<PhoneDTO> type() {
+                return PhoneDTO.class;
+            }
+
+            @Override
+            public void write(PhoneDTO value, DataOutput out) {
+            }
+
+            @Override
+            public PhoneDTO read(DataInput in) {
+                return null;
+            }
+        };
+        byte[] bytes = new CompactRedisSerializer(List.of(newerPhone), json).serialize(getPhone());
+
+        Assertions.assertThat(serializer.deserialize(bytes)).isNull();
+        Assertions.assertThat(serializer.deserialize(serializer.serialize(List.of(getPhone())))).asList()
+                .hasSize(1);
+        Assertions.assertThat(serializer.deserialize(
+                new CompactRedisSerializer(List.of(newerPhone), json).serialize(List.of(getPhone())))).isNull();
+    }
+
+    private static Stream<Object> getCachedValues() {
+        List<TerritoryDTO> territories = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            territories.add(new TerritoryDTO(UUID.randomUUID(), "Территория " + i, null, "Москва", "Ленина, " + i));
+        }
+        return Stream.of(
+                new UserResponseDTO(TestUtils.USER_ID, "Ivanov Ivan", "+79001234567", "ivanov@example.com", false,
+                        Role.USER, new AvatarDTO(UUID.randomUUID(), "image/png")),
+                new UserResponseDTO(TestUtils.USER_ID, "Ivanov Ivan", null, "ivanov@example.com", null,
+                        Role.ADMIN, null),
+                territories,
+                List.of(),
+                getPhone(),
+                new EmailConfirmationDTO("old@example.com", "new@example.com", UUID.randomUUID().toString()),
+                new RegistrationConfirmationDTO("Ivanov Ivan", "ivanov@example.com", "$2a$10$hash",
+                        UUID.randomUUID().toString()));
+    }
+
+    private static Stream<Object> getValuesWithoutCodec() {
+        return Stream.of(
+                new CarBrandDTO("Lada"),
+                new ArrayList<>(List.of(new CarBrandDTO("Lada"), new CarBrandDTO("Kia"))),
+                "value");
+    }
+
+    private static PhoneDTO getPhone() {
+        return new PhoneDTO(UUID.randomUUID(), "+79001234567", PhoneNumberType.MOBILE, TestUtils.USER_ID, "note");
+    }
+}
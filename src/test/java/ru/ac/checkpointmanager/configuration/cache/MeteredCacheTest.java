@@ -0,0 +1,44 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.util.UUID;
+
+class MeteredCacheTest {
+
+    MeteredCache cache = new MeteredCache(new ConcurrentMapCache("user"));
+
+    @Test
+    void put_AfterMissOnSameKey_CountLoad() {
+        cache.get(TestUtils.USER_ID);
+        cache.put(TestUtils.USER_ID, "user");
+
+        Assertions.assertThat(cache.get(TestUtils.USER_ID)).isNotNull();
+        Assertions.assertThat(cache.getLoads()).isEqualTo(1);
+    }
+
+    @Test
+    void put_WithoutMissOrOnAnotherKey_NotCountLoad() {
+        cache.put(TestUtils.USER_ID, "user");
+        cache.get(UUID.randomUUID());
+        cache.put(TestUtils.USER_ID, "user");
+
+        Assertions.assertThat(cache.getLoads()).isZero();
+    }
+
+    @Test
+    void getWithValueLoader_Miss_CountLoadTime() {
+        String value = cache.get(TestUtils.USER_ID, () -> {
+            Thread.sleep(5);
+            return "user";
+        });
+        cache.get(TestUtils.USER_ID, () -> "other");
+
+        Assertions.assertThat(value).isEqualTo("user");
+        Assertions.assertThat(cache.getLoads()).isEqualTo(1);
+        Assertions.assertThat(cache.getLoadAvgMillis()).isGreaterThanOrEqualTo(5);
+    }
+}
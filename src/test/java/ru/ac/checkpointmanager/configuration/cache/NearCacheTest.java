@@ -0,0 +1,136 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import ru.ac.checkpointmanager.dto.NearCacheStatsDTO;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+class NearCacheTest {
+
+    ConcurrentMapCache redisCache;
+
+    List<String> published;
+
+    NearCache nearCache;
+
+    @BeforeEach
+    void init() {
+        redisCache = new ConcurrentMapCache("user");
+        published = new ArrayList<>();
+        nearCache = new NearCache(redisCache, Duration.ofMinutes(1).toNanos(), 10, 0,
+                (cacheName, key) -> published.add(cacheName + ":" + key));
+    }
+
+    @Test
+    void get_SecondRead_HitL1AndCountStats() {
+        redisCache.put(TestUtils.USER_ID, "user");
+
+        nearCache.get(TestUtils.USER_ID);
+        redisCache.evict(TestUtils.USER_ID);
+        Object second = nearCache.get(TestUtils.USER_ID, String.class);
+        nearCache.get(UUID.randomUUID());
+
+        Assertions.assertThat(second).isEqualTo("user");
+        NearCacheStatsDTO stats = nearCache.getStats();
+        Assertions.assertThat(stats).extracting(NearCacheStatsDTO::getL1Hits, NearCacheStatsDTO::getL2Hits,
+                NearCacheStatsDTO::getMisses, NearCacheStatsDTO::getL1Size).containsExactly(1L, 1L, 1L, 1);
+    }
+
+    @Test
+    void putAndEvict_WriteBothLevelsAndPublishKey() {
+        nearCache.put(TestUtils.USER_ID, "user");
+        nearCache.evict(TestUtils.USER_ID);
+
+        Assertions.assertThat(nearCache.get(TestUtils.USER_ID)).isNull();
+        Assertions.assertThat(redisCache.get(TestUtils.USER_ID)).isNull();
+        Assertions.assertThat(published).containsExactly("user:" + TestUtils.USER_ID, "user:" + TestUtils.USER_ID);
+    }
+
+    @Test
+    void invalidateLocal_ChangedOnAnotherNode_ReadFromL2() {
+        nearCache.put(TestUtils.USER_ID, "old");
+        redisCache.put(TestUtils.USER_ID, "new");
+
+        nearCache.invalidateLocal(TestUtils.USER_ID.toString());
+
+        Assertions.assertThat(nearCache.get(TestUtils.USER_ID, String.class)).isEqualTo("new");
+    }
+
+    @Test
+    void get_L1EntryExpired_ReadFromL2() {
+        nearCache = new NearCache(redisCache, 0, 10, 0, (cacheName, key) -> {
+        });
+        nearCache.put("key", "old");
+        redisCache.put("key", "new");
+
+        Assertions.assertThat(nearCache.get("key", String.class)).isEqualTo("new");
+    }
+
+    @Test
+    void get_EarlyRefreshCertain_ReadFromL2BeforeExpiration() {
+        nearCache = new NearCache(redisCache, Duration.ofMinutes(1).toNanos(), 10, 1e15, (cacheName, key) -> {
+        });
+        redisCache.put("key", "old");
+        nearCache.get("key");
+        redisCache.put("key", "new");
+
+        Assertions.assertThat(nearCache.get("key", String.class)).isEqualTo("new");
+        NearCacheStatsDTO stats = nearCache.getStats();
+        Assertions.assertThat(stats.getEarlyRefreshes()).isEqualTo(1);
+        Assertions.assertThat(stats.getL2Hits()).isEqualTo(2);
+    }
+
+    @Test
+    void put_OverMaxSize_KeepL1Bounded() {
+        for (int i = 0; i < 50; i++) {
+            nearCache.put("key" + i, "value");
+        }
+
+        Assertions.assertThat(nearCache.getStats().getL1Size()).isLessThanOrEqualTo(10);
+        Assertions.assertThat(nearCache.get("key0")).isNotNull();
+    }
+
+    @Test
+    void onMessage_FromAnotherInstance_InvalidateL1AndSkipOwnMessages() {
+        CacheManager redisCacheManager = new ConcurrentMapCacheManager("user", "email");
+        StringRedisTemplate redisTemplate = Mockito.mock(StringRedisTemplate.class);
+        List<String> sent = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            sent.add(invocation.getArgument(1));
+            return null;
+        }).when(redisTemplate)
+                .convertAndSend(Mockito.eq(NearCacheManager.INVALIDATION_CHANNEL), Mockito.anyString());
+        NearCacheManager cacheManager = new NearCacheManager(redisCacheManager, redisTemplate,
+                new RedisCircuitBreaker(null, 3, Duration.ofSeconds(5)), List.of("user"), Duration.ofMinutes(1), 10,
+                0);
+        Assertions.assertThat(((MeteredCache) cacheManager.getCache("email")).getDelegate())
+                .isNotInstanceOf(NearCache.class);
+        NearCache userCache = (NearCache) ((MeteredCache) cacheManager.getCache("user")).getDelegate();
+        userCache.put("key", "old");
+        redisCacheManager.getCache("user").put("key", "new");
+
+        cacheManager.onMessage(message(sent.get(0)), null);
+        Assertions.assertThat(userCache.get("key", String.class)).isEqualTo("old");
+
+        cacheManager.onMessage(message(UUID.randomUUID() + "|user|key"), null);
+        Assertions.assertThat(userCache.get("key", String.class)).isEqualTo("new");
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(NearCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
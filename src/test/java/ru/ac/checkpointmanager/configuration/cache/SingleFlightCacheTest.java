@@ -0,0 +1,112 @@
+package ru.ac.checkpointmanager.configuration.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SingleFlightCacheTest {
+
+    private static final int THREADS_PER_KEY = 16;
+
+    ConcurrentMapCache redisCache = new ConcurrentMapCache("user");
+
+    SingleFlightCache cache = new SingleFlightCache(redisCache, null);
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS_PER_KEY * 2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void get_BurstOfMissesOnTwoKeys_LoadEachKeyOnce() throws Exception {
+        Map<String, AtomicInteger> dbQueries = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS_PER_KEY * 2; i++) {
+            String key = "key" + i % 2;
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.get(key, () -> {
+                    dbQueries.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                    awaitCoalesced(THREADS_PER_KEY * 2 - 2);
+                    return "value-" + key;
+                });
+            }));
+        }
+
+        start.countDown();
+
+        for (int i = 0; i < results.size(); i++) {
+            Assertions.assertThat(results.get(i).get(5, TimeUnit.SECONDS)).isEqualTo("value-key" + i % 2);
+        }
+        Assertions.assertThat(dbQueries).hasSize(2);
+        Assertions.assertThat(dbQueries.values()).allMatch(count -> count.get() == 1);
+        Assertions.assertThat(cache.getCoalesced()).isEqualTo(THREADS_PER_KEY * 2 - 2);
+        Assertions.assertThat(redisCache.get("key0", String.class)).isEqualTo("value-key0");
+    }
+
+    @Test
+    void get_LoadFailed_SameExceptionForWaitingThreadsAndNextCallLoadsAgain() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger dbQueries = new AtomicInteger();
+        Callable<String> failingLoader = () -> {
+            dbQueries.incrementAndGet();
+            awaitCoalesced(THREADS_PER_KEY - 1);
+            throw new IllegalStateException("db is down");
+        };
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS_PER_KEY; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.get("key", failingLoader);
+            }));
+        }
+
+        start.countDown();
+
+        for (Future<String> result : results) {
+            Assertions.assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(Cache.ValueRetrievalException.class)
+                    .hasRootCauseMessage("db is down");
+        }
+        Assertions.assertThat(dbQueries).hasValue(1);
+        Assertions.assertThat(cache.get("key", () -> "value")).isEqualTo("value");
+    }
+
+    @Test
+    void get_ValueAlreadyInCache_NotCallLoader() {
+        redisCache.put("key", "cached");
+
+        String value = cache.get("key", () -> {
+            throw new IllegalStateException("must not be called");
+        });
+
+        Assertions.assertThat(value).isEqualTo("cached");
+    }
+
+    /**
+     * Загрузка ждет, пока остальные потоки не присоединятся к ней, иначе поток мог бы прийти уже после загрузки
+     */
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (cache.getCoalesced() < expected && System.nanoTime() - deadline < 0) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package ru.ac.checkpointmanager.it;
 
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,6 +11,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -26,6 +30,9 @@ import org.springframework.web.context.WebApplicationContext;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.ac.checkpointmanager.config.security.WithMockCustomUser;
+import ru.ac.checkpointmanager.configuration.cache.CacheNames;
+import ru.ac.checkpointmanager.configuration.cache.RedisCircuitBreaker;
 import ru.ac.checkpointmanager.model.Territory;
 import ru.ac.checkpointmanager.model.User;
 import ru.ac.checkpointmanager.model.enums.Role;
@@ -38,6 +45,7 @@ import ru.ac.checkpointmanager.util.UrlConstants;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @DirtiesContext
@@ -57,6 +65,9 @@ class CrashedRedisIntegrationTest {
     @Autowired
     WebApplicationContext context;
 
+    @Autowired
+    CacheManager cacheManager;
+
     User savedUser;
 
     @Container
@@ -114,4 +125,22 @@ class CrashedRedisIntegrationTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$").isNotEmpty());
     }
 
+    @Test
+    @SneakyThrows
+    @WithMockCustomUser
+    void getCircuitBreakerState_CacheConnectionFailed_OpenAndKeepConfirmationLocally() {
+        Cache registration = cacheManager.getCache(CacheNames.REGISTRATION);
+        for (int i = 0; i < 3; i++) {
+            registration.get(UUID.randomUUID().toString());
+        }
+        registration.put("token", "registration");
+
+        Assertions.assertThat(registration.get("token", String.class)).isEqualTo("registration");
+        mockMvc.perform(MockMvcRequestBuilders.get(UrlConstants.CACHE_URL + "/circuit-breaker"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.state",
+                        Matchers.is(RedisCircuitBreaker.State.OPEN.name())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.pendingKeys", Matchers.greaterThanOrEqualTo(1)));
+    }
+
 }
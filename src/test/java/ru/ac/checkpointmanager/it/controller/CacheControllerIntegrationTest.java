@@ -0,0 +1,129 @@
+package ru.ac.checkpointmanager.it.controller;
+
+import lombok.SneakyThrows;
+import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ru.ac.checkpointmanager.config.EnablePostgresAndRedisTestContainers;
+import ru.ac.checkpointmanager.config.security.WithMockCustomUser;
+import ru.ac.checkpointmanager.configuration.cache.CacheNames;
+import ru.ac.checkpointmanager.util.UrlConstants;
+
+import java.util.UUID;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DirtiesContext
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@EnablePostgresAndRedisTestContainers
+@WithMockCustomUser
+class CacheControllerIntegrationTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    WebApplicationContext context;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    StringRedisTemplate redisTemplate;
+
+    Cache userCache;
+
+    @BeforeEach
+    void init() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .apply(SecurityMockMvcConfigurers.springSecurity())
+                .build();
+        userCache = cacheManager.getCache(CacheNames.USER);
+    }
+
+    @AfterEach
+    void clear() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    @SneakyThrows
+    void getStats_EntriesInRedis_ReturnCountersAndPayloadSize() {
+        UUID userId = UUID.randomUUID();
+        userCache.put(userId, "user");
+        userCache.put(UUID.randomUUID(), "other user");
+        userCache.get(userId);
+        userCache.get(UUID.randomUUID());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(UrlConstants.CACHE_URL + "/stats"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.cacheName == 'user')].entries",
+                        Matchers.contains(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.cacheName == 'user')].payloadBytes",
+                        Matchers.contains(Matchers.greaterThan(0))))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.cacheName == 'user')].exact",
+                        Matchers.contains(true)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.cacheName == 'user')].hits",
+                        Matchers.contains(Matchers.greaterThanOrEqualTo(1))))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.cacheName == 'user')].misses",
+                        Matchers.contains(Matchers.greaterThanOrEqualTo(1))))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.cacheName == 'user')].near",
+                        Matchers.hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[?(@.cacheName == 'registration')].entries",
+                        Matchers.contains(0)));
+    }
+
+    @Test
+    @SneakyThrows
+    void evict_ByKey_RemoveOnlyThisEntryFromRedis() {
+        UUID userId = UUID.randomUUID();
+        UUID otherUserId = UUID.randomUUID();
+        userCache.put(userId, "user");
+        userCache.put(otherUserId, "other user");
+
+        mockMvc.perform(MockMvcRequestBuilders.delete(UrlConstants.CACHE_URL + "/{cacheName}/keys/{key}",
+                        CacheNames.USER, userId))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        Assertions.assertThat(redisTemplate.hasKey("user::" + userId)).isFalse();
+        Assertions.assertThat(redisTemplate.hasKey("user::" + otherUserId)).isTrue();
+    }
+
+    @Test
+    @SneakyThrows
+    void clearCache_ManyEntries_RemoveAllKeysOfThisCache() {
+        for (int i = 0; i < 2500; i++) {
+            userCache.put(UUID.randomUUID(), "user");
+        }
+        cacheManager.getCache(CacheNames.PHONE).put("key", "phone");
+
+        mockMvc.perform(MockMvcRequestBuilders.delete(UrlConstants.CACHE_URL + "/{cacheName}", CacheNames.USER))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        Assertions.assertThat(redisTemplate.keys("user::*")).isEmpty();
+        Assertions.assertThat(redisTemplate.hasKey("phone::key")).isTrue();
+    }
+
+    @Test
+    @SneakyThrows
+    void clearCache_UnknownCache_HandleAndReturnNotFound() {
+        mockMvc.perform(MockMvcRequestBuilders.delete(UrlConstants.CACHE_URL + "/{cacheName}", "unknown"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
@@ -21,6 +21,8 @@ import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.ac.checkpointmanager.config.EnablePostgresAndRedisTestContainers;
+import ru.ac.checkpointmanager.dto.CrossingBatchItemDTO;
+import ru.ac.checkpointmanager.dto.CrossingBatchRequestDTO;
 import ru.ac.checkpointmanager.dto.CrossingRequestDTO;
 import ru.ac.checkpointmanager.exception.ExceptionUtils;
 import ru.ac.checkpointmanager.exception.handler.ErrorCode;
@@ -327,6 +329,85 @@ class CrossingControllerIntegrationTest {
         CheckResultActionsUtils.checkNotFoundFields(resultActions);
     }
 
+    @Test
+    @SneakyThrows
+    void addCrossings_BatchWithUnorderedAndRepeatedKeys_ProcessInTimeOrderAndIgnoreDuplicatesOnReplay() {
+        //given
+        Pass savedPass = setupAndSavePass(PassStatus.ACTIVE);
+        Checkpoint savedCheckPoint = checkpointRepository.saveAndFlush(
+                TestUtils.getCheckpoint(CheckpointType.AUTO, savedPass.getTerritory()));
+        ZonedDateTime now = ZonedDateTime.now();
+        CrossingBatchRequestDTO batchRequestDTO = new CrossingBatchRequestDTO(List.of(
+                new CrossingBatchItemDTO("out", savedPass.getId(), savedCheckPoint.getId(), now.minusMinutes(10),
+                        Direction.OUT),
+                new CrossingBatchItemDTO("in", savedPass.getId(), savedCheckPoint.getId(), now.minusMinutes(20),
+                        Direction.IN),
+                new CrossingBatchItemDTO("in", savedPass.getId(), savedCheckPoint.getId(), now.minusMinutes(20),
+                        Direction.IN),
+                new CrossingBatchItemDTO("in-again", savedPass.getId(), savedCheckPoint.getId(), now.minusMinutes(5),
+                        Direction.IN)
+        ));
+        String batchDtoString = TestUtils.jsonStringFromObject(batchRequestDTO);
+        //when
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders.post(UrlConstants.CROSSING_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batchDtoString));
+        ResultActions replayActions = mockMvc.perform(MockMvcRequestBuilders.post(UrlConstants.CROSSING_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batchDtoString));
+        //then
+        resultActions.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value("CREATED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value("CREATED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[2].status").value("DUPLICATE"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[3].status").value("REJECTED"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[3].message")
+                        .value(ExceptionUtils.INACTIVE_PASS.formatted(savedPass.getId())));
+        replayActions.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value("DUPLICATE"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value("DUPLICATE"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[3].status").value("REJECTED"));
+        Assertions.assertThat(crossingRepository.findCrossingsByPassId(savedPass.getId())).hasSize(2);
+        Optional<Pass> passOptional = passRepository.findById(savedPass.getId());
+        Assertions.assertThat(passOptional).isPresent();
+        Assertions.assertThat(passOptional.get().getStatus()).isEqualTo(PassStatus.COMPLETED);
+        Assertions.assertThat(passOptional.get().getExpectedDirection()).isEqualTo(Direction.IN);
+    }
+
+    @Test
+    @SneakyThrows
+    void addCrossings_KeyAlreadyUsedAtOtherCheckpoint_CreateCrossing() {
+        //given
+        Pass savedPass = setupAndSavePass(PassStatus.ACTIVE);
+        Checkpoint entrance = checkpointRepository.saveAndFlush(
+                TestUtils.getCheckpoint(CheckpointType.AUTO, savedPass.getTerritory()));
+        Checkpoint exit = checkpointRepository.saveAndFlush(
+                TestUtils.getCheckpoint(CheckpointType.AUTO, savedPass.getTerritory()));
+        ZonedDateTime now = ZonedDateTime.now();
+        String entranceBatch = TestUtils.jsonStringFromObject(new CrossingBatchRequestDTO(List.of(
+                new CrossingBatchItemDTO("key", savedPass.getId(), entrance.getId(), now.minusMinutes(20),
+                        Direction.IN))));
+        String exitBatch = TestUtils.jsonStringFromObject(new CrossingBatchRequestDTO(List.of(
+                new CrossingBatchItemDTO("key", savedPass.getId(), exit.getId(), now.minusMinutes(10),
+                        Direction.OUT))));
+        //when
+        ResultActions entranceActions = mockMvc.perform(MockMvcRequestBuilders
+                .post(UrlConstants.CROSSING_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(entranceBatch));
+        ResultActions exitActions = mockMvc.perform(MockMvcRequestBuilders
+                .post(UrlConstants.CROSSING_URL + "/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(exitBatch));
+        //then
+        entranceActions.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value("CREATED"));
+        exitActions.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value("CREATED"));
+        Assertions.assertThat(crossingRepository.findCrossingsByPassId(savedPass.getId()))
+                .extracting(Crossing::getDirection).containsExactlyInAnyOrder(Direction.IN, Direction.OUT);
+    }
+
     private Pass setupAndSavePass(PassStatus passStatus) {
         log.info("Saving Territory, User, Car, Brand, and Pass with status {}", passStatus);
         Territory territory = new Territory();
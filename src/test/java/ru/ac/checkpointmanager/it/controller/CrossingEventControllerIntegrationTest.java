@@ -1,22 +1,28 @@
 package ru.ac.checkpointmanager.it.controller;
 
+import com.jayway.jsonpath.JsonPath;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.hamcrest.Matchers;
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.ac.checkpointmanager.config.EnablePostgresAndRedisTestContainers;
 import ru.ac.checkpointmanager.exception.ExceptionUtils;
 import ru.ac.checkpointmanager.exception.TerritoryNotFoundException;
+import ru.ac.checkpointmanager.model.Crossing;
 import ru.ac.checkpointmanager.model.Territory;
 import ru.ac.checkpointmanager.model.User;
 import ru.ac.checkpointmanager.model.car.Car;
@@ -30,6 +36,7 @@ import ru.ac.checkpointmanager.model.passes.PassAuto;
 import ru.ac.checkpointmanager.model.passes.PassStatus;
 import ru.ac.checkpointmanager.repository.CheckpointRepository;
 import ru.ac.checkpointmanager.repository.CrossingRepository;
+import ru.ac.checkpointmanager.repository.PassEventRepository;
 import ru.ac.checkpointmanager.repository.PassRepository;
 import ru.ac.checkpointmanager.repository.TerritoryRepository;
 import ru.ac.checkpointmanager.repository.UserRepository;
@@ -40,9 +47,15 @@ import ru.ac.checkpointmanager.util.CheckResultActionsUtils;
 import ru.ac.checkpointmanager.util.TestUtils;
 import ru.ac.checkpointmanager.util.UrlConstants;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -77,6 +90,9 @@ class CrossingEventControllerIntegrationTest {
     @Autowired
     CheckpointRepository checkpointRepository;
 
+    @Autowired
+    PassEventRepository passEventRepository;
+
     Territory savedTerritory;
 
     User savedUser;
@@ -103,8 +119,7 @@ class CrossingEventControllerIntegrationTest {
         Pass savedPass = setupAndSavePass();
         Checkpoint checkpoint = TestUtils.getCheckpoint(CheckpointType.AUTO, savedPass.getTerritory());
         Checkpoint savedCheckPoint = checkpointRepository.saveAndFlush(checkpoint);
-        crossingRepository.saveAndFlush(TestUtils.getCrossing(savedPass, savedCheckPoint, Direction.IN));
-        crossingRepository.saveAndFlush(TestUtils.getCrossing(savedPass, savedCheckPoint, Direction.OUT));
+        saveInOutCrossings(savedPass, savedCheckPoint);
 
         ResultActions resultActions = mockMvc.perform(
                 MockMvcRequestBuilders.get(UrlConstants.EVENT_USER_URL, savedUser.getId()));
@@ -132,8 +147,7 @@ class CrossingEventControllerIntegrationTest {
         Pass savedPass = setupAndSavePass();
         Checkpoint checkpoint = TestUtils.getCheckpoint(CheckpointType.AUTO, savedPass.getTerritory());
         Checkpoint savedCheckPoint = checkpointRepository.saveAndFlush(checkpoint);
-        crossingRepository.saveAndFlush(TestUtils.getCrossing(savedPass, savedCheckPoint, Direction.IN));
-        crossingRepository.saveAndFlush(TestUtils.getCrossing(savedPass, savedCheckPoint, Direction.OUT));
+        saveInOutCrossings(savedPass, savedCheckPoint);
 
         ResultActions resultActions = mockMvc.perform(
                 MockMvcRequestBuilders.get(UrlConstants.EVENT_TERRITORY_URL, savedTerritory.getId()));
@@ -161,8 +175,7 @@ class CrossingEventControllerIntegrationTest {
         Pass savedPass = setupAndSavePass();
         Checkpoint checkpoint = TestUtils.getCheckpoint(CheckpointType.AUTO, savedPass.getTerritory());
         Checkpoint savedCheckPoint = checkpointRepository.saveAndFlush(checkpoint);
-        crossingRepository.saveAndFlush(TestUtils.getCrossing(savedPass, savedCheckPoint, Direction.IN));
-        crossingRepository.saveAndFlush(TestUtils.getCrossing(savedPass, savedCheckPoint, Direction.OUT));
+        saveInOutCrossings(savedPass, savedCheckPoint);
 
         ResultActions resultActions = mockMvc.perform(
                 MockMvcRequestBuilders.get(UrlConstants.EVENT_URL));
@@ -176,8 +189,7 @@ class CrossingEventControllerIntegrationTest {
         Pass savedPass = setupAndSavePass();
         Checkpoint checkpoint = TestUtils.getCheckpoint(CheckpointType.AUTO, savedPass.getTerritory());
         Checkpoint savedCheckPoint = checkpointRepository.saveAndFlush(checkpoint);
-        crossingRepository.saveAndFlush(TestUtils.getCrossing(savedPass, savedCheckPoint, Direction.IN));
-        crossingRepository.saveAndFlush(TestUtils.getCrossing(savedPass, savedCheckPoint, Direction.OUT));
+        saveInOutCrossings(savedPass, savedCheckPoint);
         User user = savedPass.getUser();
         user.setRole(Role.MANAGER);
 
@@ -216,6 +228,150 @@ class CrossingEventControllerIntegrationTest {
         CheckResultActionsUtils.checkNotFoundFields(resultActions);
     }
 
+    @Test
+    @SneakyThrows
+    @WithMockUser(roles = {"ADMIN"})
+    void rebuildEvents_CrossingsWithoutEvents_CreateEventsFromCrossings() {
+        Pass savedPass = setupAndSavePass();
+        Checkpoint checkpoint = TestUtils.getCheckpoint(CheckpointType.AUTO, savedPass.getTerritory());
+        Checkpoint savedCheckPoint = checkpointRepository.saveAndFlush(checkpoint);
+        crossingRepository.saveAndFlush(TestUtils.getCrossing(savedPass, savedCheckPoint, Direction.IN));
+        crossingRepository.saveAndFlush(TestUtils.getCrossing(savedPass, savedCheckPoint, Direction.OUT));
+
+        mockMvc.perform(MockMvcRequestBuilders.post(UrlConstants.EVENT_URL + "/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(1));
+        ResultActions resultActions = mockMvc.perform(
+                MockMvcRequestBuilders.get(UrlConstants.EVENT_TERRITORY_URL, savedTerritory.getId()));
+
+        checkEventFields(resultActions, savedPass);
+        resultActions.andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    @Test
+    @SneakyThrows
+    @WithMockUser(roles = {"ADMIN"})
+    void scrollEventsByTerritoryId_TwoEvents_ReturnPagesByCursor() {
+        Pass savedPass = setupAndSavePass();
+        Checkpoint checkpoint = TestUtils.getCheckpoint(CheckpointType.AUTO, savedPass.getTerritory());
+        Checkpoint savedCheckPoint = checkpointRepository.saveAndFlush(checkpoint);
+        saveInOutCrossings(savedPass, savedCheckPoint);
+        saveInOutCrossings(savedPass, savedCheckPoint);
+
+        ResultActions firstPage = mockMvc.perform(MockMvcRequestBuilders
+                .get(UrlConstants.EVENT_TERRITORY_SCROLL_URL, savedTerritory.getId())
+                .param("size", "1")
+                .param("withTotal", "true"));
+
+        checkEventFields(firstPage, savedPass);
+        firstPage.andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.nextCursor").isNotEmpty());
+        String firstInTime = JsonPath.read(firstPage.andReturn().getResponse().getContentAsString(),
+                "$.content[0].in_time");
+        String nextCursor = JsonPath.read(firstPage.andReturn().getResponse().getContentAsString(), "$.nextCursor");
+
+        ResultActions secondPage = mockMvc.perform(MockMvcRequestBuilders
+                .get(UrlConstants.EVENT_TERRITORY_SCROLL_URL, savedTerritory.getId())
+                .param("size", "1")
+                .param("cursor", nextCursor));
+
+        checkEventFields(secondPage, savedPass);
+        secondPage.andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].in_time").value(Matchers.not(firstInTime)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @SneakyThrows
+    @WithMockUser(roles = {"ADMIN"})
+    void scrollEventsByTerritoryId_InvalidCursor_ReturnBadRequest() {
+        setupAndSavePass();
+
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get(UrlConstants.EVENT_TERRITORY_SCROLL_URL, savedTerritory.getId())
+                .param("cursor", "not-a-cursor"));
+
+        resultActions.andExpect(status().isBadRequest())
+                .andExpect(jsonPath(TestUtils.JSON_DETAIL)
+                        .value(ExceptionUtils.INVALID_CURSOR.formatted("not-a-cursor")));
+    }
+
+    @Test
+    @SneakyThrows
+    @WithMockUser(roles = {"ADMIN"})
+    void exportEventsByTerritoryId_Csv_StreamFileWithHeaderAndEvents() {
+        Pass savedPass = setupAndSavePass();
+        Checkpoint savedCheckPoint = checkpointRepository.saveAndFlush(
+                TestUtils.getCheckpoint(CheckpointType.AUTO, savedPass.getTerritory()));
+        saveInOutCrossings(savedPass, savedCheckPoint);
+        saveInOutCrossings(savedPass, savedCheckPoint);
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders
+                        .get(UrlConstants.EVENT_TERRITORY_EXPORT_URL, savedTerritory.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String content = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        Matchers.containsString("events-" + savedTerritory.getId() + ".csv")))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String[] lines = content.split("\r\n");
+        Assertions.assertThat(lines).hasSize(3);
+        Assertions.assertThat(lines[0]).endsWith("pass_id,dtype,time_type,status,territory,car_number,car_brand," +
+                "visitor,comment,in_time,out_time");
+        Assertions.assertThat(lines[1]).startsWith(savedPass.getId() + ",AUTO,")
+                .contains(savedCar.getLicensePlate());
+    }
+
+    @Test
+    @SneakyThrows
+    @WithMockUser(roles = {"ADMIN"})
+    void exportEventsByTerritoryId_GzipNdjson_StreamCompressedJsonLines() {
+        Pass savedPass = setupAndSavePass();
+        Checkpoint savedCheckPoint = checkpointRepository.saveAndFlush(
+                TestUtils.getCheckpoint(CheckpointType.AUTO, savedPass.getTerritory()));
+        saveInOutCrossings(savedPass, savedCheckPoint);
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders
+                        .get(UrlConstants.EVENT_TERRITORY_EXPORT_URL, savedTerritory.getId())
+                        .param("format", "NDJSON")
+                        .param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] content = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        String json;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Assertions.assertThat(json.lines().toList()).singleElement()
+                .satisfies(line -> Assertions.assertThat((String) JsonPath.read(line, "$.pass_id"))
+                        .isEqualTo(savedPass.getId().toString()));
+    }
+
+    @Test
+    @SneakyThrows
+    @WithMockUser(roles = {"ADMIN"})
+    void exportEventsByTerritoryId_TerritoryNotFound_ReturnNotFound() {
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders
+                .get(UrlConstants.EVENT_TERRITORY_EXPORT_URL, TestUtils.TERR_ID));
+
+        resultActions.andExpect(status().isNotFound());
+        CheckResultActionsUtils.checkNotFoundFields(resultActions);
+    }
+
+    private void saveInOutCrossings(Pass savedPass, Checkpoint savedCheckPoint) {
+        Crossing in = crossingRepository.saveAndFlush(TestUtils.getCrossing(savedPass, savedCheckPoint, Direction.IN));
+        Crossing out = crossingRepository.saveAndFlush(TestUtils.getCrossing(savedPass, savedCheckPoint,
+                Direction.OUT));
+        passEventRepository.recordCrossings(List.of(in, out));
+    }
+
     private Pass setupAndSavePass() {
         log.info("Saving Territory, User, Car, Brand, and Pass}");
         Territory territory = new Territory();
@@ -1,5 +1,6 @@
 package ru.ac.checkpointmanager.it.controller;
 
+import com.jayway.jsonpath.JsonPath;
 import lombok.SneakyThrows;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.AfterEach;
@@ -17,6 +18,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.ac.checkpointmanager.assertion.PassResultActionsAssert;
@@ -470,6 +472,42 @@ class PassControllerIntegrationTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.content.size()").value(5));
     }
 
+    @Test
+    @SneakyThrows
+    void scrollPasses_PassesWithDifferentStatuses_ReturnAllInPageOrder() {
+        saveTerritoryUserCarBrand();
+        saveCar();
+        List<Pass> passes = new ArrayList<>();
+        PassStatus[] statuses = {PassStatus.DELAYED, PassStatus.WARNING, PassStatus.COMPLETED, PassStatus.ACTIVE,
+                PassStatus.ACTIVE, PassStatus.WARNING, PassStatus.OUTDATED};
+        for (int i = 0; i < statuses.length; i++) {
+            passes.add(createPassWithStatusAndTime(statuses[i], i));
+        }
+        passRepository.saveAllAndFlush(passes);
+        String pageContent = mockMvc.perform(MockMvcRequestBuilders.get(UrlConstants.PASS_URL)
+                        .param("size", String.valueOf(statuses.length)))
+                .andReturn().getResponse().getContentAsString();
+        List<String> pageIds = JsonPath.read(pageContent, "$.content[*].id");
+
+        List<String> scrolledIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get(UrlConstants.PASS_URL_SCROLL)
+                    .param("size", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String content = mockMvc.perform(request)
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.totalElements").doesNotExist())
+                    .andReturn().getResponse().getContentAsString();
+            scrolledIds.addAll(JsonPath.read(content, "$.content[*].id"));
+            cursor = JsonPath.read(content, "$.nextCursor");
+        } while (cursor != null);
+
+        Assertions.assertThat(scrolledIds).hasSize(statuses.length).isEqualTo(pageIds);
+    }
+
     @Test
     @SneakyThrows
     void getPasses_FilteredByActive_ReturnPassDTOs() {
@@ -0,0 +1,197 @@
+package ru.ac.checkpointmanager.it.pass;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ac.checkpointmanager.config.EnablePostgresAndRedisTestContainers;
+import ru.ac.checkpointmanager.model.Territory;
+import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.repository.TerritoryRepository;
+import ru.ac.checkpointmanager.repository.UserRepository;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
+import ru.ac.checkpointmanager.service.passes.impl.PassServiceImpl;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обработка пропусков несколькими экземплярами приложения одновременно. Экземпляр моделируется вызовом
+ * сверки {@link PassServiceImpl#updatePassStatusByScheduler} через прокси бина в своем потоке: у каждого
+ * свои соединения и транзакции, как у разных узлов. Таймер и сверка по расписанию отключены, измененные
+ * пропуски собираются из рассылки подписчикам
+ */
+@SpringBootTest(properties = {
+        "app.pass-timer.reconcile-chunk-size=" + PassStatusUpdaterMultiInstanceIntegrationTest.CHUNK,
+        "app.pass-timer.reconcile-cron=-",
+        "app.pass-timer.tick-interval=PT1H"})
+@ActiveProfiles("test")
+@DirtiesContext
+@EnablePostgresAndRedisTestContainers
+class PassStatusUpdaterMultiInstanceIntegrationTest {
+
+    private static final int NODES = 4;
+
+    static final int CHUNK = 50;
+
+    @Autowired
+    PassRepository passRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TerritoryRepository territoryRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    PassServiceImpl passService;
+
+    @MockBean
+    LiveEventService liveEventService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    ExecutorService executor = Executors.newFixedThreadPool(NODES);
+
+    UUID userId;
+
+    UUID territoryId;
+
+    @BeforeEach
+    void init() {
+        User user = userRepository.saveAndFlush(TestUtils.getUser());
+        Territory territory = TestUtils.getTerritoryForDB();
+        territory.setUsers(List.of(user));
+        userId = user.getId();
+        territoryId = territoryRepository.saveAndFlush(territory).getId();
+    }
+
+    @AfterEach
+    void clear() {
+        executor.shutdownNow();
+        jdbcTemplate.update("DELETE FROM passes WHERE territory_id = ?", territoryId);
+        territoryRepository.deleteById(territoryId);
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    void updateStatuses_SeveralNodesAtOnce_EachPassChangedByOneNode() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        seedPasses(PassStatus.DELAYED, 1000, now.minusMinutes(5), now.plusDays(1));
+        seedPasses(PassStatus.ACTIVE, 1000, now.minusDays(1), now.minusMinutes(5));
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                passService.updatePassStatusByScheduler();
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS);
+        }
+        List<UUID> changed = publishedPassIds();
+
+        Assertions.assertThat(changed).hasSize(2000).doesNotHaveDuplicates();
+        Assertions.assertThat(countByStatus()).containsOnly(Map.entry(PassStatus.ACTIVE, 1000L),
+                Map.entry(PassStatus.OUTDATED, 1000L));
+    }
+
+    @Test
+    void activateDelayedPasses_NodeCrashedWithClaimedChunk_SkipLockedAndProcessOnNextRun() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        seedPasses(PassStatus.DELAYED, 500, now.minusMinutes(5), now.plusDays(1));
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch crash = new CountDownLatch(1);
+        Future<?> crashedNode = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            passRepository.activateDelayedPasses(now, CHUNK);
+            claimed.countDown();
+            awaitQuietly(crash);
+            throw new IllegalStateException("Node crashed");
+        }));
+        claimed.await(10, TimeUnit.SECONDS);
+
+        executor.submit(passService::updatePassStatusByScheduler).get(10, TimeUnit.SECONDS);
+        List<UUID> firstRun = publishedPassIds();
+        crash.countDown();
+        Assertions.assertThatThrownBy(() -> crashedNode.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+        Mockito.clearInvocations(liveEventService);
+        passService.updatePassStatusByScheduler();
+        List<UUID> nextRun = publishedPassIds();
+
+        Assertions.assertThat(firstRun).hasSize(500 - CHUNK);
+        Assertions.assertThat(nextRun).hasSize(CHUNK).doesNotContainAnyElementsOf(firstRun);
+        Assertions.assertThat(countByStatus()).containsOnly(Map.entry(PassStatus.ACTIVE, 500L));
+    }
+
+    /**
+     * id пропусков, измененных сверкой: каждый набор измененных пропусков рассылается подписчикам
+     */
+    @SuppressWarnings("unchecked")
+    private List<UUID> publishedPassIds() {
+        List<UUID> ids = new ArrayList<>();
+        Mockito.mockingDetails(liveEventService).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("publishPassStatuses"))
+                .forEach(invocation -> ids.addAll((Collection<UUID>) invocation.getArgument(0)));
+        return ids;
+    }
+
+    private void seedPasses(PassStatus status, int count, LocalDateTime startTime, LocalDateTime endTime) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{UUID.randomUUID(), userId, status.name(), territoryId,
+                    Timestamp.valueOf(startTime), Timestamp.valueOf(endTime)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO passes (id, user_id, status, time_type, territory_id, added_at, " +
+                "start_time, end_time, dtype, favorite, expected_direction) " +
+                "VALUES (?, ?, CAST(? AS pass_status_enum), 'PERMANENT', ?, now(), ?, ?, 'WALK', false, 'IN')", rows);
+    }
+
+    private Map<PassStatus, Long> countByStatus() {
+        Map<PassStatus, Long> counts = new EnumMap<>(PassStatus.class);
+        jdbcTemplate.query("SELECT CAST(status AS TEXT), count(*) FROM passes WHERE territory_id = ? GROUP BY status",
+                rs -> {
+                    counts.put(PassStatus.valueOf(rs.getString(1)), rs.getLong(2));
+                }, territoryId);
+        return counts;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
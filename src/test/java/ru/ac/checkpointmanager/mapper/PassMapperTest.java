@@ -0,0 +1,77 @@
+package ru.ac.checkpointmanager.mapper;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import ru.ac.checkpointmanager.dto.CrossingDTO;
+import ru.ac.checkpointmanager.dto.passes.PassResponseDTO;
+import ru.ac.checkpointmanager.model.Crossing;
+import ru.ac.checkpointmanager.model.checkpoints.Checkpoint;
+import ru.ac.checkpointmanager.model.checkpoints.CheckpointType;
+import ru.ac.checkpointmanager.model.enums.Direction;
+import ru.ac.checkpointmanager.model.passes.PassAuto;
+import ru.ac.checkpointmanager.model.passes.PassWalk;
+import ru.ac.checkpointmanager.util.PassTestData;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+/**
+ * Ручные преобразования должны давать тот же результат, что и прежнее сопоставление через ModelMapper
+ */
+class PassMapperTest {
+
+    ModelMapper modelMapper;
+
+    PassMapper passMapper;
+
+    CrossingMapper crossingMapper;
+
+    @BeforeEach
+    void setUp() {
+        modelMapper = new ModelMapper();
+        passMapper = new PassMapper(new ModelMapper());
+        crossingMapper = new CrossingMapper(new ModelMapper());
+    }
+
+    @Test
+    void toPassDTO_PassAuto_SameAsModelMapper() {
+        PassAuto pass = PassTestData.getSimpleActiveOneTimePassAutoFor3Hours(TestUtils.getUser(),
+                TestUtils.getTerritory(), TestUtils.getCar(TestUtils.getCarBrand()));
+        pass.setComment("comment");
+
+        PassResponseDTO dto = passMapper.toPassDTO(pass);
+
+        Assertions.assertThat(dto).usingRecursiveComparison()
+                .isEqualTo(modelMapper.map(pass, PassResponseDTO.class));
+        Assertions.assertThat(dto.getCar().getBrand().getBrand()).isEqualTo(TestUtils.getCarBrand().getBrand());
+        Assertions.assertThat(dto.getStatusDescription()).isEqualTo(pass.getStatus().getDescription());
+    }
+
+    @Test
+    void toPassDTO_PassWalkWithoutUser_SameAsModelMapper() {
+        PassWalk pass = PassTestData.getSimpleActiveOneTimePassWalkFor3Hours(null, TestUtils.getTerritory(),
+                TestUtils.getVisitorRandomUUID());
+
+        PassResponseDTO dto = passMapper.toPassDTO(pass);
+
+        Assertions.assertThat(dto).usingRecursiveComparison()
+                .isEqualTo(modelMapper.map(pass, PassResponseDTO.class));
+        Assertions.assertThat(dto.getUser()).isNull();
+        Assertions.assertThat(dto.getCar()).isNull();
+    }
+
+    @Test
+    void toCrossingDTO_AllOk_SameAsModelMapper() {
+        Checkpoint checkpoint = TestUtils.getCheckpoint(CheckpointType.UNIVERSAL, TestUtils.getTerritory());
+        checkpoint.setId(TestUtils.CHECKPOINT_ID);
+        PassAuto pass = PassTestData.getSimpleActivePermanentAutoFor3Hours(TestUtils.getUser(),
+                TestUtils.getTerritory(), TestUtils.getCar(TestUtils.getCarBrand()));
+        Crossing crossing = TestUtils.getCrossing(pass, checkpoint, Direction.OUT);
+
+        CrossingDTO dto = crossingMapper.toCrossingDTO(crossing);
+
+        Assertions.assertThat(dto).usingRecursiveComparison()
+                .isEqualTo(modelMapper.map(crossing, CrossingDTO.class));
+        Assertions.assertThat(dto.getPassId()).isEqualTo(pass.getId());
+    }
+}
@@ -0,0 +1,174 @@
+package ru.ac.checkpointmanager.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.ac.checkpointmanager.config.EnablePostgresAndRedisTestContainers;
+import ru.ac.checkpointmanager.model.Crossing;
+import ru.ac.checkpointmanager.model.Territory;
+import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.model.Visitor;
+import ru.ac.checkpointmanager.model.checkpoints.Checkpoint;
+import ru.ac.checkpointmanager.model.checkpoints.CheckpointType;
+import ru.ac.checkpointmanager.model.enums.Direction;
+import ru.ac.checkpointmanager.model.passes.Pass;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.model.passes.PassTimeType;
+import ru.ac.checkpointmanager.util.PassTestData;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * События пропуска, записанные по одному пересечению, совпадают с пересчитанными по всем пересечениям
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@DirtiesContext
+@EnablePostgresAndRedisTestContainers
+@Import(PassEventRepository.class)
+class PassEventRepositoryIntegrationTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    @Autowired
+    PassEventRepository passEventRepository;
+
+    @Autowired
+    PassRepository passRepository;
+
+    @Autowired
+    CrossingRepository crossingRepository;
+
+    @Autowired
+    CheckpointRepository checkpointRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    TerritoryRepository territoryRepository;
+
+    @Autowired
+    VisitorRepository visitorRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    Pass savedPass;
+
+    Checkpoint savedCheckpoint;
+
+    @BeforeEach
+    void init() {
+        Territory territory = new Territory();
+        territory.setName(TestUtils.TERR_NAME);
+        User savedUser = userRepository.saveAndFlush(TestUtils.getUser());
+        territory.setUsers(List.of(savedUser));
+        Territory savedTerritory = territoryRepository.saveAndFlush(territory);
+        Visitor visitor = new Visitor();
+        visitor.setId(TestUtils.VISITOR_ID);
+        visitor.setName(TestUtils.FULL_NAME);
+        visitor.setPhone(TestUtils.PHONE_NUM);
+        Visitor savedVisitor = visitorRepository.saveAndFlush(visitor);
+        savedPass = passRepository.saveAndFlush(PassTestData.getPassWalk(PassStatus.ACTIVE,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1), savedUser, savedTerritory,
+                savedVisitor, PassTimeType.PERMANENT));
+        savedCheckpoint = checkpointRepository.saveAndFlush(
+                TestUtils.getCheckpoint(CheckpointType.UNIVERSAL, savedTerritory));
+    }
+
+    @Test
+    void recordCrossings_InInOut_OutClosesSecondIn() {
+        recordOneByOne(Direction.IN, Direction.IN, Direction.OUT);
+
+        Assertions.assertThat(events()).containsExactlyInAnyOrder(event(0, null), event(1, 2));
+    }
+
+    @Test
+    void recordCrossings_OutIn_EventWithoutInAndOpenEvent() {
+        recordOneByOne(Direction.OUT, Direction.IN);
+
+        Assertions.assertThat(events()).containsExactlyInAnyOrder(event(null, 0), event(1, null));
+    }
+
+    @Test
+    void recordCrossings_PassOfDeletedUser_RecordEventWithoutUser() {
+        jdbcTemplate.update("UPDATE passes SET user_id = NULL WHERE id = ?", savedPass.getId());
+
+        recordOneByOne(Direction.IN);
+
+        Assertions.assertThat(events()).containsExactly(event(0, null));
+        Assertions.assertThat(jdbcTemplate.queryForList("SELECT user_id FROM pass_events WHERE pass_id = ?",
+                Object.class, savedPass.getId())).containsOnlyNulls();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"IN,IN,OUT", "OUT,IN", "IN,IN,OUT,OUT", "OUT,OUT,IN,OUT,IN", "IN,OUT,IN,OUT"})
+    void rebuildEvents_UnevenCrossings_SameEventsAsRecordedOneByOne(String sequence) {
+        recordOneByOne(Arrays.stream(sequence.split(",")).map(Direction::valueOf).toArray(Direction[]::new));
+        List<String> recorded = events();
+
+        passEventRepository.rebuildEvents(List.of(savedPass.getId()));
+
+        Assertions.assertThat(events()).containsExactlyInAnyOrderElementsOf(recorded);
+    }
+
+    /**
+     * Сохраняет пересечения с интервалом в минуту и записывает события после каждого, как при добавлении
+     */
+    private void recordOneByOne(Direction... directions) {
+        for (int i = 0; i < directions.length; i++) {
+            Crossing crossing = crossingRepository.saveAndFlush(new Crossing(null, savedPass, savedCheckpoint,
+                    START.plusMinutes(i), LocalDateTime.now(), directions[i], null));
+            passEventRepository.recordCrossings(List.of(crossing));
+        }
+    }
+
+    /**
+     * @return события пропуска в виде "время въезда - время выезда"
+     */
+    private List<String> events() {
+        List<String> events = new ArrayList<>();
+        jdbcTemplate.query("SELECT in_time, out_time FROM pass_events WHERE pass_id = ?",
+                rs -> {
+                    events.add(toString(rs.getObject(1, OffsetDateTime.class)) + " - "
+                            + toString(rs.getObject(2, OffsetDateTime.class)));
+                }, savedPass.getId());
+        return events;
+    }
+
+    /**
+     * @param in  номер пересечения-въезда или null
+     * @param out номер пересечения-выезда или null
+     */
+    private static String event(Integer in, Integer out) {
+        return toString(in == null ? null : START.plusMinutes(in).toInstant()) + " - "
+                + toString(out == null ? null : START.plusMinutes(out).toInstant());
+    }
+
+    private static String toString(OffsetDateTime time) {
+        return toString(time == null ? null : time.toInstant());
+    }
+
+    private static String toString(Instant time) {
+        return String.valueOf(time);
+    }
+}
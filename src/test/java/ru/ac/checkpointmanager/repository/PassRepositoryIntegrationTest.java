@@ -21,12 +21,15 @@ import ru.ac.checkpointmanager.model.User;
 import ru.ac.checkpointmanager.model.Visitor;
 import ru.ac.checkpointmanager.model.car.Car;
 import ru.ac.checkpointmanager.model.car.CarBrand;
+import ru.ac.checkpointmanager.model.enums.Direction;
 import ru.ac.checkpointmanager.model.passes.Pass;
 import ru.ac.checkpointmanager.model.passes.PassAuto;
 import ru.ac.checkpointmanager.model.passes.PassConstant;
 import ru.ac.checkpointmanager.model.passes.PassStatus;
 import ru.ac.checkpointmanager.model.passes.PassTimeType;
 import ru.ac.checkpointmanager.model.passes.PassWalk;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
+import ru.ac.checkpointmanager.projection.PassStatusTransition;
 import ru.ac.checkpointmanager.repository.car.CarBrandRepository;
 import ru.ac.checkpointmanager.repository.car.CarRepository;
 import ru.ac.checkpointmanager.specification.PassSpecification;
@@ -34,7 +37,10 @@ import ru.ac.checkpointmanager.util.PassTestData;
 import ru.ac.checkpointmanager.util.TestUtils;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -119,6 +125,122 @@ class PassRepositoryIntegrationTest {
         Assertions.assertThat(passes).hasSize(1).flatExtracting(Pass::getId).containsOnly(passWalk.getId());
     }
 
+    @Test
+    void activateDelayedPasses_DelayedAndActivePasses_ActivateOnlyDelayedWithReachedStartTime() {
+        saveUserTerritoryVisitor(TestUtils.FULL_NAME);
+        PassWalk reached = PassTestData.getPassWalk(PassStatus.DELAYED, LocalDateTime.now().minusMinutes(5),
+                LocalDateTime.now().plusDays(1), savedUser, savedTerritory, savedVisitor, PassTimeType.ONETIME);
+        PassWalk notReached = PassTestData.getPassWalk(PassStatus.DELAYED, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), savedUser, savedTerritory, savedVisitor, PassTimeType.ONETIME);
+        PassWalk active = PassTestData.getPassWalk(PassStatus.ACTIVE, LocalDateTime.now().minusMinutes(5),
+                LocalDateTime.now().plusDays(1), savedUser, savedTerritory, savedVisitor, PassTimeType.ONETIME);
+        passRepository.saveAllAndFlush(List.of(reached, notReached, active));
+
+        List<UUID> activated = passRepository.activateDelayedPasses(LocalDateTime.now(), 100);
+
+        Assertions.assertThat(activated).containsOnly(reached.getId());
+        Assertions.assertThat(passRepository.findById(notReached.getId())).get()
+                .extracting(Pass::getStatus).isEqualTo(PassStatus.DELAYED);
+    }
+
+    @Test
+    void resolveExpiredActivePasses_ActivePassWithoutCrossings_SetOutdated() {
+        saveUserTerritoryVisitor(TestUtils.FULL_NAME);
+        PassWalk expired = PassTestData.getPassWalk(PassStatus.ACTIVE, LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusMinutes(5), savedUser, savedTerritory, savedVisitor, PassTimeType.ONETIME);
+        PassWalk notExpired = PassTestData.getPassWalk(PassStatus.ACTIVE, LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().plusDays(1), savedUser, savedTerritory, savedVisitor, PassTimeType.ONETIME);
+        passRepository.saveAllAndFlush(List.of(expired, notExpired));
+
+        List<PassStatusTransition> transitions = passRepository.resolveExpiredActivePasses(LocalDateTime.now(), 100);
+
+        Assertions.assertThat(transitions).hasSize(1);
+        Assertions.assertThat(transitions.get(0).getId()).isEqualTo(expired.getId());
+        Assertions.assertThat(transitions.get(0).getStatus()).isEqualTo(PassStatus.OUTDATED);
+    }
+
+    @Test
+    void findOverlappingPassAutoIds_IntersectedActivePass_ReturnItsId() {
+        saveUserTerritoryVisitor(TestUtils.FULL_NAME);
+        saveCar("U123QA799");
+        PassAuto passAuto = PassTestData.getSimpleActiveOneTimePassAutoFor3Hours(savedUser, savedTerritory, savedCar);
+        passRepository.saveAndFlush(passAuto);
+
+        List<UUID> overlapping = passRepository.findOverlappingPassAutoIds(null, savedUser.getId(),
+                savedTerritory.getId(), "U123QA799", LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(5),
+                EnumSet.of(PassStatus.ACTIVE, PassStatus.DELAYED));
+
+        Assertions.assertThat(overlapping).containsOnly(passAuto.getId());
+    }
+
+    @Test
+    void findOverlappingPassAutoIds_SamePassOrNotIntersectedInterval_ReturnEmptyList() {
+        saveUserTerritoryVisitor(TestUtils.FULL_NAME);
+        saveCar("U123QA799");
+        PassAuto passAuto = PassTestData.getSimpleActiveOneTimePassAutoFor3Hours(savedUser, savedTerritory, savedCar);
+        passRepository.saveAndFlush(passAuto);
+
+        List<UUID> samePass = passRepository.findOverlappingPassAutoIds(passAuto.getId(), savedUser.getId(),
+                savedTerritory.getId(), "U123QA799", LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(5),
+                EnumSet.of(PassStatus.ACTIVE, PassStatus.DELAYED));
+        List<UUID> notIntersected = passRepository.findOverlappingPassAutoIds(null, savedUser.getId(),
+                savedTerritory.getId(), "U123QA799", LocalDateTime.now().plusHours(4), LocalDateTime.now().plusHours(5),
+                EnumSet.of(PassStatus.ACTIVE, PassStatus.DELAYED));
+
+        Assertions.assertThat(samePass).isEmpty();
+        Assertions.assertThat(notIntersected).isEmpty();
+    }
+
+    @Test
+    void findOverlappingPassWalkIds_IntersectedDelayedPass_ReturnItsId() {
+        saveUserTerritoryVisitor(TestUtils.FULL_NAME);
+        PassWalk passWalk = PassTestData.getPassWalk(PassStatus.DELAYED, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), savedUser, savedTerritory, savedVisitor, PassTimeType.ONETIME);
+        passRepository.saveAndFlush(passWalk);
+
+        List<UUID> overlapping = passRepository.findOverlappingPassWalkIds(null, savedUser.getId(),
+                savedTerritory.getId(), TestUtils.FULL_NAME, LocalDateTime.now(), LocalDateTime.now().plusDays(3),
+                EnumSet.of(PassStatus.ACTIVE, PassStatus.DELAYED));
+
+        Assertions.assertThat(overlapping).containsOnly(passWalk.getId());
+    }
+
+    @Test
+    void findPassCrossingView_PassWithoutCrossingsAndUnknownCheckpoint_ReturnViewWithoutCheckpoint() {
+        saveUserTerritoryVisitor(TestUtils.FULL_NAME);
+        PassWalk passWalk = PassTestData.getPassWalk(PassStatus.ACTIVE, LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1), savedUser, savedTerritory, savedVisitor, PassTimeType.ONETIME);
+        passWalk.setExpectedDirection(Direction.IN);
+        passRepository.saveAndFlush(passWalk);
+
+        Optional<PassCrossingView> view = passRepository.findPassCrossingView(passWalk.getId(), UUID.randomUUID());
+
+        Assertions.assertThat(view).isPresent();
+        Assertions.assertThat(view.get()).extracting(PassCrossingView::getStatus, PassCrossingView::getTimeType,
+                        PassCrossingView::getExpectedDirection, PassCrossingView::getTerritoryId,
+                        PassCrossingView::isUsed, PassCrossingView::getCheckpointId)
+                .containsExactly(PassStatus.ACTIVE, PassTimeType.ONETIME, Direction.IN, savedTerritory.getId(),
+                        false, null);
+    }
+
+    @Test
+    void updateStatusAndExpectedDirection_ActiveAndCancelledPasses_UpdateOnlyActive() {
+        saveUserTerritoryVisitor(TestUtils.FULL_NAME);
+        PassWalk active = PassTestData.getPassWalk(PassStatus.ACTIVE, LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1), savedUser, savedTerritory, savedVisitor, PassTimeType.ONETIME);
+        PassWalk cancelled = PassTestData.getPassWalk(PassStatus.CANCELLED, LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1), savedUser, savedTerritory, savedVisitor, PassTimeType.ONETIME);
+        passRepository.saveAllAndFlush(List.of(active, cancelled));
+
+        int updatedActive = passRepository.updateStatusAndExpectedDirection(active.getId(), PassStatus.COMPLETED,
+                Direction.IN, PassStatus.ACTIVE);
+        int updatedCancelled = passRepository.updateStatusAndExpectedDirection(cancelled.getId(), PassStatus.ACTIVE,
+                Direction.OUT, PassStatus.ACTIVE);
+
+        Assertions.assertThat(updatedActive).isEqualTo(1);
+        Assertions.assertThat(updatedCancelled).isZero();
+    }
+
     @Test
     void findAllWithCarSpec_PassAutoAndPassWalkInDB_ReturnPageWithPass() {
         saveUserTerritoryVisitor(TestUtils.FULL_NAME);
@@ -19,7 +19,9 @@ import ru.ac.checkpointmanager.model.User;
 import ru.ac.checkpointmanager.model.avatar.Avatar;
 import ru.ac.checkpointmanager.model.enums.Role;
 import ru.ac.checkpointmanager.util.TestUtils;
+import ru.ac.checkpointmanager.utils.SearchUtils;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -82,4 +84,30 @@ class UserRepositoryIntegrationTest {
         Assertions.assertThat(userPage.getNumber()).isZero();
         Assertions.assertThat(userPage.getSize()).isEqualTo(6);
     }
+
+    @Test
+    void searchByFullName_PartOfSeveralNames_ReturnMatchesClosestFirst() {
+        List<User> users = Instancio.ofList(TestUtils.getInstancioUserModel()).size(3).create();
+        users.get(0).setFullName("Johnsonville Junior");
+        users.get(1).setFullName("Johnson");
+        users.get(2).setFullName("Smith");
+        userRepository.saveAllAndFlush(users);
+
+        Collection<User> found = userRepository.searchByFullName(SearchUtils.containsIgnoreCasePattern("JOHNSON"));
+
+        Assertions.assertThat(found).extracting(User::getFullName)
+                .containsExactly("Johnson", "Johnsonville Junior");
+    }
+
+    @Test
+    void searchByFullName_PartWithLikeWildcards_MatchWildcardsLiterally() {
+        List<User> users = Instancio.ofList(TestUtils.getInstancioUserModel()).size(2).create();
+        users.get(0).setFullName("Agent 100%_sure");
+        users.get(1).setFullName("Agent 1000 sure");
+        userRepository.saveAllAndFlush(users);
+
+        Collection<User> found = userRepository.searchByFullName(SearchUtils.containsIgnoreCasePattern("0%_"));
+
+        Assertions.assertThat(found).extracting(User::getFullName).containsExactly("Agent 100%_sure");
+    }
 }
@@ -17,30 +17,31 @@ import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 import ru.ac.checkpointmanager.exception.InvalidTokenException;
 import ru.ac.checkpointmanager.model.User;
 import ru.ac.checkpointmanager.security.CustomAuthenticationToken;
-import ru.ac.checkpointmanager.security.jwt.JwtService;
 import ru.ac.checkpointmanager.security.jwt.JwtValidator;
+import ru.ac.checkpointmanager.security.jwt.VerifiedToken;
+import ru.ac.checkpointmanager.security.principal.PrincipalCache;
 import ru.ac.checkpointmanager.util.TestUtils;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 @ExtendWith(MockitoExtension.class)
 class JwtAuthenticationFilterTest {
 
     public static final String STUB_JWT = "stubJwt";
-    @Mock
-    JwtService jwtService;
+    public static final VerifiedToken VERIFIED_TOKEN = new VerifiedToken(TestUtils.EMAIL, List.of("ROLE_ADMIN"),
+            TestUtils.USER_ID, Instant.now().plusSeconds(60));
     @Mock
     JwtValidator jwtValidator;
 
     @Mock
-    UserDetailsService userDetailsService;
+    PrincipalCache principalCache;
 
     @Mock
     HandlerExceptionResolver resolver;
@@ -96,7 +97,7 @@ class JwtAuthenticationFilterTest {
     @Test
     @SneakyThrows
     void shouldSendExceptionToResolverIfJwtIsNotValid() {
-        Mockito.when(jwtValidator.validateAccessToken(Mockito.any())).thenReturn(false);
+        Mockito.when(jwtValidator.verifyAccessToken(Mockito.any())).thenReturn(Optional.empty());
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.addHeader(TestUtils.AUTH_HEADER, TestUtils.BEARER + STUB_JWT);
         FilterChain mockFilterChain = Mockito.mock(FilterChain.class);
@@ -114,7 +115,7 @@ class JwtAuthenticationFilterTest {
     @Test
     @SneakyThrows
     void shouldSendExceptionToResolverIfJwtIsExpired() {
-        Mockito.when(jwtValidator.validateAccessToken(Mockito.any())).thenThrow(ExpiredJwtException.class);
+        Mockito.when(jwtValidator.verifyAccessToken(Mockito.any())).thenThrow(ExpiredJwtException.class);
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.addHeader(TestUtils.AUTH_HEADER, TestUtils.BEARER + STUB_JWT);
         FilterChain mockFilterChain = Mockito.mock(FilterChain.class);
@@ -132,13 +133,12 @@ class JwtAuthenticationFilterTest {
     @Test
     @SneakyThrows
     void shouldSendExceptionToResolverIfUserFromJwtNotFound() {
-        Mockito.when(jwtValidator.validateAccessToken(Mockito.any())).thenReturn(true);
+        Mockito.when(jwtValidator.verifyAccessToken(Mockito.any())).thenReturn(Optional.of(VERIFIED_TOKEN));
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.addHeader(TestUtils.AUTH_HEADER, TestUtils.BEARER + STUB_JWT);
         FilterChain mockFilterChain = Mockito.mock(FilterChain.class);
         MockHttpServletResponse response = new MockHttpServletResponse();
-        Mockito.when(jwtService.extractUsername(Mockito.any())).thenReturn(TestUtils.EMAIL);
-        Mockito.when(userDetailsService.loadUserByUsername(TestUtils.EMAIL))
+        Mockito.when(principalCache.loadUser(VERIFIED_TOKEN))
                 .thenThrow(UsernameNotFoundException.class);
 
         jwtAuthenticationFilter.doFilterInternal(request, response, mockFilterChain);
@@ -153,7 +153,7 @@ class JwtAuthenticationFilterTest {
     @Test
     @SneakyThrows
     void shouldPassRequestIfAuthenticationAlreadySet() {
-        Mockito.when(jwtValidator.validateAccessToken(Mockito.any())).thenReturn(true);
+        Mockito.when(jwtValidator.verifyAccessToken(Mockito.any())).thenReturn(Optional.of(VERIFIED_TOKEN));
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.addHeader(TestUtils.AUTH_HEADER, TestUtils.BEARER + STUB_JWT);
         FilterChain mockFilterChain = Mockito.mock(FilterChain.class);
@@ -170,15 +170,13 @@ class JwtAuthenticationFilterTest {
     @Test
     @SneakyThrows
     void shouldSetAuthenticationIfAllOk() {
-        Mockito.when(jwtValidator.validateAccessToken(Mockito.any())).thenReturn(true);
+        Mockito.when(jwtValidator.verifyAccessToken(Mockito.any())).thenReturn(Optional.of(VERIFIED_TOKEN));
         MockHttpServletRequest request = new MockHttpServletRequest();
         request.addHeader(TestUtils.AUTH_HEADER, TestUtils.BEARER + STUB_JWT);
         FilterChain mockFilterChain = Mockito.mock(FilterChain.class);
         MockHttpServletResponse response = new MockHttpServletResponse();
-        Mockito.when(jwtService.extractUsername(Mockito.any())).thenReturn(TestUtils.EMAIL);
-        UserDetails mockUserDetails = Mockito.mock(User.class);
-        Mockito.when(userDetailsService.loadUserByUsername(TestUtils.EMAIL)).thenReturn(mockUserDetails);
-        Mockito.when(jwtService.extractRole(Mockito.anyString())).thenReturn(List.of("ROLE_ADMIN"));
+        User mockUser = Mockito.mock(User.class);
+        Mockito.when(principalCache.loadUser(VERIFIED_TOKEN)).thenReturn(mockUser);
         SecurityContext mockContext = Mockito.mock(SecurityContext.class);
         SecurityContextHolder.setContext(mockContext);
 
@@ -19,6 +19,7 @@ class JwtServiceImplTest {
         ReflectionTestUtils.setField(jwtService, "secretKey", TestUtils.getKey());
         ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60000000);
         ReflectionTestUtils.setField(jwtService, "refreshExpiration", 60000000);
+        jwtService.init();
     }
 
     @ParameterizedTest
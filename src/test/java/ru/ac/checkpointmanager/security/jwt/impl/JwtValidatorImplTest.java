@@ -14,11 +14,16 @@ import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.ac.checkpointmanager.exception.InvalidTokenException;
 import ru.ac.checkpointmanager.security.jwt.JwtService;
+import ru.ac.checkpointmanager.security.jwt.VerifiedToken;
 import ru.ac.checkpointmanager.util.TestUtils;
 
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +33,9 @@ class JwtValidatorImplTest {
     @Mock
     JwtService jwtService;
 
+    @Spy
+    VerifiedTokenCache verifiedTokenCache = new VerifiedTokenCache(100);
+
     @InjectMocks
     JwtValidatorImpl jwtValidator;
 
@@ -88,6 +96,39 @@ class JwtValidatorImplTest {
                 .isInstanceOf(ExpiredJwtException.class);
     }
 
+    @Test
+    void verifyAccessToken_SameTokenTwice_ParseOnceAndReturnClaims() {
+        String token = TestUtils.getSimpleValidAccessToken();
+        DefaultClaims claims = new DefaultClaims();
+        claims.setSubject(TestUtils.EMAIL);
+        claims.put("role", List.of("ROLE_ADMIN"));
+        claims.put("id", TestUtils.USER_ID.toString());
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60000));
+        Mockito.when(jwtService.extractAllClaims(token)).thenReturn(claims);
+
+        Optional<VerifiedToken> first = jwtValidator.verifyAccessToken(token);
+        Optional<VerifiedToken> second = jwtValidator.verifyAccessToken(token);
+
+        Assertions.assertThat(first).get().extracting(VerifiedToken::username, VerifiedToken::roles,
+                VerifiedToken::userId).containsExactly(TestUtils.EMAIL, List.of("ROLE_ADMIN"), TestUtils.USER_ID);
+        Assertions.assertThat(second).containsSame(first.get());
+        Mockito.verify(jwtService).extractAllClaims(token);
+    }
+
+    @Test
+    void verifyAccessToken_ExpiredInCache_ParseAgainAndThrowJwtExpiredException() {
+        String token = TestUtils.getSimpleValidAccessToken();
+        DefaultClaims claims = new DefaultClaims();
+        claims.setSubject(TestUtils.EMAIL);
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60000));
+        verifiedTokenCache.put(token, new VerifiedToken(TestUtils.EMAIL, List.of(), null,
+                new Date(System.currentTimeMillis() - 1000).toInstant()));
+        Mockito.when(jwtService.extractAllClaims(token)).thenThrow(new ExpiredJwtException(null, claims, "msg"));
+
+        Assertions.assertThatThrownBy(() -> jwtValidator.verifyAccessToken(token))
+                .isInstanceOf(ExpiredJwtException.class);
+    }
+
     @Test
     void shouldValidateRefreshTokenWithRefreshClaim() {
         String token = TestUtils.getSimpleValidAccessToken();
@@ -0,0 +1,55 @@
+package ru.ac.checkpointmanager.security.jwt.impl;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.ac.checkpointmanager.security.jwt.VerifiedToken;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+class VerifiedTokenCacheTest {
+
+    @Test
+    void get_TokenExpired_ReturnNullAndRemove() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("expired", verifiedToken(Instant.now().minusSeconds(1)));
+
+        Assertions.assertThat(cache.get("expired")).isNull();
+        Assertions.assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_TokenWithoutExpiration_NotCached() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token", verifiedToken(null));
+
+        Assertions.assertThat(cache.get("token")).isNull();
+    }
+
+    @Test
+    void put_CacheIsFull_EvictExpiredFirstAndKeepSizeBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(4);
+        cache.put("expired", verifiedToken(Instant.now().minusSeconds(1)));
+        for (int i = 0; i < 3; i++) {
+            cache.put("token" + i, verifiedToken(Instant.now().plusSeconds(60)));
+        }
+
+        cache.put("new", verifiedToken(Instant.now().plusSeconds(60)));
+
+        Assertions.assertThat(cache.size()).isEqualTo(4);
+        Assertions.assertThat(cache.get("new")).isNotNull();
+        Assertions.assertThat(cache.get("token0")).isNotNull();
+
+        for (int i = 0; i < 20; i++) {
+            cache.put("more" + i, verifiedToken(Instant.now().plusSeconds(60)));
+        }
+
+        Assertions.assertThat(cache.size()).isLessThanOrEqualTo(4);
+        Assertions.assertThat(cache.get("more19")).isNotNull();
+    }
+
+    private static VerifiedToken verifiedToken(Instant expiresAt) {
+        return new VerifiedToken(TestUtils.EMAIL, List.of("ROLE_ADMIN"), TestUtils.USER_ID, expiresAt);
+    }
+}
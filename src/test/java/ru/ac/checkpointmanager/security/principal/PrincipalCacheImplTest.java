@@ -0,0 +1,95 @@
+package ru.ac.checkpointmanager.security.principal;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.security.jwt.VerifiedToken;
+import ru.ac.checkpointmanager.security.principal.impl.PrincipalCacheImpl;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheImplTest {
+
+    @Mock
+    UserDetailsService userDetailsService;
+
+    @Mock
+    StringRedisTemplate redisTemplate;
+
+    @Mock
+    RedisMessageListenerContainer listenerContainer;
+
+    PrincipalCacheImpl principalCache;
+
+    User user;
+
+    VerifiedToken token;
+
+    @BeforeEach
+    void init() {
+        principalCache = new PrincipalCacheImpl(userDetailsService, redisTemplate, listenerContainer,
+                Duration.ofMinutes(1), 100);
+        user = TestUtils.getUser();
+        token = new VerifiedToken(user.getEmail(), List.of("ROLE_USER"), user.getId(),
+                Instant.now().plusSeconds(60));
+        Mockito.when(userDetailsService.loadUserByUsername(user.getEmail())).thenReturn(user);
+    }
+
+    @Test
+    void loadUser_SecondRequest_NoDbLookupAndNewInstance() {
+        User first = principalCache.loadUser(token);
+        User second = principalCache.loadUser(token);
+
+        Assertions.assertThat(second).isNotSameAs(first).usingRecursiveComparison()
+                .comparingOnlyFields("id", "fullName", "mainNumber", "email", "isBlocked", "role").isEqualTo(user);
+        Assertions.assertThat(second.getPassword()).isNull();
+        Mockito.verify(userDetailsService).loadUserByUsername(user.getEmail());
+    }
+
+    @Test
+    void invalidate_UserChanged_LoadFromDbAndPublishToOtherInstances() {
+        principalCache.loadUser(token);
+
+        principalCache.invalidate(user.getId());
+        principalCache.loadUser(token);
+
+        Mockito.verify(userDetailsService, Mockito.times(2)).loadUserByUsername(user.getEmail());
+        Mockito.verify(redisTemplate).convertAndSend(PrincipalCacheImpl.INVALIDATION_CHANNEL, user.getId().toString());
+    }
+
+    @Test
+    void onMessage_InvalidatedByAnotherInstance_LoadFromDb() {
+        principalCache.loadUser(token);
+
+        principalCache.onMessage(new DefaultMessage(PrincipalCacheImpl.INVALIDATION_CHANNEL.getBytes(),
+                user.getId().toString().getBytes(StandardCharsets.UTF_8)), null);
+        principalCache.loadUser(token);
+
+        Mockito.verify(userDetailsService, Mockito.times(2)).loadUserByUsername(user.getEmail());
+    }
+
+    @Test
+    void loadUser_EmailInTokenDiffers_LoadByTokenEmail() {
+        principalCache.loadUser(token);
+        VerifiedToken oldEmailToken = new VerifiedToken("old@example.com", List.of("ROLE_USER"), user.getId(),
+                Instant.now().plusSeconds(60));
+        User oldEmailUser = TestUtils.getUser();
+        Mockito.when(userDetailsService.loadUserByUsername("old@example.com")).thenReturn(oldEmailUser);
+
+        Assertions.assertThat(principalCache.loadUser(oldEmailToken)).isSameAs(oldEmailUser);
+    }
+}
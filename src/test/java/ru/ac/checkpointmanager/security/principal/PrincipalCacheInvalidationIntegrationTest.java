@@ -0,0 +1,89 @@
+package ru.ac.checkpointmanager.security.principal;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.ActiveProfiles;
+import ru.ac.checkpointmanager.config.EnablePostgresAndRedisTestContainers;
+import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.security.jwt.VerifiedToken;
+import ru.ac.checkpointmanager.security.principal.impl.PrincipalCacheImpl;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Два экземпляра кэша с отдельными подписками на общий Redis, как на двух узлах приложения
+ */
+@SpringBootTest(classes = RedisAutoConfiguration.class)
+@ActiveProfiles("test")
+@EnablePostgresAndRedisTestContainers
+class PrincipalCacheInvalidationIntegrationTest {
+
+    @Autowired
+    RedisConnectionFactory connectionFactory;
+
+    @Autowired
+    StringRedisTemplate redisTemplate;
+
+    final List<RedisMessageListenerContainer> containers = new ArrayList<>();
+
+    @AfterEach
+    @SneakyThrows
+    void stopContainers() {
+        for (RedisMessageListenerContainer container : containers) {
+            container.destroy();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void invalidate_OnOneNode_EvictOnOtherNode() {
+        User user = TestUtils.getUser();
+        VerifiedToken token = new VerifiedToken(user.getEmail(), List.of("ROLE_USER"), user.getId(),
+                Instant.now().plusSeconds(60));
+        UserDetailsService firstNodeDb = Mockito.mock(UserDetailsService.class);
+        UserDetailsService secondNodeDb = Mockito.mock(UserDetailsService.class);
+        Mockito.when(firstNodeDb.loadUserByUsername(user.getEmail())).thenReturn(user);
+        Mockito.when(secondNodeDb.loadUserByUsername(user.getEmail())).thenReturn(user);
+        PrincipalCache firstNode = startNode(firstNodeDb);
+        PrincipalCache secondNode = startNode(secondNodeDb);
+        firstNode.loadUser(token);
+        secondNode.loadUser(token);
+        secondNode.loadUser(token);
+        Mockito.verify(secondNodeDb).loadUserByUsername(user.getEmail());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (Mockito.mockingDetails(secondNodeDb).getInvocations().size() < 2
+                && System.currentTimeMillis() < deadline) {
+            firstNode.invalidate(user.getId()); //повтор, пока подписка второго узла не установлена
+            Thread.sleep(50);
+            secondNode.loadUser(token);
+        }
+        Mockito.verify(secondNodeDb, Mockito.times(2)).loadUserByUsername(user.getEmail());
+    }
+
+    @SneakyThrows
+    private PrincipalCache startNode(UserDetailsService userDetailsService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.afterPropertiesSet();
+        containers.add(container);
+        PrincipalCacheImpl principalCache = new PrincipalCacheImpl(userDetailsService, redisTemplate, container,
+                Duration.ofMinutes(1), 100);
+        principalCache.subscribe();
+        container.start();
+        return principalCache;
+    }
+}
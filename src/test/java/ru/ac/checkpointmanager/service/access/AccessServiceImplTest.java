@@ -0,0 +1,91 @@
+package ru.ac.checkpointmanager.service.access;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.ac.checkpointmanager.exception.pass.PassNotFoundException;
+import ru.ac.checkpointmanager.projection.PassAccessView;
+import ru.ac.checkpointmanager.repository.CheckpointRepository;
+import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.service.access.impl.AccessServiceImpl;
+import ru.ac.checkpointmanager.util.PassTestData;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class AccessServiceImplTest {
+
+    @Mock
+    MembershipIndex membershipIndex;
+
+    @Mock
+    PassRepository passRepository;
+
+    @Mock
+    CheckpointRepository checkpointRepository;
+
+    @InjectMocks
+    AccessServiceImpl accessService;
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getPassAccess_RepeatedInRequest_OneQuery() {
+        startRequest();
+        Mockito.when(passRepository.findPassAccessView(PassTestData.PASS_ID))
+                .thenReturn(Optional.of(new PassAccessView(TestUtils.USER_ID, TestUtils.TERR_ID)));
+
+        PassAccessView first = accessService.getPassAccess(PassTestData.PASS_ID);
+        PassAccessView second = accessService.getPassAccess(PassTestData.PASS_ID);
+
+        Assertions.assertThat(second).isSameAs(first);
+        Mockito.verify(passRepository).findPassAccessView(PassTestData.PASS_ID);
+    }
+
+    @Test
+    void getPassAccess_OutsideRequest_QueryEachTime() {
+        Mockito.when(passRepository.findPassAccessView(PassTestData.PASS_ID))
+                .thenReturn(Optional.of(new PassAccessView(TestUtils.USER_ID, TestUtils.TERR_ID)));
+
+        accessService.getPassAccess(PassTestData.PASS_ID);
+        accessService.getPassAccess(PassTestData.PASS_ID);
+
+        Mockito.verify(passRepository, Mockito.times(2)).findPassAccessView(PassTestData.PASS_ID);
+    }
+
+    @Test
+    void isTerritoryMember_AllOk_AnswerFromMembershipIndex() {
+        Mockito.when(membershipIndex.isMember(TestUtils.USER_ID, TestUtils.TERR_ID)).thenReturn(true);
+
+        Assertions.assertThat(accessService.isTerritoryMember(TestUtils.USER_ID, TestUtils.TERR_ID)).isTrue();
+        Mockito.verifyNoInteractions(passRepository, checkpointRepository);
+    }
+
+    @Test
+    void getPassAccess_PassNotFound_ThrowAndNotRemember() {
+        startRequest();
+        Mockito.when(passRepository.findPassAccessView(PassTestData.PASS_ID)).thenReturn(Optional.empty());
+
+        Assertions.assertThatThrownBy(() -> accessService.getPassAccess(PassTestData.PASS_ID))
+                .isInstanceOf(PassNotFoundException.class);
+        Assertions.assertThatThrownBy(() -> accessService.getPassAccess(PassTestData.PASS_ID))
+                .isInstanceOf(PassNotFoundException.class);
+        Mockito.verify(passRepository, Mockito.times(2)).findPassAccessView(PassTestData.PASS_ID);
+    }
+
+    private void startRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+}
@@ -0,0 +1,159 @@
+package ru.ac.checkpointmanager.service.access;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import ru.ac.checkpointmanager.dto.MembershipIndexCheckDTO;
+import ru.ac.checkpointmanager.projection.UserTerritoryView;
+import ru.ac.checkpointmanager.repository.TerritoryRepository;
+import ru.ac.checkpointmanager.repository.UserTerritoryRepository;
+import ru.ac.checkpointmanager.service.access.impl.MembershipIndexImpl;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipIndexImplTest {
+
+    private static final UUID OTHER_USER_ID = UUID.randomUUID();
+
+    private static final UUID OTHER_TERR_ID = UUID.randomUUID();
+
+    @Mock
+    UserTerritoryRepository userTerritoryRepository;
+
+    @Mock
+    TerritoryRepository territoryRepository;
+
+    @Mock
+    StringRedisTemplate redisTemplate;
+
+    @Mock
+    RedisMessageListenerContainer listenerContainer;
+
+    MembershipIndexImpl membershipIndex;
+
+    @BeforeEach
+    void init() {
+        membershipIndex = new MembershipIndexImpl(userTerritoryRepository, territoryRepository, redisTemplate,
+                listenerContainer, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void check_MembershipsInDb_AnswerFromIndexWithoutDb() {
+        mockMemberships(new UserTerritoryView(TestUtils.USER_ID, TestUtils.TERR_ID),
+                new UserTerritoryView(TestUtils.USER_ID, OTHER_TERR_ID),
+                new UserTerritoryView(OTHER_USER_ID, OTHER_TERR_ID));
+
+        MembershipIndexCheckDTO result = membershipIndex.check();
+
+        Assertions.assertThat(result.getIndexed()).isEqualTo(3);
+        Assertions.assertThat(membershipIndex.isMember(TestUtils.USER_ID, TestUtils.TERR_ID)).isTrue();
+        Assertions.assertThat(membershipIndex.shareTerritory(TestUtils.USER_ID, OTHER_USER_ID)).isTrue();
+        Assertions.assertThat(membershipIndex.findCommonTerritoryIds(TestUtils.USER_ID, OTHER_USER_ID))
+                .containsExactly(OTHER_TERR_ID);
+        Mockito.verifyNoInteractions(territoryRepository);
+        Mockito.verify(userTerritoryRepository, Mockito.never()).findByUserIds(Mockito.any());
+    }
+
+    @Test
+    void isMember_MembershipOlderThanTtlRemovedOnOtherInstance_RecheckDbAndDeny() {
+        membershipIndex = new MembershipIndexImpl(userTerritoryRepository, territoryRepository, redisTemplate,
+                listenerContainer, Duration.ZERO);
+        mockMemberships(new UserTerritoryView(TestUtils.USER_ID, TestUtils.TERR_ID));
+        membershipIndex.check();
+        // сообщение об удалении связи на другом экземпляре не пришло
+        Mockito.when(userTerritoryRepository.findByUserIds(List.of(TestUtils.USER_ID)))
+                .thenReturn(Collections.emptyList());
+
+        Assertions.assertThat(membershipIndex.isMember(TestUtils.USER_ID, TestUtils.TERR_ID)).isFalse();
+        Assertions.assertThat(membershipIndex.findTerritoryIds(TestUtils.USER_ID)).isEmpty();
+        Assertions.assertThat(membershipIndex.size()).isZero();
+    }
+
+    @Test
+    void isMember_NotInIndexButInDb_RepairIndex() {
+        mockMemberships();
+        membershipIndex.check();
+        Mockito.when(territoryRepository.checkUserTerritoryRelation(TestUtils.USER_ID, TestUtils.TERR_ID))
+                .thenReturn(true);
+        Mockito.when(userTerritoryRepository.findByUserIds(List.of(TestUtils.USER_ID)))
+                .thenReturn(List.of(new UserTerritoryView(TestUtils.USER_ID, TestUtils.TERR_ID)));
+
+        Assertions.assertThat(membershipIndex.isMember(TestUtils.USER_ID, TestUtils.TERR_ID)).isTrue();
+        Assertions.assertThat(membershipIndex.isMember(TestUtils.USER_ID, TestUtils.TERR_ID)).isTrue();
+
+        Mockito.verify(territoryRepository).checkUserTerritoryRelation(TestUtils.USER_ID, TestUtils.TERR_ID);
+        Assertions.assertThat(membershipIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshUser_UserDetached_RemoveFromIndexAndPublish() {
+        mockMemberships(new UserTerritoryView(TestUtils.USER_ID, TestUtils.TERR_ID),
+                new UserTerritoryView(OTHER_USER_ID, TestUtils.TERR_ID));
+        membershipIndex.check();
+        Mockito.when(userTerritoryRepository.findByUserIds(List.of(TestUtils.USER_ID)))
+                .thenReturn(Collections.emptyList());
+
+        membershipIndex.refreshUser(TestUtils.USER_ID);
+
+        Assertions.assertThat(membershipIndex.findCommonTerritoryIds(TestUtils.USER_ID, OTHER_USER_ID)).isEmpty();
+        Assertions.assertThat(membershipIndex.size()).isEqualTo(1);
+        Mockito.verify(redisTemplate).convertAndSend(Mockito.eq(MembershipIndexImpl.CHANNEL),
+                Mockito.endsWith("|" + TestUtils.USER_ID));
+    }
+
+    @Test
+    void onMessage_ChangedOnOtherInstance_ReloadUsers() {
+        mockMemberships();
+        membershipIndex.check();
+        Mockito.when(userTerritoryRepository.findByUserIds(List.of(TestUtils.USER_ID)))
+                .thenReturn(List.of(new UserTerritoryView(TestUtils.USER_ID, TestUtils.TERR_ID)));
+        String body = UUID.randomUUID() + "|" + TestUtils.USER_ID;
+
+        membershipIndex.onMessage(new DefaultMessage(MembershipIndexImpl.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)), null);
+
+        Assertions.assertThat(membershipIndex.isMember(TestUtils.USER_ID, TestUtils.TERR_ID)).isTrue();
+        Mockito.verifyNoInteractions(territoryRepository, redisTemplate);
+    }
+
+    @Test
+    void check_IndexDivergedFromDb_RepairAndCountDiscrepancies() {
+        mockMemberships(new UserTerritoryView(TestUtils.USER_ID, TestUtils.TERR_ID),
+                new UserTerritoryView(TestUtils.USER_ID, OTHER_TERR_ID));
+        membershipIndex.check();
+        mockMemberships(new UserTerritoryView(TestUtils.USER_ID, TestUtils.TERR_ID),
+                new UserTerritoryView(OTHER_USER_ID, OTHER_TERR_ID));
+
+        MembershipIndexCheckDTO result = membershipIndex.check();
+
+        Assertions.assertThat(result).extracting(MembershipIndexCheckDTO::getIndexed,
+                MembershipIndexCheckDTO::getMissing, MembershipIndexCheckDTO::getStale).containsExactly(2, 1, 1);
+        Assertions.assertThat(membershipIndex.findCommonTerritoryIds(TestUtils.USER_ID, OTHER_USER_ID)).isEmpty();
+        Assertions.assertThat(membershipIndex.isMember(OTHER_USER_ID, OTHER_TERR_ID)).isTrue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockMemberships(UserTerritoryView... views) {
+        Mockito.doAnswer(invocation -> {
+            Consumer<UserTerritoryView> consumer = invocation.getArgument(0);
+            for (UserTerritoryView view : views) {
+                consumer.accept(view);
+            }
+            return null;
+        }).when(userTerritoryRepository).streamAll(Mockito.any(Consumer.class));
+    }
+}
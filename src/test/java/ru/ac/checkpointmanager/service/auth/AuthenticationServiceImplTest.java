@@ -13,7 +13,7 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.cache.Cache;
-import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.cache.CacheManager;
 import org.springframework.mail.MailException;
 import org.springframework.mail.MailSendException;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -46,7 +46,7 @@ import java.util.Optional;
 class AuthenticationServiceImplTest {
 
     @Mock
-    RedisCacheManager cacheManager;
+    CacheManager cacheManager;
     @Mock
     UserRepository userRepository;
     @Mock
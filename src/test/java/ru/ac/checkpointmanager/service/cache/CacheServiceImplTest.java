@@ -0,0 +1,92 @@
+package ru.ac.checkpointmanager.service.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import ru.ac.checkpointmanager.configuration.cache.CacheNames;
+import ru.ac.checkpointmanager.configuration.cache.RedisCircuitBreaker;
+import ru.ac.checkpointmanager.exception.CacheNotFoundException;
+import ru.ac.checkpointmanager.repository.PhoneRepository;
+import ru.ac.checkpointmanager.security.principal.PrincipalCache;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class CacheServiceImplTest {
+
+    @Mock
+    RedisCacheManager redisCacheManager;
+
+    @Mock
+    StringRedisTemplate redisTemplate;
+
+    @Mock
+    PhoneRepository phoneRepository;
+
+    @Mock
+    PrincipalCache principalCache;
+
+    ConcurrentMapCacheManager cacheManager;
+
+    CacheServiceImpl cacheService;
+
+    @BeforeEach
+    void init() {
+        cacheManager = new ConcurrentMapCacheManager(CacheNames.USER, CacheNames.USER_TERRITORY, CacheNames.PHONE);
+        cacheService = new CacheServiceImpl(cacheManager, redisCacheManager, redisTemplate, phoneRepository,
+                principalCache, new RedisCircuitBreaker(null, 3, Duration.ofSeconds(5)), 100);
+    }
+
+    @Test
+    void evictUser_UserWithPhones_EvictUserTerritoriesPhonesAndPrincipal() {
+        UUID phoneId = UUID.randomUUID();
+        UUID otherPhoneId = UUID.randomUUID();
+        cacheManager.getCache(CacheNames.USER).put(TestUtils.USER_ID, "user");
+        cacheManager.getCache(CacheNames.USER_TERRITORY).put(TestUtils.USER_ID, List.of());
+        cacheManager.getCache(CacheNames.PHONE).put(phoneId, "phone");
+        cacheManager.getCache(CacheNames.PHONE).put(otherPhoneId, "other phone");
+        Mockito.when(phoneRepository.findIdsByUserId(TestUtils.USER_ID)).thenReturn(List.of(phoneId));
+
+        cacheService.evictUser(TestUtils.USER_ID);
+
+        Assertions.assertThat(cacheManager.getCache(CacheNames.USER).get(TestUtils.USER_ID)).isNull();
+        Assertions.assertThat(cacheManager.getCache(CacheNames.USER_TERRITORY).get(TestUtils.USER_ID)).isNull();
+        Assertions.assertThat(cacheManager.getCache(CacheNames.PHONE).get(phoneId)).isNull();
+        Assertions.assertThat(cacheManager.getCache(CacheNames.PHONE).get(otherPhoneId)).isNotNull();
+        Mockito.verify(principalCache).invalidate(TestUtils.USER_ID);
+    }
+
+    @Test
+    void evict_ByKeyAndClearByName_RemoveOnlyFromThisCache() {
+        cacheManager.getCache(CacheNames.USER).put("key", "user");
+        cacheManager.getCache(CacheNames.PHONE).put("key", "phone");
+        cacheManager.getCache(CacheNames.PHONE).put("other", "phone");
+
+        cacheService.evict(CacheNames.USER, "key");
+        Assertions.assertThat(cacheManager.getCache(CacheNames.USER).get("key")).isNull();
+        Assertions.assertThat(cacheManager.getCache(CacheNames.PHONE).get("key")).isNotNull();
+
+        cacheService.clearCache(CacheNames.PHONE);
+        Assertions.assertThat(cacheManager.getCache(CacheNames.PHONE).get("other")).isNull();
+    }
+
+    @Test
+    void evict_UnknownCache_ThrowCacheNotFoundAndNotCreateCache() {
+        Assertions.assertThatExceptionOfType(CacheNotFoundException.class)
+                .isThrownBy(() -> cacheService.evict("unknown", "key"));
+        Assertions.assertThatExceptionOfType(CacheNotFoundException.class)
+                .isThrownBy(() -> cacheService.clearCache("unknown"));
+
+        Assertions.assertThat(cacheManager.getCacheNames()).doesNotContain("unknown");
+    }
+}
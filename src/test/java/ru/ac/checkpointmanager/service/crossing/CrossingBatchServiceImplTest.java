@@ -0,0 +1,202 @@
+package ru.ac.checkpointmanager.service.crossing;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.ac.checkpointmanager.dto.CrossingBatchItemDTO;
+import ru.ac.checkpointmanager.dto.CrossingBatchResultDTO;
+import ru.ac.checkpointmanager.exception.ExceptionUtils;
+import ru.ac.checkpointmanager.mapper.CrossingMapper;
+import ru.ac.checkpointmanager.model.Crossing;
+import ru.ac.checkpointmanager.model.enums.Direction;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.model.passes.PassTimeType;
+import ru.ac.checkpointmanager.projection.CrossingIdempotencyView;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
+import ru.ac.checkpointmanager.repository.CheckpointRepository;
+import ru.ac.checkpointmanager.repository.CrossingBatchRepository;
+import ru.ac.checkpointmanager.repository.CrossingRepository;
+import ru.ac.checkpointmanager.repository.PassEventRepository;
+import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.service.crossing.impl.CrossingBatchServiceImpl;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
+import ru.ac.checkpointmanager.service.passes.PassChecker;
+import ru.ac.checkpointmanager.service.passes.PlateIndex;
+import ru.ac.checkpointmanager.util.PassTestData;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class CrossingBatchServiceImplTest {
+
+    @Mock
+    CrossingRepository crossingRepository;
+
+    @Mock
+    CrossingBatchRepository crossingBatchRepository;
+
+    @Mock
+    PassRepository passRepository;
+
+    @Mock
+    CheckpointRepository checkpointRepository;
+
+    @Mock
+    PassEventRepository passEventRepository;
+
+    @Mock
+    CrossingPassHandler crossingPassHandler;
+
+    @Mock
+    PassChecker passChecker;
+
+    @Mock
+    PlateIndex plateIndex;
+
+    @Mock
+    CrossingMapper mapper;
+
+    @Mock
+    LiveEventService liveEventService;
+
+    @InjectMocks
+    CrossingBatchServiceImpl crossingBatchService;
+
+    @Captor
+    ArgumentCaptor<Collection<PassCrossingView>> passStatesCaptor;
+
+    @Captor
+    ArgumentCaptor<Collection<Crossing>> crossingsCaptor;
+
+    @Test
+    void addCrossings_KeyAlreadySaved_ReturnDuplicateWithoutProcessing() {
+        UUID savedCrossingId = UUID.randomUUID();
+        CrossingIdempotencyView saved = Mockito.mock(CrossingIdempotencyView.class);
+        Mockito.when(saved.getId()).thenReturn(savedCrossingId);
+        Mockito.when(saved.getCheckpointId()).thenReturn(TestUtils.CHECKPOINT_ID);
+        Mockito.when(saved.getIdempotencyKey()).thenReturn("key");
+        Mockito.when(crossingRepository.findByIdempotencyKeys(Set.of(TestUtils.CHECKPOINT_ID), Set.of("key")))
+                .thenReturn(List.of(saved));
+
+        List<CrossingBatchResultDTO> results = crossingBatchService.addCrossings(List.of(getItem("key",
+                ZonedDateTime.now(), Direction.IN)));
+
+        Assertions.assertThat(results).singleElement()
+                .extracting(CrossingBatchResultDTO::getStatus, CrossingBatchResultDTO::getCrossingId)
+                .containsExactly(CrossingBatchResultDTO.Status.DUPLICATE, savedCrossingId);
+        Mockito.verifyNoInteractions(passRepository, crossingBatchRepository, crossingPassHandler);
+    }
+
+    @Test
+    void addCrossings_KeySavedForOtherCheckpoint_ProcessAsNewCrossing() {
+        UUID otherCheckpointId = UUID.randomUUID();
+        CrossingIdempotencyView saved = Mockito.mock(CrossingIdempotencyView.class);
+        Mockito.when(saved.getCheckpointId()).thenReturn(otherCheckpointId);
+        Mockito.when(saved.getIdempotencyKey()).thenReturn("key");
+        PassCrossingView view = PassTestData.getActivePassAutoCrossingView(PassTimeType.PERMANENT, Direction.IN, true);
+        Mockito.when(crossingRepository.findByIdempotencyKeys(Mockito.any(), Mockito.any()))
+                .thenReturn(List.of(saved));
+        Mockito.when(passRepository.findPassCrossingViews(Mockito.any(), Mockito.any())).thenReturn(List.of(view));
+        Mockito.when(crossingPassHandler.process(Mockito.any(), Mockito.any())).thenReturn(PassStatus.ACTIVE);
+        Mockito.when(crossingBatchRepository.updatePassStates(Mockito.any())).thenReturn(new int[]{1});
+
+        List<CrossingBatchResultDTO> results = crossingBatchService.addCrossings(List.of(getItem("key",
+                ZonedDateTime.now(), Direction.IN)));
+
+        Assertions.assertThat(results).singleElement()
+                .extracting(CrossingBatchResultDTO::getStatus).isEqualTo(CrossingBatchResultDTO.Status.CREATED);
+        Mockito.verify(saved, Mockito.never()).getId();
+        Mockito.verify(crossingBatchRepository).insertCrossings(Mockito.any());
+    }
+
+    @Test
+    void addCrossings_UnorderedCrossingsOfOnePass_ProcessByPerformedAtAndSaveInBatch() {
+        ZonedDateTime now = ZonedDateTime.now();
+        CrossingBatchItemDTO out = getItem("out", now.minusMinutes(1), Direction.OUT);
+        CrossingBatchItemDTO in = getItem("in", now.minusMinutes(5), Direction.IN);
+        PassCrossingView view = PassTestData.getActivePassAutoCrossingView(PassTimeType.ONETIME, Direction.IN, false);
+        Mockito.when(crossingRepository.findByIdempotencyKeys(Mockito.any(), Mockito.any()))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(passRepository.findPassCrossingViews(Mockito.any(), Mockito.any())).thenReturn(List.of(view));
+        Mockito.when(crossingPassHandler.process(Mockito.any(), Mockito.eq(Direction.IN)))
+                .thenReturn(PassStatus.ACTIVE);
+        Mockito.when(crossingPassHandler.process(Mockito.any(), Mockito.eq(Direction.OUT)))
+                .thenReturn(PassStatus.COMPLETED);
+        Mockito.when(crossingBatchRepository.updatePassStates(Mockito.any())).thenReturn(new int[]{1});
+
+        List<CrossingBatchResultDTO> results = crossingBatchService.addCrossings(List.of(out, in));
+
+        InOrder inOrder = Mockito.inOrder(crossingPassHandler);
+        inOrder.verify(crossingPassHandler).process(Mockito.any(), Mockito.eq(Direction.IN));
+        inOrder.verify(crossingPassHandler).process(Mockito.argThat(PassCrossingView::isUsed),
+                Mockito.eq(Direction.OUT));
+        Mockito.verify(crossingBatchRepository).updatePassStates(passStatesCaptor.capture());
+        Assertions.assertThat(passStatesCaptor.getValue()).singleElement()
+                .extracting(PassCrossingView::getStatus, PassCrossingView::getExpectedDirection)
+                .containsExactly(PassStatus.COMPLETED, Direction.IN);
+        Mockito.verify(crossingBatchRepository).insertCrossings(crossingsCaptor.capture());
+        Assertions.assertThat(crossingsCaptor.getValue()).extracting(Crossing::getIdempotencyKey)
+                .containsExactly("in", "out");
+        Mockito.verify(passEventRepository).recordCrossings(crossingsCaptor.getValue());
+        Mockito.verify(plateIndex).refreshPasses(List.of(PassTestData.PASS_ID));
+        Assertions.assertThat(results).extracting(CrossingBatchResultDTO::getIdempotencyKey,
+                        CrossingBatchResultDTO::getStatus)
+                .containsExactly(
+                        Assertions.tuple("out", CrossingBatchResultDTO.Status.CREATED),
+                        Assertions.tuple("in", CrossingBatchResultDTO.Status.CREATED));
+    }
+
+    @Test
+    void addCrossings_PassNotFound_RejectWithoutSaving() {
+        Mockito.when(crossingRepository.findByIdempotencyKeys(Mockito.any(), Mockito.any()))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(passRepository.findPassCrossingViews(Mockito.any(), Mockito.any()))
+                .thenReturn(Collections.emptyList());
+
+        List<CrossingBatchResultDTO> results = crossingBatchService.addCrossings(List.of(getItem("key",
+                ZonedDateTime.now(), Direction.IN)));
+
+        Assertions.assertThat(results).singleElement()
+                .extracting(CrossingBatchResultDTO::getStatus, CrossingBatchResultDTO::getMessage)
+                .containsExactly(CrossingBatchResultDTO.Status.REJECTED,
+                        ExceptionUtils.PASS_NOT_FOUND.formatted(PassTestData.PASS_ID));
+        Mockito.verifyNoInteractions(crossingBatchRepository, passEventRepository);
+    }
+
+    @Test
+    void addCrossings_PassBecameInactiveBeforeUpdate_RejectItsCrossings() {
+        PassCrossingView view = PassTestData.getActivePassAutoCrossingView(PassTimeType.PERMANENT, Direction.IN, true);
+        Mockito.when(crossingRepository.findByIdempotencyKeys(Mockito.any(), Mockito.any()))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(passRepository.findPassCrossingViews(Mockito.any(), Mockito.any())).thenReturn(List.of(view));
+        Mockito.when(crossingPassHandler.process(Mockito.any(), Mockito.any())).thenReturn(PassStatus.ACTIVE);
+        Mockito.when(crossingBatchRepository.updatePassStates(Mockito.any())).thenReturn(new int[]{0});
+
+        List<CrossingBatchResultDTO> results = crossingBatchService.addCrossings(List.of(getItem("key",
+                ZonedDateTime.now(), Direction.IN)));
+
+        Assertions.assertThat(results).singleElement()
+                .extracting(CrossingBatchResultDTO::getStatus, CrossingBatchResultDTO::getCrossingId)
+                .containsExactly(CrossingBatchResultDTO.Status.REJECTED, null);
+        Mockito.verify(crossingBatchRepository, Mockito.never()).insertCrossings(Mockito.any());
+        Mockito.verifyNoInteractions(passEventRepository);
+    }
+
+    private static CrossingBatchItemDTO getItem(String key, ZonedDateTime performedAt, Direction direction) {
+        return new CrossingBatchItemDTO(key, PassTestData.PASS_ID, TestUtils.CHECKPOINT_ID, performedAt, direction);
+    }
+
+}
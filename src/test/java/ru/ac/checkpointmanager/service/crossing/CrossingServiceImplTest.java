@@ -12,7 +12,10 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
 import org.springframework.test.util.ReflectionTestUtils;
+import ru.ac.checkpointmanager.dto.CrossingDTO;
 import ru.ac.checkpointmanager.dto.CrossingRequestDTO;
+import ru.ac.checkpointmanager.exception.CheckpointNotFoundException;
+import ru.ac.checkpointmanager.exception.pass.PassNotFoundException;
 import ru.ac.checkpointmanager.extension.LoggingMemoryAppenderTestResolver;
 import ru.ac.checkpointmanager.mapper.CrossingMapper;
 import ru.ac.checkpointmanager.model.Crossing;
@@ -22,25 +25,39 @@ import ru.ac.checkpointmanager.model.checkpoints.CheckpointType;
 import ru.ac.checkpointmanager.model.enums.Direction;
 import ru.ac.checkpointmanager.model.passes.PassAuto;
 import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.model.passes.PassTimeType;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
+import ru.ac.checkpointmanager.repository.CheckpointRepository;
 import ru.ac.checkpointmanager.repository.CrossingRepository;
-import ru.ac.checkpointmanager.service.checkpoints.CheckpointService;
+import ru.ac.checkpointmanager.repository.PassEventRepository;
+import ru.ac.checkpointmanager.repository.PassRepository;
 import ru.ac.checkpointmanager.service.crossing.impl.CrossingServiceImpl;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
 import ru.ac.checkpointmanager.service.passes.PassChecker;
 import ru.ac.checkpointmanager.service.passes.PassService;
 import ru.ac.checkpointmanager.util.PassTestData;
 import ru.ac.checkpointmanager.util.TestUtils;
 
+import java.util.List;
+import java.util.Optional;
+
 @ExtendWith({MockitoExtension.class, LoggingMemoryAppenderTestResolver.class})
 class CrossingServiceImplTest {
 
     @Mock
     CrossingRepository crossingRepository;
 
+    @Mock
+    PassRepository passRepository;
+
+    @Mock
+    CheckpointRepository checkpointRepository;
+
     @Mock
     PassService passService;
 
     @Mock
-    CheckpointService checkpointService;
+    PassEventRepository passEventRepository;
 
     @Mock
     CrossingPassHandler crossingPassHandler;
@@ -48,6 +65,9 @@ class CrossingServiceImplTest {
     @Mock
     PassChecker passChecker;
 
+    @Mock
+    LiveEventService liveEventService;
+
     @InjectMocks
     CrossingServiceImpl crossingService;
 
@@ -62,25 +82,30 @@ class CrossingServiceImplTest {
     @Test
     void addCrossing_PassActiveCompatibleWithCheckpointSameTerritories_SaveCrossing() {
         CrossingRequestDTO crossingRequestDTO = TestUtils.getCrossingRequestDTO();
+        PassCrossingView passView = PassTestData.getActivePassAutoCrossingView(PassTimeType.ONETIME, Direction.IN,
+                false);
         PassAuto passAuto = new PassAuto();
+        passAuto.setId(PassTestData.PASS_ID);
         passAuto.setStatus(PassStatus.ACTIVE);
         Territory territory = TestUtils.getTerritory();
         passAuto.setTerritory(territory);
         Checkpoint checkpoint = TestUtils.getCheckpoint(CheckpointType.UNIVERSAL, territory);
-        Mockito.when(passService.findPassById(PassTestData.PASS_ID))
-                .thenReturn(passAuto);
-        Mockito.when(checkpointService.findCheckpointById(TestUtils.CHECKPOINT_ID))
-                .thenReturn(checkpoint);
-        Mockito.when(crossingRepository.save(Mockito.any()))
-                .thenReturn(TestUtils.getCrossing(passAuto, checkpoint, Direction.IN));
-
-        crossingService.addCrossing(crossingRequestDTO, Direction.IN);
-        Mockito.verify(passChecker).checkPassActivity(passAuto);
-        Mockito.verify(passChecker).checkPassAndCheckpointCompatibility(passAuto, checkpoint);
-        Mockito.verify(passChecker).checkPassAndCheckpointTerritories(passAuto, checkpoint);
-        Mockito.verify(crossingPassHandler).handle(passAuto, Direction.IN);
-        Mockito.verify(crossingRepository).save(crossingArgumentCaptor.capture());
+        Mockito.when(passRepository.findPassCrossingView(PassTestData.PASS_ID, TestUtils.CHECKPOINT_ID))
+                .thenReturn(Optional.of(passView));
+        Mockito.when(passRepository.getReferenceById(PassTestData.PASS_ID)).thenReturn(passAuto);
+        Mockito.when(checkpointRepository.getReferenceById(TestUtils.CHECKPOINT_ID)).thenReturn(checkpoint);
+        Crossing savedCrossing = TestUtils.getCrossing(passAuto, checkpoint, Direction.IN);
+        Mockito.when(crossingRepository.saveAndFlush(Mockito.any())).thenReturn(savedCrossing);
+
+        CrossingDTO crossingDTO = crossingService.addCrossing(crossingRequestDTO, Direction.IN);
+
+        Mockito.verify(passChecker).checkPassActivity(passView);
+        Mockito.verify(passChecker).checkPassAndCheckpointCompatibility(passView);
+        Mockito.verify(passChecker).checkPassAndCheckpointTerritories(passView);
+        Mockito.verify(crossingPassHandler).handle(passView, Direction.IN);
+        Mockito.verify(crossingRepository).saveAndFlush(crossingArgumentCaptor.capture());
         Crossing captured = crossingArgumentCaptor.getValue();
+        Mockito.verify(passEventRepository).recordCrossings(List.of(savedCrossing));
         org.junit.jupiter.api.Assertions.assertAll(
                 () -> Assertions.assertThat(captured.getDirection())
                         .as("Check if direction passed correct")
@@ -90,7 +115,36 @@ class CrossingServiceImplTest {
                 () -> Assertions.assertThat(captured.getCheckpoint()).as("Check if checkpoint attached to crossing")
                         .isEqualTo(checkpoint),
                 () -> Assertions.assertThat(captured.getPerformedAt()).as("Check if performedAt attached to crossing")
-                        .isEqualTo(crossingRequestDTO.getPerformedAt())
+                        .isEqualTo(crossingRequestDTO.getPerformedAt()),
+                () -> Assertions.assertThat(crossingDTO.getId()).as("Check if id of saved crossing returned")
+                        .isEqualTo(TestUtils.CROSSING_ID),
+                () -> Assertions.assertThat(crossingDTO.getPassId()).as("Check if pass id returned")
+                        .isEqualTo(PassTestData.PASS_ID)
         );
     }
+
+    @Test
+    void addCrossing_PassNotFound_ThrowPassNotFoundException() {
+        CrossingRequestDTO crossingRequestDTO = TestUtils.getCrossingRequestDTO();
+        Mockito.when(passRepository.findPassCrossingView(PassTestData.PASS_ID, TestUtils.CHECKPOINT_ID))
+                .thenReturn(Optional.empty());
+
+        Assertions.assertThatExceptionOfType(PassNotFoundException.class)
+                .isThrownBy(() -> crossingService.addCrossing(crossingRequestDTO, Direction.IN));
+        Mockito.verifyNoInteractions(crossingPassHandler, crossingRepository, passEventRepository);
+    }
+
+    @Test
+    void addCrossing_CheckpointNotFound_ThrowCheckpointNotFoundException() {
+        CrossingRequestDTO crossingRequestDTO = TestUtils.getCrossingRequestDTO();
+        PassCrossingView passView = new PassCrossingView(PassTestData.PASS_ID, PassStatus.ACTIVE,
+                PassTimeType.ONETIME, Direction.IN, "AUTO", TestUtils.TERR_ID, false, null, null, null);
+        Mockito.when(passRepository.findPassCrossingView(PassTestData.PASS_ID, TestUtils.CHECKPOINT_ID))
+                .thenReturn(Optional.of(passView));
+
+        Assertions.assertThatExceptionOfType(CheckpointNotFoundException.class)
+                .isThrownBy(() -> crossingService.addCrossing(crossingRequestDTO, Direction.IN));
+        Mockito.verify(passChecker).checkPassActivity(passView);
+        Mockito.verifyNoInteractions(crossingPassHandler, crossingRepository, passEventRepository);
+    }
 }
@@ -8,10 +8,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import ru.ac.checkpointmanager.extension.LoggingMemoryAppenderTestResolver;
 import ru.ac.checkpointmanager.extension.MemoryAppender;
 import ru.ac.checkpointmanager.model.enums.Direction;
-import ru.ac.checkpointmanager.model.passes.PassAuto;
+import ru.ac.checkpointmanager.model.passes.PassTimeType;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
 import ru.ac.checkpointmanager.service.crossing.impl.PassProcessorPermanent;
 import ru.ac.checkpointmanager.util.PassTestData;
-import ru.ac.checkpointmanager.util.TestUtils;
 
 @ExtendWith(LoggingMemoryAppenderTestResolver.class)
 class PassProcessorPermanentTest {
@@ -28,14 +28,12 @@ class PassProcessorPermanentTest {
 
     @Test
     void process_DirectionIn_noExceptionsAndOneDebugLog() {
-        PassAuto passAuto = PassTestData.getSimpleActiveOneTimePassAutoFor3Hours(TestUtils.getUser(),
-                TestUtils.getTerritory(),
-                TestUtils.getCar(TestUtils.getCarBrand()));
-        passAuto.setExpectedDirection(Direction.IN);
+        PassCrossingView pass = PassTestData.getActivePassAutoCrossingView(PassTimeType.PERMANENT, Direction.IN,
+                false);
 
         Assertions.assertThatNoException().as("Check if no exceptions thrown")
                 .isThrownBy(
-                        () -> passProcessingPermanent.process(passAuto, Direction.IN)
+                        () -> passProcessingPermanent.process(pass, Direction.IN)
                 );
 
         Assertions.assertThat(memoryAppender.contains("Processing permanent pass", Level.DEBUG))
@@ -48,14 +46,12 @@ class PassProcessorPermanentTest {
 
     @Test
     void process_DirectionOut_noExceptionsOneDebugLogAndWarnLog() {
-        PassAuto passAuto = PassTestData.getSimpleActiveOneTimePassAutoFor3Hours(TestUtils.getUser(),
-                TestUtils.getTerritory(),
-                TestUtils.getCar(TestUtils.getCarBrand()));
-        passAuto.setExpectedDirection(Direction.IN);
+        PassCrossingView pass = PassTestData.getActivePassAutoCrossingView(PassTimeType.PERMANENT, Direction.IN,
+                false);
 
         Assertions.assertThatNoException().as("Check if no exceptions thrown")
                 .isThrownBy(
-                        () -> passProcessingPermanent.process(passAuto, Direction.OUT)
+                        () -> passProcessingPermanent.process(pass, Direction.OUT)
                 );
 
         Assertions.assertThat(memoryAppender.contains("Processing permanent pass", Level.DEBUG))
@@ -7,24 +7,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import ru.ac.checkpointmanager.exception.PassProcessorException;
+import ru.ac.checkpointmanager.exception.pass.InactivePassException;
 import ru.ac.checkpointmanager.model.enums.Direction;
-import ru.ac.checkpointmanager.model.passes.Pass;
-import ru.ac.checkpointmanager.model.passes.PassAuto;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
 import ru.ac.checkpointmanager.model.passes.PassTimeType;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
 import ru.ac.checkpointmanager.repository.PassRepository;
 import ru.ac.checkpointmanager.service.crossing.PassProcessor;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
+import ru.ac.checkpointmanager.service.passes.PlateIndex;
 import ru.ac.checkpointmanager.util.PassTestData;
-import ru.ac.checkpointmanager.util.TestUtils;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.stream.Stream;
 
@@ -40,12 +41,15 @@ class CrossingPassHandlerImplTest {
     @Mock
     PassProcessorPermanent passProcessingPermanent;
 
+    @Mock
+    PlateIndex plateIndex;
+
+    @Mock
+    LiveEventService liveEventService;
+
     @InjectMocks
     CrossingPassHandlerImpl crossingPassHandler;
 
-    @Captor
-    ArgumentCaptor<Pass> passArgumentCaptor;
-
     @BeforeEach
     void init() {
         Map<String, PassProcessor> passProcessingMap = Map.of(
@@ -58,48 +62,68 @@ class CrossingPassHandlerImplTest {
     @ParameterizedTest
     @MethodSource("getTestDirections")
     void handle_OneTimePass_ChangeDirectionAndSave(Direction in, Direction changed) {
-        PassAuto passAuto = PassTestData.getSimpleActiveOneTimePassAutoFor3Hours(TestUtils.getUser(),
-                TestUtils.getTerritory(),
-                TestUtils.getCar(TestUtils.getCarBrand()));
-        passAuto.setExpectedDirection(in);
-
-        crossingPassHandler.handle(passAuto, in);
-
-        Mockito.verify(passRepository).save(passArgumentCaptor.capture());
-        Pass captured = passArgumentCaptor.getValue();
-        Assertions.assertThat(captured.getExpectedDirection())
-                .as("Check if pass direction was changed to opposite")
-                .isEqualTo(changed);
-        Mockito.verify(passProcessingOnetime).process(passAuto, in);
+        PassCrossingView pass = PassTestData.getActivePassAutoCrossingView(PassTimeType.ONETIME, in, false);
+        Mockito.when(passProcessingOnetime.process(pass, in)).thenReturn(PassStatus.ACTIVE);
+        Mockito.when(passRepository.updateStatusAndExpectedDirection(pass.getId(), PassStatus.ACTIVE, changed,
+                PassStatus.ACTIVE)).thenReturn(1);
+
+        crossingPassHandler.handle(pass, in);
+
+        Mockito.verify(passProcessingOnetime).process(pass, in);
+        Mockito.verify(passRepository).updateStatusAndExpectedDirection(pass.getId(), PassStatus.ACTIVE, changed,
+                PassStatus.ACTIVE);
     }
 
     @ParameterizedTest
     @MethodSource("getTestDirections")
     void handle_PermanentPass_ChangeDirectionAndSave(Direction in, Direction changed) {
-        PassAuto passAuto = PassTestData.getSimpleActivePermanentAutoFor3Hours(TestUtils.getUser(),
-                TestUtils.getTerritory(),
-                TestUtils.getCar(TestUtils.getCarBrand()));
-        passAuto.setExpectedDirection(in);
-
-        crossingPassHandler.handle(passAuto, in);
-
-        Mockito.verify(passRepository).save(passArgumentCaptor.capture());
-        Pass captured = passArgumentCaptor.getValue();
-        Assertions.assertThat(captured.getExpectedDirection())
-                .as("Check if pass direction was changed to opposite")
-                .isEqualTo(changed);
-        Mockito.verify(passProcessingPermanent).process(passAuto, in);
+        PassCrossingView pass = PassTestData.getActivePassAutoCrossingView(PassTimeType.PERMANENT, in, true);
+        Mockito.when(passProcessingPermanent.process(pass, in)).thenReturn(PassStatus.ACTIVE);
+        Mockito.when(passRepository.updateStatusAndExpectedDirection(pass.getId(), PassStatus.ACTIVE, changed,
+                PassStatus.ACTIVE)).thenReturn(1);
+
+        crossingPassHandler.handle(pass, in);
+
+        Mockito.verify(passProcessingPermanent).process(pass, in);
+        Mockito.verify(passRepository).updateStatusAndExpectedDirection(pass.getId(), PassStatus.ACTIVE, changed,
+                PassStatus.ACTIVE);
+    }
+
+    @Test
+    void handle_OneTimePassDirectionOut_SaveCompletedStatus() {
+        PassCrossingView pass = PassTestData.getActivePassAutoCrossingView(PassTimeType.ONETIME, Direction.OUT, true);
+        Mockito.when(passProcessingOnetime.process(pass, Direction.OUT)).thenReturn(PassStatus.COMPLETED);
+        Mockito.when(passRepository.updateStatusAndExpectedDirection(pass.getId(), PassStatus.COMPLETED, Direction.IN,
+                PassStatus.ACTIVE)).thenReturn(1);
+
+        crossingPassHandler.handle(pass, Direction.OUT);
+
+        Mockito.verify(passRepository).updateStatusAndExpectedDirection(pass.getId(), PassStatus.COMPLETED,
+                Direction.IN, PassStatus.ACTIVE);
+        Mockito.verify(plateIndex).refreshPasses(List.of(pass.getId()));
+    }
+
+    @Test
+    void handle_PassBecameInactiveDuringProcessing_ThrowInactivePassException() {
+        PassCrossingView pass = PassTestData.getActivePassAutoCrossingView(PassTimeType.PERMANENT, Direction.IN, true);
+        Mockito.when(passProcessingPermanent.process(pass, Direction.IN)).thenReturn(PassStatus.ACTIVE);
+        Mockito.when(passRepository.updateStatusAndExpectedDirection(pass.getId(), PassStatus.ACTIVE, Direction.OUT,
+                PassStatus.ACTIVE)).thenReturn(0);
+
+        Assertions.assertThatExceptionOfType(InactivePassException.class)
+                .as("Check if exception will be thrown, if pass status was changed concurrently")
+                .isThrownBy(() -> crossingPassHandler.handle(pass, Direction.IN));
     }
 
     @Test
     void handle_PassTypeNotInMap_ThrowPassProcessorException() {
-        PassAuto passAuto = new PassAuto();
-        passAuto.setTimeType(PassTimeType.ONETIME);
+        PassCrossingView pass = PassTestData.getActivePassAutoCrossingView(PassTimeType.ONETIME, Direction.IN, false);
         ReflectionTestUtils.setField(crossingPassHandler, "passProcessingMap", Collections.emptyMap());
 
         Assertions.assertThatExceptionOfType(PassProcessorException.class)
                 .as("Check if exception will be thrown, if no suitable processor found in map")
-                .isThrownBy(() -> crossingPassHandler.handle(passAuto, Direction.IN));
+                .isThrownBy(() -> crossingPassHandler.handle(pass, Direction.IN));
+        Mockito.verifyNoInteractions(passRepository);
     }
 
     private static Stream<Arguments> getTestDirections() {
@@ -0,0 +1,272 @@
+package ru.ac.checkpointmanager.service.event.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.ac.checkpointmanager.dto.LiveEventDTO;
+import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.model.enums.Role;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.security.authfacade.AuthFacade;
+import ru.ac.checkpointmanager.service.access.MembershipIndex;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+@ExtendWith(MockitoExtension.class)
+class LiveEventServiceImplTest {
+
+    private static final int QUEUE_SIZE = 2;
+
+    private static final long AWAIT_SECONDS = 5;
+
+    private static final Duration WRITE_TIMEOUT = Duration.ofMillis(100);
+
+    private static final UUID TERRITORY_ID = UUID.randomUUID();
+
+    private static final UUID OTHER_TERRITORY_ID = UUID.randomUUID();
+
+    @Mock
+    PassRepository passRepository;
+
+    @Mock
+    MembershipIndex membershipIndex;
+
+    @Mock
+    StringRedisTemplate redisTemplate;
+
+    @Mock
+    RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    AuthFacade authFacade;
+
+    ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    LiveEventServiceImpl liveEventService;
+
+    /**
+     * Потоки, которые получат следующие подписчики
+     */
+    Deque<TestEmitter> emitters = new ArrayDeque<>();
+
+    /**
+     * Открывается в конце теста, чтобы завершить записи в потоки клиентов, которые не читают
+     */
+    CountDownLatch stalledClients = new CountDownLatch(1);
+
+    User user;
+
+    @BeforeEach
+    void init() {
+        liveEventService = new LiveEventServiceImpl(passRepository, membershipIndex, redisTemplate, listenerContainer,
+                objectMapper, authFacade, Duration.ofMinutes(1), QUEUE_SIZE, WRITE_TIMEOUT) {
+            @Override
+            SseEmitter createEmitter() {
+                return emitters.pop();
+            }
+        };
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setRole(Role.MANAGER);
+        Mockito.when(authFacade.getCurrentUser()).thenReturn(user);
+    }
+
+    @AfterEach
+    void shutdown() {
+        stalledClients.countDown();
+        liveEventService.shutdown();
+    }
+
+    @Test
+    void onMessage_EventsOfOwnAndOtherTerritory_SendOnlyOwnTerritoryEvents() {
+        Mockito.when(membershipIndex.findTerritoryIds(user.getId())).thenReturn(List.of(TERRITORY_ID));
+        TestEmitter emitter = subscribe(null);
+        UUID ownPassId = UUID.randomUUID();
+        UUID otherPassId = UUID.randomUUID();
+        UUID lastPassId = UUID.randomUUID();
+
+        receive(LiveEventDTO.passStatus(ownPassId, TERRITORY_ID, PassStatus.COMPLETED));
+        receive(LiveEventDTO.passStatus(otherPassId, OTHER_TERRITORY_ID, PassStatus.COMPLETED));
+        receive(LiveEventDTO.passStatus(lastPassId, TERRITORY_ID, PassStatus.COMPLETED));
+
+        // события подписчику отправляются по порядку, после последнего пропущенное уже не придет
+        String content = awaitContent(emitter, c -> c.contains(lastPassId.toString()));
+        Assertions.assertThat(content).contains("event:pass-status", ownPassId.toString())
+                .doesNotContain(otherPassId.toString());
+    }
+
+    @Test
+    void publishPassStatus_RedisUnavailable_DeliverToLocalSubscribers() {
+        user.setRole(Role.ADMIN);
+        Mockito.doThrow(new RedisConnectionFailureException("Redis is down"))
+                .when(redisTemplate).convertAndSend(Mockito.eq(LiveEventServiceImpl.CHANNEL), Mockito.anyString());
+        TestEmitter emitter = subscribe(null);
+        UUID passId = UUID.randomUUID();
+
+        liveEventService.publishPassStatus(passId, TERRITORY_ID, PassStatus.WARNING);
+
+        Assertions.assertThat(awaitContent(emitter, c -> c.contains(passId.toString())))
+                .contains("event:pass-status", "WARNING");
+        Mockito.verifyNoInteractions(membershipIndex);
+    }
+
+    @Test
+    @SneakyThrows
+    void onMessage_SubscriberQueueFull_DropEventsAndSendOverflowCount() {
+        user.setRole(Role.ADMIN);
+        CountDownLatch release = new CountDownLatch(1);
+        TestEmitter emitter = subscribeWithGate(release);
+        // запись комментария connected начата и ждет, очередь подписчика пуста
+        Assertions.assertThat(emitter.writing.await(AWAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < QUEUE_SIZE + 3; i++) {
+            receive(LiveEventDTO.passStatus(UUID.randomUUID(), TERRITORY_ID, PassStatus.COMPLETED));
+        }
+        release.countDown();
+
+        String content = awaitContent(emitter, c -> c.contains("event:overflow"));
+        Assertions.assertThat(content).contains("event:overflow\ndata:3");
+        Assertions.assertThat(count(content, "event:pass-status")).isEqualTo(QUEUE_SIZE);
+    }
+
+    @Test
+    @SneakyThrows
+    void onMessage_SomeSubscribersNeverRead_OtherSubscribersReceiveEventsAndStalledAreDisconnected() {
+        user.setRole(Role.ADMIN);
+        List<TestEmitter> stalled = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            stalled.add(subscribeWithGate(stalledClients));
+        }
+        for (TestEmitter emitter : stalled) {
+            Assertions.assertThat(emitter.writing.await(AWAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        }
+        TestEmitter reader = subscribe(null);
+        List<UUID> passIds = new ArrayList<>();
+
+        for (int i = 0; i < QUEUE_SIZE * 5; i++) {
+            UUID passId = UUID.randomUUID();
+            passIds.add(passId);
+            receive(LiveEventDTO.passStatus(passId, TERRITORY_ID, PassStatus.COMPLETED));
+            // читающий клиент получает каждое событие, пока остальные клиенты держат свои записи
+            awaitContent(reader, c -> c.contains(passId.toString()));
+        }
+        Thread.sleep(WRITE_TIMEOUT.toMillis() * 2);
+        liveEventService.heartbeat();
+
+        Assertions.assertThat(reader.content()).contains(passIds.stream().map(UUID::toString).toList());
+        Assertions.assertThat(liveEventService.size()).isEqualTo(1);
+    }
+
+    @Test
+    void heartbeat_AccessToTerritoryLost_CloseStream() {
+        Mockito.when(membershipIndex.findTerritoryIds(user.getId())).thenReturn(List.of(TERRITORY_ID), List.of());
+        user.setRole(Role.SECURITY);
+        subscribe(TERRITORY_ID);
+        Assertions.assertThat(liveEventService.size()).isEqualTo(1);
+
+        liveEventService.heartbeat();
+
+        Assertions.assertThat(liveEventService.size()).isZero();
+    }
+
+    /**
+     * @param gate если не null, каждая запись в поток ждет его открытия, как запись клиенту, который не читает
+     */
+    private TestEmitter subscribeWithGate(CountDownLatch gate) {
+        emitters.push(new TestEmitter(gate));
+        return (TestEmitter) liveEventService.subscribe(null);
+    }
+
+    private TestEmitter subscribe(UUID territoryId) {
+        emitters.push(new TestEmitter(null));
+        return (TestEmitter) liveEventService.subscribe(territoryId);
+    }
+
+    @SneakyThrows
+    private void receive(LiveEventDTO event) {
+        byte[] body = objectMapper.writeValueAsBytes(event);
+        liveEventService.onMessage(new DefaultMessage(LiveEventServiceImpl.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body), null);
+    }
+
+    @SneakyThrows
+    private static String awaitContent(TestEmitter emitter, Predicate<String> condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(AWAIT_SECONDS);
+        while (!condition.test(emitter.content())) {
+            long left = deadline - System.nanoTime();
+            Assertions.assertThat(left).as("events sent to subscriber: %s", emitter.content()).isPositive();
+            String event = emitter.events.poll(left, TimeUnit.NANOSECONDS);
+            if (event != null) {
+                emitter.received.add(event);
+            }
+        }
+        return emitter.content();
+    }
+
+    private static int count(String content, String part) {
+        return content.split(part, -1).length - 1;
+    }
+
+    /**
+     * Поток событий, записывающий отправленные события вместо ответа клиенту
+     */
+    private static final class TestEmitter extends SseEmitter {
+
+        private final CountDownLatch gate;
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+        private final List<String> received = new ArrayList<>();
+
+        private TestEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            writing.countDown();
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            events.add(builder.build().stream().map(d -> String.valueOf(d.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        private String content() {
+            events.drainTo(received);
+            return String.join("", received);
+        }
+    }
+}
@@ -9,17 +9,26 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
+import ru.ac.checkpointmanager.dto.passes.CursorPage;
+import ru.ac.checkpointmanager.dto.passes.CursorParams;
 import ru.ac.checkpointmanager.dto.passes.PagingParams;
 import ru.ac.checkpointmanager.exception.ExceptionUtils;
+import ru.ac.checkpointmanager.exception.InvalidCursorException;
 import ru.ac.checkpointmanager.exception.TerritoryNotFoundException;
 import ru.ac.checkpointmanager.exception.UserNotFoundException;
 import ru.ac.checkpointmanager.model.Territory;
 import ru.ac.checkpointmanager.model.User;
+import ru.ac.checkpointmanager.projection.PassEventView;
+import ru.ac.checkpointmanager.projection.PassInOutView;
+import ru.ac.checkpointmanager.repository.PassEventRepository;
 import ru.ac.checkpointmanager.repository.PassRepository;
 import ru.ac.checkpointmanager.repository.TerritoryRepository;
 import ru.ac.checkpointmanager.repository.UserRepository;
+import ru.ac.checkpointmanager.util.PassTestData;
 import ru.ac.checkpointmanager.util.TestUtils;
+import ru.ac.checkpointmanager.utils.CursorUtils;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -36,6 +45,9 @@ class PassInOutViewServiceImplTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    PassEventRepository passEventRepository;
+
     @InjectMocks
     PassInOutViewServiceImpl passInOutViewService;
 
@@ -130,4 +142,52 @@ class PassInOutViewServiceImplTest {
         Mockito.verify(passRepository, Mockito.never()).findEventsByTerritories(Mockito.any(), Mockito.any());
     }
 
+    @Test
+    void scrollEventsByTerritory_MoreEventsThanSize_ReturnPageWithNextCursorWithoutCount() {
+        Mockito.when(territoryRepository.existsById(Mockito.any())).thenReturn(true);
+        OffsetDateTime now = OffsetDateTime.now();
+        PassEventView first = getEventView(now, UUID.randomUUID());
+        PassEventView second = getEventView(now.minusMinutes(1), UUID.randomUUID());
+        Mockito.when(passEventRepository.findEventsByTerritoriesAfter(List.of(TestUtils.TERR_ID), null, null, 2))
+                .thenReturn(List.of(first, second));
+
+        CursorPage<PassInOutView> page = passInOutViewService.scrollEventsByTerritory(TestUtils.TERR_ID,
+                new CursorParams(null, 1, false));
+
+        Assertions.assertThat(page.getContent()).containsExactly(first);
+        Assertions.assertThat(page.getNextCursor()).isEqualTo(CursorUtils.encode(now, first.getEventId()));
+        Assertions.assertThat(page.getTotalElements()).isNull();
+        Mockito.verify(passEventRepository, Mockito.never()).countEventsByTerritories(Mockito.any());
+    }
+
+    @Test
+    void scrollEventsByTerritory_CursorOfEventWithoutInTime_SeekAfterItAndCount() {
+        Mockito.when(territoryRepository.existsById(Mockito.any())).thenReturn(true);
+        UUID eventId = UUID.randomUUID();
+        Mockito.when(passEventRepository.countEventsByTerritories(List.of(TestUtils.TERR_ID))).thenReturn(5L);
+
+        CursorPage<PassInOutView> page = passInOutViewService.scrollEventsByTerritory(TestUtils.TERR_ID,
+                new CursorParams(CursorUtils.encode(null, eventId), 10, true));
+
+        Mockito.verify(passEventRepository).findEventsByTerritoriesAfter(List.of(TestUtils.TERR_ID), eventId, null, 11);
+        Assertions.assertThat(page.getContent()).isEmpty();
+        Assertions.assertThat(page.getNextCursor()).isNull();
+        Assertions.assertThat(page.getTotalElements()).isEqualTo(5L);
+    }
+
+    @Test
+    void scrollAll_InvalidCursor_ThrowException() {
+        CursorParams cursorParams = new CursorParams(CursorUtils.encode("not-a-time", "not-an-id"), 10, false);
+
+        Assertions.assertThatExceptionOfType(InvalidCursorException.class).isThrownBy(() ->
+                passInOutViewService.scrollAll(cursorParams));
+
+        Mockito.verifyNoInteractions(passEventRepository);
+    }
+
+    private static PassEventView getEventView(OffsetDateTime inTime, UUID eventId) {
+        return new PassEventView("AUTO", null, TestUtils.TERR_NAME, "ONETIME", "ACTIVE", null, null, null,
+                inTime.toLocalDateTime(), null, PassTestData.PASS_ID, inTime, eventId);
+    }
+
 }
@@ -0,0 +1,109 @@
+package ru.ac.checkpointmanager.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.SneakyThrows;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.ac.checkpointmanager.dto.ExportParams;
+import ru.ac.checkpointmanager.dto.passes.PassResponseDTO;
+import ru.ac.checkpointmanager.exception.TerritoryNotFoundException;
+import ru.ac.checkpointmanager.projection.PassEventView;
+import ru.ac.checkpointmanager.projection.PassInOutView;
+import ru.ac.checkpointmanager.repository.ExportRepository;
+import ru.ac.checkpointmanager.repository.TerritoryRepository;
+import ru.ac.checkpointmanager.service.export.impl.ExportServiceImpl;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceImplTest {
+
+    private static final UUID PASS_ID = UUID.randomUUID();
+
+    @Mock
+    ExportRepository exportRepository;
+
+    @Mock
+    TerritoryRepository territoryRepository;
+
+    ExportServiceImpl exportService;
+
+    @BeforeEach
+    void init() {
+        exportService = new ExportServiceImpl(exportRepository, territoryRepository,
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    @SneakyThrows
+    void exportEventsByTerritory_CommentWithSeparators_WriteQuotedCsvValue() {
+        Mockito.when(territoryRepository.existsById(TestUtils.TERR_ID)).thenReturn(true);
+        PassEventView event = new PassEventView("AUTO", "to \"gate\", then\nleft", TestUtils.TERR_NAME,
+                "ONETIME", "ACTIVE", null, null, null, LocalDateTime.of(2024, 1, 1, 10, 0), null, PASS_ID,
+                null, UUID.randomUUID());
+        Mockito.doAnswer(invocation -> {
+            invocation.<Consumer<PassInOutView>>getArgument(3).accept(event);
+            return null;
+        }).when(exportRepository).streamEventsByTerritory(Mockito.eq(TestUtils.TERR_ID), Mockito.any(),
+                Mockito.any(), Mockito.any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportEventsByTerritory(TestUtils.TERR_ID, new ExportParams(null, null, null, false))
+                .writeTo(out);
+
+        String csv = out.toString(StandardCharsets.UTF_8);
+        Assertions.assertThat(csv).startsWith("\uFEFFpass_id,").endsWith("\r\n")
+                .contains(PASS_ID + ",AUTO,ONETIME,ACTIVE," + TestUtils.TERR_NAME + ",,,," +
+                        "\"to \"\"gate\"\", then\nleft\",2024-01-01T10:00,\r\n");
+    }
+
+    @Test
+    @SneakyThrows
+    void exportPassesByTerritory_GzipNdjson_WriteOneJsonObjectPerLine() {
+        Mockito.when(territoryRepository.existsById(TestUtils.TERR_ID)).thenReturn(true);
+        Mockito.doAnswer(invocation -> {
+            Consumer<PassResponseDTO> consumer = invocation.getArgument(3);
+            for (int i = 0; i < 3; i++) {
+                PassResponseDTO pass = new PassResponseDTO();
+                pass.setId(UUID.randomUUID());
+                pass.setDtype("WALK");
+                consumer.accept(pass);
+            }
+            return null;
+        }).when(exportRepository).streamPassesByTerritory(Mockito.eq(TestUtils.TERR_ID), Mockito.any(),
+                Mockito.any(), Mockito.any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportPassesByTerritory(TestUtils.TERR_ID,
+                new ExportParams(ExportFormat.NDJSON, null, null, true)).writeTo(out);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            Assertions.assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList())
+                    .hasSize(3).allSatisfy(line -> Assertions.assertThat(line).startsWith("{\"id\":")
+                            .endsWith("\"dtype\":\"WALK\"}"));
+        }
+    }
+
+    @Test
+    void exportEventsByTerritory_TerritoryNotFound_ThrowBeforeStreaming() {
+        Mockito.when(territoryRepository.existsById(TestUtils.TERR_ID)).thenReturn(false);
+        ExportParams exportParams = new ExportParams(null, null, null, false);
+
+        Assertions.assertThatExceptionOfType(TerritoryNotFoundException.class)
+                .isThrownBy(() -> exportService.exportEventsByTerritory(TestUtils.TERR_ID, exportParams));
+        Mockito.verifyNoInteractions(exportRepository);
+    }
+}
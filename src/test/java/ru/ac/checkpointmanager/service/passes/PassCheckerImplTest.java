@@ -27,6 +27,7 @@ import ru.ac.checkpointmanager.model.checkpoints.CheckpointType;
 import ru.ac.checkpointmanager.model.passes.PassAuto;
 import ru.ac.checkpointmanager.model.passes.PassStatus;
 import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.service.access.AccessService;
 import ru.ac.checkpointmanager.service.passes.impl.PassCheckerImpl;
 import ru.ac.checkpointmanager.util.PassTestData;
 import ru.ac.checkpointmanager.util.TestUtils;
@@ -40,6 +41,9 @@ class PassCheckerImplTest {
     @Mock
     PassRepository passRepository;
 
+    @Mock
+    AccessService accessService;
+
     @InjectMocks
     PassCheckerImpl passChecker;
 
@@ -52,7 +56,7 @@ class PassCheckerImplTest {
 
     @Test
     void checkUserTerritoryRelation_RelationExists_NoException() {
-        Mockito.when(passRepository.checkUserTerritoryRelation(Mockito.any(), Mockito.any()))
+        Mockito.when(accessService.isTerritoryMember(Mockito.any(), Mockito.any()))
                 .thenReturn(true);
 
         Assertions.assertThatNoException().isThrownBy(() ->
@@ -61,7 +65,7 @@ class PassCheckerImplTest {
 
     @Test
     void checkUserTerritoryRelation_RelationDoesntExists_ThrowException() {
-        Mockito.when(passRepository.checkUserTerritoryRelation(TestUtils.USER_ID, TestUtils.TERR_ID)).thenReturn(false);
+        Mockito.when(accessService.isTerritoryMember(TestUtils.USER_ID, TestUtils.TERR_ID)).thenReturn(false);
 
         Assertions.assertThatThrownBy(() ->
                         passChecker.checkUserTerritoryRelation(TestUtils.USER_ID, TestUtils.TERR_ID))
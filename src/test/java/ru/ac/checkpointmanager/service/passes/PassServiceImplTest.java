@@ -13,10 +13,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import ru.ac.checkpointmanager.assertion.PassAssert;
+import ru.ac.checkpointmanager.dto.passes.CursorPage;
+import ru.ac.checkpointmanager.dto.passes.CursorParams;
 import ru.ac.checkpointmanager.dto.passes.PassFilterParams;
 import ru.ac.checkpointmanager.dto.passes.PagingParams;
 import ru.ac.checkpointmanager.dto.passes.PassCreateDTO;
+import ru.ac.checkpointmanager.dto.passes.PassResponseDTO;
 import ru.ac.checkpointmanager.dto.passes.PassUpdateDTO;
+import ru.ac.checkpointmanager.exception.InvalidCursorException;
 import ru.ac.checkpointmanager.mapper.PassMapper;
 import ru.ac.checkpointmanager.model.User;
 import ru.ac.checkpointmanager.model.passes.Pass;
@@ -24,13 +28,17 @@ import ru.ac.checkpointmanager.model.passes.PassAuto;
 import ru.ac.checkpointmanager.model.passes.PassStatus;
 import ru.ac.checkpointmanager.repository.CrossingRepository;
 import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
 import ru.ac.checkpointmanager.service.passes.impl.PassServiceImpl;
 import ru.ac.checkpointmanager.service.territories.TerritoryService;
 import ru.ac.checkpointmanager.service.user.UserService;
 import ru.ac.checkpointmanager.util.PassTestData;
 import ru.ac.checkpointmanager.util.TestUtils;
+import ru.ac.checkpointmanager.utils.CursorUtils;
 
-import java.util.Collections;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -58,6 +66,18 @@ class PassServiceImplTest {
     @Mock
     PassMapper passMapper;
 
+    @Mock
+    PassStatusUpdater passStatusUpdater;
+
+    @Mock
+    PlateIndex plateIndex;
+
+    @Mock
+    PassStatusTimer passStatusTimer;
+
+    @Mock
+    LiveEventService liveEventService;
+
     @InjectMocks
     PassServiceImpl passService;
 
@@ -67,11 +87,10 @@ class PassServiceImplTest {
     @Test
     void addPass_AllOk_SaveAndReturn() {
         PassCreateDTO passCreateDTO = PassTestData.getPassCreateDTOWithCar();
-        UUID userId = passCreateDTO.getUserId();
         User user = TestUtils.getUser();
         user.setId(TestUtils.USER_ID);
-        Mockito.when(passRepository.findAllPassesByUserId(userId)).thenReturn(Collections.emptyList());
-        Pass pass = new PassAuto();
+        PassAuto pass = new PassAuto();
+        pass.setCar(TestUtils.getCar(TestUtils.getCarBrand()));
         pass.setTerritory(TestUtils.getTerritory());
         pass.setId(PassTestData.PASS_ID);
         pass.setUser(user);
@@ -79,10 +98,13 @@ class PassServiceImplTest {
         pass.setEndTime(passCreateDTO.getEndTime());
         pass.setComment(passCreateDTO.getComment());
         Mockito.when(passResolver.createPass(passCreateDTO)).thenReturn(pass);
+        Mockito.when(passRepository.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         passService.addPass(passCreateDTO);
 
-        Mockito.verify(passRepository).findAllPassesByUserId(userId);
+        Mockito.verify(passRepository).findOverlappingPassAutoIds(Mockito.any(), Mockito.eq(user.getId()),
+                Mockito.eq(pass.getTerritory().getId()), Mockito.eq(TestUtils.LICENSE_PLATE),
+                Mockito.eq(pass.getStartTime()), Mockito.eq(pass.getEndTime()), Mockito.anyCollection());
         Mockito.verify(passRepository).save(passArgumentCaptor.capture());
         Pass captured = passArgumentCaptor.getValue();
         //просто проверяем что не трогали поля
@@ -94,6 +116,8 @@ class PassServiceImplTest {
         Assertions.assertThat(captured.getStatus()).isEqualTo(PassStatus.DELAYED);
         Assertions.assertThat(captured.getDtype()).isEqualTo(pass.getDtype());//проверка типа пропуска
         Assertions.assertThat(captured.getId()).isNotNull();
+        Mockito.verify(liveEventService).publishPassStatus(captured.getId(), pass.getTerritory().getId(),
+                PassStatus.DELAYED);
     }
 
     @Test
@@ -110,9 +134,41 @@ class PassServiceImplTest {
         Mockito.verify(passRepository, Mockito.times(1)).findAll(Mockito.any(Specification.class), Mockito.any(Pageable.class));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void scrollPasses_MorePassesThanSize_ReturnPageWithNextCursorWithoutCount() {
+        PassAuto first = PassTestData.getSimpleActiveOneTimePassAutoFor3Hours(new User(),
+                TestUtils.getTerritory(), TestUtils.getCar(TestUtils.getCarBrand()));
+        PassAuto second = PassTestData.getSimpleActiveOneTimePassAutoFor3Hours(new User(),
+                TestUtils.getTerritory(), TestUtils.getCar(TestUtils.getCarBrand()));
+        Mockito.when(passRepository.findBy(Mockito.any(Specification.class), Mockito.any()))
+                .thenReturn(List.of(first, second));
+
+        CursorPage<PassResponseDTO> page = passService.scrollPasses(new CursorParams(null, 1, false),
+                new PassFilterParams(null, null, null, null), null);
+
+        Assertions.assertThat(page.getContent()).hasSize(1);
+        Assertions.assertThat(page.getNextCursor())
+                .isEqualTo(CursorUtils.encode(2, first.getStartTime(), first.getId()));
+        Assertions.assertThat(page.getTotalElements()).isNull();
+        Mockito.verify(passRepository, Mockito.never()).count(Mockito.any(Specification.class));
+    }
+
+    @Test
+    void scrollPasses_InvalidCursor_ThrowException() {
+        CursorParams cursorParams = new CursorParams(CursorUtils.encode("rank", "time"), 10, false);
+        PassFilterParams passFilterParams = new PassFilterParams(null, null, null, null);
+
+        Assertions.assertThatExceptionOfType(InvalidCursorException.class).isThrownBy(() ->
+                passService.scrollPasses(cursorParams, passFilterParams, null));
+
+        Mockito.verifyNoInteractions(passRepository);
+    }
+
     @Test
     void updatePass_AllOk_UpdatePassAndSave() {
-        PassAuto passAuto = PassTestData.getSimpleActiveOneTimePassAutoFor3Hours(new User(), null, null);
+        PassAuto passAuto = PassTestData.getSimpleActiveOneTimePassAutoFor3Hours(new User(),
+                TestUtils.getTerritory(), TestUtils.getCar(TestUtils.getCarBrand()));
         Mockito.when(passRepository.findById(Mockito.any())).thenReturn(Optional.of(passAuto));
         PassUpdateDTO passUpdateDTO = PassTestData.getPassUpdateDTOWithCar();
         Mockito.when(passResolver.updatePass(passUpdateDTO, passAuto)).thenReturn(passAuto);
@@ -128,7 +184,8 @@ class PassServiceImplTest {
 
     @Test
     void updatePass_AllOkNoCommentInDto_UpdatePassAndSave() {
-        PassAuto passAuto = PassTestData.getSimpleActiveOneTimePassAutoFor3Hours(new User(), null, null);
+        PassAuto passAuto = PassTestData.getSimpleActiveOneTimePassAutoFor3Hours(new User(),
+                TestUtils.getTerritory(), TestUtils.getCar(TestUtils.getCarBrand()));
         Mockito.when(passRepository.findById(Mockito.any())).thenReturn(Optional.of(passAuto));
         PassUpdateDTO passUpdateDTO = PassTestData.getPassUpdateDTOWithCar();
         passUpdateDTO.setComment(null);
@@ -142,4 +199,21 @@ class PassServiceImplTest {
                 passUpdateDTO.getTimeType()
         );
     }
+
+    @Test
+    void updatePassStatusByScheduler_AllOk_DelegateToBulkUpdater() {
+        UUID activatedId = UUID.randomUUID();
+        UUID completedId = UUID.randomUUID();
+        Mockito.when(passStatusUpdater.activateDelayedPasses(Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(activatedId));
+        Mockito.when(passStatusUpdater.resolveExpiredPasses(Mockito.any(LocalDateTime.class)))
+                .thenReturn(Map.of(PassStatus.COMPLETED, List.of(completedId)));
+
+        passService.updatePassStatusByScheduler();
+
+        Mockito.verify(plateIndex).refreshPasses(List.of(activatedId));
+        Mockito.verify(plateIndex).refreshPasses(List.of(completedId));
+        Mockito.verify(passStatusTimer).reload();
+        Mockito.verifyNoInteractions(passRepository, crossingRepository);
+    }
 }
@@ -0,0 +1,120 @@
+package ru.ac.checkpointmanager.service.passes;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.ac.checkpointmanager.model.passes.Pass;
+import ru.ac.checkpointmanager.model.passes.PassAuto;
+import ru.ac.checkpointmanager.model.passes.PassStatus;
+import ru.ac.checkpointmanager.projection.PassDeadlineView;
+import ru.ac.checkpointmanager.repository.PassRepository;
+import ru.ac.checkpointmanager.service.event.LiveEventService;
+import ru.ac.checkpointmanager.service.passes.impl.PassStatusTimerImpl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+@ExtendWith(MockitoExtension.class)
+class PassStatusTimerImplTest {
+
+    @Mock
+    PassRepository passRepository;
+
+    @Mock
+    PassStatusUpdater passStatusUpdater;
+
+    @Mock
+    PlateIndex plateIndex;
+
+    @Mock
+    LiveEventService liveEventService;
+
+    PassStatusTimerImpl passStatusTimer;
+
+    @BeforeEach
+    void init() {
+        passStatusTimer = new PassStatusTimerImpl(passRepository, passStatusUpdater, plateIndex, liveEventService,
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)), Duration.ofHours(24));
+    }
+
+    @Test
+    void fire_StartTimeReached_ActivateAndScheduleEndTime() {
+        LocalDateTime now = LocalDateTime.now();
+        Pass pass = getPass(PassStatus.DELAYED, now.minusSeconds(5), now.plusHours(1));
+        passStatusTimer.schedule(pass);
+        Mockito.when(passStatusUpdater.activateDelayedPasses(Mockito.eq(List.of(pass.getId())),
+                Mockito.any(LocalDateTime.class))).thenReturn(List.of(pass.getId()));
+        Mockito.when(passStatusUpdater.resolveExpiredPasses(Mockito.eq(List.of(pass.getId())),
+                Mockito.any(LocalDateTime.class))).thenReturn(Collections.emptyMap());
+        Mockito.when(passRepository.findDeadlinesByIds(Mockito.eq(List.of(pass.getId())), Mockito.anyCollection()))
+                .thenReturn(List.of(new PassDeadlineView(pass.getId(), PassStatus.ACTIVE, pass.getStartTime(),
+                        pass.getEndTime())));
+
+        passStatusTimer.fire();
+        passStatusTimer.fire();
+
+        Mockito.verify(plateIndex).refreshPasses(List.of(pass.getId()));
+        Mockito.verify(passStatusUpdater).activateDelayedPasses(Mockito.anyCollection(),
+                Mockito.any(LocalDateTime.class));
+        Assertions.assertThat(passStatusTimer.size()).isEqualTo(1);
+    }
+
+    @Test
+    void schedule_PassCancelled_RemoveFromTimer() {
+        LocalDateTime now = LocalDateTime.now();
+        Pass pass = getPass(PassStatus.ACTIVE, now.minusHours(1), now.minusSeconds(1));
+        passStatusTimer.schedule(pass);
+        pass.setStatus(PassStatus.CANCELLED);
+
+        passStatusTimer.schedule(pass);
+        passStatusTimer.fire();
+
+        Assertions.assertThat(passStatusTimer.size()).isZero();
+        Mockito.verifyNoInteractions(passStatusUpdater, passRepository);
+    }
+
+    @Test
+    void fire_UpdateFailed_LeaveToReconciliation() {
+        LocalDateTime now = LocalDateTime.now();
+        Pass pass = getPass(PassStatus.ACTIVE, now.minusHours(1), now.minusSeconds(1));
+        passStatusTimer.schedule(pass);
+        Mockito.when(passStatusUpdater.activateDelayedPasses(Mockito.anyCollection(),
+                Mockito.any(LocalDateTime.class))).thenThrow(new IllegalStateException("db is down"));
+
+        passStatusTimer.fire();
+
+        Assertions.assertThat(passStatusTimer.size()).isZero();
+        Mockito.verifyNoInteractions(plateIndex, passRepository);
+    }
+
+    @Test
+    void reload_DeadlinesWithinHorizon_ScheduleAll() {
+        LocalDateTime now = LocalDateTime.now();
+        Mockito.when(passRepository.findDeadlinesBefore(Mockito.any(LocalDateTime.class),
+                Mockito.eq(PassStatus.DELAYED), Mockito.eq(PassStatus.ACTIVE))).thenReturn(List.of(
+                new PassDeadlineView(UUID.randomUUID(), PassStatus.DELAYED, now.plusHours(1), now.plusHours(2)),
+                new PassDeadlineView(UUID.randomUUID(), PassStatus.ACTIVE, now.minusHours(1), now.plusHours(3))));
+
+        passStatusTimer.reload();
+
+        Assertions.assertThat(passStatusTimer.size()).isEqualTo(2);
+    }
+
+    private static Pass getPass(PassStatus status, LocalDateTime startTime, LocalDateTime endTime) {
+        Pass pass = new PassAuto();
+        pass.setId(UUID.randomUUID());
+        pass.setStatus(status);
+        pass.setStartTime(startTime);
+        pass.setEndTime(endTime);
+        return pass;
+    }
+}
@@ -0,0 +1,105 @@
+package ru.ac.checkpointmanager.service.passes;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.ac.checkpointmanager.dto.passes.PlateIndexCheckDTO;
+import ru.ac.checkpointmanager.projection.ActivePassPlateView;
+import ru.ac.checkpointmanager.repository.ActivePassPlateRepository;
+import ru.ac.checkpointmanager.service.passes.impl.PlateIndexImpl;
+import ru.ac.checkpointmanager.util.TestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+class PlateIndexImplTest {
+
+    private static final UUID CAR_ID = UUID.randomUUID();
+
+    @Mock
+    ActivePassPlateRepository activePassPlateRepository;
+
+    @InjectMocks
+    PlateIndexImpl plateIndex;
+
+    @Test
+    void check_CyrillicPlateInDb_FindByLatinPlateWithSeparators() {
+        UUID passId = UUID.randomUUID();
+        mockActivePasses(new ActivePassPlateView(passId, TestUtils.TERR_ID, CAR_ID, "А123ВС77"));
+
+        PlateIndexCheckDTO result = plateIndex.check();
+
+        Assertions.assertThat(result.getIndexed()).isEqualTo(1);
+        Assertions.assertThat(result.getMissing()).isEqualTo(1);
+        Assertions.assertThat(plateIndex.findActivePassIds(TestUtils.TERR_ID, "a 123 bc-77")).containsExactly(passId);
+        Assertions.assertThat(plateIndex.findActivePassIds(UUID.randomUUID(), "A123BC77")).isEmpty();
+    }
+
+    @Test
+    void refreshPasses_PassBecameInactive_RemoveFromIndex() {
+        UUID passId = UUID.randomUUID();
+        UUID otherPassId = UUID.randomUUID();
+        mockActivePasses(new ActivePassPlateView(passId, TestUtils.TERR_ID, CAR_ID, "A123BC77"),
+                new ActivePassPlateView(otherPassId, TestUtils.TERR_ID, CAR_ID, "A123BC77"));
+        plateIndex.check();
+        Mockito.when(activePassPlateRepository.findByPassIds(List.of(passId))).thenReturn(Collections.emptyList());
+
+        plateIndex.refreshPasses(List.of(passId));
+
+        Assertions.assertThat(plateIndex.findActivePassIds(TestUtils.TERR_ID, "A123BC77"))
+                .containsExactly(otherPassId);
+        Assertions.assertThat(plateIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshCar_PlateChanged_MovePassesToNewPlate() {
+        UUID passId = UUID.randomUUID();
+        mockActivePasses(new ActivePassPlateView(passId, TestUtils.TERR_ID, CAR_ID, "A123BC77"));
+        plateIndex.check();
+        Mockito.when(activePassPlateRepository.findPassIdsByCarId(CAR_ID)).thenReturn(List.of(passId));
+        Mockito.when(activePassPlateRepository.findByPassIds(Mockito.anyCollection())).thenReturn(
+                List.of(new ActivePassPlateView(passId, TestUtils.TERR_ID, CAR_ID, "B456EK99")));
+
+        plateIndex.refreshCar(CAR_ID);
+
+        Assertions.assertThat(plateIndex.findActivePassIds(TestUtils.TERR_ID, "A123BC77")).isEmpty();
+        Assertions.assertThat(plateIndex.findActivePassIds(TestUtils.TERR_ID, "В456ЕК99")).containsExactly(passId);
+    }
+
+    @Test
+    void check_IndexDivergedFromDb_RepairAndCountDiscrepancies() {
+        UUID keptId = UUID.randomUUID();
+        UUID deletedId = UUID.randomUUID();
+        UUID addedId = UUID.randomUUID();
+        mockActivePasses(new ActivePassPlateView(keptId, TestUtils.TERR_ID, CAR_ID, "A123BC77"),
+                new ActivePassPlateView(deletedId, TestUtils.TERR_ID, CAR_ID, "A123BC77"));
+        plateIndex.check();
+        mockActivePasses(new ActivePassPlateView(keptId, TestUtils.TERR_ID, CAR_ID, "A123BC77"),
+                new ActivePassPlateView(addedId, TestUtils.TERR_ID, UUID.randomUUID(), "X001XX01"));
+
+        PlateIndexCheckDTO result = plateIndex.check();
+
+        Assertions.assertThat(result).extracting(PlateIndexCheckDTO::getIndexed, PlateIndexCheckDTO::getMissing,
+                PlateIndexCheckDTO::getStale).containsExactly(2, 1, 1);
+        Assertions.assertThat(plateIndex.findActivePassIds(TestUtils.TERR_ID, "A123BC77")).containsExactly(keptId);
+        Assertions.assertThat(plateIndex.findActivePassIds(TestUtils.TERR_ID, "X001XX01")).containsExactly(addedId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockActivePasses(ActivePassPlateView... views) {
+        Mockito.doAnswer(invocation -> {
+            Consumer<ActivePassPlateView> consumer = invocation.getArgument(0);
+            for (ActivePassPlateView view : views) {
+                consumer.accept(view);
+            }
+            return null;
+        }).when(activePassPlateRepository).streamAll(Mockito.any(Consumer.class));
+    }
+}
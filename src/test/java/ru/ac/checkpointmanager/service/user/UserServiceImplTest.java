@@ -12,11 +12,11 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.mail.MailSendException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -46,6 +46,7 @@ import ru.ac.checkpointmanager.repository.PhoneRepository;
 import ru.ac.checkpointmanager.repository.UserRepository;
 import ru.ac.checkpointmanager.security.authfacade.AuthFacade;
 import ru.ac.checkpointmanager.security.jwt.JwtService;
+import ru.ac.checkpointmanager.security.principal.PrincipalCache;
 import ru.ac.checkpointmanager.service.email.EmailService;
 import ru.ac.checkpointmanager.util.PassTestData;
 import ru.ac.checkpointmanager.util.TestUtils;
@@ -79,11 +80,13 @@ class UserServiceImplTest {
     private EmailService emailService;
 
     @Mock
-    private RedisCacheManager cacheManager;
+    private CacheManager cacheManager;
     @Mock
     private Cache cache;
     @Mock
     private JwtService jwtService;
+    @Mock
+    private PrincipalCache principalCache;
 
     @InjectMocks
     UserServiceImpl userService;
@@ -169,13 +172,13 @@ class UserServiceImplTest {
         List<User> users = List.of(TestUtils.getUser());
         List<UserResponseDTO> userResponseDTOS = List.of(TestUtils.getUserResponseDTO());
 
-        Mockito.when(userRepository.findUserByFullNameContainingIgnoreCase(anyString())).thenReturn(users);
+        Mockito.when(userRepository.searchByFullName(anyString())).thenReturn(users);
         Mockito.when(userMapper.toUserResponseDTOs(users)).thenReturn(userResponseDTOS);
 
         Collection<UserResponseDTO> result = userService.findByName(anyString());
         Assertions.assertThat(result).isNotEmpty();
         Assertions.assertThat(users).hasSameSizeAs(userResponseDTOS).hasSize(1);
-        Mockito.verify(userRepository).findUserByFullNameContainingIgnoreCase(anyString());
+        Mockito.verify(userRepository).searchByFullName(anyString());
         Mockito.verify(userMapper).toUserResponseDTOs(users);
     }
 
@@ -184,11 +187,11 @@ class UserServiceImplTest {
         List<User> users = Collections.emptyList();
         List<UserResponseDTO> userResponseDTOS = Collections.emptyList();
 
-        Mockito.when(userRepository.findUserByFullNameContainingIgnoreCase(anyString())).thenReturn(users);
+        Mockito.when(userRepository.searchByFullName(anyString())).thenReturn(users);
         Mockito.when(userMapper.toUserResponseDTOs(users)).thenReturn(userResponseDTOS);
 
         Assertions.assertThatNoException().isThrownBy(() -> userService.findByName(anyString()));
-        Mockito.verify(userRepository).findUserByFullNameContainingIgnoreCase(anyString());
+        Mockito.verify(userRepository).searchByFullName(anyString());
         Mockito.verify(userMapper).toUserResponseDTOs(users);
     }
 
@@ -373,12 +376,14 @@ class UserServiceImplTest {
         user.setPassword(TestUtils.PASSWORD);
 
         Mockito.when(authenticationFacade.getCurrentUser()).thenReturn(user);
+        Mockito.when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         Mockito.when(passwordEncoder.matches(user.getPassword(), request.getCurrentPassword())).thenReturn(true);
         Mockito.when(passwordEncoder.encode(newPassword)).thenReturn(newPassword);
 
         userService.changePassword(request);
         Mockito.verify(passwordEncoder).encode(newPassword);
         Mockito.verify(userRepository).save(user);
+        Mockito.verify(principalCache).invalidate(user.getId());
         Assertions.assertThat(user.getPassword()).isEqualTo(newPassword);
     }
 
@@ -386,7 +391,9 @@ class UserServiceImplTest {
     void shouldThrowExceptionIfPassedPasswordDoesntMatchCurrent() {
         NewPasswordDTO request = TestUtils.getNewPasswordDTO();
 
-        Mockito.when(authenticationFacade.getCurrentUser()).thenReturn(TestUtils.getUser());
+        User user = TestUtils.getUser();
+        Mockito.when(authenticationFacade.getCurrentUser()).thenReturn(user);
+        Mockito.when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         Mockito.when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
 
         Assertions.assertThatExceptionOfType(MismatchCurrentPasswordException.class)
@@ -400,7 +407,9 @@ class UserServiceImplTest {
         NewPasswordDTO request = TestUtils.getNewPasswordDTO();
         request.setConfirmationPassword("1");
 
-        Mockito.when(authenticationFacade.getCurrentUser()).thenReturn(TestUtils.getUser());
+        User user = TestUtils.getUser();
+        Mockito.when(authenticationFacade.getCurrentUser()).thenReturn(user);
+        Mockito.when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
         Mockito.when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
         Assertions.assertThatExceptionOfType(PasswordConfirmationException.class)
                 .isThrownBy(() -> userService.changePassword(request))
@@ -512,6 +521,7 @@ class UserServiceImplTest {
 
         Assertions.assertThat(user.getRole()).isEqualTo(Role.MANAGER);
         Mockito.verify(userRepository).save(user);
+        Mockito.verify(principalCache).invalidate(userId);
     }
 
     @Test
@@ -584,6 +594,7 @@ class UserServiceImplTest {
         Assertions.assertThat(user.getIsBlocked()).isTrue();
         Assertions.assertThat(result).isNotNull();
         Mockito.verify(userRepository).save(user);
+        Mockito.verify(principalCache).invalidate(userId);
     }
 
     @Test
@@ -607,6 +618,7 @@ class UserServiceImplTest {
         userService.blockById(userId);
 
         Mockito.verify(userRepository).blockById(userId);
+        Mockito.verify(principalCache).invalidate(userId);
     }
 
     @Test
@@ -670,6 +682,7 @@ class UserServiceImplTest {
 
         userService.deleteUser(userId);
         Mockito.verify(userRepository).deleteById(userId);
+        Mockito.verify(principalCache).invalidate(userId);
     }
 
     @Test
@@ -134,7 +134,7 @@ class VisitorServiceImplTest {
     @Test
     void findByNamePart_AllOk_ReturnListOfDto() {
         Visitor visitorUnsaved = TestUtils.getVisitorRandomUUID();
-        Mockito.when(visitorRepository.findByNameContainingIgnoreCase(Mockito.any()))
+        Mockito.when(visitorRepository.searchByName(Mockito.any()))
                 .thenReturn(List.of(visitorUnsaved));
 
         List<VisitorDTO> found = visitorService.findByNamePart("namepart");
@@ -144,7 +144,7 @@ class VisitorServiceImplTest {
 
     @Test
     void findByNamePart_NoVisitors_ReturnEmptyList() {
-        Mockito.when(visitorRepository.findByNameContainingIgnoreCase(Mockito.any()))
+        Mockito.when(visitorRepository.searchByName(Mockito.any()))
                 .thenReturn(Collections.emptyList());
 
         List<VisitorDTO> found = visitorService.findByNamePart("namepart");
@@ -155,7 +155,7 @@ class VisitorServiceImplTest {
     @Test
     void findByPhonePart_AllOk_ReturnListOfDto() {
         Visitor visitorUnsaved = TestUtils.getVisitorRandomUUID();
-        Mockito.when(visitorRepository.findByPhoneContaining(Mockito.any()))
+        Mockito.when(visitorRepository.searchByPhone(Mockito.any()))
                 .thenReturn(List.of(visitorUnsaved));
 
         List<VisitorDTO> found = visitorService.findByPhonePart("+7916");
@@ -165,7 +165,7 @@ class VisitorServiceImplTest {
 
     @Test
     void findByPhonePart_NoVisitors_ReturnEmptyList() {
-        Mockito.when(visitorRepository.findByPhoneContaining(Mockito.any()))
+        Mockito.when(visitorRepository.searchByPhone(Mockito.any()))
                 .thenReturn(Collections.emptyList());
 
         List<VisitorDTO> found = visitorService.findByPhonePart("+7916");
@@ -7,10 +7,13 @@ import ru.ac.checkpointmanager.model.Territory;
 import ru.ac.checkpointmanager.model.User;
 import ru.ac.checkpointmanager.model.Visitor;
 import ru.ac.checkpointmanager.model.car.Car;
+import ru.ac.checkpointmanager.model.checkpoints.CheckpointType;
+import ru.ac.checkpointmanager.model.enums.Direction;
 import ru.ac.checkpointmanager.model.passes.PassAuto;
 import ru.ac.checkpointmanager.model.passes.PassStatus;
 import ru.ac.checkpointmanager.model.passes.PassTimeType;
 import ru.ac.checkpointmanager.model.passes.PassWalk;
+import ru.ac.checkpointmanager.projection.PassCrossingView;
 import ru.ac.checkpointmanager.specification.model.PassAuto_;
 import ru.ac.checkpointmanager.specification.model.PassWalk_;
 
@@ -131,4 +134,20 @@ public class PassTestData {
         passWalk.setId(UUID.randomUUID());
         return passWalk;
     }
+
+    public static PassCrossingView getActivePassAutoCrossingView(PassTimeType timeType, Direction expectedDirection,
+                                                                 boolean used) {
+        return new PassCrossingView(
+                PASS_ID,
+                PassStatus.ACTIVE,
+                timeType,
+                expectedDirection,
+                PassAuto_.DTYPE,
+                TestUtils.TERR_ID,
+                used,
+                TestUtils.CHECKPOINT_ID,
+                TestUtils.TERR_ID,
+                CheckpointType.UNIVERSAL
+        );
+    }
 }
@@ -171,7 +171,7 @@ public class TestUtils {
 
     public static Crossing getCrossing(Pass pass, Checkpoint checkpoint, Direction direction) {
         return new Crossing(CROSSING_ID, pass, checkpoint, ZonedDateTime.now(), LocalDateTime.now(),
-                direction
+                direction, null
         );
     }
 
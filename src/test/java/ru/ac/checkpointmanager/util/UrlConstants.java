@@ -12,6 +12,8 @@ public class UrlConstants {
 
     public static final String CAR_PHONE_URL = CAR_URL + "/phone";
 
+    public static final String CACHE_URL = "/api/v1/cache";
+
     public static final String AVATAR_URL = "/api/v1/avatars";
 
     public static final String AVATAR_AVATARS_URL = "/api/v1/avatars/{avatarId}";
@@ -41,6 +43,8 @@ public class UrlConstants {
 
     public static final String PASS_URL_TERRITORY = PASS_URL + "/territories/{terrId}";
 
+    public static final String PASS_URL_SCROLL = PASS_URL + "/scroll";
+
     public static final String TERR_URL = "/api/v1/territories";
 
     public static final String TERR_USERS_URL = TERR_URL + "/%s/users";
@@ -87,6 +91,14 @@ public class UrlConstants {
 
     public static final String EVENT_TERRITORY_URL = EVENT_URL + "/territories/{territoryId}";
 
+    public static final String EVENT_TERRITORY_SCROLL_URL = EVENT_TERRITORY_URL + "/scroll";
+
+    public static final String EVENT_TERRITORY_EXPORT_URL = EVENT_TERRITORY_URL + "/export";
+
+    public static final String EVENT_STREAM_URL = EVENT_URL + "/stream";
+
+    public static final String EVENT_TERRITORY_STREAM_URL = EVENT_TERRITORY_URL + "/stream";
+
     private UrlConstants() {
     }
 }
@@ -0,0 +1,66 @@
+package ru.ac.checkpointmanager.utils;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ExpiringMapTest {
+
+    private final AtomicLong clock = new AtomicLong(1000);
+
+    @Test
+    void get_EntryExpired_ReturnNullAndRemove() {
+        ExpiringMap<String, Long> map = new ExpiringMap<>(10, Long::longValue, clock::get);
+        map.put("expired", clock.get());
+        map.put("alive", clock.get() + 10);
+
+        Assertions.assertThat(map.get("expired")).isNull();
+        Assertions.assertThat(map.get("alive")).isEqualTo(clock.get() + 10);
+        Assertions.assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void put_MapIsFull_EvictExpiredFirst() {
+        ExpiringMap<String, Long> map = new ExpiringMap<>(4, Long::longValue, clock::get);
+        map.put("expiring", clock.get() + 1);
+        for (int i = 0; i < 3; i++) {
+            map.put("alive" + i, clock.get() + 10);
+        }
+        clock.addAndGet(1);
+
+        int dropped = map.put("new", clock.get() + 10);
+
+        Assertions.assertThat(dropped).isZero();
+        Assertions.assertThat(map.size()).isEqualTo(4);
+        Assertions.assertThat(map.get("alive0")).isNotNull();
+        Assertions.assertThat(map.get("new")).isNotNull();
+    }
+
+    @Test
+    void put_MapIsFullOfAliveEntries_DropQuarterAndKeepSizeBounded() {
+        ExpiringMap<String, Long> map = new ExpiringMap<>(8, Long::longValue, clock::get);
+        for (int i = 0; i < 8; i++) {
+            map.put("alive" + i, clock.get() + 10);
+        }
+
+        Assertions.assertThat(map.put("alive0", clock.get() + 20)).as("replace existing key").isZero();
+        Assertions.assertThat(map.put("new", clock.get() + 10)).isEqualTo(2);
+        Assertions.assertThat(map.size()).isEqualTo(7);
+        Assertions.assertThat(map.get("new")).isNotNull();
+    }
+
+    @Test
+    void forEach_SomeEntriesExpired_VisitOnlyAliveEntries() {
+        ExpiringMap<String, Long> map = new ExpiringMap<>(10, Long::longValue, clock::get);
+        map.put("expired", clock.get() - 1);
+        map.put("alive", clock.get() + 10);
+
+        Map<String, Long> visited = new HashMap<>();
+        map.forEach(visited::put);
+
+        Assertions.assertThat(visited).containsOnlyKeys("alive");
+    }
+}
@@ -0,0 +1,63 @@
+package ru.ac.checkpointmanager.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class MethodLogTest {
+
+    Logger logger;
+
+    List<String> messages = new ArrayList<>();
+
+    /**
+     * Форматирует сообщение во время вызова логгера, как appender'ы logback
+     */
+    AppenderBase<ILoggingEvent> appender = new AppenderBase<>() {
+        @Override
+        protected void append(ILoggingEvent event) {
+            messages.add(event.getFormattedMessage());
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        logger = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(MethodLogTest.class);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+    }
+
+    @Test
+    void caller_LevelEnabled_FormatCallingMethodName() {
+        logger.setLevel(Level.DEBUG);
+
+        logger.debug("Method {}", MethodLog.caller());
+
+        Assertions.assertThat(messages).containsExactly("Method caller_LevelEnabled_FormatCallingMethodName");
+    }
+
+    @Test
+    void caller_LevelDisabled_NothingLogged() {
+        logger.setLevel(Level.INFO);
+
+        logger.debug("Method {}", MethodLog.caller());
+
+        Assertions.assertThat(messages).isEmpty();
+    }
+}
@@ -0,0 +1,100 @@
+package ru.ac.checkpointmanager.utils;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class TimerWheelTest {
+
+    private static final long TICK = 1000;
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void advance_DeadlineReached_FireOnceNotEarlier() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, START);
+        wheel.schedule("a", START + 2500);
+
+        Assertions.assertThat(wheel.advance(START + 2000)).isEmpty();
+        Assertions.assertThat(wheel.advance(START + 3000)).containsExactly("a");
+        Assertions.assertThat(wheel.advance(START + 10_000)).isEmpty();
+        Assertions.assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_DeadlinesOnAllLevels_FireAtDeadlineTick() {
+        TimerWheel<Long> wheel = new TimerWheel<>(TICK, START);
+        long[] delays = {1, 63, 64, 65, 4095, 4096, 4097, 262_143, 262_144, 300_000};
+        for (long delay : delays) {
+            wheel.schedule(delay, START + delay * TICK);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        for (long second = 1; second <= 300_000 && fired.size() < delays.length; second++) {
+            for (Long key : wheel.advance(START + second * TICK)) {
+                Assertions.assertThat(key).as("fired at second %d", second).isEqualTo(second);
+                fired.add(key);
+            }
+        }
+
+        Assertions.assertThat(fired).hasSize(delays.length);
+    }
+
+    @Test
+    void advance_DeadlineOnTopLevel_FireAtDeadlineTick() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, START);
+        wheel.schedule("a", START + 16_000_000 * TICK);
+
+        Assertions.assertThat(wheel.advance(START + 15_999_999 * TICK)).isEmpty();
+        Assertions.assertThat(wheel.advance(START + 16_000_000 * TICK)).containsExactly("a");
+    }
+
+    @Test
+    void advance_LongPause_FireAllOverdue() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, START);
+        wheel.schedule("a", START + 5 * TICK);
+        wheel.schedule("b", START + 5000 * TICK);
+        wheel.schedule("c", START + 9000 * TICK);
+
+        Assertions.assertThat(wheel.advance(START + 6000 * TICK)).containsExactlyInAnyOrder("a", "b");
+        Assertions.assertThat(wheel.contains("c")).isTrue();
+    }
+
+    @Test
+    void schedule_DeadlineInPast_FireOnNextAdvance() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, START);
+        wheel.schedule("a", START - 10_000);
+
+        Assertions.assertThat(wheel.advance(START)).containsExactly("a");
+    }
+
+    @Test
+    void schedule_Reschedule_FireOnlyAtNewDeadline() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, START);
+        wheel.schedule("a", START + 10 * TICK);
+        wheel.schedule("a", START + 100 * TICK);
+
+        Assertions.assertThat(wheel.advance(START + 50 * TICK)).isEmpty();
+        Assertions.assertThat(wheel.advance(START + 100 * TICK)).containsExactly("a");
+    }
+
+    @Test
+    void cancel_Scheduled_NotFired() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, START);
+        wheel.schedule("a", START + 10 * TICK);
+
+        Assertions.assertThat(wheel.cancel("a")).isTrue();
+        Assertions.assertThat(wheel.cancel("a")).isFalse();
+        Assertions.assertThat(wheel.advance(START + 20 * TICK)).isEmpty();
+    }
+
+    @Test
+    void schedule_BeyondSpan_NotAccepted() {
+        TimerWheel<String> wheel = new TimerWheel<>(TICK, START);
+
+        Assertions.assertThat(wheel.schedule("a", START + (1L << 24) * TICK + TICK)).isFalse();
+        Assertions.assertThat(wheel.contains("a")).isFalse();
+    }
+}
@@ -1,6 +1,7 @@
 package ru.ac.checkpointmanager.validation.it;
 
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -19,8 +20,12 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.ac.checkpointmanager.config.OpenAllEndpointsTestConfiguration;
 import ru.ac.checkpointmanager.config.ValidationTestConfiguration;
 import ru.ac.checkpointmanager.controller.CrossingController;
+import ru.ac.checkpointmanager.dto.CrossingBatchItemDTO;
+import ru.ac.checkpointmanager.dto.CrossingBatchRequestDTO;
 import ru.ac.checkpointmanager.dto.CrossingRequestDTO;
 import ru.ac.checkpointmanager.model.avatar.AvatarProperties;
+import ru.ac.checkpointmanager.model.enums.Direction;
+import ru.ac.checkpointmanager.service.crossing.CrossingBatchService;
 import ru.ac.checkpointmanager.service.crossing.CrossingService;
 import ru.ac.checkpointmanager.util.PassTestData;
 import ru.ac.checkpointmanager.util.CheckResultActionsUtils;
@@ -28,6 +33,8 @@ import ru.ac.checkpointmanager.util.TestUtils;
 import ru.ac.checkpointmanager.util.UrlConstants;
 
 import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
 import java.util.stream.Stream;
 
 @WebMvcTest(CrossingController.class)
@@ -38,12 +45,16 @@ public class CrossingControllerValidationIntegrationTest {
 
     public static final String IN = "/in";
     public static final String OUT = "/out";
+    public static final String BATCH = "/batch";
     @Autowired
     MockMvc mockMvc;
 
     @MockBean
     CrossingService crossingService;
 
+    @MockBean
+    CrossingBatchService crossingBatchService;
+
     @ParameterizedTest
     @MethodSource("getWrongZdt")
     @SneakyThrows
@@ -95,6 +106,38 @@ public class CrossingControllerValidationIntegrationTest {
         CheckResultActionsUtils.checkCommonValidationFields(resultActions);
     }
 
+    @Test
+    @SneakyThrows
+    void shouldReturnValidationErrorWithEmptyBatch() {
+        CrossingBatchRequestDTO batchRequestDTO = new CrossingBatchRequestDTO(Collections.emptyList());
+        String batchDtoString = TestUtils.jsonStringFromObject(batchRequestDTO);
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders.post(UrlConstants.CROSSING_URL + BATCH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchDtoString))
+                .andExpect(MockMvcResultMatchers.status().is4xxClientError())
+                .andExpect(MockMvcResultMatchers.jsonPath(TestUtils.JSON_VIOLATIONS_FIELD.formatted(0))
+                        .value("crossings"));
+
+        CheckResultActionsUtils.checkCommonValidationFields(resultActions);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReturnValidationErrorWithBlankIdempotencyKeyInBatch() {
+        CrossingBatchRequestDTO batchRequestDTO = new CrossingBatchRequestDTO(List.of(
+                new CrossingBatchItemDTO(" ", PassTestData.PASS_ID, TestUtils.CHECKPOINT_ID, ZonedDateTime.now(),
+                        Direction.IN)));
+        String batchDtoString = TestUtils.jsonStringFromObject(batchRequestDTO);
+        ResultActions resultActions = mockMvc.perform(MockMvcRequestBuilders.post(UrlConstants.CROSSING_URL + BATCH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchDtoString))
+                .andExpect(MockMvcResultMatchers.status().is4xxClientError())
+                .andExpect(MockMvcResultMatchers.jsonPath(TestUtils.JSON_VIOLATIONS_FIELD.formatted(0))
+                        .value("crossings[0].idempotencyKey"));
+
+        CheckResultActionsUtils.checkCommonValidationFields(resultActions);
+    }
+
 
     private static Stream<Arguments> getWrongZdt() {
         return Stream.of(
@@ -25,7 +25,9 @@ import ru.ac.checkpointmanager.dto.CarDTO;
 import ru.ac.checkpointmanager.dto.passes.PassCreateDTO;
 import ru.ac.checkpointmanager.dto.passes.PassUpdateDTO;
 import ru.ac.checkpointmanager.mapper.PassMapper;
+import ru.ac.checkpointmanager.service.export.ExportService;
 import ru.ac.checkpointmanager.service.passes.PassService;
+import ru.ac.checkpointmanager.service.passes.PlateIndex;
 import ru.ac.checkpointmanager.util.MockMvcUtils;
 import ru.ac.checkpointmanager.util.PassTestData;
 import ru.ac.checkpointmanager.util.CheckResultActionsUtils;
@@ -68,6 +70,12 @@ class PassControllerValidationIntegrationTest {
     @MockBean
     PassMapper passMapper;
 
+    @MockBean
+    ExportService exportService;
+
+    @MockBean
+    PlateIndex plateIndex;
+
     @Test
     @SneakyThrows
     void addPass_NullCarAndVisitorFields_HandleExceptionAndReturnValidationError() { // testing CarOrVisitorFieldsCheck